@@ -39,6 +39,7 @@ import org.gradle.api.services.internal.BuildServiceProvider
 import org.gradle.api.services.internal.RegisteredBuildServiceProvider
 import org.gradle.build.event.BuildEventsListenerRegistry
 import org.gradle.caching.configuration.BuildCache
+import org.gradle.caching.configuration.BuildCacheCompression
 import org.gradle.execution.plan.Node
 import org.gradle.execution.plan.ScheduledWork
 import org.gradle.execution.plan.TaskNode
@@ -834,6 +835,7 @@ class ConfigurationCacheState(
             write(buildCache.local)
             write(buildCache.remote)
             write(buildCache.registrations)
+            write(buildCache.compression.get())
         }
     }
 
@@ -847,6 +849,7 @@ class ConfigurationCacheState(
             buildCache.local = readNonNull()
             buildCache.remote = read() as BuildCache?
             buildCache.registrations = readNonNull()
+            buildCache.compression.set(readNonNull<BuildCacheCompression>())
         }
         RootBuildCacheControllerSettingsProcessor.process(gradle)
     }
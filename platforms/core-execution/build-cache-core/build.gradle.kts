@@ -12,6 +12,7 @@ dependencies {
     api(projects.buildCachePackaging)
     api(projects.buildCacheSpi)
     api(projects.buildOperations)
+    api(projects.buildOption)
     api(projects.concurrent)
     api(projects.coreApi)
     api(projects.files)
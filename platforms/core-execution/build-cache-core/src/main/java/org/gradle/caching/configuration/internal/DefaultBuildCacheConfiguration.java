@@ -20,8 +20,11 @@
 import com.google.common.collect.Sets;
 import org.gradle.api.Action;
 import org.gradle.api.GradleException;
+import org.gradle.api.internal.provider.PropertyFactory;
+import org.gradle.api.provider.Property;
 import org.gradle.caching.BuildCacheServiceFactory;
 import org.gradle.caching.configuration.BuildCache;
+import org.gradle.caching.configuration.BuildCacheCompression;
 import org.gradle.caching.local.DirectoryBuildCache;
 import org.gradle.internal.Actions;
 import org.gradle.internal.Cast;
@@ -37,14 +40,16 @@ public class DefaultBuildCacheConfiguration implements BuildCacheConfigurationIn
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultBuildCacheConfiguration.class);
 
     private final Instantiator instantiator;
+    private final Property<BuildCacheCompression> compression;
 
     private DirectoryBuildCache local;
     private BuildCache remote;
 
     private Set<BuildCacheServiceRegistration> registrations;
 
-    public DefaultBuildCacheConfiguration(Instantiator instantiator, List<BuildCacheServiceRegistration> allBuiltInBuildCacheServices) {
+    public DefaultBuildCacheConfiguration(Instantiator instantiator, PropertyFactory propertyFactory, List<BuildCacheServiceRegistration> allBuiltInBuildCacheServices) {
         this.instantiator = instantiator;
+        this.compression = propertyFactory.property(BuildCacheCompression.class).convention(BuildCacheCompression.GZIP);
         this.registrations = Sets.newHashSet(allBuiltInBuildCacheServices);
         this.local = createLocalCacheConfiguration(instantiator, registrations);
     }
@@ -101,6 +106,11 @@ public void remote(Action<? super BuildCache> configuration) {
         configuration.execute(remote);
     }
 
+    @Override
+    public Property<BuildCacheCompression> getCompression() {
+        return compression;
+    }
+
     @Override
     public Set<BuildCacheServiceRegistration> getRegistrations() {
         return registrations;
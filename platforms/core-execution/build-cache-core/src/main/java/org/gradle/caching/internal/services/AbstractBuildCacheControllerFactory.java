@@ -24,6 +24,7 @@
 import org.gradle.caching.BuildCacheService;
 import org.gradle.caching.BuildCacheServiceFactory;
 import org.gradle.caching.configuration.BuildCache;
+import org.gradle.caching.configuration.BuildCacheCompression;
 import org.gradle.caching.configuration.internal.BuildCacheConfigurationInternal;
 import org.gradle.caching.internal.FinalizeBuildCacheConfigurationBuildOperationType;
 import org.gradle.caching.internal.controller.BuildCacheController;
@@ -78,7 +79,8 @@ public AbstractBuildCacheControllerFactory(
     abstract protected BuildCacheController doCreateController(
         Path buildIdentityPath,
         @Nullable DescribedBuildCacheService<DirectoryBuildCache, L> localDescribedService,
-        @Nullable DescribedBuildCacheService<BuildCache, BuildCacheService> remoteDescribedService
+        @Nullable DescribedBuildCacheService<BuildCache, BuildCacheService> remoteDescribedService,
+        BuildCacheCompression compression
     );
 
     @Override
@@ -125,7 +127,7 @@ public BuildCacheController call(BuildOperationContext context) {
                     LOGGER.warn("Using the build cache is enabled, but no build caches are configured or enabled.");
                     return NoOpBuildCacheController.INSTANCE;
                 } else {
-                    return doCreateController(buildIdentityPath, localDescribedService, remoteDescribedService);
+                    return doCreateController(buildIdentityPath, localDescribedService, remoteDescribedService, buildCacheConfiguration.getCompression().get());
                 }
             }
 
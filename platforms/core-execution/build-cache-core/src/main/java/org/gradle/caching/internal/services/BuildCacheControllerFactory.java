@@ -27,5 +27,15 @@
 public interface BuildCacheControllerFactory {
     String REMOTE_CONTINUE_ON_ERROR_PROPERTY = "org.gradle.unsafe.build-cache.remote-continue-on-error";
 
+    /**
+     * When set to {@code true}, packed entries are stored in the build cache on background threads instead of on the worker that produced them.
+     */
+    String ASYNC_STORE_PROPERTY = "org.gradle.unsafe.build-cache.async-store";
+
+    /**
+     * Maximum number of packed entries waiting to be stored when {@link #ASYNC_STORE_PROPERTY} is enabled.
+     */
+    String ASYNC_STORE_MAX_PENDING_PROPERTY = "org.gradle.unsafe.build-cache.async-store.max-pending";
+
     BuildCacheController createController(Path buildIdentityPath, BuildCacheConfigurationInternal buildCacheConfiguration, InstanceGenerator instanceGenerator);
 }
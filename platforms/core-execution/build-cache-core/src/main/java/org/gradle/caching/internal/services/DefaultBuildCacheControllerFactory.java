@@ -22,14 +22,19 @@
 import org.gradle.api.logging.configuration.ShowStacktrace;
 import org.gradle.caching.BuildCacheService;
 import org.gradle.caching.configuration.BuildCache;
+import org.gradle.caching.configuration.BuildCacheCompression;
+import org.gradle.caching.internal.controller.BackgroundStoreQueue;
 import org.gradle.caching.internal.controller.BuildCacheController;
 import org.gradle.caching.internal.controller.DefaultBuildCacheController;
 import org.gradle.caching.internal.controller.service.BuildCacheServicesConfiguration;
 import org.gradle.caching.internal.origin.OriginMetadataFactory;
+import org.gradle.caching.internal.packaging.BuildCacheEntryCompression;
 import org.gradle.caching.internal.packaging.BuildCacheEntryPacker;
+import org.gradle.caching.internal.packaging.impl.CompressingBuildCacheEntryPacker;
 import org.gradle.caching.local.DirectoryBuildCache;
 import org.gradle.caching.local.internal.DirectoryBuildCacheService;
 import org.gradle.internal.concurrent.BlockingNotifier;
+import org.gradle.internal.concurrent.ExecutorFactory;
 import org.gradle.internal.operations.BuildOperationProgressEventEmitter;
 import org.gradle.internal.operations.BuildOperationRunner;
 import org.gradle.util.Path;
@@ -37,10 +42,14 @@
 
 public class DefaultBuildCacheControllerFactory extends AbstractBuildCacheControllerFactory<DirectoryBuildCacheService> {
 
+    private static final int ASYNC_STORE_CONCURRENCY = 2;
+    private static final int DEFAULT_ASYNC_STORE_MAX_PENDING = 8;
+
     private final TemporaryFileProvider temporaryFileProvider;
     private final BuildCacheEntryPacker packer;
     private final BuildOperationProgressEventEmitter buildOperationProgressEmitter;
     private final BlockingNotifier blockingNotifier;
+    private final ExecutorFactory executorFactory;
 
     public DefaultBuildCacheControllerFactory(
         StartParameter startParameter,
@@ -50,7 +59,8 @@ public DefaultBuildCacheControllerFactory(
         StringInterner stringInterner,
         TemporaryFileProvider temporaryFileProvider,
         BuildCacheEntryPacker packer,
-        BlockingNotifier blockingNotifier
+        BlockingNotifier blockingNotifier,
+        ExecutorFactory executorFactory
     ) {
         super(
             startParameter,
@@ -62,13 +72,15 @@ public DefaultBuildCacheControllerFactory(
         this.packer = packer;
         this.buildOperationProgressEmitter = buildOperationProgressEmitter;
         this.blockingNotifier = blockingNotifier;
+        this.executorFactory = executorFactory;
     }
 
     @Override
     protected BuildCacheController doCreateController(
         Path buildPath,
         @Nullable DescribedBuildCacheService<DirectoryBuildCache, DirectoryBuildCacheService> localDescribedService,
-        @Nullable DescribedBuildCacheService<BuildCache, BuildCacheService> remoteDescribedService
+        @Nullable DescribedBuildCacheService<BuildCache, BuildCacheService> remoteDescribedService,
+        BuildCacheCompression compression
     ) {
         BuildCacheServicesConfiguration config = toConfiguration(
             buildPath,
@@ -86,9 +98,40 @@ protected BuildCacheController doCreateController(
             temporaryFileProvider::createTemporaryFile,
             logStackTraces,
             !Boolean.getBoolean(REMOTE_CONTINUE_ON_ERROR_PROPERTY),
-            packer,
+            new CompressingBuildCacheEntryPacker(packer, toEntryCompression(compression)),
             originMetadataFactory,
-            stringInterner
+            stringInterner,
+            createBackgroundStoreQueue()
+        );
+    }
+
+    private static BuildCacheEntryCompression toEntryCompression(BuildCacheCompression compression) {
+        switch (compression) {
+            case GZIP:
+                return BuildCacheEntryCompression.GZIP;
+            case GZIP_FAST:
+                return BuildCacheEntryCompression.GZIP_FAST;
+            case NONE:
+                return BuildCacheEntryCompression.NONE;
+            case ZSTD:
+                return BuildCacheEntryCompression.ZSTD;
+            case LZ4:
+                return BuildCacheEntryCompression.LZ4;
+            default:
+                throw new IllegalArgumentException("Unknown build cache compression: " + compression);
+        }
+    }
+
+    @Nullable
+    private BackgroundStoreQueue createBackgroundStoreQueue() {
+        if (!Boolean.getBoolean(ASYNC_STORE_PROPERTY)) {
+            return null;
+        }
+        return new BackgroundStoreQueue(
+            executorFactory,
+            blockingNotifier,
+            ASYNC_STORE_CONCURRENCY,
+            Integer.getInteger(ASYNC_STORE_MAX_PENDING_PROPERTY, DEFAULT_ASYNC_STORE_MAX_PENDING)
         );
     }
 
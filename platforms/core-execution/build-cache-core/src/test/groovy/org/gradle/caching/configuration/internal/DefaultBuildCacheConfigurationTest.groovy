@@ -19,9 +19,11 @@ package org.gradle.caching.configuration.internal
 import org.gradle.caching.BuildCacheServiceFactory
 import org.gradle.caching.configuration.AbstractBuildCache
 import org.gradle.caching.configuration.BuildCache
+import org.gradle.caching.configuration.BuildCacheCompression
 import org.gradle.caching.local.DirectoryBuildCache
 import org.gradle.caching.local.internal.DirectoryBuildCacheServiceFactory
 import org.gradle.internal.reflect.Instantiator
+import org.gradle.util.TestUtil
 import spock.lang.Specification
 
 class DefaultBuildCacheConfigurationTest extends Specification {
@@ -101,12 +103,17 @@ class DefaultBuildCacheConfigurationTest extends Specification {
         ex.message == "A type for the remote build cache must be configured first."
     }
 
+    def 'uses gzip compression by default'() {
+        expect:
+        createConfig().compression.get() == BuildCacheCompression.GZIP
+    }
+
     static class CustomBuildCache extends AbstractBuildCache {}
 
     static class OtherCustomBuildCache extends AbstractBuildCache {}
 
     private def createConfig() {
-        return new DefaultBuildCacheConfiguration(instantiator, [
+        return new DefaultBuildCacheConfiguration(instantiator, TestUtil.propertyFactory(), [
             new DefaultBuildCacheServiceRegistration(DirectoryBuildCache, DirectoryBuildCacheServiceFactory),
             new DefaultBuildCacheServiceRegistration(CustomBuildCache, BuildCacheServiceFactory),
             new DefaultBuildCacheServiceRegistration(OtherCustomBuildCache, BuildCacheServiceFactory)
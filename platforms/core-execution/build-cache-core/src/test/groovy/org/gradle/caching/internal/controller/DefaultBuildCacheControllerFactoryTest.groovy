@@ -35,6 +35,7 @@ import org.gradle.caching.internal.services.DefaultBuildCacheControllerFactory
 import org.gradle.caching.local.DirectoryBuildCache
 import org.gradle.caching.local.internal.LocalBuildCacheService
 import org.gradle.internal.concurrent.BlockingNotifier
+import org.gradle.internal.concurrent.ExecutorFactory
 import org.gradle.internal.hash.HashCode
 import org.gradle.internal.operations.NoOpBuildOperationProgressEventEmitter
 import org.gradle.internal.operations.TestBuildOperationRunner
@@ -49,7 +50,7 @@ class DefaultBuildCacheControllerFactoryTest extends Specification {
     def buildCacheEnabled = true
     def buildOperationRunner = new TestBuildOperationRunner()
     def buildOperationProgressEmitter = new NoOpBuildOperationProgressEventEmitter()
-    def config = new DefaultBuildCacheConfiguration(TestUtil.instantiatorFactory().inject(), [
+    def config = new DefaultBuildCacheConfiguration(TestUtil.instantiatorFactory().inject(), TestUtil.propertyFactory(), [
         new DefaultBuildCacheServiceRegistration(DirectoryBuildCache, TestDirectoryBuildCacheServiceFactory),
         new DefaultBuildCacheServiceRegistration(TestOtherRemoteBuildCache, TestOtherRemoteBuildCacheServiceFactory),
         new DefaultBuildCacheServiceRegistration(TestRemoteBuildCache, TestRemoteBuildCacheServiceFactory),
@@ -71,6 +72,7 @@ class DefaultBuildCacheControllerFactoryTest extends Specification {
             Stub(TemporaryFileProvider),
             Stub(BuildCacheEntryPacker),
             BlockingNotifier.NO_NOTIFICATION,
+            Stub(ExecutorFactory),
         ).createController(Path.path("test"), config, TestUtil.instantiatorFactory().inject())
         assert controllerType.isInstance(controller)
         controllerType.cast(controller)
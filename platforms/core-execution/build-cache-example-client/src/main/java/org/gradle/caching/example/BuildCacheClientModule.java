@@ -43,9 +43,10 @@
 import org.gradle.caching.internal.controller.DefaultBuildCacheController;
 import org.gradle.caching.internal.controller.service.BuildCacheServicesConfiguration;
 import org.gradle.caching.internal.origin.OriginMetadataFactory;
+import org.gradle.caching.internal.packaging.BuildCacheEntryCompression;
 import org.gradle.caching.internal.packaging.BuildCacheEntryPacker;
+import org.gradle.caching.internal.packaging.impl.CompressingBuildCacheEntryPacker;
 import org.gradle.caching.internal.packaging.impl.FilePermissionAccess;
-import org.gradle.caching.internal.packaging.impl.GZipBuildCacheEntryPacker;
 import org.gradle.caching.internal.packaging.impl.TarBuildCacheEntryPacker;
 import org.gradle.caching.internal.packaging.impl.TarPackerFileSystemSupport;
 import org.gradle.caching.local.internal.DirectoryBuildCacheService;
@@ -367,14 +368,15 @@ public void chmod(File file, int mode) {
                 }
             }
         };
-        return new GZipBuildCacheEntryPacker(
+        return new CompressingBuildCacheEntryPacker(
             new TarBuildCacheEntryPacker(
                 fileSystemSupport,
                 filePermissionAccess,
                 streamHasher,
                 stringInterner,
                 () -> new byte[4096]
-            )
+            ),
+            BuildCacheEntryCompression.GZIP
         );
     }
 
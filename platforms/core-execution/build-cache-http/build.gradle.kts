@@ -13,6 +13,7 @@ dependencies {
 
     api(projects.baseServices)
     api(projects.buildCacheSpi)
+    api(projects.buildOption)
     api(projects.coreApi)
     api(projects.credentialsApi)
     api(projects.resourcesHttp)
@@ -30,6 +31,9 @@ dependencies {
 
     integTestImplementation(projects.enterpriseOperations)
     integTestImplementation(testFixtures(projects.buildCache))
+    integTestImplementation(testLibs.mockwebserver) {
+        exclude(group = "org.bouncycastle").because("MockWebServer uses a different version of BouncyCastle")
+    }
 
     integTestDistributionRuntimeOnly(projects.distributionsJvm) {
         because("Uses application plugin.")
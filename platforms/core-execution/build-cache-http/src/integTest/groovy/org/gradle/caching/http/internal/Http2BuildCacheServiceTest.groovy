@@ -0,0 +1,303 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.caching.http.internal
+
+import okhttp3.Protocol
+import okhttp3.mockwebserver.Dispatcher
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.RecordedRequest
+import org.gradle.caching.BuildCacheException
+import org.gradle.caching.BuildCacheKey
+import org.gradle.caching.internal.SimpleBuildCacheKey
+import org.gradle.internal.hash.TestHashCodes
+import org.gradle.internal.resource.transport.http.HttpTimeoutSettings
+import org.gradle.internal.verifier.HttpRedirectVerifier
+import org.gradle.internal.verifier.HttpRedirectVerifierFactory
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.test.fixtures.keystore.TestKeyStore
+import org.gradle.test.fixtures.server.http.HttpBuildCacheServer
+import org.junit.Rule
+import spock.lang.Specification
+
+import javax.net.ssl.SSLContext
+import javax.net.ssl.TrustManagerFactory
+import java.security.KeyStore
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.atomic.AtomicInteger
+
+class Http2BuildCacheServiceTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tempDir = new TestNameTestDirectoryProvider(getClass())
+    @Rule
+    HttpBuildCacheServer server = new HttpBuildCacheServer(tempDir)
+    @Rule
+    HttpBuildCacheServer otherServer = new HttpBuildCacheServer(tempDir)
+
+    def key1 = new SimpleBuildCacheKey(TestHashCodes.hashCodeFrom(0x01))
+    def key2 = new SimpleBuildCacheKey(TestHashCodes.hashCodeFrom(0x02))
+    def key3 = new SimpleBuildCacheKey(TestHashCodes.hashCodeFrom(0x03))
+
+    List<String> requests = new CopyOnWriteArrayList<>()
+    AtomicInteger failingGets = new AtomicInteger()
+    Http2BuildCacheService cache
+
+    def setup() {
+        server.addResponder { request, response ->
+            requests << "${request.method} ${request.pathInfo}".toString()
+            if (request.method == 'GET' && failingGets.getAndDecrement() > 0) {
+                response.sendError(500)
+                return false
+            }
+            return true
+        }
+        server.start()
+        cache = createCache(server.uri.resolve("/cache/"))
+    }
+
+    def cleanup() {
+        cache.close()
+    }
+
+    def "can store and load entries"() {
+        when:
+        cache.store(key1, new HttpBuildCacheServiceTest.Writer("Data".bytes))
+
+        then:
+        entryFile(key1).text == "Data"
+        load(key1) == "Data"
+        load(key2) == null
+    }
+
+    def "finds existing entries"() {
+        given:
+        entryFile(key1).text = "One"
+        entryFile(key2).text = "Two"
+
+        expect:
+        cache.findExisting([key1, key2, key3]) == [key1, key2] as Set
+        requests.count { it.startsWith("HEAD ") } == 3
+    }
+
+    def "does not load entries that were found to be missing"() {
+        given:
+        cache.findExisting([key1])
+        requests.clear()
+
+        expect:
+        load(key1) == null
+        requests.empty
+    }
+
+    def "loads entry that was found to be missing after storing it"() {
+        given:
+        cache.findExisting([key1])
+        cache.store(key1, new HttpBuildCacheServiceTest.Writer("Data".bytes))
+
+        expect:
+        load(key1) == "Data"
+    }
+
+    def "loads prefetched entries without sending another request"() {
+        given:
+        entryFile(key1).text = "One"
+        entryFile(key2).text = "Two"
+
+        when:
+        cache.prefetch([key1, key2, key3])
+
+        then:
+        load(key1) == "One"
+        load(key2) == "Two"
+        load(key3) == null
+        requests.count { it.startsWith("GET ") } == 3
+    }
+
+    def "loads entry again after its prefetch was discarded"() {
+        given:
+        entryFile(key1).text = "One"
+        entryFile(key2).text = "Two"
+
+        when:
+        cache.prefetch([key1, key2])
+        cache.discardPrefetched([key1])
+
+        then:
+        load(key1) == "One"
+        load(key2) == "Two"
+        // The entry that was not discarded is still served from the prefetch
+        requests.count { it.startsWith("GET ") && it.endsWith(key2.hashCode) } == 1
+    }
+
+    def "loads entry again when prefetching it fails"() {
+        given:
+        entryFile(key1).text = "One"
+        failingGets.set(1)
+
+        when:
+        cache.prefetch([key1])
+
+        then:
+        load(key1) == "One"
+        requests.count { it.startsWith("GET ") } == 2
+    }
+
+    def "times out when the server does not respond"() {
+        given:
+        cache.close()
+        cache = createCache(server.uri.resolve("/cache/"), null, 500)
+        server.blockIncomingConnectionsForSeconds = 5
+
+        when:
+        load(key1)
+
+        then:
+        thrown(BuildCacheException)
+    }
+
+    def "follows redirects without sending credentials to other hosts"() {
+        given:
+        List<String> authorizations = new CopyOnWriteArrayList<>()
+        otherServer.addResponder { request, response ->
+            authorizations << "other: ${request.getHeader("Authorization")}".toString()
+            return true
+        }
+        otherServer.start()
+        otherServer.cacheDir.file("moved/${key1.hashCode}").createFile().text = "Moved"
+        server.addResponder { request, response ->
+            authorizations << "cache: ${request.getHeader("Authorization")}".toString()
+            response.setHeader("Location", otherServer.uri.resolve("/moved/${key1.hashCode}").toString())
+            response.setStatus(307)
+            return false
+        }
+        cache.close()
+        cache = createCache(server.uri.resolve("/cache/"), "Basic dXNlcjpwYXNzd29yZA==")
+
+        expect:
+        load(key1) == "Moved"
+        authorizations == ["cache: Basic dXNlcjpwYXNzd29yZA==", "other: null"]
+    }
+
+    def "rejects redirects the verifier does not allow"() {
+        given:
+        server.addResponder { request, response ->
+            response.setHeader("Location", "http://127.0.0.1:1/elsewhere")
+            response.setStatus(302)
+            return false
+        }
+        cache.close()
+        cache = createCache(server.uri.resolve("/cache/"), null, 30000, SSLContext.getDefault(), { locations ->
+            throw new IllegalStateException("Redirect to ${locations} not allowed")
+        })
+
+        when:
+        load(key1)
+
+        then:
+        def e = thrown(IllegalStateException)
+        e.message == "Redirect to [http://127.0.0.1:1/elsewhere] not allowed"
+    }
+
+    def "fails after too many redirects"() {
+        given:
+        server.addResponder { request, response ->
+            response.setHeader("Location", "/cache/${key1.hashCode}")
+            response.setStatus(302)
+            return false
+        }
+
+        when:
+        load(key1)
+
+        then:
+        def e = thrown(BuildCacheException)
+        e.message.contains("was redirected more than 3 times")
+        requests.size() == 4
+    }
+
+    def "multiplexes concurrent requests over a single HTTP/2 connection"() {
+        given:
+        def keyStore = TestKeyStore.init(tempDir.testDirectory.file("keystore"))
+        def h2Server = new MockWebServer()
+        h2Server.useHttps(keyStore.asServerSSLContext().socketFactory, false)
+        h2Server.protocols = [Protocol.HTTP_2, Protocol.HTTP_1_1]
+        h2Server.dispatcher = new Dispatcher() {
+            @Override
+            MockResponse dispatch(RecordedRequest request) {
+                return request.path.endsWith(key1.hashCode)
+                    ? new MockResponse().setBody("One")
+                    : new MockResponse().setResponseCode(404)
+            }
+        }
+        h2Server.start(InetAddress.getByName("localhost"), 0)
+        def keys = (1..20).collect { new SimpleBuildCacheKey(TestHashCodes.hashCodeFrom(0x100 + it)) }
+        cache.close()
+        cache = createCache(URI.create("https://localhost:${h2Server.port}/cache/"), null, 30000, clientSslContext(keyStore))
+
+        when:
+        // Establish the connection first, so that the concurrent requests all find it
+        def loaded = load(key1)
+        def existing = cache.findExisting(keys)
+        def recorded = (0..keys.size()).collect { h2Server.takeRequest() }
+
+        then:
+        loaded == "One"
+        existing.empty
+        // Each connection numbers its requests from 0, so all requests were sent over the same connection
+        recorded*.sequenceNumber.sort() == (0..keys.size()).toList()
+
+        cleanup:
+        h2Server.shutdown()
+    }
+
+    private Http2BuildCacheService createCache(
+        URI uri,
+        String authorization = null,
+        int socketTimeoutMs = 30000,
+        SSLContext sslContext = SSLContext.getDefault(),
+        HttpRedirectVerifier redirectVerifier = HttpRedirectVerifierFactory.create(uri, true, {}, {})
+    ) {
+        def timeoutSettings = Stub(HttpTimeoutSettings) {
+            getConnectionTimeoutMs() >> 30000
+            getSocketTimeoutMs() >> socketTimeoutMs
+        }
+        new Http2BuildCacheService(uri, sslContext, authorization, { it.accept("X-Gradle-Version", "3.0") }, false, timeoutSettings, redirectVerifier, 3)
+    }
+
+    private static SSLContext clientSslContext(TestKeyStore keyStore) {
+        def trustStore = KeyStore.getInstance(keyStore.trustStoreType)
+        keyStore.trustStore.withInputStream { trustStore.load(it, keyStore.trustStorePassword.toCharArray()) }
+        def trustManagerFactory = TrustManagerFactory.getInstance(TrustManagerFactory.defaultAlgorithm)
+        trustManagerFactory.init(trustStore)
+        def sslContext = SSLContext.getInstance("TLS")
+        sslContext.init(null, trustManagerFactory.trustManagers, null)
+        sslContext
+    }
+
+    private File entryFile(BuildCacheKey key) {
+        server.cacheDir.file("cache/${key.hashCode}").createFile()
+    }
+
+    private String load(BuildCacheKey key) {
+        String content = null
+        boolean found = cache.load(key) { input ->
+            content = input.text
+        }
+        assert found == (content != null)
+        return content
+    }
+}
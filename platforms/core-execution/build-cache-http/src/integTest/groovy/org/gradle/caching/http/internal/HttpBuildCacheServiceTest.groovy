@@ -27,6 +27,7 @@ import org.gradle.caching.BuildCacheException
 import org.gradle.caching.BuildCacheServiceFactory
 import org.gradle.caching.http.HttpBuildCache
 import org.gradle.caching.internal.SimpleBuildCacheKey
+import org.gradle.internal.buildoption.InternalOptions
 import org.gradle.internal.hash.TestHashCodes
 import org.gradle.internal.resource.transport.http.ApacheCommonsHttpClientFactory
 import org.gradle.internal.resource.transport.http.DefaultSslContextFactory
@@ -69,7 +70,7 @@ class HttpBuildCacheServiceTest extends Specification {
     HttpBuildCacheService getCache() {
         if (cacheRef == null) {
             buildCacheDescriber = new NoopBuildCacheDescriber()
-            cacheRef = new DefaultHttpBuildCacheServiceFactory(objectFactory, new DefaultSslContextFactory(), { it.accept("X-Gradle-Version", "3.0") }, httpClientFactory)
+            cacheRef = new DefaultHttpBuildCacheServiceFactory(objectFactory, new DefaultSslContextFactory(), { it.accept("X-Gradle-Version", "3.0") }, httpClientFactory, Stub(InternalOptions))
                 .createBuildCacheService(this.config, buildCacheDescriber) as HttpBuildCacheService
         }
         cacheRef
@@ -25,11 +25,14 @@
 import org.gradle.caching.http.HttpBuildCache;
 import org.gradle.caching.http.HttpBuildCacheCredentials;
 import org.gradle.internal.authentication.DefaultBasicAuthentication;
+import org.gradle.internal.buildoption.InternalOption;
+import org.gradle.internal.buildoption.InternalOptions;
 import org.gradle.internal.deprecation.Documentation;
 import org.gradle.internal.resource.transport.http.DefaultHttpSettings;
 import org.gradle.internal.resource.transport.http.HttpClient;
 import org.gradle.internal.resource.transport.http.HttpClientFactory;
 import org.gradle.internal.resource.transport.http.HttpSettings;
+import org.gradle.internal.resource.transport.http.JavaSystemPropertiesHttpTimeoutSettings;
 import org.gradle.internal.resource.transport.http.SslContextFactory;
 import org.gradle.internal.verifier.HttpRedirectVerifier;
 import org.gradle.internal.verifier.HttpRedirectVerifierFactory;
@@ -37,6 +40,8 @@
 import javax.inject.Inject;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.Collections;
 
@@ -47,17 +52,24 @@ public class DefaultHttpBuildCacheServiceFactory implements BuildCacheServiceFac
 
     private static final int MAX_REDIRECTS = Integer.getInteger("org.gradle.cache.http.max-redirects", 10);
 
+    /**
+     * Talk to the cache using {@link Http2BuildCacheService}, which multiplexes requests over HTTP/2 and can prefetch entries.
+     */
+    public static final InternalOption<Boolean> HTTP2_CLIENT = InternalOptions.ofBoolean("org.gradle.internal.build-cache.http2", false);
+
     private final SslContextFactory sslContextFactory;
     private final HttpBuildCacheRequestCustomizer requestCustomizer;
     private final HttpClientFactory httpClientFactory;
     private final ObjectFactory objectFactory;
+    private final InternalOptions internalOptions;
 
     @Inject
-    public DefaultHttpBuildCacheServiceFactory(ObjectFactory objectFactory, SslContextFactory sslContextFactory, HttpBuildCacheRequestCustomizer requestCustomizer, HttpClientFactory httpClientFactory) {
+    public DefaultHttpBuildCacheServiceFactory(ObjectFactory objectFactory, SslContextFactory sslContextFactory, HttpBuildCacheRequestCustomizer requestCustomizer, HttpClientFactory httpClientFactory, InternalOptions internalOptions) {
         this.sslContextFactory = sslContextFactory;
         this.requestCustomizer = requestCustomizer;
         this.httpClientFactory = httpClientFactory;
         this.objectFactory = objectFactory;
+        this.internalOptions = internalOptions;
     }
 
     @Override
@@ -89,6 +101,29 @@ public BuildCacheService createBuildCacheService(HttpBuildCache configuration, D
         HttpRedirectVerifier redirectVerifier =
             createRedirectVerifier(noUserInfoUrl, allowInsecureProtocol);
 
+        describer.type("HTTP")
+            .config("url", noUserInfoUrl.toASCIIString())
+            .config("authenticated", Boolean.toString(authenticated))
+            .config("allowUntrustedServer", Boolean.toString(allowUntrustedServer))
+            .config("allowInsecureProtocol", Boolean.toString(allowInsecureProtocol))
+            .config("useExpectContinue", Boolean.toString(useExpectContinue));
+
+        // The JDK client cannot be told to trust any server, so untrusted servers are always handled by the Apache client
+        if (internalOptions.getBoolean(HTTP2_CLIENT) && !allowUntrustedServer) {
+            describer.config("http2", "true");
+            String authorization = authenticated ? basicAuthorization(credentials) : null;
+            return new Http2BuildCacheService(
+                noUserInfoUrl,
+                sslContextFactory.createSslContext(),
+                authorization,
+                requestCustomizer,
+                useExpectContinue,
+                new JavaSystemPropertiesHttpTimeoutSettings(),
+                redirectVerifier,
+                MAX_REDIRECTS
+            );
+        }
+
         DefaultHttpSettings.Builder builder = DefaultHttpSettings.builder()
             .withAuthenticationSettings(authentications)
             .maxRedirects(MAX_REDIRECTS)
@@ -102,13 +137,6 @@ public BuildCacheService createBuildCacheService(HttpBuildCache configuration, D
 
         HttpClient client = httpClientFactory.createClient(builder.build());
 
-        describer.type("HTTP")
-            .config("url", noUserInfoUrl.toASCIIString())
-            .config("authenticated", Boolean.toString(authenticated))
-            .config("allowUntrustedServer", Boolean.toString(allowUntrustedServer))
-            .config("allowInsecureProtocol", Boolean.toString(allowInsecureProtocol))
-            .config("useExpectContinue", Boolean.toString(useExpectContinue));
-
         return new HttpBuildCacheService(client, noUserInfoUrl, requestCustomizer, useExpectContinue);
     }
 
@@ -151,6 +179,11 @@ private static URI stripUserInfo(URI uri) {
         }
     }
 
+    private static String basicAuthorization(HttpBuildCacheCredentials credentials) {
+        String userAndPassword = credentials.getUsername() + ":" + credentials.getPassword();
+        return "Basic " + Base64.getEncoder().encodeToString(userAndPassword.getBytes(StandardCharsets.UTF_8));
+    }
+
     private static boolean credentialsPresent(HttpBuildCacheCredentials credentials) {
         return credentials.getUsername() != null && credentials.getPassword() != null;
     }
@@ -0,0 +1,635 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.caching.http.internal;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.gradle.caching.BuildCacheEntryReader;
+import org.gradle.caching.BuildCacheEntryWriter;
+import org.gradle.caching.BuildCacheException;
+import org.gradle.caching.BuildCacheKey;
+import org.gradle.caching.internal.BatchingBuildCacheService;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.resource.transport.http.HttpTimeoutSettings;
+import org.gradle.internal.verifier.HttpRedirectVerifier;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLContext;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.gradle.caching.http.internal.HttpBuildCacheService.BUILD_CACHE_CONTENT_TYPE;
+import static org.gradle.caching.http.internal.HttpBuildCacheService.isHttpSuccess;
+import static org.gradle.caching.http.internal.HttpBuildCacheService.safeUri;
+import static org.gradle.caching.http.internal.HttpBuildCacheService.throwHttpStatusCodeException;
+import static org.gradle.caching.http.internal.HttpBuildCacheService.withTrailingSlash;
+
+/**
+ * Build cache implementation that delegates to a service accessible via HTTP, using the JDK HTTP client.
+ *
+ * <p>The client negotiates HTTP/2 with servers that support it, so that concurrent requests are multiplexed over a single connection.
+ * Other servers are talked to over persistent HTTP/1.1 connections.</p>
+ *
+ * <p>The HTTP build cache protocol has no bulk endpoint, so {@link #findExisting(Collection)} and {@link #prefetch(Collection)}
+ * send one request per key, keeping up to {@value #MAX_CONCURRENT_REQUESTS} of them in flight.
+ * Prefetched entries are held in memory, up to {@value #MAX_PREFETCHED_BYTES} bytes, until they are loaded or discarded.</p>
+ *
+ * <p>Redirects are followed by this class rather than by the JDK client, so that each location is checked by the {@link HttpRedirectVerifier}
+ * and credentials are only sent to the host of the cache itself.</p>
+ */
+public class Http2BuildCacheService implements BatchingBuildCacheService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Http2BuildCacheService.class);
+
+    private static final int MAX_CONCURRENT_REQUESTS = 64;
+    private static final long MAX_PREFETCHED_BYTES = 128L * 1024 * 1024;
+    private static final int SC_NOT_FOUND = 404;
+    private static final long BYTES_UPLOADED_PER_SECOND_AT_LEAST = 1024 * 1024;
+
+    /**
+     * Headers that the JDK client sets itself and rejects when set on a request.
+     */
+    private static final Set<String> RESTRICTED_HEADERS = ImmutableSet.of("connection", "content-length", "expect", "host", "upgrade");
+
+    private final URI root;
+    private final HttpClient client;
+    private final boolean useExpectContinue;
+    private final Duration requestTimeout;
+    private final HttpRedirectVerifier redirectVerifier;
+    private final int maxRedirects;
+    @Nullable
+    private final String authorization;
+    private final ImmutableMap<String, String> defaultLoadHeaders;
+    private final ImmutableMap<String, String> defaultStoreHeaders;
+
+    private final Semaphore requestPermits = new Semaphore(MAX_CONCURRENT_REQUESTS);
+    private final Queue<BuildCacheKey> pendingPrefetches = new ConcurrentLinkedQueue<>();
+    private final Map<String, PrefetchRequest> prefetchRequests = new ConcurrentHashMap<>();
+    private final Set<String> knownMissing = ConcurrentHashMap.newKeySet();
+    private final AtomicLong prefetchedBytes = new AtomicLong();
+    private volatile boolean closed;
+
+    public Http2BuildCacheService(
+        URI url,
+        SSLContext sslContext,
+        @Nullable String authorization,
+        HttpBuildCacheRequestCustomizer requestCustomizer,
+        boolean useExpectContinue,
+        HttpTimeoutSettings timeoutSettings,
+        HttpRedirectVerifier redirectVerifier,
+        int maxRedirects
+    ) {
+        this.root = withTrailingSlash(url);
+        this.useExpectContinue = useExpectContinue;
+        this.authorization = authorization;
+        this.requestTimeout = Duration.ofMillis(timeoutSettings.getSocketTimeoutMs());
+        this.redirectVerifier = redirectVerifier;
+        this.maxRedirects = maxRedirects;
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .proxy(ProxySelector.getDefault())
+            .sslContext(sslContext)
+            .connectTimeout(Duration.ofMillis(timeoutSettings.getConnectionTimeoutMs()))
+            .build();
+        this.defaultLoadHeaders = getDefaultLoadHeaders(requestCustomizer);
+        this.defaultStoreHeaders = getDefaultStoreHeaders(requestCustomizer);
+    }
+
+    private static ImmutableMap<String, String> getDefaultLoadHeaders(HttpBuildCacheRequestCustomizer requestCustomizer) {
+        ImmutableMap.Builder<String, String> builder = ImmutableMap.builder();
+        builder.put("Accept", BUILD_CACHE_CONTENT_TYPE + ", */*");
+        addCommonHeaders(builder, requestCustomizer);
+        return builder.build();
+    }
+
+    private static ImmutableMap<String, String> getDefaultStoreHeaders(HttpBuildCacheRequestCustomizer requestCustomizer) {
+        ImmutableMap.Builder<String, String> builder = ImmutableMap.builder();
+        builder.put("Content-Type", BUILD_CACHE_CONTENT_TYPE);
+        addCommonHeaders(builder, requestCustomizer);
+        return builder.build();
+    }
+
+    private static void addCommonHeaders(ImmutableMap.Builder<String, String> builder, HttpBuildCacheRequestCustomizer requestCustomizer) {
+        requestCustomizer.visitHeaders((name, value) -> {
+            if (RESTRICTED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                LOGGER.debug("Not sending header {} to the HTTP build cache, as it is managed by the HTTP client", name);
+            } else {
+                builder.put(name, value);
+            }
+        });
+    }
+
+    @Override
+    public boolean load(BuildCacheKey key, BuildCacheEntryReader reader) throws BuildCacheException {
+        PrefetchRequest prefetch = prefetchRequests.remove(key.getHashCode());
+        if (prefetch != null) {
+            PrefetchedEntry entry = awaitPrefetch(key, prefetch);
+            prefetch.releaseBody();
+            if (entry != null) {
+                return readPrefetchedEntry(entry, reader);
+            }
+        }
+        if (knownMissing.remove(key.getHashCode())) {
+            return false;
+        }
+
+        URI uri = entryUri(key);
+        HttpResponse<InputStream> response = send(new Exchange(uri, requestTimeout, target -> request(target, defaultLoadHeaders).GET()), HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream content = response.body()) {
+            int statusCode = response.statusCode();
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Response for GET {}: {}", safeUri(uri), statusCode);
+            }
+            if (isHttpSuccess(statusCode)) {
+                reader.readFrom(content);
+                return true;
+            } else if (statusCode == SC_NOT_FOUND) {
+                return false;
+            } else {
+                String defaultMessage = String.format("Loading entry from '%s' response status %d", safeUri(uri), statusCode);
+                return throwHttpStatusCodeException(statusCode, defaultMessage);
+            }
+        } catch (IOException e) {
+            throw wrap(e);
+        }
+    }
+
+    /**
+     * Waits for the prefetch to complete, giving up on it if the server stalls while sending the body.
+     */
+    @Nullable
+    private PrefetchedEntry awaitPrefetch(BuildCacheKey key, PrefetchRequest prefetch) {
+        try {
+            return prefetch.result.get(exchangeTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            LOGGER.debug("Timed out prefetching entry {} from the HTTP build cache", key.getHashCode());
+            prefetch.discard();
+            return null;
+        } catch (ExecutionException e) {
+            // Failed prefetches complete with null, so this does not happen
+            return null;
+        } catch (InterruptedException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+
+    private boolean readPrefetchedEntry(PrefetchedEntry entry, BuildCacheEntryReader reader) {
+        byte[] content = entry.content;
+        if (content == null) {
+            return false;
+        }
+        try {
+            reader.readFrom(new ByteArrayInputStream(content));
+            return true;
+        } catch (IOException e) {
+            throw wrap(e);
+        }
+    }
+
+    @Override
+    public void store(BuildCacheKey key, BuildCacheEntryWriter writer) throws BuildCacheException {
+        URI uri = entryUri(key);
+        knownMissing.remove(key.getHashCode());
+        long size = writer.getSize();
+        HttpRequest.BodyPublisher body = size > 0
+            ? HttpRequest.BodyPublishers.fromPublisher(HttpRequest.BodyPublishers.ofInputStream(() -> openEntry(writer)), size)
+            : HttpRequest.BodyPublishers.noBody();
+        // The request timeout covers uploading the entry, so allow for a slow upload of a large entry
+        Duration timeout = requestTimeout.plusSeconds(Math.max(size, 0) / BYTES_UPLOADED_PER_SECOND_AT_LEAST);
+        Exchange exchange = new Exchange(uri, timeout, target -> request(target, defaultStoreHeaders)
+            .expectContinue(useExpectContinue)
+            .PUT(body));
+
+        HttpResponse<Void> response = send(exchange, HttpResponse.BodyHandlers.discarding());
+        int statusCode = response.statusCode();
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Response for PUT {}: {}", safeUri(uri), statusCode);
+        }
+        if (!isHttpSuccess(statusCode)) {
+            String defaultMessage = String.format("Storing entry at '%s' response status %d", safeUri(uri), statusCode);
+            throwHttpStatusCodeException(statusCode, defaultMessage);
+        }
+    }
+
+    private static InputStream openEntry(BuildCacheEntryWriter writer) {
+        try {
+            return writer.getInputStream();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open build cache entry stream", e);
+        }
+    }
+
+    @Override
+    public Set<BuildCacheKey> findExisting(Collection<BuildCacheKey> keys) throws BuildCacheException {
+        Set<BuildCacheKey> existing = ConcurrentHashMap.newKeySet();
+        List<CompletableFuture<Void>> requests = new ArrayList<>(keys.size());
+        for (BuildCacheKey key : keys) {
+            URI uri = entryUri(key);
+            Exchange exchange = new Exchange(uri, requestTimeout, target -> request(target, defaultLoadHeaders)
+                .method("HEAD", HttpRequest.BodyPublishers.noBody()));
+            requestPermits.acquireUninterruptibly();
+            CompletableFuture<HttpResponse<Void>> response;
+            try {
+                response = sendAsync(exchange, HttpResponse.BodyHandlers.discarding());
+            } catch (RuntimeException e) {
+                requestPermits.release();
+                throw e;
+            }
+            requests.add(response.handle((result, failure) -> {
+                requestPermits.release();
+                if (failure != null) {
+                    throw wrap(failure instanceof CompletionException ? failure.getCause() : failure);
+                }
+                int statusCode = result.statusCode();
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("Response for HEAD {}: {}", safeUri(uri), statusCode);
+                }
+                if (isHttpSuccess(statusCode)) {
+                    existing.add(key);
+                } else if (statusCode == SC_NOT_FOUND) {
+                    knownMissing.add(key.getHashCode());
+                } else {
+                    String defaultMessage = String.format("Checking entry at '%s' response status %d", safeUri(uri), statusCode);
+                    throwHttpStatusCodeException(statusCode, defaultMessage);
+                }
+                return null;
+            }));
+        }
+        try {
+            // Every request has a timeout, so this only guards against requests that never complete
+            CompletableFuture.allOf(requests.toArray(new CompletableFuture<?>[0])).get(exchangeTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw UncheckedException.throwAsUncheckedException(e.getCause(), true);
+        } catch (TimeoutException e) {
+            requests.forEach(request -> request.cancel(true));
+            throw new BuildCacheException(String.format("Timed out checking entries at '%s'", safeUri(root)), e);
+        } catch (InterruptedException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+        return existing;
+    }
+
+    @Override
+    public void prefetch(Collection<BuildCacheKey> keys) {
+        if (closed) {
+            return;
+        }
+        pendingPrefetches.addAll(keys);
+        startPendingPrefetches();
+    }
+
+    @Override
+    public void discardPrefetched(Collection<BuildCacheKey> keys) {
+        Set<String> discarded = new HashSet<>();
+        for (BuildCacheKey key : keys) {
+            discarded.add(key.getHashCode());
+        }
+        pendingPrefetches.removeIf(key -> discarded.contains(key.getHashCode()));
+        for (String hashCode : discarded) {
+            PrefetchRequest prefetch = prefetchRequests.remove(hashCode);
+            if (prefetch != null) {
+                prefetch.discard();
+            }
+        }
+    }
+
+    /**
+     * Starts as many pending prefetches as there are free request permits.
+     * Called again whenever a prefetch completes, so the queue drains without a dedicated thread.
+     */
+    private void startPendingPrefetches() {
+        while (!closed && requestPermits.tryAcquire()) {
+            BuildCacheKey key = pendingPrefetches.poll();
+            if (key == null) {
+                requestPermits.release();
+                // Another thread may have queued keys after we polled, but failed to get a permit
+                if (pendingPrefetches.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+            if (!startPrefetch(key)) {
+                requestPermits.release();
+            }
+        }
+    }
+
+    private boolean startPrefetch(BuildCacheKey key) {
+        PrefetchRequest prefetch = new PrefetchRequest();
+        if (prefetchRequests.putIfAbsent(key.getHashCode(), prefetch) != null) {
+            return false;
+        }
+        URI uri = entryUri(key);
+        try {
+            Exchange exchange = new Exchange(uri, requestTimeout, target -> request(target, defaultLoadHeaders).GET());
+            prefetch.exchange = exchange;
+            sendAsync(exchange, prefetch::bodyHandler).whenComplete((response, failure) -> {
+                requestPermits.release();
+                if (failure != null) {
+                    LOGGER.debug("Could not prefetch entry {} from the HTTP build cache", key.getHashCode(), failure);
+                    prefetch.complete(null);
+                } else {
+                    LOGGER.debug("Response for prefetching GET {}: {}", safeUri(uri), response.statusCode());
+                    prefetch.complete(response.body());
+                }
+                startPendingPrefetches();
+            });
+            return true;
+        } catch (RuntimeException e) {
+            LOGGER.debug("Could not prefetch entry {} from the HTTP build cache", key.getHashCode(), e);
+            prefetch.complete(null);
+            return false;
+        }
+    }
+
+    private HttpRequest.Builder request(URI uri, Map<String, String> headers) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri);
+        headers.forEach(builder::header);
+        // Like the Apache client, only authenticate with the host of the cache, in case the cache redirects elsewhere
+        if (authorization != null && isCacheHost(uri)) {
+            builder.header("Authorization", authorization);
+        }
+        return builder;
+    }
+
+    private boolean isCacheHost(URI uri) {
+        return root.getScheme().equalsIgnoreCase(uri.getScheme())
+            && root.getHost().equalsIgnoreCase(uri.getHost())
+            && effectivePort(root) == effectivePort(uri);
+    }
+
+    private static int effectivePort(URI uri) {
+        if (uri.getPort() != -1) {
+            return uri.getPort();
+        }
+        return "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+    }
+
+    /**
+     * The longest a request can take, following the most redirects allowed.
+     */
+    private Duration exchangeTimeout() {
+        return requestTimeout.multipliedBy(maxRedirects + 1L);
+    }
+
+    private URI entryUri(BuildCacheKey key) {
+        return root.resolve("./" + key.getHashCode());
+    }
+
+    private <T> HttpResponse<T> send(Exchange exchange, HttpResponse.BodyHandler<T> bodyHandler) {
+        HttpResponse.BodyHandler<T> handler = ignoringRedirectBodies(bodyHandler);
+        try {
+            while (true) {
+                HttpResponse<T> response = client.send(exchange.request(), handler);
+                if (!exchange.followRedirect(response)) {
+                    return response;
+                }
+            }
+        } catch (IOException e) {
+            throw wrap(e);
+        } catch (InterruptedException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> sendAsync(Exchange exchange, HttpResponse.BodyHandler<T> bodyHandler) {
+        HttpResponse.BodyHandler<T> handler = ignoringRedirectBodies(bodyHandler);
+        CompletableFuture<HttpResponse<T>> response = client.sendAsync(exchange.request(), handler);
+        exchange.inFlight = response;
+        return response.thenCompose(response -> exchange.followRedirect(response)
+            ? sendAsync(exchange, bodyHandler)
+            : CompletableFuture.completedFuture(response));
+    }
+
+    private static <T> HttpResponse.BodyHandler<T> ignoringRedirectBodies(HttpResponse.BodyHandler<T> bodyHandler) {
+        return responseInfo -> isRedirect(responseInfo.statusCode()) && responseInfo.headers().firstValue("Location").isPresent()
+            ? HttpResponse.BodySubscribers.replacing(null)
+            : bodyHandler.apply(responseInfo);
+    }
+
+    private static boolean isRedirect(int statusCode) {
+        return statusCode == 301 || statusCode == 302 || statusCode == 303 || statusCode == 307 || statusCode == 308;
+    }
+
+    private static BuildCacheException wrap(Throwable e) {
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        if (e instanceof BuildCacheException) {
+            return (BuildCacheException) e;
+        }
+        return new BuildCacheException(e.getMessage(), e);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        pendingPrefetches.clear();
+        prefetchRequests.values().forEach(PrefetchRequest::discard);
+        prefetchRequests.clear();
+        // The JDK client releases its connections once it is no longer referenced
+    }
+
+    private boolean reserve(long bytes) {
+        while (true) {
+            long current = prefetchedBytes.get();
+            if (current + bytes > MAX_PREFETCHED_BYTES) {
+                return false;
+            }
+            if (prefetchedBytes.compareAndSet(current, current + bytes)) {
+                return true;
+            }
+        }
+    }
+
+    private static void closeQuietly(InputStream content) {
+        try {
+            content.close();
+        } catch (IOException e) {
+            LOGGER.debug("Could not close HTTP build cache response", e);
+        }
+    }
+
+    /**
+     * A request to the cache, following the redirects the cache responds with.
+     */
+    private final class Exchange {
+        private final URI originalUri;
+        private final Duration timeout;
+        private Function<URI, HttpRequest.Builder> requestFactory;
+        private URI uri;
+        private String method;
+        private int redirects;
+        private volatile @Nullable CompletableFuture<?> inFlight;
+
+        Exchange(URI uri, Duration timeout, Function<URI, HttpRequest.Builder> requestFactory) {
+            this.originalUri = uri;
+            this.uri = uri;
+            this.timeout = timeout;
+            this.requestFactory = requestFactory;
+            this.method = "";
+        }
+
+        HttpRequest request() {
+            HttpRequest request = requestFactory.apply(uri).timeout(timeout).build();
+            method = request.method();
+            return request;
+        }
+
+        /**
+         * Prepares the next request if the response is a redirect.
+         *
+         * @return whether the redirect needs to be followed.
+         */
+        boolean followRedirect(HttpResponse<?> response) {
+            int statusCode = response.statusCode();
+            Optional<String> location = response.headers().firstValue("Location");
+            if (!isRedirect(statusCode) || !location.isPresent()) {
+                return false;
+            }
+            if (++redirects > maxRedirects) {
+                throw new BuildCacheException(String.format("Request to '%s' was redirected more than %d times", safeUri(originalUri), maxRedirects));
+            }
+            URI target = uri.resolve(location.get());
+            redirectVerifier.validateRedirects(Collections.singletonList(target));
+            LOGGER.debug("Following redirect for {} {} to {}", method, safeUri(uri), safeUri(target));
+            // Like the Apache client, follow 301, 302 and 303 redirects of other requests with a GET request
+            if (statusCode != 307 && statusCode != 308 && !method.equals("GET") && !method.equals("HEAD")) {
+                requestFactory = redirected -> request(redirected, defaultLoadHeaders).GET();
+            }
+            uri = target;
+            return true;
+        }
+
+        /**
+         * Cancels the request currently in flight, so that its response is not transferred.
+         */
+        void cancel() {
+            CompletableFuture<?> inFlight = this.inFlight;
+            if (inFlight != null) {
+                inFlight.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * An entry fetched ahead of being loaded. Its content is {@code null} when the cache does not have the entry.
+     */
+    private static final class PrefetchedEntry {
+        static final PrefetchedEntry MISSING = new PrefetchedEntry(null);
+
+        final byte @Nullable [] content;
+
+        PrefetchedEntry(byte @Nullable [] content) {
+            this.content = content;
+        }
+    }
+
+    private final class PrefetchRequest {
+        /**
+         * Completes with {@code null} when the entry could not be prefetched, and needs to be loaded normally.
+         */
+        final CompletableFuture<@Nullable PrefetchedEntry> result = new CompletableFuture<>();
+        private volatile @Nullable Exchange exchange;
+
+        // Guarded by this
+        private long reservedBytes;
+        private boolean discarded;
+
+        HttpResponse.BodySubscriber<@Nullable PrefetchedEntry> bodyHandler(HttpResponse.ResponseInfo responseInfo) {
+            int statusCode = responseInfo.statusCode();
+            if (statusCode == SC_NOT_FOUND) {
+                return HttpResponse.BodySubscribers.replacing(PrefetchedEntry.MISSING);
+            }
+            long contentLength = responseInfo.headers().firstValueAsLong("Content-Length").orElse(-1);
+            if (isHttpSuccess(statusCode) && contentLength >= 0 && reserveBody(contentLength)) {
+                return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofByteArray(), PrefetchedEntry::new);
+            }
+            // Errors, entries of unknown size and entries over the budget are left to a regular load.
+            // Closing the stream right away cancels the exchange, so the rest of the body is not transferred.
+            return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofInputStream(), content -> {
+                closeQuietly(content);
+                return null;
+            });
+        }
+
+        private synchronized boolean reserveBody(long bytes) {
+            if (discarded || !reserve(bytes)) {
+                return false;
+            }
+            reservedBytes = bytes;
+            return true;
+        }
+
+        /**
+         * Gives back the budget reserved for the body, once it has been read or will not be read. Can be called more than once.
+         */
+        synchronized void releaseBody() {
+            prefetchedBytes.addAndGet(-reservedBytes);
+            reservedBytes = 0;
+        }
+
+        void complete(@Nullable PrefetchedEntry entry) {
+            if (!result.complete(entry) || entry == null) {
+                // The prefetch was discarded, or the body was not received
+                releaseBody();
+            }
+        }
+
+        void discard() {
+            synchronized (this) {
+                discarded = true;
+            }
+            Exchange exchange = this.exchange;
+            if (exchange != null) {
+                exchange.cancel();
+            }
+            result.complete(null);
+            releaseBody();
+        }
+    }
+}
@@ -48,7 +48,7 @@ public class HttpBuildCacheService implements BuildCacheService {
     private static final Logger LOGGER = LoggerFactory.getLogger(HttpBuildCacheService.class);
     static final String BUILD_CACHE_CONTENT_TYPE = "application/vnd.gradle.build-cache-artifact.v2";
 
-    private static final Set<Integer> FATAL_HTTP_ERROR_CODES = ImmutableSet.of(
+    static final Set<Integer> FATAL_HTTP_ERROR_CODES = ImmutableSet.of(
         HttpStatus.SC_USE_PROXY,
         HttpStatus.SC_BAD_REQUEST,
         HttpStatus.SC_UNAUTHORIZED, HttpStatus.SC_FORBIDDEN, HttpStatus.SC_PROXY_AUTHENTICATION_REQUIRED,
@@ -161,7 +161,7 @@ private static BuildCacheException wrap(Throwable e) {
         throw new BuildCacheException(e.getMessage(), e);
     }
 
-    private boolean throwHttpStatusCodeException(int statusCode, String message) {
+    static boolean throwHttpStatusCodeException(int statusCode, String message) {
         if (FATAL_HTTP_ERROR_CODES.contains(statusCode)) {
             throw UncheckedException.throwAsUncheckedException(new IOException(message), true);
         } else {
@@ -169,7 +169,7 @@ private boolean throwHttpStatusCodeException(int statusCode, String message) {
         }
     }
 
-    private boolean isHttpSuccess(int statusCode) {
+    static boolean isHttpSuccess(int statusCode) {
         return statusCode >= 200 && statusCode < 300;
     }
 
@@ -184,7 +184,7 @@ public void close() throws IOException {
      * @param uri Original URI
      * @return a new URI with no user info
      */
-    private static URI safeUri(URI uri) {
+    static URI safeUri(URI uri) {
         try {
             return new URI(uri.getScheme(), null, uri.getHost(), uri.getPort(), uri.getPath(), uri.getQuery(), uri.getFragment());
         } catch (URISyntaxException e) {
@@ -198,7 +198,7 @@ private static URI safeUri(URI uri) {
      * @param uri the original URI
      * @return a URI guaranteed to have a trailing slash in the path
      */
-    private static URI withTrailingSlash(URI uri) {
+    static URI withTrailingSlash(URI uri) {
         if (uri.getPath().endsWith("/")) {
             return uri;
         }
@@ -20,6 +20,7 @@ dependencies {
 
     implementation(libs.commonsIo)
     implementation(libs.guava)
+    implementation(libs.slf4jApi)
 
     testImplementation(projects.modelCore)
     testImplementation(projects.fileCollections)
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.caching.local.internal;
+
+import org.apache.commons.io.FileUtils;
+import org.gradle.cache.CleanableStore;
+import org.gradle.cache.CleanupProgressMonitor;
+import org.gradle.cache.internal.FilesFinder;
+import org.gradle.cache.internal.LeastRecentlyUsedCacheCleanup;
+import org.gradle.cache.internal.SingleDepthFilesFinder;
+import org.gradle.internal.file.FileAccessTimeJournal;
+import org.gradle.internal.hash.HashCode;
+import org.jspecify.annotations.NullMarked;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Deletes entries of a {@link DirectoryBuildCache} not accessed within the retention period,
+ * and then deletes the chunks no longer referenced by any remaining entry.
+ *
+ * <p>The chunks directory itself is never considered for deletion by access time,
+ * chunks are kept for as long as at least one entry references them.</p>
+ *
+ * <p>A store writes its chunks before the manifest referencing them, so chunks modified within the last
+ * {@link #CHUNK_GRACE_PERIOD_MILLIS} are kept even when no manifest references them yet.
+ * Stores touch the chunks they reuse for the same reason.</p>
+ */
+@NullMarked
+public class ChunkReferenceCountingCacheCleanup extends LeastRecentlyUsedCacheCleanup {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChunkReferenceCountingCacheCleanup.class);
+    static final long CHUNK_GRACE_PERIOD_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    public ChunkReferenceCountingCacheCleanup(FileAccessTimeJournal journal, Supplier<Long> removeUnusedEntriesOlderThan) {
+        super(entriesFinder(), journal, removeUnusedEntriesOlderThan);
+    }
+
+    private static FilesFinder entriesFinder() {
+        FilesFinder delegate = new SingleDepthFilesFinder(1);
+        return (baseDir, filter) -> delegate.find(baseDir, file -> filter.accept(file) && !isChunksDir(baseDir, file));
+    }
+
+    private static boolean isChunksDir(File baseDir, File file) {
+        return file.getName().equals(ChunkedEntryStore.CHUNKS_DIR) && baseDir.equals(file.getParentFile());
+    }
+
+    @Override
+    public void clean(CleanableStore cleanableStore, CleanupProgressMonitor progressMonitor) {
+        super.clean(cleanableStore, progressMonitor);
+        File chunksDir = new File(cleanableStore.getBaseDir(), ChunkedEntryStore.CHUNKS_DIR);
+        if (chunksDir.isDirectory()) {
+            deleteUnreferencedChunks(cleanableStore, chunksDir, progressMonitor);
+        }
+    }
+
+    private static void deleteUnreferencedChunks(CleanableStore cleanableStore, File chunksDir, CleanupProgressMonitor progressMonitor) {
+        // Determine the cutoff before scanning the manifests, so that chunks of stores whose manifest is not seen by the scan are recent enough to be kept
+        long keepModifiedAfter = System.currentTimeMillis() - CHUNK_GRACE_PERIOD_MILLIS;
+        Map<HashCode, Integer> referenceCounts = countChunkReferences(cleanableStore.getBaseDir());
+        int chunksDeleted = 0;
+        File[] prefixDirs = chunksDir.listFiles();
+        if (prefixDirs == null) {
+            return;
+        }
+        for (File prefixDir : prefixDirs) {
+            File[] chunkFiles = prefixDir.listFiles();
+            if (chunkFiles == null) {
+                continue;
+            }
+            for (File chunkFile : chunkFiles) {
+                HashCode hash = ChunkedEntryStore.chunkHashOf(chunkFile);
+                if (hash != null && (referenceCounts.containsKey(hash) || chunkFile.lastModified() > keepModifiedAfter)) {
+                    progressMonitor.incrementSkipped();
+                } else {
+                    progressMonitor.incrementDeleted();
+                    if (FileUtils.deleteQuietly(chunkFile)) {
+                        chunksDeleted++;
+                    }
+                }
+            }
+            String[] remaining = prefixDir.list();
+            if (remaining != null && remaining.length == 0) {
+                //noinspection ResultOfMethodCallIgnored
+                prefixDir.delete();
+            }
+        }
+        LOGGER.info("{} cleanup deleted {} unreferenced chunks.", cleanableStore.getDisplayName(), chunksDeleted);
+    }
+
+    private static Map<HashCode, Integer> countChunkReferences(File baseDir) {
+        Map<HashCode, Integer> referenceCounts = new HashMap<>();
+        File[] manifestFiles = baseDir.listFiles((dir, name) -> name.endsWith(ChunkedEntryStore.MANIFEST_SUFFIX));
+        if (manifestFiles == null) {
+            return referenceCounts;
+        }
+        for (File manifestFile : manifestFiles) {
+            try {
+                for (ChunkedEntryStore.ChunkReference chunk : ChunkedEntryStore.readManifest(manifestFile)) {
+                    referenceCounts.merge(chunk.hash, 1, Integer::sum);
+                }
+            } catch (IOException e) {
+                // An unreadable manifest cannot be loaded, so its chunks do not need to be kept
+                LOGGER.debug("Could not read build cache entry manifest {}", manifestFile, e);
+                FileUtils.deleteQuietly(manifestFile);
+            }
+        }
+        return referenceCounts;
+    }
+}
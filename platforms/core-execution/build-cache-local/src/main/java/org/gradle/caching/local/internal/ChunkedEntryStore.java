@@ -0,0 +1,217 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.caching.local.internal;
+
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.hash.Hashing;
+import org.gradle.internal.hash.PrimitiveHasher;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Stores entries as manifests listing content-defined chunks, which are kept once in the {@value #CHUNKS_DIR} directory
+ * and shared between all entries containing them.
+ *
+ * <p>A manifest is stored next to regular entries, named after the entry key with the {@value #MANIFEST_SUFFIX} suffix.
+ * Chunks are named after the hash of their contents, and are only removed once no manifest references them
+ * and they have not been written or reused recently.</p>
+ */
+@NullMarked
+class ChunkedEntryStore {
+    static final String MANIFEST_SUFFIX = ".chunked";
+    static final String CHUNKS_DIR = "chunks";
+
+    private static final int MANIFEST_MAGIC = 0x4742434d; // "GBCM"
+    private static final int MANIFEST_VERSION = 1;
+
+    private final File chunksDir;
+    private final Supplier<File> tempFileFactory;
+    private final ContentDefinedChunker chunker = new ContentDefinedChunker();
+
+    /**
+     * Creates a store in the given cache directory, using the given factory to create temporary files on the same file system.
+     */
+    ChunkedEntryStore(File baseDir, Supplier<File> tempFileFactory) {
+        this.chunksDir = new File(baseDir, CHUNKS_DIR);
+        this.tempFileFactory = tempFileFactory;
+    }
+
+    File getChunksDir() {
+        return chunksDir;
+    }
+
+    static File manifestFileFor(File entryFile) {
+        return new File(entryFile.getPath() + MANIFEST_SUFFIX);
+    }
+
+    /**
+     * Splits the given entry into chunks, stores the chunks that are not yet stored, and then writes the manifest.
+     */
+    void store(InputStream entry, File manifestFile) throws IOException {
+        List<ChunkReference> chunks = new ArrayList<>();
+        chunker.split(entry, (chunk, length) -> {
+            PrimitiveHasher hasher = Hashing.newPrimitiveHasher();
+            hasher.putBytes(chunk, 0, length);
+            HashCode hash = hasher.hash();
+            File chunkFile = getChunkFile(hash);
+            // Touch reused chunks so that cleanup keeps them until the manifest referencing them is written
+            if (!chunkFile.setLastModified(System.currentTimeMillis())) {
+                writeAtomically(chunkFile, output -> output.write(chunk, 0, length));
+            }
+            chunks.add(new ChunkReference(hash, length));
+        });
+        writeAtomically(manifestFile, output -> {
+            DataOutputStream data = new DataOutputStream(output);
+            data.writeInt(MANIFEST_MAGIC);
+            data.writeByte(MANIFEST_VERSION);
+            data.writeInt(chunks.size());
+            for (ChunkReference chunk : chunks) {
+                byte[] hash = chunk.hash.toByteArray();
+                data.writeByte(hash.length);
+                data.write(hash);
+                data.writeInt(chunk.length);
+            }
+            data.flush();
+        });
+    }
+
+    /**
+     * Reassembles the entry described by the given manifest into the target file.
+     *
+     * @return {@code false} if a chunk is missing or does not match its hash, in which case the entry cannot be loaded.
+     */
+    boolean reassemble(File manifestFile, File targetFile) throws IOException {
+        byte[] buffer = new byte[ContentDefinedChunker.MAX_CHUNK_SIZE];
+        try (OutputStream output = new BufferedOutputStream(new FileOutputStream(targetFile))) {
+            for (ChunkReference chunk : readManifest(manifestFile)) {
+                File chunkFile = getChunkFile(chunk.hash);
+                if (chunk.length > buffer.length || chunkFile.length() != chunk.length) {
+                    return false;
+                }
+                try (InputStream input = new FileInputStream(chunkFile)) {
+                    readFully(input, buffer, chunk.length);
+                }
+                PrimitiveHasher hasher = Hashing.newPrimitiveHasher();
+                hasher.putBytes(buffer, 0, chunk.length);
+                if (!hasher.hash().equals(chunk.hash)) {
+                    return false;
+                }
+                output.write(buffer, 0, chunk.length);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the chunks referenced by the given manifest, in order.
+     */
+    static List<ChunkReference> readManifest(File manifestFile) throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(manifestFile)))) {
+            if (input.readInt() != MANIFEST_MAGIC) {
+                throw new IOException("Not a build cache entry manifest: " + manifestFile);
+            }
+            int version = input.readUnsignedByte();
+            if (version != MANIFEST_VERSION) {
+                throw new IOException("Unsupported build cache entry manifest version " + version + ": " + manifestFile);
+            }
+            int count = input.readInt();
+            List<ChunkReference> chunks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                byte[] hash = new byte[input.readUnsignedByte()];
+                input.readFully(hash);
+                chunks.add(new ChunkReference(HashCode.fromBytes(hash), input.readInt()));
+            }
+            return chunks;
+        }
+    }
+
+    File getChunkFile(HashCode hash) {
+        String name = hash.toString();
+        return new File(new File(chunksDir, name.substring(0, 2)), name);
+    }
+
+    /**
+     * Returns the hash a chunk file is named after, or {@code null} if the file is not a chunk.
+     */
+    @Nullable
+    static HashCode chunkHashOf(File chunkFile) {
+        try {
+            return HashCode.fromString(chunkFile.getName());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void writeAtomically(File target, ContentWriter writer) throws IOException {
+        File tempFile = tempFileFactory.get();
+        try {
+            try (OutputStream output = new BufferedOutputStream(new FileOutputStream(tempFile))) {
+                writer.write(output);
+            }
+            Files.createDirectories(target.getParentFile().toPath());
+            try {
+                Files.move(tempFile.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException ignore) {
+                // The same content was stored concurrently
+            }
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+    }
+
+    private static void readFully(InputStream input, byte[] buffer, int length) throws IOException {
+        int offset = 0;
+        while (offset < length) {
+            int read = input.read(buffer, offset, length - offset);
+            if (read < 0) {
+                throw new IOException("Unexpected end of chunk");
+            }
+            offset += read;
+        }
+    }
+
+    private interface ContentWriter {
+        void write(OutputStream output) throws IOException;
+    }
+
+    static class ChunkReference {
+        final HashCode hash;
+        final int length;
+
+        ChunkReference(HashCode hash, int length) {
+            this.hash = hash;
+            this.length = length;
+        }
+    }
+}
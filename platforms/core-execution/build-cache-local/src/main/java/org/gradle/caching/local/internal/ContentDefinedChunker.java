@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.caching.local.internal;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+/**
+ * Splits a stream into chunks at boundaries determined by its content, using a gear rolling hash.
+ *
+ * <p>Since boundaries only depend on the bytes preceding them, inserting or removing bytes in one part of a stream
+ * leaves the chunks of the other parts unchanged, which lets similar entries share most of their chunks.</p>
+ */
+@NullMarked
+class ContentDefinedChunker {
+    static final int MIN_CHUNK_SIZE = 16 * 1024;
+    static final int MAX_CHUNK_SIZE = 256 * 1024;
+
+    /**
+     * Selects 16 bits of the hash, which makes chunks 64 KiB larger than the minimum on average.
+     * The highest bits are used since they depend on the most preceding bytes.
+     */
+    private static final long BOUNDARY_MASK = 0xffffL << 48;
+
+    private static final long[] GEAR = createGearTable();
+
+    private final int minChunkSize;
+    private final int maxChunkSize;
+    private final long boundaryMask;
+
+    ContentDefinedChunker() {
+        this(MIN_CHUNK_SIZE, MAX_CHUNK_SIZE, BOUNDARY_MASK);
+    }
+
+    ContentDefinedChunker(int minChunkSize, int maxChunkSize, long boundaryMask) {
+        this.minChunkSize = minChunkSize;
+        this.maxChunkSize = maxChunkSize;
+        this.boundaryMask = boundaryMask;
+    }
+
+    /**
+     * Reads the given stream to its end, passing each chunk to the given consumer.
+     * The array passed to the consumer is reused for the next chunk.
+     */
+    void split(InputStream input, ChunkConsumer consumer) throws IOException {
+        byte[] chunk = new byte[maxChunkSize];
+        byte[] buffer = new byte[64 * 1024];
+        int length = 0;
+        long hash = 0;
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                byte value = buffer[i];
+                chunk[length++] = value;
+                hash = (hash << 1) + GEAR[value & 0xff];
+                if (length >= maxChunkSize || (length >= minChunkSize && (hash & boundaryMask) == 0)) {
+                    consumer.accept(chunk, length);
+                    length = 0;
+                    hash = 0;
+                }
+            }
+        }
+        if (length > 0) {
+            consumer.accept(chunk, length);
+        }
+    }
+
+    private static long[] createGearTable() {
+        // The table must never change, otherwise stored chunks would no longer be shared with new entries
+        Random random = new Random(0x6275696c64L);
+        long[] table = new long[256];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = random.nextLong();
+        }
+        return table;
+    }
+
+    interface ChunkConsumer {
+        void accept(byte[] chunk, int length) throws IOException;
+    }
+}
@@ -46,21 +46,35 @@ public class DirectoryBuildCache implements BuildCacheTempFileStore, Closeable,
     private final BuildCacheTempFileStore tempFileStore;
     private final FileAccessTracker fileAccessTracker;
     private final String failedFileSuffix;
+    private final ChunkedEntryStore chunkedEntryStore;
+    private final boolean storeChunked;
     private final ReadWriteLock lock = new ReentrantReadWriteLock();
 
     public DirectoryBuildCache(PersistentCache persistentCache, FileAccessTracker fileAccessTracker, String failedFileSuffix) {
+        this(persistentCache, fileAccessTracker, failedFileSuffix, false);
+    }
+
+    /**
+     * Creates a cache that stores new entries as chunks shared between entries when {@code storeChunked} is set.
+     * Entries stored in either layout can always be loaded.
+     */
+    public DirectoryBuildCache(PersistentCache persistentCache, FileAccessTracker fileAccessTracker, String failedFileSuffix, boolean storeChunked) {
         this.persistentCache = persistentCache;
         // Create temporary files in the cache directory to ensure they are on the same file system,
         // and thus can always be moved into the cache proper atomically
-        this.tempFileStore = new DefaultBuildCacheTempFileStore((prefix, suffix) -> {
-            try {
-                return Files.createTempFile(persistentCache.getBaseDir().toPath(), prefix, suffix).toFile();
-            } catch (IOException e) {
-                throw UncheckedException.throwAsUncheckedException(e);
-            }
-        });
+        this.tempFileStore = new DefaultBuildCacheTempFileStore((prefix, suffix) -> createTempFile(persistentCache, prefix, suffix));
+        this.chunkedEntryStore = new ChunkedEntryStore(persistentCache.getBaseDir(), () -> createTempFile(persistentCache, "chunk", ".tmp"));
         this.fileAccessTracker = fileAccessTracker;
         this.failedFileSuffix = failedFileSuffix;
+        this.storeChunked = storeChunked;
+    }
+
+    private static File createTempFile(PersistentCache persistentCache, String prefix, String suffix) {
+        try {
+            return Files.createTempFile(persistentCache.getBaseDir().toPath(), prefix, suffix).toFile();
+        } catch (IOException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
     }
 
     @Override
@@ -100,6 +114,10 @@ public void loadLocally(HashCode key, Consumer<? super File> reader) {
     private void loadInsideLock(HashCode key, Consumer<? super File> reader) {
         File file = getCacheEntryFile(key);
         if (!file.exists()) {
+            File manifestFile = ChunkedEntryStore.manifestFileFor(file);
+            if (manifestFile.exists()) {
+                loadChunkedInsideLock(key, manifestFile, reader);
+            }
             return;
         }
 
@@ -108,17 +126,46 @@ private void loadInsideLock(HashCode key, Consumer<? super File> reader) {
         try {
             reader.accept(file);
         } catch (Exception e) {
-            // Try to move the file out of the way in case its permanently corrupt
-            // Don't delete, so that it can be potentially used for debugging
-            File failedFile = new File(file.getAbsolutePath() + failedFileSuffix);
-            FileUtils.deleteQuietly(failedFile);
-            //noinspection ResultOfMethodCallIgnored
-            file.renameTo(failedFile);
-
+            moveAsideFailedEntry(file);
             throw UncheckedException.throwAsUncheckedException(e);
         }
     }
 
+    private void loadChunkedInsideLock(HashCode key, File manifestFile, Consumer<? super File> reader) {
+        fileAccessTracker.markAccessed(manifestFile);
+        fileAccessTracker.markAccessed(chunkedEntryStore.getChunksDir());
+
+        tempFileStore.withTempFile(key, entryFile -> {
+            boolean reassembled;
+            try {
+                reassembled = chunkedEntryStore.reassemble(manifestFile, entryFile);
+            } catch (Exception e) {
+                moveAsideFailedEntry(manifestFile);
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+            if (!reassembled) {
+                // Some chunks are missing or corrupt, treat the entry as missing
+                moveAsideFailedEntry(manifestFile);
+                return;
+            }
+            try {
+                reader.accept(entryFile);
+            } catch (Exception e) {
+                moveAsideFailedEntry(manifestFile);
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+        });
+    }
+
+    private void moveAsideFailedEntry(File file) {
+        // Try to move the file out of the way in case its permanently corrupt
+        // Don't delete, so that it can be potentially used for debugging
+        File failedFile = new File(file.getAbsolutePath() + failedFileSuffix);
+        FileUtils.deleteQuietly(failedFile);
+        //noinspection ResultOfMethodCallIgnored
+        file.renameTo(failedFile);
+    }
+
     @Override
     public void store(HashCode key, InputStream entry) {
         tempFileStore.withTempFile(key, file -> {
@@ -148,6 +195,10 @@ public void storeLocally(HashCode key, File file) {
 
     private void storeInsideLock(HashCode key, File sourceFile) {
         File targetFile = getCacheEntryFile(key);
+        if (storeChunked) {
+            storeChunkedInsideLock(key, sourceFile, targetFile);
+            return;
+        }
         try {
             Files.move(sourceFile.toPath(), targetFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
         } catch (FileAlreadyExistsException ignore) {
@@ -161,6 +212,31 @@ private void storeInsideLock(HashCode key, File sourceFile) {
         fileAccessTracker.markAccessed(targetFile);
     }
 
+    private void storeChunkedInsideLock(HashCode key, File sourceFile, File targetFile) {
+        File manifestFile = ChunkedEntryStore.manifestFileFor(targetFile);
+        try {
+            if (!targetFile.exists() && !manifestFile.exists()) {
+                try (InputStream input = new FileInputStream(sourceFile)) {
+                    chunkedEntryStore.store(input, manifestFile);
+                }
+            }
+            Files.deleteIfExists(sourceFile.toPath());
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Couldn't store cache entry '%s' in local cache: %s", key, e), e);
+        }
+        fileAccessTracker.markAccessed(targetFile.exists() ? targetFile : manifestFile);
+        fileAccessTracker.markAccessed(chunkedEntryStore.getChunksDir());
+    }
+
+    /**
+     * Checks for the entry without taking the cache lock, so the answer may be outdated as soon as it is returned.
+     */
+    @Override
+    public boolean contains(HashCode key) {
+        File file = getCacheEntryFile(key);
+        return file.exists() || ChunkedEntryStore.manifestFileFor(file).exists();
+    }
+
     @Override
     public void withTempFile(HashCode key, Consumer<? super File> action) {
         persistentCache.withFileLock(() -> tempFileStore.withTempFile(key, action));
@@ -38,7 +38,11 @@ public class DirectoryBuildCacheService implements LocalBuildCacheService, Build
     private final DirectoryBuildCache cache;
 
     public DirectoryBuildCacheService(PersistentCache persistentCache, FileAccessTracker fileAccessTracker, String failedFileSuffix) {
-        this.cache = new DirectoryBuildCache(persistentCache, fileAccessTracker, failedFileSuffix);
+        this(persistentCache, fileAccessTracker, failedFileSuffix, false);
+    }
+
+    public DirectoryBuildCacheService(PersistentCache persistentCache, FileAccessTracker fileAccessTracker, String failedFileSuffix, boolean storeChunked) {
+        this.cache = new DirectoryBuildCache(persistentCache, fileAccessTracker, failedFileSuffix, storeChunked);
     }
 
     @Override
@@ -66,6 +70,11 @@ public void storeLocally(BuildCacheKey key, File file) {
         cache.storeLocally(((BuildCacheKeyInternal) key).getHashCodeInternal(), file);
     }
 
+    @Override
+    public boolean contains(BuildCacheKey key) {
+        return cache.contains(((BuildCacheKeyInternal) key).getHashCodeInternal());
+    }
+
     @Override
     public void withTempFile(HashCode key, Consumer<? super File> action) {
         cache.withTempFile(key, action);
@@ -32,4 +32,6 @@ public interface LocalBuildCache extends Closeable {
     void store(HashCode key, InputStream entry);
 
     void storeLocally(HashCode key, File file);
+
+    boolean contains(HashCode key);
 }
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.caching.local.internal
+
+import org.gradle.cache.CleanableStore
+import org.gradle.cache.CleanupProgressMonitor
+import org.gradle.cache.PersistentCache
+import org.gradle.internal.file.FileAccessTracker
+import org.gradle.internal.file.nio.ModificationTimeFileAccessTimeJournal
+import org.gradle.internal.hash.TestHashCodes
+import org.gradle.internal.time.TimestampSuppliers
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class ChunkReferenceCountingCacheCleanupTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider temporaryFolder = new TestNameTestDirectoryProvider(getClass())
+    def cacheDir = temporaryFolder.createDir("cache")
+    def cleanableStore = Stub(CleanableStore) {
+        getBaseDir() >> cacheDir
+        getDisplayName() >> "Build cache"
+    }
+    def persistentCache = Stub(PersistentCache) {
+        getBaseDir() >> cacheDir
+        withFileLock(_) >> { Runnable r -> r.run() }
+    }
+    def cache = new DirectoryBuildCache(persistentCache, Stub(FileAccessTracker), ".failed", true)
+    def cleanup = new ChunkReferenceCountingCacheCleanup(new ModificationTimeFileAccessTimeJournal(), TimestampSuppliers.daysAgo(1))
+
+    def "deletes chunks only referenced by removed entries"() {
+        def oldKey = TestHashCodes.hashCodeFrom(1)
+        def newKey = TestHashCodes.hashCodeFrom(2)
+        def shared = randomBytes(512 * 1024, 1)
+        def oldContents = randomBytes(512 * 1024, 2)
+        def newContents = randomBytes(512 * 1024, 3)
+        cache.store(oldKey, new ByteArrayInputStream(concat(shared, oldContents)))
+        cache.store(newKey, new ByteArrayInputStream(concat(shared, newContents)))
+        def allChunks = chunkFiles()
+        def store = new ChunkedEntryStore(cacheDir, { throw new UnsupportedOperationException() })
+        def referencedChunks = ChunkedEntryStore.readManifest(cacheDir.file("${newKey}.chunked"))
+            .collect { store.getChunkFile(it.hash) }
+            .unique()
+            .sort()
+        makeOld(cacheDir.file("${oldKey}.chunked"))
+        makeOld(cacheDir.file(ChunkedEntryStore.CHUNKS_DIR))
+        allChunks.each { makeOld(it) }
+
+        when:
+        cleanup.clean(cleanableStore, Stub(CleanupProgressMonitor))
+
+        then:
+        !cacheDir.file("${oldKey}.chunked").exists()
+        cacheDir.file("${newKey}.chunked").exists()
+        chunkFiles() == referencedChunks
+        referencedChunks.size() < allChunks.size()
+
+        when:
+        byte[] loaded = null
+        cache.load(newKey) { input -> loaded = input.bytes }
+
+        then:
+        loaded == concat(shared, newContents)
+    }
+
+    def "keeps chunks referenced by entries that are still in use"() {
+        def key = TestHashCodes.hashCodeFrom(1)
+        cache.store(key, new ByteArrayInputStream(randomBytes(256 * 1024, 1)))
+        def chunks = chunkFiles()
+        makeOld(cacheDir.file(ChunkedEntryStore.CHUNKS_DIR))
+
+        when:
+        cleanup.clean(cleanableStore, Stub(CleanupProgressMonitor))
+
+        then:
+        chunkFiles() == chunks
+    }
+
+    def "keeps recently written chunks not referenced by any entry yet"() {
+        def key = TestHashCodes.hashCodeFrom(1)
+        cache.store(key, new ByteArrayInputStream(randomBytes(256 * 1024, 1)))
+        def chunks = chunkFiles()
+        cacheDir.file("${key}.chunked").delete()
+        makeOld(cacheDir.file(ChunkedEntryStore.CHUNKS_DIR))
+
+        when:
+        cleanup.clean(cleanableStore, Stub(CleanupProgressMonitor))
+
+        then:
+        chunkFiles() == chunks
+    }
+
+    def "entries stored while cleanup runs can be loaded"() {
+        def contents = (1..8).collect { randomBytes(512 * 1024, it) }
+        def keys = (1..contents.size()).collect { TestHashCodes.hashCodeFrom(it) }
+        // Leave old, unreferenced chunks behind for the concurrent stores to reuse
+        keys.eachWithIndex { key, i -> cache.store(key, new ByteArrayInputStream(contents[i])) }
+        keys.each { cacheDir.file("${it}.chunked").delete() }
+        chunkFiles().each { makeOld(it) }
+        makeOld(cacheDir.file(ChunkedEntryStore.CHUNKS_DIR))
+
+        when:
+        def executor = Executors.newFixedThreadPool(2)
+        try {
+            def stores = executor.submit {
+                keys.eachWithIndex { key, i -> cache.store(key, new ByteArrayInputStream(contents[i])) }
+            }
+            def cleanups = executor.submit {
+                while (!stores.done) {
+                    cleanup.clean(cleanableStore, Stub(CleanupProgressMonitor))
+                }
+            }
+            stores.get(30, TimeUnit.SECONDS)
+            cleanups.get(30, TimeUnit.SECONDS)
+        } finally {
+            executor.shutdownNow()
+        }
+        cleanup.clean(cleanableStore, Stub(CleanupProgressMonitor))
+
+        then:
+        keys.eachWithIndex { key, i ->
+            byte[] loaded = null
+            assert cache.load(key) { input -> loaded = input.bytes }
+            assert loaded == contents[i]
+        }
+    }
+
+    private static void makeOld(File file) {
+        file.setLastModified(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(5))
+    }
+
+    private List<File> chunkFiles() {
+        def chunksDir = cacheDir.file(ChunkedEntryStore.CHUNKS_DIR)
+        chunksDir.exists() ? chunksDir.listFiles().collectMany { it.listFiles() as List }.sort() : []
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        def output = new ByteArrayOutputStream()
+        output.write(first)
+        output.write(second)
+        output.toByteArray()
+    }
+
+    private static byte[] randomBytes(int size, long seed) {
+        def bytes = new byte[size]
+        new Random(seed).nextBytes(bytes)
+        bytes
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.caching.local.internal
+
+import spock.lang.Specification
+
+class ContentDefinedChunkerTest extends Specification {
+    def chunker = new ContentDefinedChunker()
+
+    def "chunks reproduce the input and respect size limits"() {
+        def input = randomBytes(3 * 1024 * 1024, 1)
+
+        when:
+        def chunks = split(input)
+
+        then:
+        concat(chunks) == input
+        chunks.size() > 1
+        chunks.every { it.length <= ContentDefinedChunker.MAX_CHUNK_SIZE }
+        chunks.dropRight(1).every { it.length >= ContentDefinedChunker.MIN_CHUNK_SIZE }
+    }
+
+    def "inserting bytes only changes the chunks around the insertion"() {
+        def input = randomBytes(2 * 1024 * 1024, 2)
+        def modified = new ByteArrayOutputStream()
+        modified.write(input, 0, 1024 * 1024)
+        modified.write(randomBytes(100, 3))
+        modified.write(input, 1024 * 1024, input.length - 1024 * 1024)
+
+        when:
+        def original = split(input).collect { it.encodeHex().toString() }
+        def changed = split(modified.toByteArray()).collect { it.encodeHex().toString() }
+
+        then:
+        (changed - original).size() <= 2
+    }
+
+    def "empty input has no chunks"() {
+        expect:
+        split(new byte[0]).empty
+    }
+
+    private List<byte[]> split(byte[] input) {
+        List<byte[]> chunks = []
+        chunker.split(new ByteArrayInputStream(input)) { byte[] chunk, int length ->
+            chunks << Arrays.copyOf(chunk, length)
+        }
+        chunks
+    }
+
+    private static byte[] concat(List<byte[]> chunks) {
+        def output = new ByteArrayOutputStream()
+        chunks.each { output.write(it) }
+        output.toByteArray()
+    }
+
+    private static byte[] randomBytes(int size, long seed) {
+        def bytes = new byte[size]
+        new Random(seed).nextBytes(bytes)
+        bytes
+    }
+}
@@ -127,4 +127,94 @@ class DirectoryBuildCacheTest extends Specification {
         // as `Files.move()` and `File.renameTo()` can either fail or replace the
         // already existing file; it's up to the implementation.
     }
+
+    def "stores and loads chunked entries"() {
+        given:
+        def chunkedCache = new DirectoryBuildCache(persistentCache, fileAccessTracker, ".failed", true)
+        def otherKey = TestHashCodes.hashCodeFrom(87654321)
+        def contents = randomBytes(1024 * 1024)
+        def otherContents = contents.clone()
+        otherContents[1000] = (byte) (otherContents[1000] + 1)
+
+        when:
+        chunkedCache.store(key, new ByteArrayInputStream(contents))
+        def chunkCount = chunkFiles().size()
+        chunkedCache.store(otherKey, new ByteArrayInputStream(otherContents))
+
+        then:
+        cacheDir.file("${key}.chunked").exists()
+        !cacheDir.file(key.toString()).exists()
+        // Only the chunk containing the changed byte is stored again
+        chunkFiles().size() == chunkCount + 1
+
+        when:
+        byte[] loaded = null
+        byte[] otherLoaded = null
+        chunkedCache.load(key) { input -> loaded = input.bytes }
+        chunkedCache.load(otherKey) { input -> otherLoaded = input.bytes }
+
+        then:
+        loaded == contents
+        otherLoaded == otherContents
+    }
+
+    def "treats chunked entry with missing chunk as a miss"() {
+        given:
+        def chunkedCache = new DirectoryBuildCache(persistentCache, fileAccessTracker, ".failed", true)
+        chunkedCache.store(key, new ByteArrayInputStream(randomBytes(100 * 1024)))
+        chunkFiles().first().delete()
+
+        when:
+        def loaded = chunkedCache.load(key) { input ->
+            throw new AssertionError("should not be called")
+        }
+
+        then:
+        !loaded
+        !cacheDir.file("${key}.chunked").exists()
+        cacheDir.file("${key}.chunked.failed").exists()
+    }
+
+    def "loads regular entries when storing chunked entries"() {
+        given:
+        cache.store(key, new ByteArrayInputStream("foo".getBytes()))
+        def chunkedCache = new DirectoryBuildCache(persistentCache, fileAccessTracker, ".failed", true)
+
+        when:
+        def loaded = chunkedCache.load(key) { input ->
+            assert input.text == "foo"
+        }
+
+        then:
+        loaded
+    }
+
+    def "knows which entries it contains"() {
+        given:
+        def chunkedCache = new DirectoryBuildCache(persistentCache, fileAccessTracker, ".failed", true)
+        def otherKey = TestHashCodes.hashCodeFrom(87654321)
+
+        expect:
+        !cache.contains(key)
+        !cache.contains(otherKey)
+
+        when:
+        cache.store(key, new ByteArrayInputStream("foo".getBytes()))
+        chunkedCache.store(otherKey, new ByteArrayInputStream("bar".getBytes()))
+
+        then:
+        cache.contains(key)
+        cache.contains(otherKey)
+    }
+
+    private List<File> chunkFiles() {
+        def chunksDir = cacheDir.file(ChunkedEntryStore.CHUNKS_DIR)
+        chunksDir.exists() ? chunksDir.listFiles().collectMany { it.listFiles() as List } : []
+    }
+
+    private static byte[] randomBytes(int size) {
+        def bytes = new byte[size]
+        new Random(1234).nextBytes(bytes)
+        bytes
+    }
 }
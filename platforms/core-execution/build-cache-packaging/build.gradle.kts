@@ -14,6 +14,7 @@ dependencies {
 
     api(libs.guava)
 
+    implementation(libs.aircompressor)
     implementation(libs.commonsCompress)
     implementation(libs.commonsIo)
 
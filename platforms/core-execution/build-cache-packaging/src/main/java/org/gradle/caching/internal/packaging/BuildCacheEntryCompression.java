@@ -0,0 +1,215 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.caching.internal.packaging;
+
+import io.airlift.compress.lz4.Lz4HadoopStreams;
+import io.airlift.compress.zstd.ZstdInputStream;
+import io.airlift.compress.zstd.ZstdOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The compression applied to a packed build cache entry.
+ *
+ * <p>Entries compressed with gzip are written without a header, so they stay readable by older Gradle versions.
+ * Every other format is preceded by {@link #MAGIC} and a single byte identifying the format.</p>
+ */
+public enum BuildCacheEntryCompression {
+    /**
+     * Gzip with the default compression level.
+     */
+    GZIP(-1) {
+        @Override
+        protected OutputStream compress(OutputStream output) throws IOException {
+            return new GZIPOutputStream(output, BUFFER_SIZE);
+        }
+
+        @Override
+        protected InputStream decompress(InputStream input) throws IOException {
+            return new GZIPInputStream(input, BUFFER_SIZE);
+        }
+    },
+
+    /**
+     * Gzip favouring speed over compression ratio.
+     * The result is a regular gzip stream, so it can be read by any Gradle version.
+     */
+    GZIP_FAST(-1) {
+        @Override
+        protected OutputStream compress(OutputStream output) throws IOException {
+            return new GZIPOutputStream(output, BUFFER_SIZE) {
+                {
+                    def.setLevel(Deflater.BEST_SPEED);
+                }
+            };
+        }
+
+        @Override
+        protected InputStream decompress(InputStream input) throws IOException {
+            return GZIP.decompress(input);
+        }
+    },
+
+    /**
+     * No compression, for caches where the size of entries matters less than the time spent packing and unpacking them.
+     */
+    NONE(1) {
+        @Override
+        protected OutputStream compress(OutputStream output) {
+            return output;
+        }
+
+        @Override
+        protected InputStream decompress(InputStream input) {
+            return input;
+        }
+    },
+
+    /**
+     * Zstandard, with a compression ratio close to gzip at a fraction of the cost.
+     */
+    ZSTD(2) {
+        @Override
+        protected OutputStream compress(OutputStream output) throws IOException {
+            return new ZstdOutputStream(output);
+        }
+
+        @Override
+        protected InputStream decompress(InputStream input) {
+            return new ZstdInputStream(input);
+        }
+    },
+
+    /**
+     * LZ4, favouring speed over compression ratio even more than {@link #ZSTD}.
+     */
+    LZ4(3) {
+        @Override
+        protected OutputStream compress(OutputStream output) throws IOException {
+            return new Lz4HadoopStreams().createOutputStream(output);
+        }
+
+        @Override
+        protected InputStream decompress(InputStream input) throws IOException {
+            return new Lz4HadoopStreams().createInputStream(input);
+        }
+    };
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The marker written at the start of entries that do not use gzip.
+     */
+    private static final byte[] MAGIC = {'G', 'B', 'C', 'E'};
+    private static final int GZIP_MAGIC_FIRST_BYTE = 0x1f;
+    private static final int GZIP_MAGIC_SECOND_BYTE = 0x8b;
+
+    private final int formatId;
+
+    BuildCacheEntryCompression(int formatId) {
+        this.formatId = formatId;
+    }
+
+    protected abstract OutputStream compress(OutputStream output) throws IOException;
+
+    protected abstract InputStream decompress(InputStream input) throws IOException;
+
+    /**
+     * Writes the format header, if any, and returns a stream compressing everything written to it.
+     * Closing the returned stream closes the given stream.
+     */
+    public OutputStream wrap(OutputStream output) throws IOException {
+        if (formatId >= 0) {
+            output.write(MAGIC);
+            output.write(formatId);
+        }
+        return compress(output);
+    }
+
+    /**
+     * Detects the format of the given entry and returns a stream of its decompressed contents.
+     * Closing the returned stream closes the given stream.
+     */
+    public static InputStream unwrap(InputStream input) throws IOException {
+        int first = input.read();
+        int second = input.read();
+        if (first == GZIP_MAGIC_FIRST_BYTE && second == GZIP_MAGIC_SECOND_BYTE) {
+            return GZIP.decompress(new PrefixedInputStream(new byte[]{(byte) first, (byte) second}, input));
+        }
+        if (first != MAGIC[0] || second != MAGIC[1] || input.read() != MAGIC[2] || input.read() != MAGIC[3]) {
+            throw new IOException("Unknown build cache entry format");
+        }
+        int formatId = input.read();
+        for (BuildCacheEntryCompression compression : values()) {
+            if (compression.formatId >= 0 && compression.formatId == formatId) {
+                return compression.decompress(input);
+            }
+        }
+        throw new IOException("Unsupported build cache entry compression format: " + formatId);
+    }
+
+    /**
+     * Replays the bytes consumed while detecting the format before reading from the wrapped stream.
+     */
+    private static class PrefixedInputStream extends InputStream {
+        private final byte[] prefix;
+        private final InputStream delegate;
+        private int position;
+
+        PrefixedInputStream(byte[] prefix, InputStream delegate) {
+            this.prefix = prefix;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (position < prefix.length) {
+                return prefix[position++] & 0xff;
+            }
+            return delegate.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (position < prefix.length) {
+                int count = Math.min(len, prefix.length - position);
+                System.arraycopy(prefix, position, b, off, count);
+                position += count;
+                return count;
+            }
+            return delegate.read(b, off, len);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return prefix.length - position + delegate.available();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -54,21 +54,32 @@
 import org.jspecify.annotations.Nullable;
 
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -78,8 +89,11 @@
 
 /**
  * Packages build cache entries to a POSIX TAR file.
+ *
+ * <p>When created with an executor, the contents of small files are buffered while reading the archive,
+ * and written to disk on the executor's threads. The archive itself is still read by the calling thread.</p>
  */
-public class TarBuildCacheEntryPacker implements BuildCacheEntryPacker {
+public class TarBuildCacheEntryPacker implements BuildCacheEntryPacker, Closeable {
 
     @SuppressWarnings("OctalInteger")
     private interface UnixPermissions {
@@ -94,11 +108,23 @@ private interface UnixPermissions {
     private static final String METADATA_PATH = "METADATA";
     private static final Pattern TREE_PATH = Pattern.compile("(missing-)?tree-([^/]+)(?:/(.*))?");
 
+    /**
+     * Files larger than this are written by the thread reading the archive, without buffering their contents.
+     */
+    private static final int MAX_BUFFERED_FILE_SIZE = 1024 * 1024;
+
+    /**
+     * The maximum number of bytes buffered for files that are waiting to be written.
+     */
+    private static final int MAX_BUFFERED_BYTES = 16 * 1024 * 1024;
+
     private final TarPackerFileSystemSupport fileSystemSupport;
     private final FilePermissionAccess filePermissionAccess;
     private final StreamHasher streamHasher;
     private final Interner<String> stringInterner;
     private final BufferProvider bufferProvider;
+    @Nullable
+    private final ExecutorService fileWriteExecutor;
 
     public TarBuildCacheEntryPacker(
         TarPackerFileSystemSupport fileSystemSupport,
@@ -106,12 +132,28 @@ public TarBuildCacheEntryPacker(
         StreamHasher streamHasher,
         Interner<String> stringInterner,
         BufferProvider bufferProvider
+    ) {
+        this(fileSystemSupport, filePermissionAccess, streamHasher, stringInterner, bufferProvider, null);
+    }
+
+    /**
+     * Creates a packer that writes unpacked files on the given executor.
+     * The packer takes ownership of the executor, and shuts it down when closed.
+     */
+    public TarBuildCacheEntryPacker(
+        TarPackerFileSystemSupport fileSystemSupport,
+        FilePermissionAccess filePermissionAccess,
+        StreamHasher streamHasher,
+        Interner<String> stringInterner,
+        BufferProvider bufferProvider,
+        @Nullable ExecutorService fileWriteExecutor
     ) {
         this.fileSystemSupport = fileSystemSupport;
         this.filePermissionAccess = filePermissionAccess;
         this.streamHasher = streamHasher;
         this.stringInterner = stringInterner;
         this.bufferProvider = bufferProvider;
+        this.fileWriteExecutor = fileWriteExecutor;
     }
 
     @Override
@@ -175,13 +217,29 @@ public UnpackResult unpack(CacheableEntity entity, InputStream input, OriginRead
     }
 
     private UnpackResult unpack(CacheableEntity entity, TarArchiveInputStream tarInput, OriginReader readOriginAction) throws IOException {
+        if (fileWriteExecutor == null) {
+            return unpack(entity, tarInput, readOriginAction, null);
+        }
+        PendingFileWrites pendingWrites = new PendingFileWrites(fileWriteExecutor);
+        UnpackResult result;
+        try {
+            result = unpack(entity, tarInput, readOriginAction, pendingWrites);
+        } catch (Throwable t) {
+            // Do not leave files being written behind when failing
+            pendingWrites.awaitCompletion();
+            throw t;
+        }
+        return result;
+    }
+
+    private UnpackResult unpack(CacheableEntity entity, TarArchiveInputStream tarInput, OriginReader readOriginAction, @Nullable PendingFileWrites pendingWrites) throws IOException {
         ImmutableMap.Builder<String, CacheableTree> treesBuilder = ImmutableMap.builder();
         entity.visitOutputTrees((name, type, root) -> treesBuilder.put(name, new CacheableTree(type, root)));
         ImmutableMap<String, CacheableTree> treesByName = treesBuilder.build();
 
         TarArchiveEntry tarEntry;
         OriginMetadata originMetadata = null;
-        Map<String, FileSystemLocationSnapshot> snapshots = new HashMap<>();
+        Map<String, Supplier<FileSystemLocationSnapshot>> pendingSnapshots = new HashMap<>();
 
         tarEntry = tarInput.getNextEntry();
         AtomicLong entries = new AtomicLong();
@@ -208,13 +266,21 @@ private UnpackResult unpack(CacheableEntity entity, TarArchiveInputStream tarInp
 
                 boolean missing = matcher.group(1) != null;
                 String childPath = matcher.group(3);
-                tarEntry = unpackTree(treeName, tree.getType(), tree.getRoot(), tarInput, tarEntry, childPath, missing, snapshots, entries);
+                tarEntry = unpackTree(treeName, tree.getType(), tree.getRoot(), tarInput, tarEntry, childPath, missing, pendingSnapshots, entries, pendingWrites);
             }
         }
         if (originMetadata == null) {
             throw new IllegalStateException("Cached result format error, no origin metadata was found.");
         }
 
+        if (pendingWrites != null) {
+            Throwable failure = pendingWrites.awaitCompletion();
+            if (failure != null) {
+                throw UncheckedException.throwAsUncheckedException(failure);
+            }
+        }
+        Map<String, FileSystemLocationSnapshot> snapshots = new HashMap<>();
+        pendingSnapshots.forEach((treeName, snapshot) -> snapshots.put(treeName, snapshot.get()));
         return new UnpackResult(originMetadata, entries.get(), snapshots);
     }
 
@@ -237,7 +303,7 @@ public File getRoot() {
     }
 
     @Nullable
-    private TarArchiveEntry unpackTree(String treeName, TreeType treeType, File treeRoot, TarArchiveInputStream input, TarArchiveEntry rootEntry, String childPath, boolean missing, Map<String, FileSystemLocationSnapshot> snapshots, AtomicLong entries) throws IOException {
+    private TarArchiveEntry unpackTree(String treeName, TreeType treeType, File treeRoot, TarArchiveInputStream input, TarArchiveEntry rootEntry, String childPath, boolean missing, Map<String, Supplier<FileSystemLocationSnapshot>> snapshots, AtomicLong entries, @Nullable PendingFileWrites pendingWrites) throws IOException {
         boolean isDirEntry = rootEntry.isDirectory();
         boolean root = Strings.isNullOrEmpty(childPath);
         if (!root) {
@@ -254,8 +320,8 @@ private TarArchiveEntry unpackTree(String treeName, TreeType treeType, File tree
             if (isDirEntry) {
                 throw new IllegalStateException("Should be a file: " + treeName);
             }
-            RegularFileSnapshot fileSnapshot = unpackFile(input, rootEntry, treeRoot, treeRoot.getName());
-            snapshots.put(treeName, fileSnapshot);
+            Supplier<RegularFileSnapshot> fileSnapshot = unpackFile(input, rootEntry, treeRoot, treeRoot.getName(), pendingWrites);
+            snapshots.put(treeName, fileSnapshot::get);
             return input.getNextEntry();
         }
 
@@ -264,10 +330,28 @@ private TarArchiveEntry unpackTree(String treeName, TreeType treeType, File tree
         }
         chmodUnpackedFile(rootEntry, treeRoot);
 
-        return unpackDirectoryTree(input, rootEntry, snapshots, entries, treeRoot, treeName);
+        return unpackDirectoryTree(input, rootEntry, snapshots, entries, treeRoot, treeName, pendingWrites);
     }
 
-    private RegularFileSnapshot unpackFile(TarArchiveInputStream input, TarArchiveEntry entry, File file, String fileName) throws IOException {
+    private Supplier<RegularFileSnapshot> unpackFile(TarArchiveInputStream input, TarArchiveEntry entry, File file, String fileName, @Nullable PendingFileWrites pendingWrites) throws IOException {
+        if (pendingWrites == null || entry.getSize() > MAX_BUFFERED_FILE_SIZE) {
+            RegularFileSnapshot fileSnapshot = writeFile(input, entry, file, fileName);
+            return () -> fileSnapshot;
+        }
+        int size = (int) entry.getSize();
+        pendingWrites.reserve(size);
+        byte[] contents;
+        try {
+            contents = new byte[size];
+            IOUtils.readFully(input, contents);
+        } catch (Throwable t) {
+            pendingWrites.release(size);
+            throw t;
+        }
+        return pendingWrites.submit(size, () -> writeFile(new ByteArrayInputStream(contents), entry, file, fileName));
+    }
+
+    private RegularFileSnapshot writeFile(InputStream input, TarArchiveEntry entry, File file, String fileName) throws IOException {
         try (CountingOutputStream output = new CountingOutputStream(new FileOutputStream(file))) {
             HashCode hash = streamHasher.hashCopy(input, output);
             chmodUnpackedFile(entry, file);
@@ -278,17 +362,17 @@ private RegularFileSnapshot unpackFile(TarArchiveInputStream input, TarArchiveEn
     }
 
     @Nullable
-    private TarArchiveEntry unpackDirectoryTree(TarArchiveInputStream input, TarArchiveEntry rootEntry, Map<String, FileSystemLocationSnapshot> snapshots, AtomicLong entries, File treeRoot, String treeName) throws IOException {
+    private TarArchiveEntry unpackDirectoryTree(TarArchiveInputStream input, TarArchiveEntry rootEntry, Map<String, Supplier<FileSystemLocationSnapshot>> snapshots, AtomicLong entries, File treeRoot, String treeName, @Nullable PendingFileWrites pendingWrites) throws IOException {
         RelativePathParser parser = new RelativePathParser(safeEntryName(rootEntry));
 
-        DirectorySnapshotBuilder builder = MerkleDirectorySnapshotBuilder.noSortingRequired();
-        builder.enterDirectory(DIRECT, stringInterner.intern(treeRoot.getAbsolutePath()), stringInterner.intern(treeRoot.getName()), INCLUDE_EMPTY_DIRS);
+        UnpackedDirectoryTree tree = new UnpackedDirectoryTree();
+        tree.enterDirectory(stringInterner.intern(treeRoot.getAbsolutePath()), stringInterner.intern(treeRoot.getName()));
 
         TarArchiveEntry entry;
 
         while ((entry = input.getNextEntry()) != null) {
             boolean isDir = entry.isDirectory();
-            boolean outsideOfRoot = parser.nextPath(safeEntryName(entry), isDir, builder::leaveDirectory);
+            boolean outsideOfRoot = parser.nextPath(safeEntryName(entry), isDir, tree::leaveDirectory);
             if (outsideOfRoot) {
                 break;
             }
@@ -300,17 +384,16 @@ private TarArchiveEntry unpackDirectoryTree(TarArchiveInputStream input, TarArch
                 chmodUnpackedFile(entry, file);
                 String internedAbsolutePath = stringInterner.intern(file.getAbsolutePath());
                 String internedName = stringInterner.intern(parser.getName());
-                builder.enterDirectory(DIRECT, internedAbsolutePath, internedName, INCLUDE_EMPTY_DIRS);
+                tree.enterDirectory(internedAbsolutePath, internedName);
             } else {
-                RegularFileSnapshot fileSnapshot = unpackFile(input, entry, file, parser.getName());
-                builder.visitLeafElement(fileSnapshot);
+                tree.visitFile(unpackFile(input, entry, file, parser.getName(), pendingWrites));
             }
         }
 
-        parser.exitToRoot(builder::leaveDirectory);
-        builder.leaveDirectory();
+        parser.exitToRoot(tree::leaveDirectory);
+        tree.leaveDirectory();
 
-        snapshots.put(treeName, builder.getResult());
+        snapshots.put(treeName, tree::build);
         return entry;
     }
 
@@ -327,6 +410,13 @@ private void chmodUnpackedFile(TarArchiveEntry entry, File file) {
         filePermissionAccess.chmod(file, entry.getMode() & UnixPermissions.PERM_MASK);
     }
 
+    @Override
+    public void close() {
+        if (fileWriteExecutor != null) {
+            fileWriteExecutor.shutdown();
+        }
+    }
+
     private static String escape(String name) {
         try {
             return URLEncoder.encode(name, ENCODING.name());
@@ -343,6 +433,99 @@ private static String unescape(String name) {
         }
     }
 
+    /**
+     * Records the structure of an unpacked directory tree, so its snapshot can be built once all files in it have been written.
+     */
+    private static class UnpackedDirectoryTree {
+        private final List<Consumer<DirectorySnapshotBuilder>> operations = new ArrayList<>();
+
+        public void enterDirectory(String absolutePath, String name) {
+            operations.add(builder -> builder.enterDirectory(DIRECT, absolutePath, name, INCLUDE_EMPTY_DIRS));
+        }
+
+        public void visitFile(Supplier<RegularFileSnapshot> fileSnapshot) {
+            operations.add(builder -> builder.visitLeafElement(fileSnapshot.get()));
+        }
+
+        public void leaveDirectory() {
+            operations.add(DirectorySnapshotBuilder::leaveDirectory);
+        }
+
+        public FileSystemLocationSnapshot build() {
+            DirectorySnapshotBuilder builder = MerkleDirectorySnapshotBuilder.noSortingRequired();
+            operations.forEach(operation -> operation.accept(builder));
+            return requireNonNull(builder.getResult());
+        }
+    }
+
+    /**
+     * Tracks the files written on the executor while unpacking a single entry.
+     * The number of bytes buffered for these files is bounded by {@link #MAX_BUFFERED_BYTES}.
+     */
+    private static class PendingFileWrites {
+        private final ExecutorService executor;
+        private final Semaphore bufferedBytes = new Semaphore(MAX_BUFFERED_BYTES);
+        private final List<CompletableFuture<RegularFileSnapshot>> writes = new ArrayList<>();
+
+        public PendingFileWrites(ExecutorService executor) {
+            this.executor = executor;
+        }
+
+        public void reserve(int size) {
+            bufferedBytes.acquireUninterruptibly(size);
+        }
+
+        public void release(int size) {
+            bufferedBytes.release(size);
+        }
+
+        /**
+         * Runs the given write, releasing the given number of reserved bytes when it completes.
+         */
+        public Supplier<RegularFileSnapshot> submit(int size, FileWrite write) {
+            CompletableFuture<RegularFileSnapshot> future;
+            try {
+                future = CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return write.write();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    } finally {
+                        release(size);
+                    }
+                }, executor);
+            } catch (RuntimeException e) {
+                release(size);
+                throw e;
+            }
+            writes.add(future);
+            return future::join;
+        }
+
+        /**
+         * Waits for all writes to complete, and returns the first failure, if any.
+         */
+        @Nullable
+        public Throwable awaitCompletion() {
+            Throwable failure = null;
+            for (CompletableFuture<RegularFileSnapshot> write : writes) {
+                try {
+                    write.join();
+                } catch (CompletionException e) {
+                    if (failure == null) {
+                        Throwable cause = requireNonNull(e.getCause());
+                        failure = cause instanceof UncheckedIOException ? cause.getCause() : cause;
+                    }
+                }
+            }
+            return failure;
+        }
+    }
+
+    private interface FileWrite {
+        RegularFileSnapshot write() throws IOException;
+    }
+
     private class PackingVisitor implements RelativePathTrackingFileSystemSnapshotHierarchyVisitor {
         private final TarArchiveOutputStream tarOutput;
         private final String treePath;
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.caching.internal.packaging
+
+import spock.lang.Specification
+
+import java.util.zip.GZIPOutputStream
+
+class BuildCacheEntryCompressionTest extends Specification {
+
+    def content = ("build cache entry content " * 1000).bytes
+
+    def "can read back entry written with #compression"() {
+        when:
+        def packed = write(compression)
+
+        then:
+        read(packed) == content
+
+        where:
+        compression << BuildCacheEntryCompression.values()
+    }
+
+    def "writes gzip entries without header"() {
+        when:
+        def packed = write(compression)
+
+        then:
+        (packed[0] & 0xff) == 0x1f
+        (packed[1] & 0xff) == 0x8b
+
+        where:
+        compression << [BuildCacheEntryCompression.GZIP, BuildCacheEntryCompression.GZIP_FAST]
+    }
+
+    def "reads entries written by plain gzip"() {
+        def output = new ByteArrayOutputStream()
+        new GZIPOutputStream(output).withCloseable { it.write(content) }
+
+        expect:
+        read(output.toByteArray()) == content
+    }
+
+    def "uncompressed entries are marked"() {
+        when:
+        def packed = write(BuildCacheEntryCompression.NONE)
+
+        then:
+        new String(packed, 0, 4, "US-ASCII") == "GBCE"
+        packed.length == content.length + 5
+    }
+
+    def "#compression entries are marked and compressed"() {
+        when:
+        def packed = write(compression)
+
+        then:
+        new String(packed, 0, 4, "US-ASCII") == "GBCE"
+        packed.length < content.length / 10
+
+        where:
+        compression << [BuildCacheEntryCompression.ZSTD, BuildCacheEntryCompression.LZ4]
+    }
+
+    def "fails on unknown format"() {
+        when:
+        read("not an entry".bytes)
+
+        then:
+        def e = thrown(IOException)
+        e.message == "Unknown build cache entry format"
+    }
+
+    def "fails on unknown compression"() {
+        when:
+        read([0x47, 0x42, 0x43, 0x45, 42] as byte[])
+
+        then:
+        def e = thrown(IOException)
+        e.message == "Unsupported build cache entry compression format: 42"
+    }
+
+    private byte[] write(BuildCacheEntryCompression compression) {
+        def output = new ByteArrayOutputStream()
+        compression.wrap(output).withCloseable { it.write(content) }
+        return output.toByteArray()
+    }
+
+    private static byte[] read(byte[] packed) {
+        BuildCacheEntryCompression.unwrap(new ByteArrayInputStream(packed)).withCloseable { it.bytes }
+    }
+}
@@ -32,6 +32,8 @@ import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
 import org.junit.Rule
 import spock.lang.Specification
 
+import java.util.concurrent.ExecutorService
+
 @CleanupTestDirectory
 abstract class AbstractTarBuildCacheEntryPackerSpec extends Specification {
     @Rule
@@ -46,12 +48,20 @@ abstract class AbstractTarBuildCacheEntryPackerSpec extends Specification {
     def stringInterner = new StringInterner()
     def packer = new TarBuildCacheEntryPacker(fileSystemSupport, filePermissionAccess, streamHasher, stringInterner, Stub(BufferProvider) {
         getBuffer() >> new byte[4096]
-    })
+    }, createFileWriteExecutor())
     def fileSystemAccess = TestFiles.fileSystemAccess()
 
     abstract protected FilePermissionAccess createFilePermissionAccess()
     abstract protected Deleter createDeleter()
 
+    protected ExecutorService createFileWriteExecutor() {
+        null
+    }
+
+    def cleanup() {
+        packer.close()
+    }
+
     def pack(OutputStream output, OriginWriter writeOrigin = this.writeOrigin, TreeDefinition... treeDefs) {
         Map<String, FileSystemSnapshot> snapshots = treeDefs.collectEntries { treeDef ->
             FileSystemSnapshot result = FileSystemSnapshot.EMPTY
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.caching.internal.packaging.impl
+
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
+import static org.gradle.internal.file.TreeType.DIRECTORY
+import static org.gradle.internal.file.TreeType.FILE
+
+class ParallelTarBuildCacheEntryPackerTest extends TarBuildCacheEntryPackerTest {
+    @Override
+    protected ExecutorService createFileWriteExecutor() {
+        Executors.newFixedThreadPool(4)
+    }
+
+    def "unpacked snapshots match the unpacked files"() {
+        def sourceDir = temporaryFolder.file("source/out").createDir()
+        def sourceFile = temporaryFolder.file("source/single.bin")
+        def random = new Random(1234)
+        (1..20).each { dirIndex ->
+            def dir = sourceDir.file("dir-$dirIndex").createDir()
+            (1..10).each { fileIndex ->
+                dir.file("file-${fileIndex}.txt") << "contents of $dirIndex/$fileIndex"
+            }
+        }
+        def largeContents = new byte[2 * 1024 * 1024]
+        random.nextBytes(largeContents)
+        sourceDir.file("dir-1/large.bin").bytes = largeContents
+        sourceDir.file("empty").createDir()
+        sourceFile.bytes = largeContents[0..1000] as byte[]
+
+        def targetDir = temporaryFolder.file("target/out")
+        def targetFile = temporaryFolder.file("target/single.bin")
+        def output = new ByteArrayOutputStream()
+        pack output, prop("dir", DIRECTORY, sourceDir), prop("file", FILE, sourceFile)
+
+        when:
+        def result = unpack new ByteArrayInputStream(output.toByteArray()), prop("dir", DIRECTORY, targetDir), prop("file", FILE, targetFile)
+
+        then:
+        result.entries == 1 + 1 + 20 + 200 + 1 + 1 + 1
+        targetDir.file("dir-20/file-10.txt").text == "contents of 20/10"
+        targetDir.file("dir-1/large.bin").bytes == largeContents
+        targetDir.file("empty").assertIsEmptyDir()
+        result.snapshots["dir"].hash == fileSystemAccess.read(sourceDir.absolutePath).hash
+        result.snapshots["dir"].absolutePath == targetDir.absolutePath
+        result.snapshots["file"].hash == fileSystemAccess.read(sourceFile.absolutePath).hash
+    }
+}
@@ -27,7 +27,7 @@ dependencies {
     jmhImplementation(projects.baseServices)
     jmhImplementation(projects.native)
     jmhImplementation(platform(projects.distributionsDependencies))
-    jmhImplementation(testLibs.aircompressor)
+    jmhImplementation(libs.aircompressor)
     jmhImplementation(libs.commonsCompress)
     jmhImplementation(libs.commonsIo)
     jmhImplementation(testLibs.jtar)
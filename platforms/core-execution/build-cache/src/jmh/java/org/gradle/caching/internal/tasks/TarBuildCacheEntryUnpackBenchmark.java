@@ -0,0 +1,188 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.caching.internal.tasks;
+
+import com.google.common.collect.Interners;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.io.FileUtils;
+import org.gradle.caching.internal.CacheableEntity;
+import org.gradle.caching.internal.origin.OriginMetadata;
+import org.gradle.caching.internal.packaging.BuildCacheEntryPacker;
+import org.gradle.caching.internal.packaging.impl.FilePermissionAccess;
+import org.gradle.caching.internal.packaging.impl.TarBuildCacheEntryPacker;
+import org.gradle.caching.internal.packaging.impl.TarPackerFileSystemSupport;
+import org.gradle.internal.file.ThreadLocalBufferProvider;
+import org.gradle.internal.file.TreeType;
+import org.gradle.internal.hash.DefaultStreamHasher;
+import org.gradle.internal.hash.Hashing;
+import org.jspecify.annotations.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Compares unpacking a build cache entry on the calling thread with writing its files on a thread pool.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 7)
+@State(Scope.Benchmark)
+@SuppressWarnings("OctalInteger")
+public class TarBuildCacheEntryUnpackBenchmark {
+    private static final OriginMetadata ORIGIN = new OriginMetadata("build", Hashing.signature("benchmark"), Duration.ZERO);
+
+    @Param({"0", "2", "4", "8"})
+    int writerThreads;
+
+    @Param({"1000"})
+    int fileCount;
+
+    @Param({"4096", "65536"})
+    int fileSize;
+
+    private File tempDir;
+    private File outputDir;
+    private byte[] entry;
+    private TarBuildCacheEntryPacker packer;
+    private CacheableEntity entity;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws IOException {
+        tempDir = Files.createTempDirectory("unpack-benchmark").toFile();
+        outputDir = new File(tempDir, "output");
+        entry = createEntry();
+        ExecutorService executor = writerThreads > 0 ? Executors.newFixedThreadPool(writerThreads) : null;
+        packer = new TarBuildCacheEntryPacker(
+            new SimpleFileSystemSupport(),
+            new NoopFilePermissionAccess(),
+            new DefaultStreamHasher(),
+            Interners.newWeakInterner(),
+            new ThreadLocalBufferProvider(64 * 1024),
+            executor
+        );
+        entity = new CacheableEntity() {
+            @Override
+            public String getIdentity() {
+                return "benchmark";
+            }
+
+            @Override
+            public Class<?> getType() {
+                return getClass();
+            }
+
+            @Override
+            public String getDisplayName() {
+                return "benchmark";
+            }
+
+            @Override
+            public void visitOutputTrees(CacheableTreeVisitor visitor) {
+                visitor.visitOutputTree("output", TreeType.DIRECTORY, outputDir);
+            }
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() throws IOException {
+        packer.close();
+        FileUtils.forceDelete(tempDir);
+    }
+
+    @Benchmark
+    public BuildCacheEntryPacker.UnpackResult unpack() throws IOException {
+        return packer.unpack(entity, new ByteArrayInputStream(entry), input -> ORIGIN);
+    }
+
+    private byte[] createEntry() throws IOException {
+        Random random = new Random(1234L);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tarOutput = new TarArchiveOutputStream(output, StandardCharsets.UTF_8.name())) {
+            writeEntry(tarOutput, "METADATA", new byte[0], 0100644);
+            writeEntry(tarOutput, "tree-output/", null, 040755);
+            int filesPerDirectory = 100;
+            byte[] contents = new byte[fileSize];
+            for (int i = 0; i < fileCount; i++) {
+                String directory = "tree-output/dir-" + (i / filesPerDirectory) + "/";
+                if (i % filesPerDirectory == 0) {
+                    writeEntry(tarOutput, directory, null, 040755);
+                }
+                random.nextBytes(contents);
+                writeEntry(tarOutput, directory + "file-" + i + ".bin", contents, 0100644);
+            }
+        }
+        return output.toByteArray();
+    }
+
+    private static void writeEntry(TarArchiveOutputStream tarOutput, String path, @Nullable byte[] contents, int mode) throws IOException {
+        TarArchiveEntry tarEntry = new TarArchiveEntry(path, true);
+        tarEntry.setSize(contents == null ? 0 : contents.length);
+        tarEntry.setMode(mode);
+        tarOutput.putArchiveEntry(tarEntry);
+        if (contents != null) {
+            tarOutput.write(contents);
+        }
+        tarOutput.closeArchiveEntry();
+    }
+
+    private static class SimpleFileSystemSupport implements TarPackerFileSystemSupport {
+        @Override
+        public void ensureFileIsMissing(File entry) throws IOException {
+            FileUtils.deleteQuietly(entry);
+        }
+
+        @Override
+        public void ensureDirectoryForTree(TreeType type, File root) throws IOException {
+            FileUtils.deleteQuietly(root);
+            if (type == TreeType.DIRECTORY) {
+                FileUtils.forceMkdir(root);
+            } else {
+                FileUtils.forceMkdirParent(root);
+            }
+        }
+    }
+
+    private static class NoopFilePermissionAccess implements FilePermissionAccess {
+        @Override
+        public int getUnixMode(File f) {
+            return 0644;
+        }
+
+        @Override
+        public void chmod(File file, int mode) {
+        }
+    }
+}
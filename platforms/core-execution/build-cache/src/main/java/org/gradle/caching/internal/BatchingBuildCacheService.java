@@ -0,0 +1,52 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.caching.internal;
+
+import org.gradle.caching.BuildCacheException;
+import org.gradle.caching.BuildCacheKey;
+import org.gradle.caching.BuildCacheService;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * A remote build cache service that can look up many entries at once.
+ *
+ * <p>Implementations are expected to issue the requests for a batch of keys concurrently,
+ * so the cost of a batch is close to a single round trip to the cache.</p>
+ */
+public interface BatchingBuildCacheService extends BuildCacheService {
+
+    /**
+     * Returns the subset of the given keys that have an entry in the cache.
+     *
+     * <p>Implementations may remember the keys that have no entry, so that a later {@link #load} for one of them is answered without a round trip.</p>
+     */
+    Set<BuildCacheKey> findExisting(Collection<BuildCacheKey> keys) throws BuildCacheException;
+
+    /**
+     * Starts fetching the entries for the given keys in the background, so that a later {@link #load} for one of them can be served without another round trip.
+     *
+     * <p>Prefetching is best effort: it returns immediately, and failures only mean that the entry is loaded again later.</p>
+     */
+    void prefetch(Collection<BuildCacheKey> keys);
+
+    /**
+     * Discards the entries prefetched for the given keys that have not been loaded yet, and the prefetches that have not started yet.
+     */
+    void discardPrefetched(Collection<BuildCacheKey> keys);
+}
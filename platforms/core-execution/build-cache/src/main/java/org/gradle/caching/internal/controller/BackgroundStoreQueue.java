@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.caching.internal.controller;
+
+import org.gradle.caching.BuildCacheKey;
+import org.gradle.internal.concurrent.BlockingNotifier;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.ManagedExecutor;
+import org.gradle.internal.operations.BuildOperationRef;
+import org.gradle.internal.operations.CurrentBuildOperationRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Stores already packed build cache entries on background threads, so the worker that produced the entry can move on.
+ *
+ * <p>The number of entries that are waiting to be stored is bounded.
+ * Once the limit is reached, {@link #submit(BuildCacheKey, Runnable)} blocks until a pending store completes.
+ * {@link #close()} waits for all pending stores to finish.</p>
+ *
+ * <p>Stores run as children of the build operation that submitted them.
+ * Failures of the remote cache are handled by the remote handle, so any failure that reaches the queue comes from the local cache.
+ * As the worker that produced the entry has moved on, such failures are rethrown from {@link #close()} instead.</p>
+ */
+public class BackgroundStoreQueue implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BackgroundStoreQueue.class);
+
+    private final ManagedExecutor executor;
+    private final BlockingNotifier blockingNotifier;
+    private final Semaphore pendingStores;
+    private final AtomicReference<BuildCacheOperationException> failure = new AtomicReference<>();
+
+    public BackgroundStoreQueue(ExecutorFactory executorFactory, BlockingNotifier blockingNotifier, int maxConcurrentStores, int maxPendingStores) {
+        if (maxConcurrentStores < 1 || maxPendingStores < 1) {
+            throw new IllegalArgumentException("The number of concurrent and pending build cache stores must be positive");
+        }
+        this.executor = executorFactory.create("Build cache store", maxConcurrentStores);
+        this.blockingNotifier = blockingNotifier;
+        this.pendingStores = new Semaphore(maxPendingStores);
+    }
+
+    /**
+     * Schedules the given store action, blocking while the maximum number of stores is already pending.
+     */
+    public void submit(BuildCacheKey key, Runnable store) {
+        if (!pendingStores.tryAcquire()) {
+            LOGGER.debug("Waiting for pending build cache stores before storing entry {}", key.getHashCode());
+            blockingNotifier.blocking((Runnable) pendingStores::acquireUninterruptibly);
+        }
+        BuildOperationRef parentOperation = CurrentBuildOperationRef.instance().get();
+        try {
+            executor.execute(() -> {
+                try {
+                    CurrentBuildOperationRef.instance().with(parentOperation, store);
+                } catch (Exception e) {
+                    recordFailure(key, e);
+                } finally {
+                    pendingStores.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            pendingStores.release();
+            throw e;
+        }
+    }
+
+    private void recordFailure(BuildCacheKey key, Exception e) {
+        BuildCacheOperationException storeFailure = new BuildCacheOperationException(String.format("Could not store entry %s in the build cache", key.getHashCode()), e);
+        if (!failure.compareAndSet(null, storeFailure)) {
+            failure.get().addSuppressed(storeFailure);
+        }
+    }
+
+    /**
+     * Waits for all pending stores to complete and stops accepting new ones.
+     *
+     * @throws BuildCacheOperationException when any of the stores failed
+     */
+    @Override
+    public void close() {
+        blockingNotifier.blocking((Runnable) executor::stop);
+        BuildCacheOperationException storeFailure = failure.getAndSet(null);
+        if (storeFailure != null) {
+            throw storeFailure;
+        }
+    }
+}
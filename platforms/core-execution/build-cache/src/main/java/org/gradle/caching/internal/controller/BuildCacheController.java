@@ -25,6 +25,7 @@
 
 import java.io.Closeable;
 import java.time.Duration;
+import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
 
@@ -41,4 +42,17 @@ public interface BuildCacheController extends Closeable {
     Optional<BuildCacheLoadResult> load(BuildCacheKey cacheKey, CacheableEntity cacheableEntity);
 
     void store(BuildCacheKey cacheKey, CacheableEntity entity, Map<String, FileSystemSnapshot> snapshots, Duration executionTime);
+
+    /**
+     * Hints that entries for the given keys are likely to be loaded soon.
+     *
+     * <p>The remote cache checks which of the entries that are not in the local cache it has with one batched request, and starts fetching those in the background.
+     * This never fails, but waits for the existence check, so it should not be called from the threads executing work.</p>
+     */
+    void prefetch(Collection<BuildCacheKey> cacheKeys);
+
+    /**
+     * Releases the entries prefetched for the given keys that have not been loaded.
+     */
+    void discardPrefetched(Collection<BuildCacheKey> cacheKeys);
 }
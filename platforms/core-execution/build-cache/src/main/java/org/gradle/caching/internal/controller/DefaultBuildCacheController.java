@@ -20,6 +20,7 @@
 import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.Interner;
 import com.google.common.io.Closer;
+import org.apache.commons.io.FileUtils;
 import org.gradle.caching.BuildCacheKey;
 import org.gradle.caching.BuildCacheService;
 import org.gradle.caching.internal.BuildCacheKeyInternal;
@@ -66,12 +67,20 @@
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
 
 public class DefaultBuildCacheController implements BuildCacheController {
+    private static final String PENDING_STORE_SUFFIX = ".pending";
+
     @VisibleForTesting
     final RemoteBuildCacheServiceHandle remote;
 
@@ -80,6 +89,8 @@ public class DefaultBuildCacheController implements BuildCacheController {
 
     private final BuildCacheTempFileStore tmp;
     private final PackOperationExecutor packExecutor;
+    @Nullable
+    private final BackgroundStoreQueue backgroundStoreQueue;
 
     private boolean closed;
 
@@ -94,6 +105,26 @@ public DefaultBuildCacheController(
         BuildCacheEntryPacker packer,
         OriginMetadataFactory originMetadataFactory,
         Interner<String> stringInterner
+    ) {
+        this(blockingNotifier, config, buildOperationRunner, buildOperationProgressEventEmitter, temporaryFileFactory, logStackTraces, disableRemoteOnError, packer, originMetadataFactory, stringInterner, null);
+    }
+
+    /**
+     * Creates a controller that stores entries in the background using the given queue when it is not {@code null}.
+     * Entries are still packed on the calling thread, as the outputs may be changed by other work once the caller moves on.
+     */
+    public DefaultBuildCacheController(
+        BlockingNotifier blockingNotifier,
+        BuildCacheServicesConfiguration config,
+        BuildOperationRunner buildOperationRunner,
+        BuildOperationProgressEventEmitter buildOperationProgressEventEmitter,
+        TemporaryFileFactory temporaryFileFactory,
+        boolean logStackTraces,
+        boolean disableRemoteOnError,
+        BuildCacheEntryPacker packer,
+        OriginMetadataFactory originMetadataFactory,
+        Interner<String> stringInterner,
+        @Nullable BackgroundStoreQueue backgroundStoreQueue
     ) {
         this.local = toLocalHandle(config.getLocal(), config.isLocalPush(), buildOperationRunner);
         this.remote = toRemoteHandle(config.getBuildPath(), config.getRemote(), config.isRemotePush(), buildOperationRunner, buildOperationProgressEventEmitter, logStackTraces, disableRemoteOnError, blockingNotifier);
@@ -104,6 +135,7 @@ public DefaultBuildCacheController(
             originMetadataFactory,
             stringInterner
         );
+        this.backgroundStoreQueue = backgroundStoreQueue;
     }
 
     @Override
@@ -153,11 +185,64 @@ public void store(BuildCacheKey key, CacheableEntity entity, Map<String, FileSys
         if (!local.canStore() && !remote.canStore()) {
             return;
         }
-        tmp.withTempFile(((BuildCacheKeyInternal) key).getHashCodeInternal(), file -> {
-            packExecutor.pack(file, key, entity, snapshots, executionTime);
-            remote.maybeStore(key, file);
-            local.maybeStore(key, file);
-        });
+        if (backgroundStoreQueue == null) {
+            tmp.withTempFile(((BuildCacheKeyInternal) key).getHashCodeInternal(), file -> {
+                packExecutor.pack(file, key, entity, snapshots, executionTime);
+                storePackedEntry(key, file);
+            });
+        } else {
+            AtomicReference<File> packedEntry = new AtomicReference<>();
+            tmp.withTempFile(((BuildCacheKeyInternal) key).getHashCodeInternal(), file -> {
+                packExecutor.pack(file, key, entity, snapshots, executionTime);
+                packedEntry.set(takeOwnership(file));
+            });
+            File file = packedEntry.get();
+            backgroundStoreQueue.submit(key, () -> {
+                try {
+                    storePackedEntry(key, file);
+                } finally {
+                    FileUtils.deleteQuietly(file);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void prefetch(Collection<BuildCacheKey> keys) {
+        // Entries in the local cache are loaded from there, fetching them again would only take up the remote's prefetch budget
+        List<BuildCacheKey> missingLocally = new ArrayList<>(keys.size());
+        for (BuildCacheKey key : keys) {
+            if (!local.contains(key)) {
+                missingLocally.add(key);
+            }
+        }
+        if (!missingLocally.isEmpty()) {
+            remote.prefetch(missingLocally);
+        }
+    }
+
+    @Override
+    public void discardPrefetched(Collection<BuildCacheKey> keys) {
+        remote.discardPrefetched(keys);
+    }
+
+    private void storePackedEntry(BuildCacheKey key, File file) {
+        remote.maybeStore(key, file);
+        local.maybeStore(key, file);
+    }
+
+    /**
+     * Moves the packed temp file out of the way, so it outlives {@link BuildCacheTempFileStore#withTempFile(HashCode, java.util.function.Consumer)}.
+     * The file stays in the same directory, so it can still be moved into the local cache atomically.
+     */
+    private static File takeOwnership(File file) {
+        File pendingFile = new File(file.getParentFile(), file.getName() + PENDING_STORE_SUFFIX);
+        try {
+            Files.move(file.toPath(), pendingFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Could not move packed build cache entry '%s' to '%s'", file, pendingFile), e);
+        }
+        return pendingFile;
     }
 
     @Override
@@ -167,6 +252,10 @@ public void close() throws IOException {
             Closer closer = Closer.create();
             closer.register(local);
             closer.register(remote);
+            if (backgroundStoreQueue != null) {
+                // Registered last, so pending stores complete before the services are closed
+                closer.register(backgroundStoreQueue);
+            }
             closer.close();
         }
     }
@@ -67,6 +67,11 @@ protected void storeInner(BuildCacheKey key, File file) {
         service.storeLocally(key, file);
     }
 
+    @Override
+    public boolean contains(BuildCacheKey key) {
+        return service.contains(key);
+    }
+
     @Override
     public void close() throws IOException {
         service.close();
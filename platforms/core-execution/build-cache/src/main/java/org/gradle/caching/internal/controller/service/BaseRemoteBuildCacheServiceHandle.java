@@ -19,14 +19,17 @@
 import org.gradle.caching.BuildCacheEntryReader;
 import org.gradle.caching.BuildCacheKey;
 import org.gradle.caching.BuildCacheService;
+import org.gradle.caching.internal.BatchingBuildCacheService;
 import org.gradle.internal.concurrent.BlockingNotifier;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.util.Collection;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 
 public class BaseRemoteBuildCacheServiceHandle implements RemoteBuildCacheServiceHandle {
@@ -150,6 +153,37 @@ protected void storeInner(String description, BuildCacheKey key, StoreTarget sto
         service.store(key, storeTarget);
     }
 
+    @Override
+    public void prefetch(Collection<BuildCacheKey> keys) {
+        if (!canLoad() || !(service instanceof BatchingBuildCacheService)) {
+            return;
+        }
+        BatchingBuildCacheService batchingService = (BatchingBuildCacheService) service;
+        try {
+            // Only fetch the entries that exist, the service remembers the missing ones so loading them needs no request
+            Set<BuildCacheKey> existing = batchingService.findExisting(keys);
+            LOGGER.debug("Found {} of {} entries to prefetch in {} build cache", existing.size(), keys.size(), role.getDisplayName());
+            if (!existing.isEmpty()) {
+                batchingService.prefetch(existing);
+            }
+        } catch (Exception e) {
+            // Prefetching is only an optimization, the entries will be loaded again when needed
+            LOGGER.debug("Could not prefetch entries from {} build cache", role.getDisplayName(), e);
+        }
+    }
+
+    @Override
+    public void discardPrefetched(Collection<BuildCacheKey> keys) {
+        if (!(service instanceof BatchingBuildCacheService)) {
+            return;
+        }
+        try {
+            ((BatchingBuildCacheService) service).discardPrefetched(keys);
+        } catch (Exception e) {
+            LOGGER.debug("Could not discard prefetched entries from {} build cache", role.getDisplayName(), e);
+        }
+    }
+
     private void failure(Operation operation, BuildCacheKey key, Throwable failure) {
         if (disableOnError) {
             disabled = true;
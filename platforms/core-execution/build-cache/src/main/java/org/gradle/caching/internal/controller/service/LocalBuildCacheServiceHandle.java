@@ -46,4 +46,11 @@ public interface LocalBuildCacheServiceHandle extends Closeable {
      */
     boolean maybeStore(BuildCacheKey key, File file);
 
+    /**
+     * Returns whether the local cache currently has an entry for the given key.
+     *
+     * The entry may still be removed by cache cleanup before it is loaded.
+     */
+    boolean contains(BuildCacheKey key);
+
 }
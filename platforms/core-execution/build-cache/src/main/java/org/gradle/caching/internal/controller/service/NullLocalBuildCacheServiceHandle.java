@@ -52,6 +52,11 @@ public boolean maybeStore(BuildCacheKey key, File file) {
         return false;
     }
 
+    @Override
+    public boolean contains(BuildCacheKey key) {
+        return false;
+    }
+
     @Override
     public void close() {
 
@@ -21,6 +21,7 @@
 import org.jspecify.annotations.Nullable;
 
 import java.io.File;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.function.Function;
 
@@ -54,6 +55,16 @@ public boolean maybeStore(BuildCacheKey key, File file) {
         return false;
     }
 
+    @Override
+    public void prefetch(Collection<BuildCacheKey> keys) {
+
+    }
+
+    @Override
+    public void discardPrefetched(Collection<BuildCacheKey> keys) {
+
+    }
+
     @Override
     public void close() {
 
@@ -23,6 +23,7 @@
 
 import java.io.Closeable;
 import java.io.File;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.function.Function;
 
@@ -52,6 +53,19 @@ public interface RemoteBuildCacheServiceHandle extends Closeable {
      */
     boolean maybeStore(BuildCacheKey key, File file);
 
+    /**
+     * Checks which of the given keys have an entry with one batched request, and starts fetching those entries in the background, if the service supports it.
+     * Blocks until the existence check completes.
+     *
+     * If canLoad() returns false, then this method will do nothing.
+     */
+    void prefetch(Collection<BuildCacheKey> keys);
+
+    /**
+     * Discards the entries prefetched for the given keys that have not been loaded yet.
+     */
+    void discardPrefetched(Collection<BuildCacheKey> keys);
+
     @Override
     void close();
 }
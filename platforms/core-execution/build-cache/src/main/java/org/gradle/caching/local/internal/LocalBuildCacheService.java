@@ -38,4 +38,9 @@ public interface LocalBuildCacheService extends BuildCacheTempFileStore, Closeab
      * Store the given file in the local file store as a cache artifact.
      */
     void storeLocally(BuildCacheKey key, File file);
+
+    /**
+     * Returns whether the local file store currently has a cache artifact for the given key, without loading it.
+     */
+    boolean contains(BuildCacheKey key);
 }
@@ -18,9 +18,11 @@ package org.gradle.caching.internal.controller
 
 import com.google.common.collect.Interner
 import org.gradle.caching.BuildCacheEntryReader
+import org.gradle.caching.BuildCacheException
 import org.gradle.caching.BuildCacheEntryWriter
 import org.gradle.caching.BuildCacheKey
 import org.gradle.caching.BuildCacheService
+import org.gradle.caching.internal.BatchingBuildCacheService
 import org.gradle.caching.internal.CacheableEntity
 import org.gradle.caching.internal.SimpleBuildCacheKey
 import org.gradle.caching.internal.controller.service.BuildCacheServicesConfiguration
@@ -29,8 +31,11 @@ import org.gradle.caching.internal.packaging.BuildCacheEntryPacker
 import org.gradle.caching.local.internal.LocalBuildCacheService
 import org.gradle.caching.local.internal.TemporaryFileFactory
 import org.gradle.internal.concurrent.BlockingNotifier
+import org.gradle.internal.concurrent.DefaultExecutorFactory
 import org.gradle.internal.hash.HashCode
 import org.gradle.internal.hash.TestHashCodes
+import org.gradle.internal.operations.BuildOperationRef
+import org.gradle.internal.operations.CurrentBuildOperationRef
 import org.gradle.internal.operations.NoOpBuildOperationProgressEventEmitter
 import org.gradle.internal.operations.TestBuildOperationRunner
 import org.gradle.internal.snapshot.FileSystemSnapshot
@@ -74,7 +79,7 @@ class DefaultBuildCacheControllerTest extends Specification {
 
     interface Local extends BuildCacheService, LocalBuildCacheService {}
 
-    BuildCacheController getController(boolean disableRemoteOnError = true) {
+    BuildCacheController getController(boolean disableRemoteOnError = true, BackgroundStoreQueue backgroundStoreQueue = null) {
         new DefaultBuildCacheController(
             BlockingNotifier.NO_NOTIFICATION,
             new BuildCacheServicesConfiguration(
@@ -91,7 +96,8 @@ class DefaultBuildCacheControllerTest extends Specification {
             disableRemoteOnError,
             packer,
             originMetadataFactory,
-            stringInterner
+            stringInterner,
+            backgroundStoreQueue
         )
     }
 
@@ -279,4 +285,183 @@ class DefaultBuildCacheControllerTest extends Specification {
         1 * local.close()
         1 * remote.close()
     }
+
+    def "stores packed entry in the background when background store queue is used"() {
+        given:
+        def executorFactory = new DefaultExecutorFactory()
+        def controller = getController(true, new BackgroundStoreQueue(executorFactory, BlockingNotifier.NO_NOTIFICATION, 1, 1))
+        File storedFile = null
+
+        when:
+        controller.store(key, cacheableEntity, snapshots, executionTime)
+        controller.close()
+
+        then:
+        1 * remote.store(key, _)
+        1 * local.storeLocally(key, _) >> { BuildCacheKey key, File file ->
+            storedFile = file
+            assert file.exists()
+        }
+
+        and:
+        storedFile != null
+        !storedFile.exists()
+        !tmpDir.file("file").exists()
+
+        cleanup:
+        executorFactory.stop()
+    }
+
+    def "background local store failures are rethrown when the controller is closed"() {
+        given:
+        def executorFactory = new DefaultExecutorFactory()
+        def controller = getController(true, new BackgroundStoreQueue(executorFactory, BlockingNotifier.NO_NOTIFICATION, 1, 1))
+
+        when:
+        controller.store(key, cacheableEntity, snapshots, executionTime)
+        controller.store(key, cacheableEntity, snapshots, executionTime)
+
+        then:
+        noExceptionThrown()
+        2 * local.storeLocally(key, _) >> { throw new RuntimeException("local failure") }
+
+        when:
+        controller.close()
+
+        then:
+        def e = thrown(BuildCacheOperationException)
+        e.message == "Could not store entry ${key.hashCode} in the build cache"
+        e.cause.message == "local failure"
+        e.suppressed.length == 1
+
+        cleanup:
+        executorFactory.stop()
+    }
+
+    def "background stores run as children of the submitting build operation"() {
+        given:
+        def executorFactory = new DefaultExecutorFactory()
+        def queue = new BackgroundStoreQueue(executorFactory, BlockingNotifier.NO_NOTIFICATION, 1, 1)
+        def parent = Stub(BuildOperationRef)
+        BuildOperationRef storeParent = null
+
+        when:
+        CurrentBuildOperationRef.instance().with(parent, {
+            queue.submit(key) { storeParent = CurrentBuildOperationRef.instance().get() }
+        } as Runnable)
+        queue.close()
+
+        then:
+        storeParent.is(parent)
+
+        cleanup:
+        executorFactory.stop()
+    }
+
+    def "prefetches the entries that exist in a remote that supports batching"() {
+        given:
+        remote = Mock(BatchingBuildCacheService)
+        def otherKey = new SimpleBuildCacheKey(TestHashCodes.hashCodeFrom(0x87654321))
+
+        when:
+        controller.prefetch([key, otherKey])
+
+        then:
+        1 * remote.findExisting([key, otherKey]) >> ([key] as Set)
+
+        then:
+        1 * remote.prefetch([key] as Set)
+        0 * remote._
+    }
+
+    def "does not prefetch when no entry exists in the remote"() {
+        given:
+        remote = Mock(BatchingBuildCacheService)
+
+        when:
+        controller.prefetch([key])
+
+        then:
+        1 * remote.findExisting([key]) >> ([] as Set)
+        0 * remote.prefetch(_)
+    }
+
+    def "does not prefetch entries that are in the local cache"() {
+        given:
+        remote = Mock(BatchingBuildCacheService)
+        def otherKey = new SimpleBuildCacheKey(TestHashCodes.hashCodeFrom(0x87654321))
+        local.contains(key) >> true
+
+        when:
+        controller.prefetch([key, otherKey])
+
+        then:
+        1 * remote.findExisting([otherKey]) >> ([otherKey] as Set)
+        1 * remote.prefetch([otherKey] as Set)
+    }
+
+    def "does not prefetch when all entries are in the local cache"() {
+        given:
+        remote = Mock(BatchingBuildCacheService)
+        local.contains(key) >> true
+
+        when:
+        controller.prefetch([key])
+
+        then:
+        0 * remote.findExisting(_)
+        0 * remote.prefetch(_)
+    }
+
+    def "forwards discarding prefetched entries to a remote that supports batching"() {
+        given:
+        remote = Mock(BatchingBuildCacheService)
+
+        when:
+        controller.discardPrefetched([key])
+
+        then:
+        1 * remote.discardPrefetched([key])
+    }
+
+    def "does not prefetch after remote was disabled"() {
+        given:
+        remote = Mock(BatchingBuildCacheService)
+        1 * remote.load(key, _) >> { throw new RuntimeException() }
+        def controller = getController()
+
+        when:
+        controller.load(key, cacheableEntity)
+        controller.prefetch([key])
+
+        then:
+        0 * remote.findExisting(_)
+        0 * remote.prefetch(_)
+    }
+
+    def "does suppress exceptions from prefetch"() {
+        given:
+        remote = Mock(BatchingBuildCacheService)
+        1 * remote.findExisting([key]) >> ([key] as Set)
+        1 * remote.prefetch([key] as Set) >> { throw new RuntimeException() }
+
+        when:
+        controller.prefetch([key])
+
+        then:
+        noExceptionThrown()
+    }
+
+    def "does suppress exceptions from checking which entries exist"() {
+        given:
+        remote = Mock(BatchingBuildCacheService)
+        1 * remote.findExisting([key]) >> { throw new BuildCacheException("boom") }
+
+        when:
+        controller.prefetch([key])
+
+        then:
+        noExceptionThrown()
+        0 * remote.prefetch(_)
+    }
 }
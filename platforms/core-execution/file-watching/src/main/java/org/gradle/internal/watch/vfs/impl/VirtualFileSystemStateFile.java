@@ -0,0 +1,383 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.watch.vfs.impl;
+
+import com.google.common.collect.ImmutableList;
+import org.gradle.internal.file.FileMetadata;
+import org.gradle.internal.file.FileMetadata.AccessType;
+import org.gradle.internal.file.FileMetadataAccessor;
+import org.gradle.internal.file.FileType;
+import org.gradle.internal.file.impl.DefaultFileMetadata;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.snapshot.DirectorySnapshot;
+import org.gradle.internal.snapshot.FileSystemLocationSnapshot;
+import org.gradle.internal.snapshot.MissingFileSnapshot;
+import org.gradle.internal.snapshot.RegularFileSnapshot;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Persists the contents of the virtual file system between daemons.
+ *
+ * <p>The retained file system state is written at the end of a build, together with the modification time of every directory.
+ * The time the state was captured serves as a watermark:
+ * a file or directory that has not been modified in a way visible to a later daemon must have a modification time older than the watermark.</p>
+ *
+ * <p>The state records the identity of the hasher which produced its hashes, and is ignored when read with a different hasher.</p>
+ *
+ * <p>When a new daemon starts watching a hierarchy, the persisted snapshots under it are checked against the file system.
+ * A directory snapshot is restored as a whole when neither the directory nor anything below it has changed.
+ * Otherwise, only its unchanged children are restored.
+ * Locations accessed via symlinks are never restored.</p>
+ */
+public class VirtualFileSystemStateFile {
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualFileSystemStateFile.class);
+
+    private static final int MAGIC = 0x47564653;
+    private static final int VERSION = 2;
+    private static final byte DIRECTORY = 1;
+    private static final byte REGULAR_FILE = 2;
+    private static final byte OTHER = 3;
+
+    /**
+     * The coarsest modification time granularity we expect from a file system, in milliseconds.
+     */
+    private static final long TIMESTAMP_GRANULARITY = 2000;
+
+    private final File stateFile;
+    private final HashCode hasherIdentity;
+    private final FileMetadataAccessor fileMetadataAccessor;
+
+    public VirtualFileSystemStateFile(File stateFile, HashCode hasherIdentity, FileMetadataAccessor fileMetadataAccessor) {
+        this.stateFile = stateFile;
+        this.hasherIdentity = hasherIdentity;
+        this.fileMetadataAccessor = fileMetadataAccessor;
+    }
+
+    public File getFile() {
+        return stateFile;
+    }
+
+    /**
+     * Replaces the persisted state with the given snapshots, captured no earlier than {@code capturedAt}.
+     */
+    public void write(Collection<FileSystemLocationSnapshot> rootSnapshots, long capturedAt) {
+        File tempFile = null;
+        try {
+            File stateDir = stateFile.getParentFile();
+            Files.createDirectories(stateDir.toPath());
+            tempFile = File.createTempFile(stateFile.getName(), ".tmp", stateDir);
+            int count = 0;
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                writeHash(hasherIdentity, output);
+                output.writeLong(capturedAt);
+                List<FileSystemLocationSnapshot> roots = new ArrayList<>();
+                for (FileSystemLocationSnapshot snapshot : rootSnapshots) {
+                    if (!(snapshot instanceof MissingFileSnapshot)) {
+                        roots.add(snapshot);
+                    }
+                }
+                output.writeInt(roots.size());
+                for (FileSystemLocationSnapshot snapshot : roots) {
+                    output.writeUTF(snapshot.getAbsolutePath());
+                    count += writeSnapshot(snapshot, output);
+                }
+            }
+            Files.move(tempFile.toPath(), stateFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            LOGGER.debug("Persisted {} VFS entries to {}", count, stateFile);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.info("Unable to persist the VFS state to {}", stateFile, e);
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    private static int writeSnapshot(FileSystemLocationSnapshot snapshot, DataOutputStream output) throws IOException {
+        output.writeUTF(snapshot.getName());
+        if (snapshot.getAccessType() != AccessType.DIRECT) {
+            output.writeByte(OTHER);
+            return 1;
+        }
+        if (snapshot instanceof DirectorySnapshot) {
+            DirectorySnapshot directory = (DirectorySnapshot) snapshot;
+            output.writeByte(DIRECTORY);
+            writeHash(directory.getHash(), output);
+            output.writeLong(directoryLastModified(directory.getAbsolutePath()));
+            List<FileSystemLocationSnapshot> children = directory.getChildren();
+            output.writeInt(children.size());
+            int count = 1;
+            for (FileSystemLocationSnapshot child : children) {
+                count += writeSnapshot(child, output);
+            }
+            return count;
+        }
+        if (snapshot instanceof RegularFileSnapshot) {
+            RegularFileSnapshot file = (RegularFileSnapshot) snapshot;
+            output.writeByte(REGULAR_FILE);
+            writeHash(file.getHash(), output);
+            output.writeLong(file.getMetadata().getLastModified());
+            output.writeLong(file.getMetadata().getLength());
+            return 1;
+        }
+        output.writeByte(OTHER);
+        return 1;
+    }
+
+    private static void writeHash(HashCode hash, DataOutputStream output) throws IOException {
+        byte[] bytes = hash.toByteArray();
+        output.writeByte(bytes.length);
+        output.write(bytes);
+    }
+
+    private static long directoryLastModified(String absolutePath) {
+        try {
+            return Files.getLastModifiedTime(new File(absolutePath).toPath(), LinkOption.NOFOLLOW_LINKS).toMillis();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Reads the persisted state, returning an empty state when there is none or it cannot be read.
+     */
+    public PersistedState read() {
+        if (!stateFile.isFile()) {
+            return new PersistedState(ImmutableList.of(), 0);
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(stateFile.toPath())))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                LOGGER.info("Ignoring VFS state in {} written by a different version", stateFile);
+                return new PersistedState(ImmutableList.of(), 0);
+            }
+            if (!readHash(input).equals(hasherIdentity)) {
+                LOGGER.info("Ignoring VFS state in {} written with a different file hasher", stateFile);
+                return new PersistedState(ImmutableList.of(), 0);
+            }
+            // Not the modification time of the state file: directory modification times are read while writing, after the state was captured
+            long watermark = input.readLong();
+            int rootCount = input.readInt();
+            List<Node> roots = new ArrayList<>(rootCount);
+            for (int i = 0; i < rootCount; i++) {
+                String absolutePath = input.readUTF();
+                roots.add(readNode(input, absolutePath, null));
+            }
+            return new PersistedState(roots, watermark);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.info("Unable to read the VFS state from {}", stateFile, e);
+            return new PersistedState(ImmutableList.of(), 0);
+        }
+    }
+
+    private static Node readNode(DataInputStream input, @Nullable String absolutePath, @Nullable String parentPath) throws IOException {
+        String name = input.readUTF();
+        String path = absolutePath != null ? absolutePath : childPath(requireNonNull(parentPath), name);
+        byte type = input.readByte();
+        switch (type) {
+            case DIRECTORY:
+                HashCode directoryHash = readHash(input);
+                long directoryLastModified = input.readLong();
+                int childCount = input.readInt();
+                List<Node> children = new ArrayList<>(childCount);
+                for (int i = 0; i < childCount; i++) {
+                    children.add(readNode(input, null, path));
+                }
+                return new Node(path, name, type, directoryHash, directoryLastModified, 0, children);
+            case REGULAR_FILE:
+                HashCode fileHash = readHash(input);
+                long fileLastModified = input.readLong();
+                long length = input.readLong();
+                return new Node(path, name, type, fileHash, fileLastModified, length, ImmutableList.of());
+            case OTHER:
+                return new Node(path, name, type, null, 0, 0, ImmutableList.of());
+            default:
+                throw new IOException("Unexpected VFS entry type: " + type);
+        }
+    }
+
+    private static HashCode readHash(DataInputStream input) throws IOException {
+        byte[] bytes = new byte[input.readUnsignedByte()];
+        input.readFully(bytes);
+        return HashCode.fromBytes(bytes);
+    }
+
+    private static String childPath(String parentPath, String name) {
+        return parentPath.endsWith(File.separator) ? parentPath + name : parentPath + File.separatorChar + name;
+    }
+
+    static boolean isAncestorOrSelf(String ancestor, String path) {
+        return path.equals(ancestor) || path.startsWith(ancestor.endsWith(File.separator) ? ancestor : ancestor + File.separatorChar);
+    }
+
+    /**
+     * The persisted snapshots, waiting to be restored when the hierarchy containing them is watched.
+     */
+    public class PersistedState {
+        private final List<Node> roots;
+        private final long watermark;
+
+        private PersistedState(List<Node> roots, long watermark) {
+            this.roots = new ArrayList<>(roots);
+            this.watermark = watermark;
+        }
+
+        /**
+         * Returns the persisted snapshots at or below the given location which are still up-to-date with the file system.
+         * Each persisted location is checked at most once.
+         */
+        public List<FileSystemLocationSnapshot> restoreUnder(String absolutePath) {
+            List<FileSystemLocationSnapshot> restored = new ArrayList<>();
+            int checked = 0;
+            Iterator<Node> iterator = roots.iterator();
+            while (iterator.hasNext()) {
+                Node root = iterator.next();
+                if (isAncestorOrSelf(absolutePath, root.absolutePath)) {
+                    iterator.remove();
+                    checked += restore(root, restored);
+                } else if (isAncestorOrSelf(root.absolutePath, absolutePath)) {
+                    Node node = root.find(absolutePath);
+                    if (node != null) {
+                        checked += restore(node, restored);
+                    }
+                }
+            }
+            if (checked > 0) {
+                LOGGER.info("Restored {} VFS roots from the persisted state of {} entries under {}", restored.size(), checked, absolutePath);
+            }
+            return restored;
+        }
+
+        public boolean isEmpty() {
+            return roots.isEmpty();
+        }
+
+        /**
+         * Adds the up-to-date snapshots for the node to {@code restored}, returning the number of entries checked.
+         */
+        private int restore(Node node, List<FileSystemLocationSnapshot> restored) {
+            Counter counter = new Counter();
+            FileSystemLocationSnapshot snapshot = restoreIntact(node, restored, counter);
+            if (snapshot != null) {
+                restored.add(snapshot);
+            }
+            return counter.value;
+        }
+
+        /**
+         * Returns the snapshot of the node if neither it nor anything below it has changed.
+         * Otherwise, adds the snapshots of its unchanged descendants to {@code partial} and returns {@code null}.
+         */
+        @Nullable
+        private FileSystemLocationSnapshot restoreIntact(Node node, List<FileSystemLocationSnapshot> partial, Counter counter) {
+            counter.value++;
+            switch (node.type) {
+                case REGULAR_FILE:
+                    FileMetadata metadata = fileMetadataAccessor.stat(new File(node.absolutePath));
+                    if (metadata.getType() == FileType.RegularFile
+                        && metadata.getAccessType() == AccessType.DIRECT
+                        && metadata.getLastModified() == node.lastModified
+                        && metadata.getLength() == node.length
+                        && isBeforeWatermark(node.lastModified)) {
+                        return new RegularFileSnapshot(node.absolutePath, node.name, requireNonNull(node.hash), DefaultFileMetadata.file(node.lastModified, node.length, AccessType.DIRECT));
+                    }
+                    return null;
+                case DIRECTORY:
+                    boolean intact = isBeforeWatermark(node.lastModified) && directoryLastModified(node.absolutePath) == node.lastModified;
+                    List<FileSystemLocationSnapshot> intactChildren = new ArrayList<>(node.children.size());
+                    List<FileSystemLocationSnapshot> partialChildren = new ArrayList<>();
+                    for (Node child : node.children) {
+                        FileSystemLocationSnapshot childSnapshot = restoreIntact(child, partialChildren, counter);
+                        if (childSnapshot != null) {
+                            intactChildren.add(childSnapshot);
+                        } else {
+                            intact = false;
+                        }
+                    }
+                    if (intact) {
+                        return new DirectorySnapshot(node.absolutePath, node.name, AccessType.DIRECT, requireNonNull(node.hash), intactChildren);
+                    }
+                    partial.addAll(intactChildren);
+                    partial.addAll(partialChildren);
+                    return null;
+                default:
+                    return null;
+            }
+        }
+
+        private boolean isBeforeWatermark(long lastModified) {
+            return lastModified >= 0 && lastModified < watermark - TIMESTAMP_GRANULARITY;
+        }
+    }
+
+    private static class Counter {
+        int value;
+    }
+
+    private static class Node {
+        private final String absolutePath;
+        private final String name;
+        private final byte type;
+        @Nullable
+        private final HashCode hash;
+        private final long lastModified;
+        private final long length;
+        private final List<Node> children;
+
+        Node(String absolutePath, String name, byte type, @Nullable HashCode hash, long lastModified, long length, List<Node> children) {
+            this.absolutePath = absolutePath;
+            this.name = name;
+            this.type = type;
+            this.hash = hash;
+            this.lastModified = lastModified;
+            this.length = length;
+            this.children = children;
+        }
+
+        @Nullable
+        Node find(String descendantPath) {
+            if (absolutePath.equals(descendantPath)) {
+                return this;
+            }
+            for (Node child : children) {
+                if (isAncestorOrSelf(child.absolutePath, descendantPath)) {
+                    return child.find(descendantPath);
+                }
+            }
+            return null;
+        }
+    }
+}
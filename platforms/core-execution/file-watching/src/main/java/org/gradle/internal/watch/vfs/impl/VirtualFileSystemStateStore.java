@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.watch.vfs.impl;
+
+import org.gradle.internal.file.FileMetadataAccessor;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.hash.Hasher;
+import org.gradle.internal.hash.Hashing;
+import org.gradle.internal.snapshot.CaseSensitivity;
+import org.gradle.internal.snapshot.FileSystemLocationSnapshot;
+import org.gradle.internal.snapshot.SnapshotHierarchy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * The persisted virtual file system state of each build root, see {@link VirtualFileSystemStateFile}.
+ *
+ * <p>There is a state file per build root directory and VFS configuration, so daemons for different builds,
+ * or hashing and comparing file names differently, never overwrite or read each other's state.</p>
+ *
+ * <p>The state is written on the given executor, so the VFS is not locked while it is serialized.
+ * Only the latest state of a build root is written, states superseded while waiting are dropped.</p>
+ */
+public class VirtualFileSystemStateStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualFileSystemStateStore.class);
+
+    private final File stateDir;
+    private final HashCode configurationKey;
+    private final HashCode hasherIdentity;
+    private final FileMetadataAccessor fileMetadataAccessor;
+    private final Executor writeExecutor;
+    private final Map<File, PendingWrite> pendingWrites = new ConcurrentHashMap<>();
+
+    public VirtualFileSystemStateStore(File stateDir, CaseSensitivity caseSensitivity, HashCode hasherIdentity, FileMetadataAccessor fileMetadataAccessor, Executor writeExecutor) {
+        this.stateDir = stateDir;
+        this.hasherIdentity = hasherIdentity;
+        this.fileMetadataAccessor = fileMetadataAccessor;
+        this.writeExecutor = writeExecutor;
+        Hasher hasher = Hashing.newHasher();
+        hasher.putString(caseSensitivity.name());
+        hasher.putHash(hasherIdentity);
+        this.configurationKey = hasher.hash();
+    }
+
+    /**
+     * Reads the state persisted for the build with the given root directory.
+     */
+    public VirtualFileSystemStateFile.PersistedState read(File buildRootDirectory) {
+        return stateFileFor(buildRootDirectory).read();
+    }
+
+    /**
+     * Schedules replacing the state persisted for the build with the given watchable hierarchies, the first one being its root directory.
+     * Only the snapshots within these hierarchies are persisted.
+     */
+    public void writeInBackground(List<File> watchableHierarchies, SnapshotHierarchy root) {
+        List<String> hierarchyPaths = new ArrayList<>(watchableHierarchies.size());
+        for (File watchableHierarchy : watchableHierarchies) {
+            hierarchyPaths.add(watchableHierarchy.getAbsolutePath());
+        }
+        // Snapshots are immutable, so they can be serialized without holding the VFS lock
+        List<FileSystemLocationSnapshot> rootSnapshots = new ArrayList<>();
+        root.rootSnapshots()
+            .filter(snapshot -> hierarchyPaths.stream().anyMatch(hierarchyPath -> VirtualFileSystemStateFile.isAncestorOrSelf(hierarchyPath, snapshot.getAbsolutePath())))
+            .forEach(rootSnapshots::add);
+        VirtualFileSystemStateFile stateFile = stateFileFor(watchableHierarchies.get(0));
+        File file = stateFile.getFile();
+        if (pendingWrites.put(file, new PendingWrite(rootSnapshots, System.currentTimeMillis())) != null) {
+            // The scheduled write picks up the latest state
+            return;
+        }
+        try {
+            writeExecutor.execute(() -> {
+                PendingWrite pendingWrite = pendingWrites.remove(file);
+                if (pendingWrite != null) {
+                    stateFile.write(pendingWrite.rootSnapshots, pendingWrite.capturedAt);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingWrites.remove(file);
+            LOGGER.debug("Not persisting the VFS state to {} as the daemon is stopping", file, e);
+        }
+    }
+
+    private VirtualFileSystemStateFile stateFileFor(File buildRootDirectory) {
+        Hasher hasher = Hashing.newHasher();
+        hasher.putHash(configurationKey);
+        hasher.putString(buildRootDirectory.getAbsolutePath());
+        File file = new File(stateDir, "vfs-state-" + hasher.hash().toCompactString() + ".bin");
+        return new VirtualFileSystemStateFile(file, hasherIdentity, fileMetadataAccessor);
+    }
+
+    private static class PendingWrite {
+        private final List<FileSystemLocationSnapshot> rootSnapshots;
+        private final long capturedAt;
+
+        PendingWrite(List<FileSystemLocationSnapshot> rootSnapshots, long capturedAt) {
+            this.rootSnapshots = rootSnapshots;
+            this.capturedAt = capturedAt;
+        }
+    }
+}
@@ -28,6 +28,7 @@
 import org.gradle.internal.operations.BuildOperationDescriptor;
 import org.gradle.internal.operations.BuildOperationRunner;
 import org.gradle.internal.operations.CallableBuildOperation;
+import org.gradle.internal.snapshot.FileSystemLocationSnapshot;
 import org.gradle.internal.snapshot.FileSystemNode;
 import org.gradle.internal.snapshot.SnapshotHierarchy;
 import org.gradle.internal.vfs.impl.AbstractVirtualFileSystem;
@@ -68,6 +69,8 @@ public class WatchingVirtualFileSystem extends AbstractVirtualFileSystem impleme
     private final FileWatchingFilter locationsWrittenByCurrentBuild;
     private final WatchableFileSystemDetector watchableFileSystemDetector;
     private final FileChangeListeners fileChangeListeners;
+    @Nullable
+    private final VirtualFileSystemStateStore stateStore;
     private final List<File> unsupportedFileSystems = new ArrayList<>();
     private Logger warningLogger = LOGGER;
 
@@ -76,11 +79,25 @@ public class WatchingVirtualFileSystem extends AbstractVirtualFileSystem impleme
      */
     private final Set<File> watchableHierarchiesRegisteredEarly = new LinkedHashSet<>();
 
+    /**
+     * Watchable hierarchies registered by the current build, starting with the root directory of the root project.
+     */
+    private final List<File> watchableHierarchiesOfCurrentBuild = new ArrayList<>();
+
     @Nullable
     private FileWatcherRegistry watchRegistry;
     @Nullable
     private Exception reasonForNotWatchingFiles;
     private boolean stateInvalidatedAtStartOfBuild;
+    /**
+     * Whether to read the state persisted by a previous daemon once the root directory of the build is registered.
+     */
+    private boolean persistedStatePending;
+    /**
+     * The state persisted by a previous daemon, restored as the hierarchies containing it are registered during the first build.
+     */
+    @Nullable
+    private VirtualFileSystemStateFile.PersistedState persistedState;
 
     public WatchingVirtualFileSystem(
         FileWatcherRegistryFactory watcherRegistryFactory,
@@ -89,6 +106,18 @@ public WatchingVirtualFileSystem(
         FileWatchingFilter locationsWrittenByCurrentBuild,
         WatchableFileSystemDetector watchableFileSystemDetector,
         FileChangeListeners fileChangeListeners
+    ) {
+        this(watcherRegistryFactory, root, fileSystemWatchingDocumentationIndex, locationsWrittenByCurrentBuild, watchableFileSystemDetector, fileChangeListeners, null);
+    }
+
+    public WatchingVirtualFileSystem(
+        FileWatcherRegistryFactory watcherRegistryFactory,
+        SnapshotHierarchy root,
+        FileSystemWatchingDocumentationIndex fileSystemWatchingDocumentationIndex,
+        FileWatchingFilter locationsWrittenByCurrentBuild,
+        WatchableFileSystemDetector watchableFileSystemDetector,
+        FileChangeListeners fileChangeListeners,
+        @Nullable VirtualFileSystemStateStore stateStore
     ) {
         super(root);
         this.watcherRegistryFactory = watcherRegistryFactory;
@@ -96,6 +125,7 @@ public WatchingVirtualFileSystem(
         this.locationsWrittenByCurrentBuild = locationsWrittenByCurrentBuild;
         this.watchableFileSystemDetector = watchableFileSystemDetector;
         this.fileChangeListeners = fileChangeListeners;
+        this.stateStore = stateStore;
     }
 
     @Override
@@ -205,14 +235,15 @@ public BuildOperationDescriptor.Builder description() {
     @Override
     public void registerWatchableHierarchy(File watchableHierarchy) {
         updateRootUnderLock(currentRoot -> {
+            watchableHierarchiesOfCurrentBuild.add(watchableHierarchy);
             if (watchRegistry == null) {
                 watchableHierarchiesRegisteredEarly.add(watchableHierarchy);
                 return currentRoot;
             }
-            return withWatcherChangeErrorHandling(
-                currentRoot,
-                () -> requireNonNull(watchRegistry).registerWatchableHierarchy(watchableHierarchy, currentRoot)
-            );
+            return withWatcherChangeErrorHandling(currentRoot, () -> {
+                requireNonNull(watchRegistry).registerWatchableHierarchy(watchableHierarchy, currentRoot);
+                return restorePersistedState(watchableHierarchy, currentRoot);
+            });
         });
     }
 
@@ -309,8 +340,16 @@ public void afterBuildFinished() {
         updateRootUnderLock(currentRoot ->
             withWatcherChangeErrorHandling(currentRoot, () -> {
                 FileWatcherRegistry watchRegistry = this.watchRegistry;
+                persistedStatePending = false;
+                persistedState = null;
+                List<File> watchableHierarchies = new ArrayList<>(watchableHierarchiesOfCurrentBuild);
+                watchableHierarchiesOfCurrentBuild.clear();
                 if (watchRegistry != null) {
-                    return watchRegistry.updateVfsAfterBuildFinished(currentRoot);
+                    SnapshotHierarchy newRoot = watchRegistry.updateVfsAfterBuildFinished(currentRoot);
+                    if (stateStore != null && !watchableHierarchies.isEmpty()) {
+                        stateStore.writeInBackground(watchableHierarchies, newRoot);
+                    }
+                    return newRoot;
                 } else {
                     // Drop everything if we can't watch the file system
                     return currentRoot.empty();
@@ -330,7 +369,12 @@ private SnapshotHierarchy startWatching(SnapshotHierarchy currentRoot, WatchMode
                     new BroadcastingChangeHandler()
                 )));
             SnapshotHierarchy newRoot = watchRegistry.updateVfsOnBuildStarted(currentRoot.empty(), watchMode, unsupportedFileSystems);
-            watchableHierarchiesRegisteredEarly.forEach(watchableHierarchy -> watchRegistry.registerWatchableHierarchy(watchableHierarchy, newRoot));
+            persistedStatePending = stateStore != null;
+            persistedState = null;
+            for (File watchableHierarchy : watchableHierarchiesRegisteredEarly) {
+                watchRegistry.registerWatchableHierarchy(watchableHierarchy, newRoot);
+                newRoot = restorePersistedState(watchableHierarchy, newRoot);
+            }
             watchableHierarchiesRegisteredEarly.clear();
             return newRoot;
         } catch (Exception ex) {
@@ -340,6 +384,28 @@ private SnapshotHierarchy startWatching(SnapshotHierarchy currentRoot, WatchMode
         }
     }
 
+    /**
+     * Adds the still up-to-date snapshots persisted by a previous daemon for the newly registered hierarchy.
+     * Only state inside watchable hierarchies is restored, since the watchers keep it up-to-date from then on.
+     */
+    @CheckReturnValue
+    private SnapshotHierarchy restorePersistedState(File watchableHierarchy, SnapshotHierarchy currentRoot) {
+        if (persistedStatePending && stateStore != null) {
+            persistedStatePending = false;
+            this.persistedState = stateStore.read(watchableHierarchiesOfCurrentBuild.get(0));
+        }
+        VirtualFileSystemStateFile.PersistedState persistedState = this.persistedState;
+        if (persistedState == null || persistedState.isEmpty()) {
+            return currentRoot;
+        }
+        SnapshotHierarchy newRoot = currentRoot;
+        for (FileSystemLocationSnapshot snapshot : persistedState.restoreUnder(watchableHierarchy.getAbsolutePath())) {
+            SnapshotHierarchy root = newRoot;
+            newRoot = updateNotifyingListeners(diffListener -> root.store(snapshot.getAbsolutePath(), snapshot, diffListener));
+        }
+        return newRoot;
+    }
+
     @Override
     public boolean isWatchingAnyLocations() {
         FileWatcherRegistry watchRegistry = this.watchRegistry;
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.watch.vfs.impl
+
+import org.gradle.internal.file.nio.NioFileMetadataAccessor
+import org.gradle.internal.hash.TestHashCodes
+import org.gradle.internal.snapshot.DirectorySnapshot
+import org.gradle.internal.snapshot.FileSystemLocationSnapshot
+import org.gradle.internal.snapshot.RegularFileSnapshot
+import org.gradle.internal.snapshot.TestSnapshotFixture
+import org.gradle.test.fixtures.file.TestFile
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class VirtualFileSystemStateFileTest extends Specification implements TestSnapshotFixture {
+
+    @Rule
+    TestNameTestDirectoryProvider temporaryFolder = new TestNameTestDirectoryProvider(getClass())
+
+    def fileMetadataAccessor = new NioFileMetadataAccessor()
+    def hasherIdentity = TestHashCodes.hashCodeFrom(1)
+    def stateFile = new VirtualFileSystemStateFile(temporaryFolder.file("state/vfs-state.bin"), hasherIdentity, fileMetadataAccessor)
+    def anHourAgo = System.currentTimeMillis() - 3600_000
+
+    TestFile project
+    TestFile sources
+    TestFile first
+    TestFile second
+    TestFile resources
+    TestFile resource
+
+    def setup() {
+        project = temporaryFolder.createDir("project")
+        sources = project.createDir("src")
+        first = sources.createFile("First.java") << "class First {}"
+        second = sources.createFile("Second.java") << "class Second {}"
+        resources = project.createDir("resources")
+        resource = resources.createFile("resource.txt") << "resource"
+        [first, second, resource, sources, resources, project].each { it.setLastModified(anHourAgo) }
+    }
+
+    def "restores unchanged directory as a whole"() {
+        def snapshot = snapshotProject()
+        stateFile.write([snapshot], System.currentTimeMillis())
+
+        when:
+        def restored = stateFile.read().restoreUnder(project.absolutePath)
+
+        then:
+        restored.size() == 1
+        restored[0] instanceof DirectorySnapshot
+        restored[0].absolutePath == project.absolutePath
+        restored[0].hash == snapshot.hash
+        descendantPaths(restored[0]) == descendantPaths(snapshot)
+    }
+
+    def "restores only unchanged children of changed directories"() {
+        stateFile.write([snapshotProject()], System.currentTimeMillis())
+        first.text = "class First { int changed; }"
+
+        when:
+        def restored = stateFile.read().restoreUnder(project.absolutePath)
+
+        then:
+        restored*.absolutePath as Set == [second.absolutePath, resources.absolutePath] as Set
+        restored.find { it.absolutePath == resources.absolutePath } instanceof DirectorySnapshot
+    }
+
+    def "does not restore directory with added children"() {
+        stateFile.write([snapshotProject()], System.currentTimeMillis())
+        sources.createFile("Third.java") << "class Third {}"
+
+        when:
+        def restored = stateFile.read().restoreUnder(project.absolutePath)
+
+        then:
+        restored*.absolutePath as Set == [first.absolutePath, second.absolutePath, resources.absolutePath] as Set
+    }
+
+    def "does not restore files modified close to the time the state was persisted"() {
+        resource.setLastModified(System.currentTimeMillis())
+        stateFile.write([snapshotProject()], System.currentTimeMillis())
+
+        when:
+        def restored = stateFile.read().restoreUnder(project.absolutePath)
+
+        then:
+        restored*.absolutePath as Set == [sources.absolutePath] as Set
+    }
+
+    def "restores only the state below the given location, once"() {
+        stateFile.write([snapshotProject()], System.currentTimeMillis())
+        def state = stateFile.read()
+
+        expect:
+        state.restoreUnder(temporaryFolder.file("other").absolutePath).empty
+        state.restoreUnder(resources.absolutePath)*.absolutePath == [resources.absolutePath]
+        state.restoreUnder(project.absolutePath)*.absolutePath == [project.absolutePath]
+        state.restoreUnder(project.absolutePath).empty
+    }
+
+    def "does not restore directories changed between capturing and writing the state"() {
+        def snapshot = snapshotProject()
+        def capturedAt = anHourAgo + 60_000
+        resources.createFile("added.txt") << "added"
+        stateFile.write([snapshot], capturedAt)
+
+        when:
+        def restored = stateFile.read().restoreUnder(project.absolutePath)
+
+        then:
+        restored*.absolutePath as Set == [sources.absolutePath, resource.absolutePath] as Set
+    }
+
+    def "ignores state written with a different hasher"() {
+        stateFile.write([snapshotProject()], System.currentTimeMillis())
+
+        expect:
+        new VirtualFileSystemStateFile(stateFile.file, TestHashCodes.hashCodeFrom(2), fileMetadataAccessor).read().isEmpty()
+        !stateFile.read().isEmpty()
+    }
+
+    def "ignores missing and corrupt state"() {
+        expect:
+        stateFile.read().restoreUnder(project.absolutePath).empty
+
+        when:
+        temporaryFolder.file("state/vfs-state.bin").text = "corrupt"
+
+        then:
+        stateFile.read().restoreUnder(project.absolutePath).empty
+    }
+
+    private FileSystemLocationSnapshot snapshotProject() {
+        directory(project.absolutePath, [
+            directory(sources.absolutePath, [fileSnapshot(first), fileSnapshot(second)]),
+            directory(resources.absolutePath, [fileSnapshot(resource)])
+        ])
+    }
+
+    private FileSystemLocationSnapshot fileSnapshot(TestFile file) {
+        new RegularFileSnapshot(file.absolutePath, file.name, TestHashCodes.hashCodeFrom(file.text.hashCode()), fileMetadataAccessor.stat(file))
+    }
+
+    private static List<String> descendantPaths(FileSystemLocationSnapshot snapshot) {
+        def paths = []
+        snapshot.accept(new FileSystemLocationSnapshot.FileSystemLocationSnapshotVisitor() {
+            @Override
+            void visitDirectory(DirectorySnapshot directorySnapshot) {
+                paths << directorySnapshot.absolutePath
+                directorySnapshot.children.each { it.accept(this) }
+            }
+
+            @Override
+            void visitRegularFile(RegularFileSnapshot fileSnapshot) {
+                paths << fileSnapshot.absolutePath
+            }
+        })
+        return paths
+    }
+}
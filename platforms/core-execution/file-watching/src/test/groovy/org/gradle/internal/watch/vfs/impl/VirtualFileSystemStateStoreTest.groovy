@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.watch.vfs.impl
+
+import org.gradle.internal.file.nio.NioFileMetadataAccessor
+import org.gradle.internal.hash.TestHashCodes
+import org.gradle.internal.snapshot.CaseSensitivity
+import org.gradle.internal.snapshot.FileSystemLocationSnapshot
+import org.gradle.internal.snapshot.RegularFileSnapshot
+import org.gradle.internal.snapshot.TestSnapshotFixture
+import org.gradle.test.fixtures.file.TestFile
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+import java.util.concurrent.Executor
+
+class VirtualFileSystemStateStoreTest extends Specification implements TestSnapshotFixture {
+
+    @Rule
+    TestNameTestDirectoryProvider temporaryFolder = new TestNameTestDirectoryProvider(getClass())
+
+    def fileMetadataAccessor = new NioFileMetadataAccessor()
+    def hasherIdentity = TestHashCodes.hashCodeFrom(1)
+    def scheduledWrites = [] as List<Runnable>
+    def writeExecutor = { Runnable write -> scheduledWrites << write } as Executor
+    def stateDir = temporaryFolder.file("state")
+    def store = new VirtualFileSystemStateStore(stateDir, CaseSensitivity.CASE_SENSITIVE, hasherIdentity, fileMetadataAccessor, writeExecutor)
+    def anHourAgo = System.currentTimeMillis() - 3600_000
+
+    TestFile build
+    TestFile included
+    TestFile other
+
+    def setup() {
+        build = createProject("build")
+        included = createProject("included")
+        other = createProject("other")
+    }
+
+    def "writes the state in the background"() {
+        when:
+        store.writeInBackground([build], buildHierarchy(CaseSensitivity.CASE_SENSITIVE, [snapshot(build)]))
+
+        then:
+        scheduledWrites.size() == 1
+        store.read(build).isEmpty()
+
+        when:
+        runScheduledWrites()
+
+        then:
+        store.read(build).restoreUnder(build.absolutePath)*.absolutePath == [build.absolutePath]
+    }
+
+    def "persists only the state within the hierarchies of the build"() {
+        def root = buildHierarchy(CaseSensitivity.CASE_SENSITIVE, [snapshot(build), snapshot(included), snapshot(other)])
+
+        when:
+        store.writeInBackground([build, included], root)
+        runScheduledWrites()
+        def state = store.read(build)
+
+        then:
+        state.restoreUnder(build.absolutePath)*.absolutePath == [build.absolutePath]
+        state.restoreUnder(included.absolutePath)*.absolutePath == [included.absolutePath]
+        state.isEmpty()
+    }
+
+    def "keeps separate state per build root and configuration"() {
+        when:
+        store.writeInBackground([build], buildHierarchy(CaseSensitivity.CASE_SENSITIVE, [snapshot(build)]))
+        runScheduledWrites()
+
+        then:
+        store.read(other).isEmpty()
+        storeWith(CaseSensitivity.CASE_INSENSITIVE, hasherIdentity).read(build).isEmpty()
+        storeWith(CaseSensitivity.CASE_SENSITIVE, TestHashCodes.hashCodeFrom(2)).read(build).isEmpty()
+        !storeWith(CaseSensitivity.CASE_SENSITIVE, hasherIdentity).read(build).isEmpty()
+    }
+
+    def "writes only the latest state when writes are superseded"() {
+        when:
+        store.writeInBackground([build], buildHierarchy(CaseSensitivity.CASE_SENSITIVE, [snapshot(build)]))
+        store.writeInBackground([build], buildHierarchy(CaseSensitivity.CASE_SENSITIVE, [snapshot(build.file("src"))]))
+
+        then:
+        scheduledWrites.size() == 1
+
+        when:
+        runScheduledWrites()
+        def state = store.read(build)
+
+        then:
+        state.restoreUnder(build.absolutePath)*.absolutePath == [build.file("src").absolutePath]
+    }
+
+    private VirtualFileSystemStateStore storeWith(CaseSensitivity caseSensitivity, hasherIdentity) {
+        new VirtualFileSystemStateStore(stateDir, caseSensitivity, hasherIdentity, fileMetadataAccessor, writeExecutor)
+    }
+
+    private void runScheduledWrites() {
+        def writes = new ArrayList<Runnable>(scheduledWrites)
+        scheduledWrites.clear()
+        writes*.run()
+    }
+
+    private TestFile createProject(String name) {
+        def project = temporaryFolder.createDir(name)
+        def sources = project.createDir("src")
+        def source = sources.createFile("Source.java") << "class Source {}"
+        [source, sources, project].each { it.setLastModified(anHourAgo) }
+        return project
+    }
+
+    private FileSystemLocationSnapshot snapshot(TestFile dir) {
+        directory(dir.absolutePath, dir.listFiles().sort().collect { child ->
+            child.directory
+                ? snapshot(new TestFile(child))
+                : new RegularFileSnapshot(child.absolutePath, child.name, TestHashCodes.hashCodeFrom(child.text.hashCode()), fileMetadataAccessor.stat(child))
+        })
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.changedetection.state;
+
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.service.scopes.Scope;
+import org.gradle.internal.service.scopes.ServiceScope;
+import org.jspecify.annotations.Nullable;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * The threads that walk the sub-directories of a hierarchy in parallel when snapshotting it, shared by all the file system accesses of the process.
+ *
+ * <p>A dedicated pool is used, so that snapshotting does not compete with other users of the common pool, and its threads are stopped with the process services.</p>
+ */
+@ServiceScope(Scope.Global.class)
+public class DirectorySnapshottingPool implements Stoppable {
+
+    @Nullable
+    private final ForkJoinPool pool;
+
+    public DirectorySnapshottingPool(boolean enabled, int parallelism) {
+        this.pool = enabled && parallelism > 1
+            ? new ForkJoinPool(parallelism, DirectorySnapshottingPool::newThread, null, false)
+            : null;
+    }
+
+    /**
+     * Returns the pool to walk directory hierarchies with, or null when hierarchies are to be walked on the calling thread.
+     */
+    @Nullable
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    private static ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = new ForkJoinWorkerThread(pool) {
+        };
+        thread.setName("Directory snapshotting " + thread.getPoolIndex());
+        return thread;
+    }
+
+    @Override
+    public void stop() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+}
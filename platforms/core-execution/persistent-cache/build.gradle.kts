@@ -1,6 +1,7 @@
 plugins {
     id("gradlebuild.distribution.api-java")
     id("gradlebuild.publish-public-libraries")
+    id("gradlebuild.jmh")
 }
 
 description = """Persistent caches on disk and cross process locking.
@@ -40,6 +41,8 @@ dependencies {
 
     integTestDistributionRuntimeOnly(projects.distributionsCore)
 
+    jmhImplementation(libs.commonsIo)
+
     // Javadoc-only: downstream modules whose types are referenced by {@link ...} in this module's docs.
     javadocReferences(projects.scopedPersistentCache)
 }
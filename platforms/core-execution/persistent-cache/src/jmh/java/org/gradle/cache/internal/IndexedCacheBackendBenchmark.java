@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.cache.internal;
+
+import org.apache.commons.io.FileUtils;
+import org.gradle.cache.IndexedCacheBackend;
+import org.gradle.cache.internal.btree.BTreePersistentIndexedCache;
+import org.gradle.cache.internal.mmap.MemoryMappedPersistentIndexedCache;
+import org.gradle.internal.serialize.BaseSerializerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compares the persistent indexed cache backends with a workload resembling the file hash cache: many lookups of existing keys, few writes.
+ *
+ * <p>Neither backend is thread-safe, so accesses are serialized the way the cache coordinator serializes them in a build.</p>
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@State(Scope.Benchmark)
+public class IndexedCacheBackendBenchmark {
+    private static final int ENTRIES = 100_000;
+
+    @Param({"BTREE", "MEMORY_MAPPED"})
+    IndexedCacheBackend backend;
+
+    private File tempDir;
+    private PersistentIndexedStore<String, Long> store;
+    private String[] keys;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws IOException {
+        tempDir = Files.createTempDirectory("indexed-cache-benchmark").toFile();
+        File cacheFile = new File(tempDir, "cache.bin");
+        if (backend == IndexedCacheBackend.MEMORY_MAPPED) {
+            store = new SynchronizedStore<String, Long>(new MemoryMappedPersistentIndexedCache<String, Long>(cacheFile, BaseSerializerFactory.STRING_SERIALIZER, BaseSerializerFactory.LONG_SERIALIZER));
+        } else {
+            store = new SynchronizedStore<String, Long>(new BTreePersistentIndexedCache<String, Long>(cacheFile, BaseSerializerFactory.STRING_SERIALIZER, BaseSerializerFactory.LONG_SERIALIZER));
+        }
+        keys = new String[ENTRIES];
+        for (int i = 0; i < ENTRIES; i++) {
+            keys[i] = "/home/user/project/module-" + (i % 100) + "/src/main/java/org/gradle/Source" + i + ".java";
+            store.put(keys[i], (long) i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() throws IOException {
+        store.close();
+        FileUtils.forceDelete(tempDir);
+    }
+
+    @Benchmark
+    public void get(Blackhole blackhole) {
+        blackhole.consume(store.get(randomKey()));
+    }
+
+    @Benchmark
+    public void put() {
+        store.put(randomKey(), ThreadLocalRandom.current().nextLong());
+    }
+
+    @Benchmark
+    public void mixed(Blackhole blackhole) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextInt(10) == 0) {
+            store.put(randomKey(), random.nextLong());
+        } else {
+            blackhole.consume(store.get(randomKey()));
+        }
+    }
+
+    private String randomKey() {
+        return keys[ThreadLocalRandom.current().nextInt(ENTRIES)];
+    }
+
+    private static class SynchronizedStore<K, V> implements PersistentIndexedStore<K, V> {
+        private final PersistentIndexedStore<K, V> delegate;
+
+        SynchronizedStore(PersistentIndexedStore<K, V> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public synchronized V get(K key) {
+            return delegate.get(key);
+        }
+
+        @Override
+        public synchronized void put(K key, V value) {
+            delegate.put(key, value);
+        }
+
+        @Override
+        public synchronized void remove(K key) {
+            delegate.remove(key);
+        }
+
+        @Override
+        public synchronized void close() {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.cache;
+
+/**
+ * The format used to persist the entries of an indexed cache.
+ *
+ * <p>Caches use {@link #BTREE} unless they select a backend explicitly.
+ * Like every indexed cache, either backend is only accessed by one thread at a time, as the cache coordinator serializes accesses.</p>
+ */
+public enum IndexedCacheBackend {
+    /**
+     * Entries are stored in a B-tree, which is read and written through the file.
+     */
+    BTREE,
+
+    /**
+     * Entries are stored behind a hash index in a memory-mapped file, so lookups read the mapped pages directly instead of reading blocks from the file.
+     */
+    MEMORY_MAPPED
+}
@@ -25,6 +25,7 @@
 import org.gradle.cache.FileIntegrityViolationException;
 import org.gradle.cache.FileLock;
 import org.gradle.cache.FileLockManager;
+import org.gradle.cache.IndexedCacheBackend;
 import org.gradle.cache.IndexedCacheParameters;
 import org.gradle.cache.InsufficientLockModeException;
 import org.gradle.cache.LockOptions;
@@ -32,6 +33,7 @@
 import org.gradle.cache.MultiProcessSafeIndexedCache;
 import org.gradle.cache.internal.btree.BTreePersistentIndexedCache;
 import org.gradle.cache.internal.cacheops.CacheAccessOperationsStack;
+import org.gradle.cache.internal.mmap.MemoryMappedPersistentIndexedCache;
 import org.gradle.internal.Cast;
 import org.gradle.internal.UncheckedException;
 import org.gradle.internal.concurrent.ExecutorFactory;
@@ -324,7 +326,9 @@ public <K, V> MultiProcessSafeIndexedCache<K, V> newCache(final IndexedCachePara
             if (entry == null) {
                 File cacheFile = findCacheFile(parameters);
                 LOG.debug("Creating new cache for {}, path {}, access {}", parameters.getCacheName(), cacheFile, this);
-                Supplier<BTreePersistentIndexedCache<K, V>> indexedCacheFactory = () -> doCreateCache(cacheFile, parameters.getKeySerializer(), parameters.getValueSerializer());
+                Supplier<PersistentIndexedStore<K, V>> indexedCacheFactory = parameters.getBackend() == IndexedCacheBackend.MEMORY_MAPPED
+                    ? () -> new MemoryMappedPersistentIndexedCache<>(cacheFile, parameters.getKeySerializer(), parameters.getValueSerializer())
+                    : () -> doCreateCache(cacheFile, parameters.getKeySerializer(), parameters.getValueSerializer());
 
                 MultiProcessSafeIndexedCache<K, V> indexedCache = new DefaultMultiProcessSafeIndexedCache<>(indexedCacheFactory, fileAccess);
                 CacheDecorator decorator = parameters.getCacheDecorator();
@@ -351,6 +355,9 @@ public <K, V> MultiProcessSafeIndexedCache<K, V> newCache(final IndexedCachePara
     }
 
     private <K, V> File findCacheFile(IndexedCacheParameters<K, V> parameters) {
+        if (parameters.getBackend() == IndexedCacheBackend.MEMORY_MAPPED) {
+            return new File(baseDir, parameters.getCacheName() + ".mmap.bin");
+        }
         return new File(baseDir, parameters.getCacheName() + ".bin");
     }
 
@@ -517,6 +524,7 @@ void assertCompatibleCacheParameters(IndexedCacheParameters<K, V> parameters) {
             checkCompatibleKeySerializer(faultMessages, parameters.getKeySerializer());
             checkCompatibleValueSerializer(faultMessages, parameters.getValueSerializer());
             checkCompatibleCacheDecorator(faultMessages, parameters.getCacheDecorator());
+            checkCompatibleBackend(faultMessages, parameters.getBackend());
 
             if (!faultMessages.isEmpty()) {
                 String lineSeparator = System.lineSeparator();
@@ -559,6 +567,14 @@ private void checkCompatibleCacheDecorator(Collection<String> faultMessages, Cac
                         cacheDecorator, parameters.getCacheDecorator()));
             }
         }
+
+        private void checkCompatibleBackend(Collection<String> faultMessages, IndexedCacheBackend backend) {
+            if (backend != parameters.getBackend()) {
+                faultMessages.add(
+                    String.format(" * Requested cache backend (%s) doesn't match current cache backend (%s)",
+                        backend, parameters.getBackend()));
+            }
+        }
     }
 
     @VisibleForTesting
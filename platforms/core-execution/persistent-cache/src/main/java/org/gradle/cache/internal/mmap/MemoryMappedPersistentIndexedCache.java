@@ -0,0 +1,587 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.cache.internal.mmap;
+
+import com.google.common.hash.Hashing;
+import org.gradle.cache.internal.PersistentIndexedStore;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.serialize.Serializer;
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A persistent indexed cache that keeps its entries in a memory-mapped file.
+ *
+ * <p>The file starts with a header, followed by entries and an open-addressing hash index, all of which are accessed through mapped segments of the file.
+ * Each entry holds the serialized key and value, so lookups compare full keys rather than relying on the hash alone.</p>
+ *
+ * <p>Updating or removing an entry leaves its previous bytes behind as garbage.
+ * The file is compacted once garbage makes up more than half of it.</p>
+ *
+ * <p>Like {@link org.gradle.cache.internal.btree.BTreePersistentIndexedCache}, this class does not coordinate with other processes.
+ * The file must only be modified by another process while it is closed here.
+ * It is not thread-safe either, and relies on the cache coordinator to serialize accesses.</p>
+ */
+public class MemoryMappedPersistentIndexedCache<K, V> implements PersistentIndexedStore<K, V> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MemoryMappedPersistentIndexedCache.class);
+
+    private static final int MAGIC = 0x47434d4d;
+    private static final int VERSION = 2;
+
+    private static final int SEGMENT_SHIFT = 20;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int ALIGNMENT = 16;
+
+    private static final int INITIAL_INDEX_CAPACITY = 1024;
+    private static final int SLOT_SIZE = 16;
+    private static final long EMPTY = 0;
+    private static final long REMOVED = -1;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int DATA_END_OFFSET = 8;
+    private static final int GARBAGE_OFFSET = 16;
+    private static final int INDEX_OFFSET = 24;
+    private static final int INDEX_CAPACITY_OFFSET = 32;
+    private static final int USED_COUNT_OFFSET = 36;
+    private static final int HEADER_SIZE = 64;
+
+    private static final int ENTRY_HEADER_SIZE = 8;
+    private static final long MIN_GARBAGE_TO_COMPACT = SEGMENT_SIZE;
+    private static final int SERIALIZATION_BUFFER_SIZE = 256;
+    private static final int COMPACTION_BUFFER_SIZE = 64 * 1024;
+
+    private final File cacheFile;
+    private final Serializer<K> keySerializer;
+    private final Serializer<V> valueSerializer;
+
+    private RandomAccessFile file;
+    private boolean readOnly;
+    private MappedByteBuffer[] segments;
+
+    private long indexOffset;
+    private int indexCapacity;
+    private long dataEnd;
+    private long garbage;
+
+    public MemoryMappedPersistentIndexedCache(File cacheFile, Serializer<K> keySerializer, Serializer<V> valueSerializer) {
+        this.cacheFile = cacheFile;
+        this.keySerializer = keySerializer;
+        this.valueSerializer = valueSerializer;
+        try {
+            open();
+        } catch (Exception e) {
+            throw UncheckedException.throwAsUncheckedException(new IOException(String.format("Could not open %s.", this), e), true);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "cache " + cacheFile.getName() + " (" + cacheFile + ")";
+    }
+
+    private void open() throws IOException {
+        LOGGER.debug("Opening {}", this);
+        cacheFile.getParentFile().mkdirs();
+        try {
+            file = new RandomAccessFile(cacheFile, "rw");
+        } catch (FileNotFoundException e) {
+            file = new RandomAccessFile(cacheFile, "r");
+            readOnly = true;
+        }
+        segments = new MappedByteBuffer[0];
+        long length = file.length();
+        if (length < HEADER_SIZE) {
+            initialize();
+            return;
+        }
+        file.seek(MAGIC_OFFSET);
+        int magic = file.readInt();
+        int version = file.readInt();
+        long storedDataEnd = file.readLong();
+        if (magic != MAGIC || version != VERSION || storedDataEnd < HEADER_SIZE || storedDataEnd > length) {
+            LOGGER.warn("{} is corrupt or has an unsupported format. Discarding.", this);
+            initialize();
+            return;
+        }
+        trimAfter(storedDataEnd);
+        mapUpTo(storedDataEnd);
+        dataEnd = storedDataEnd;
+        garbage = getLong(GARBAGE_OFFSET);
+        indexOffset = getLong(INDEX_OFFSET);
+        indexCapacity = getInt(INDEX_CAPACITY_OFFSET);
+        if (indexCapacity < INITIAL_INDEX_CAPACITY || Integer.bitCount(indexCapacity) != 1
+            || indexOffset < HEADER_SIZE || indexOffset + indexSize(indexCapacity) > dataEnd) {
+            LOGGER.warn("{} is corrupt. Discarding.", this);
+            initialize();
+        }
+    }
+
+    /**
+     * Releases the space left behind by an earlier compaction, when nothing maps it anymore.
+     */
+    private void trimAfter(long end) {
+        if (readOnly) {
+            return;
+        }
+        long retained = (end + SEGMENT_SIZE - 1) & -SEGMENT_SIZE;
+        try {
+            if (file.length() > retained) {
+                file.setLength(retained);
+            }
+        } catch (IOException e) {
+            // Some platforms cannot truncate files that are still mapped by a closed cache, keep the file as is
+            LOGGER.debug("Could not trim {}.", this, e);
+        }
+    }
+
+    private void initialize() throws IOException {
+        if (readOnly) {
+            throw new IOException(String.format("Cannot initialize read-only %s.", this));
+        }
+        mapUpTo(HEADER_SIZE);
+        putInt(MAGIC_OFFSET, MAGIC);
+        putInt(VERSION_OFFSET, VERSION);
+        dataEnd = HEADER_SIZE;
+        setGarbage(0);
+        writeIndex(INITIAL_INDEX_CAPACITY, new ArrayList<long[]>());
+    }
+
+    @Override
+    @Nullable
+    public V get(K key) {
+        try {
+            byte[] keyBytes = serialize(keySerializer, key);
+            long slot = findSlot(hash(keyBytes), keyBytes);
+            if (slot < 0) {
+                return null;
+            }
+            byte[] valueBytes = readValue(getLong(slot + 8));
+            return valueSerializer.read(new KryoBackedDecoder(new ByteArrayInputStream(valueBytes), Math.max(1, Math.min(valueBytes.length, SERIALIZATION_BUFFER_SIZE))));
+        } catch (CorruptedCacheException e) {
+            rebuild();
+            return null;
+        } catch (Exception e) {
+            throw UncheckedException.throwAsUncheckedException(new IOException(String.format("Could not read entry '%s' from %s.", key, this), e), true);
+        }
+    }
+
+    @Override
+    public void put(K key, V value) {
+        try {
+            byte[] keyBytes = serialize(keySerializer, key);
+            byte[] valueBytes = serialize(valueSerializer, value);
+            long hash = hash(keyBytes);
+            long slot = findSlot(hash, keyBytes);
+            if (slot >= 0) {
+                long entry = writeEntry(keyBytes, valueBytes);
+                addGarbage(entrySize(getLong(slot + 8)));
+                putLong(slot + 8, entry);
+            } else {
+                if (needsGrowth()) {
+                    growIndex();
+                }
+                insert(hash, writeEntry(keyBytes, valueBytes));
+            }
+            maybeCompact();
+        } catch (CorruptedCacheException e) {
+            rebuild();
+        } catch (Exception e) {
+            throw UncheckedException.throwAsUncheckedException(new IOException(String.format("Could not add entry '%s' to %s.", key, this), e), true);
+        }
+    }
+
+    @Override
+    public void remove(K key) {
+        try {
+            byte[] keyBytes = serialize(keySerializer, key);
+            long slot = findSlot(hash(keyBytes), keyBytes);
+            if (slot < 0) {
+                return;
+            }
+            addGarbage(entrySize(getLong(slot + 8)));
+            putLong(slot + 8, REMOVED);
+            maybeCompact();
+        } catch (CorruptedCacheException e) {
+            rebuild();
+        } catch (Exception e) {
+            throw UncheckedException.throwAsUncheckedException(new IOException(String.format("Could not remove entry '%s' from %s.", key, this), e), true);
+        }
+    }
+
+    public void clear() {
+        try {
+            initialize();
+        } catch (IOException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        LOGGER.debug("Closing {}", this);
+        try {
+            if (segments != null) {
+                for (MappedByteBuffer segment : segments) {
+                    MappedBuffers.unmap(segment);
+                }
+                segments = null;
+            }
+            if (file != null) {
+                file.close();
+                file = null;
+            }
+        } catch (IOException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+
+    public boolean isOpen() {
+        return segments != null;
+    }
+
+    private void rebuild() {
+        LOGGER.warn("{} is corrupt. Discarding.", this);
+        try {
+            clear();
+        } catch (Exception e) {
+            LOGGER.warn("{} couldn't be rebuilt. Closing.", this);
+            close();
+        }
+    }
+
+    /**
+     * Returns the position of the slot holding the given key, or -1 when the key is not present.
+     */
+    private long findSlot(long hash, byte[] keyBytes) {
+        int mask = indexCapacity - 1;
+        int index = (int) hash & mask;
+        for (int probes = 0; probes < indexCapacity; probes++) {
+            long slot = indexOffset + (long) index * SLOT_SIZE;
+            long entry = getLong(slot + 8);
+            if (entry == EMPTY) {
+                return -1;
+            }
+            if (entry != REMOVED && getLong(slot) == hash && keyMatches(entry, keyBytes)) {
+                return slot;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Stores a reference to a new entry in the first free slot, reusing removed slots.
+     */
+    private void insert(long hash, long entry) {
+        int mask = indexCapacity - 1;
+        int index = (int) hash & mask;
+        for (int probes = 0; probes < indexCapacity; probes++) {
+            long slot = indexOffset + (long) index * SLOT_SIZE;
+            long current = getLong(slot + 8);
+            if (current == EMPTY || current == REMOVED) {
+                if (current == EMPTY) {
+                    putInt(USED_COUNT_OFFSET, getInt(USED_COUNT_OFFSET) + 1);
+                }
+                putLong(slot, hash);
+                putLong(slot + 8, entry);
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        throw new CorruptedCacheException();
+    }
+
+    private boolean needsGrowth() {
+        return (getInt(USED_COUNT_OFFSET) + 1) * 4L > indexCapacity * 3L;
+    }
+
+    /**
+     * Moves the live slots to a new index, which is larger unless enough slots were removed.
+     */
+    private void growIndex() {
+        long oldIndexSize = indexSize(indexCapacity);
+        writeIndex(indexCapacity, liveSlots());
+        addGarbage(oldIndexSize);
+    }
+
+    private void maybeCompact() {
+        if (garbage >= MIN_GARBAGE_TO_COMPACT && garbage * 2 > dataEnd) {
+            compact();
+        }
+    }
+
+    /**
+     * Moves the live entries to the start of the file, in the order in which they are stored, followed by a new index.
+     * Entries only ever move towards the start of the file, so they can be copied in place through a bounded buffer.
+     */
+    private void compact() {
+        LOGGER.debug("Compacting {}", this);
+        List<long[]> slots = liveSlots();
+        slots.sort(Comparator.comparingLong(slot -> slot[1]));
+        byte[] buffer = new byte[COMPACTION_BUFFER_SIZE];
+        long destination = HEADER_SIZE;
+        for (long[] slot : slots) {
+            long source = slot[1];
+            long size = entrySize(source);
+            if (destination != source) {
+                for (long offset = 0; offset < size; offset += buffer.length) {
+                    int count = (int) Math.min(buffer.length, size - offset);
+                    read(source + offset, buffer, count);
+                    write(destination + offset, buffer, count);
+                }
+            }
+            slot[1] = destination;
+            destination = (destination + size + ALIGNMENT - 1) & -ALIGNMENT;
+        }
+        dataEnd = destination;
+        putLong(DATA_END_OFFSET, destination);
+        setGarbage(0);
+        writeIndex(indexCapacity, slots);
+    }
+
+    /**
+     * Collects the hash and entry position of every live slot.
+     */
+    private List<long[]> liveSlots() {
+        List<long[]> slots = new ArrayList<long[]>();
+        long end = indexOffset + indexSize(indexCapacity);
+        for (long slot = indexOffset; slot < end; slot += SLOT_SIZE) {
+            long entry = getLong(slot + 8);
+            if (entry != EMPTY && entry != REMOVED) {
+                slots.add(new long[]{getLong(slot), entry});
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Allocates an index large enough for the given slots, stores them in it and makes it the current index.
+     */
+    private void writeIndex(int minCapacity, List<long[]> slots) {
+        int capacity = minCapacity;
+        while ((slots.size() + 1) * 2L > capacity) {
+            capacity *= 2;
+        }
+        long size = indexSize(capacity);
+        long position = allocate(size);
+        byte[] zeros = new byte[Math.min(SEGMENT_SIZE, (int) Math.min(size, Integer.MAX_VALUE))];
+        for (long offset = 0; offset < size; offset += zeros.length) {
+            write(position + offset, zeros.length <= size - offset ? zeros : Arrays.copyOf(zeros, (int) (size - offset)));
+        }
+        indexOffset = position;
+        indexCapacity = capacity;
+        putLong(INDEX_OFFSET, indexOffset);
+        putInt(INDEX_CAPACITY_OFFSET, indexCapacity);
+        putInt(USED_COUNT_OFFSET, 0);
+        for (long[] slot : slots) {
+            insert(slot[0], slot[1]);
+        }
+    }
+
+    private static long indexSize(int capacity) {
+        return (long) capacity * SLOT_SIZE;
+    }
+
+    private long writeEntry(byte[] keyBytes, byte[] valueBytes) {
+        long position = allocate(ENTRY_HEADER_SIZE + keyBytes.length + valueBytes.length);
+        putInt(position, keyBytes.length);
+        putInt(position + 4, valueBytes.length);
+        write(position + ENTRY_HEADER_SIZE, keyBytes);
+        write(position + ENTRY_HEADER_SIZE + keyBytes.length, valueBytes);
+        return position;
+    }
+
+    private long entrySize(long entry) {
+        checkEntry(entry, 0);
+        long size = ENTRY_HEADER_SIZE + (long) getInt(entry) + getInt(entry + 4);
+        checkEntry(entry, size);
+        return size;
+    }
+
+    private boolean keyMatches(long entry, byte[] keyBytes) {
+        checkEntry(entry, ENTRY_HEADER_SIZE);
+        if (getInt(entry) != keyBytes.length) {
+            return false;
+        }
+        checkEntry(entry, ENTRY_HEADER_SIZE + keyBytes.length);
+        long keyStart = entry + ENTRY_HEADER_SIZE;
+        for (int i = 0; i < keyBytes.length; i++) {
+            if (getByte(keyStart + i) != keyBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte[] readValue(long entry) {
+        long size = entrySize(entry);
+        int keyLength = getInt(entry);
+        byte[] value = new byte[(int) (size - ENTRY_HEADER_SIZE - keyLength)];
+        read(entry + ENTRY_HEADER_SIZE + keyLength, value);
+        return value;
+    }
+
+    private void checkEntry(long entry, long size) {
+        if (entry < HEADER_SIZE || size < 0 || entry + Math.max(size, ENTRY_HEADER_SIZE) > dataEnd) {
+            throw new CorruptedCacheException();
+        }
+    }
+
+    /**
+     * Reserves space at the end of the data, mapping further segments when needed.
+     */
+    private long allocate(long size) {
+        if (readOnly) {
+            throw new UnsupportedOperationException(String.format("Cannot modify read-only %s.", this));
+        }
+        long position = dataEnd;
+        long end = (position + size + ALIGNMENT - 1) & -ALIGNMENT;
+        mapUpTo(end);
+        dataEnd = end;
+        putLong(DATA_END_OFFSET, end);
+        return position;
+    }
+
+    private void addGarbage(long size) {
+        setGarbage(garbage + size);
+    }
+
+    private void setGarbage(long size) {
+        garbage = size;
+        putLong(GARBAGE_OFFSET, size);
+    }
+
+    private void mapUpTo(long end) {
+        try {
+            int current = segments.length;
+            int required = (int) ((end + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT);
+            if (required <= current) {
+                return;
+            }
+            MappedByteBuffer[] mapped = Arrays.copyOf(segments, required);
+            FileChannel channel = file.getChannel();
+            for (int i = current; i < required; i++) {
+                long start = (long) i << SEGMENT_SHIFT;
+                if (readOnly) {
+                    mapped[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, channel.size() - start));
+                } else {
+                    mapped[i] = channel.map(FileChannel.MapMode.READ_WRITE, start, SEGMENT_SIZE);
+                }
+            }
+            segments = mapped;
+        } catch (IOException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+
+    private ByteBuffer segment(long position) {
+        return segments[(int) (position >>> SEGMENT_SHIFT)];
+    }
+
+    private static int offsetInSegment(long position) {
+        return (int) (position & (SEGMENT_SIZE - 1));
+    }
+
+    // Ints and longs are aligned, so they never cross a segment boundary
+
+    private byte getByte(long position) {
+        return segment(position).get(offsetInSegment(position));
+    }
+
+    private int getInt(long position) {
+        return segment(position).getInt(offsetInSegment(position));
+    }
+
+    private void putInt(long position, int value) {
+        segment(position).putInt(offsetInSegment(position), value);
+    }
+
+    private long getLong(long position) {
+        return segment(position).getLong(offsetInSegment(position));
+    }
+
+    private void putLong(long position, long value) {
+        segment(position).putLong(offsetInSegment(position), value);
+    }
+
+    private void read(long position, byte[] target) {
+        read(position, target, target.length);
+    }
+
+    private void read(long position, byte[] target, int length) {
+        int done = 0;
+        while (done < length) {
+            long current = position + done;
+            ByteBuffer buffer = segment(current).duplicate();
+            int offset = offsetInSegment(current);
+            int count = Math.min(length - done, SEGMENT_SIZE - offset);
+            buffer.position(offset);
+            buffer.get(target, done, count);
+            done += count;
+        }
+    }
+
+    private void write(long position, byte[] source) {
+        write(position, source, source.length);
+    }
+
+    private void write(long position, byte[] source, int length) {
+        int done = 0;
+        while (done < length) {
+            long current = position + done;
+            ByteBuffer buffer = segment(current).duplicate();
+            int offset = offsetInSegment(current);
+            int count = Math.min(length - done, SEGMENT_SIZE - offset);
+            buffer.position(offset);
+            buffer.put(source, done, count);
+            done += count;
+        }
+    }
+
+    private static long hash(byte[] keyBytes) {
+        return Hashing.murmur3_128().hashBytes(keyBytes).asLong();
+    }
+
+    private static <T> byte[] serialize(Serializer<T> serializer, T value) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(SERIALIZATION_BUFFER_SIZE);
+        KryoBackedEncoder encoder = new KryoBackedEncoder(bytes, SERIALIZATION_BUFFER_SIZE);
+        serializer.write(encoder, value);
+        encoder.flush();
+        return bytes.toByteArray();
+    }
+
+    private static class CorruptedCacheException extends RuntimeException {
+    }
+}
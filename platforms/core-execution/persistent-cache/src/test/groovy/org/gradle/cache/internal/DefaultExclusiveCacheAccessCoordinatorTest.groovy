@@ -21,6 +21,7 @@ import org.gradle.cache.CrossProcessCacheAccess
 import org.gradle.cache.FileLock
 import org.gradle.cache.FileLockManager
 import org.gradle.cache.FileLockReleasedSignal
+import org.gradle.cache.IndexedCacheBackend
 import org.gradle.cache.IndexedCacheParameters
 import org.gradle.cache.LockOptions
 import org.gradle.cache.MultiProcessSafeIndexedCache
@@ -832,6 +833,20 @@ class DefaultExclusiveCacheAccessCoordinatorTest extends ConcurrentSpec {
         access?.close()
     }
 
+    def "throws InvalidCacheReuseException when cache backend differs"() {
+        def access = newAccess()
+
+        when:
+        access.newCache(IndexedCacheParameters.of('cache', String.class, Integer.class))
+        access.newCache(IndexedCacheParameters.of('cache', String.class, Integer.class).withBackend(IndexedCacheBackend.MEMORY_MAPPED))
+
+        then:
+        thrown(DefaultCacheCoordinator.InvalidCacheReuseException)
+
+        cleanup:
+        access?.close()
+    }
+
     def "throws InvalidCacheReuseException when cache decorator differs"() {
         def access = newAccess()
         def decorator = Mock(CacheDecorator)
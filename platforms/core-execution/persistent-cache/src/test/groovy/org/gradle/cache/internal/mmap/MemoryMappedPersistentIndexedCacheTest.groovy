@@ -0,0 +1,164 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.cache.internal.mmap
+
+import org.gradle.internal.serialize.BaseSerializerFactory
+import org.gradle.test.fixtures.file.TestFile
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class MemoryMappedPersistentIndexedCacheTest extends Specification {
+    @Rule
+    final TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider(getClass())
+
+    TestFile cacheFile = tmpDir.file("cache.bin")
+    MemoryMappedPersistentIndexedCache<String, Integer> cache
+
+    def setup() {
+        cache = newCache()
+    }
+
+    def cleanup() {
+        cache?.close()
+    }
+
+    private MemoryMappedPersistentIndexedCache<String, Integer> newCache() {
+        new MemoryMappedPersistentIndexedCache<String, Integer>(cacheFile, BaseSerializerFactory.STRING_SERIALIZER, BaseSerializerFactory.INTEGER_SERIALIZER)
+    }
+
+    private void reopen() {
+        cache.close()
+        cache = newCache()
+    }
+
+    def "returns null for unknown entries"() {
+        expect:
+        cache.get("unknown") == null
+    }
+
+    def "persists added, updated and removed entries"() {
+        when:
+        cache.put("a", 1)
+        cache.put("b", 2)
+        cache.put("c", 3)
+        cache.put("b", 20)
+        cache.remove("c")
+        reopen()
+
+        then:
+        cache.get("a") == 1
+        cache.get("b") == 20
+        cache.get("c") == null
+    }
+
+    def "grows the index as entries are added"() {
+        when:
+        10000.times { cache.put("key-" + it, it) }
+        reopen()
+
+        then:
+        (0..<10000).every { cache.get("key-" + it) == it }
+    }
+
+    def "reclaims the space of replaced entries"() {
+        when:
+        200.times { round ->
+            1000.times { cache.put("key-" + it, round) }
+        }
+        reopen()
+
+        then:
+        (0..<1000).every { cache.get("key-" + it) == 199 }
+        cacheFile.length() < 8 * 1024 * 1024
+    }
+
+    def "keeps large entries intact when compacting"() {
+        given:
+        cache.close()
+        def largeCache = new MemoryMappedPersistentIndexedCache<String, String>(cacheFile, BaseSerializerFactory.STRING_SERIALIZER, BaseSerializerFactory.STRING_SERIALIZER)
+        def value = { String key, int round -> (key + "-" + round + "-") * 40000 }
+
+        when:
+        10.times { round ->
+            8.times { largeCache.put("key-" + it, value("key-" + it, round)) }
+            largeCache.remove("key-0")
+        }
+        largeCache.close()
+        largeCache = new MemoryMappedPersistentIndexedCache<String, String>(cacheFile, BaseSerializerFactory.STRING_SERIALIZER, BaseSerializerFactory.STRING_SERIALIZER)
+
+        then:
+        largeCache.get("key-0") == null
+        (1..<8).every { largeCache.get("key-" + it) == value("key-" + it, 9) }
+        cacheFile.length() < 40 * 1024 * 1024
+
+        cleanup:
+        largeCache?.close()
+        cache = null
+    }
+
+    def "releases the file when closed"() {
+        given:
+        cache.put("a", 1)
+
+        when:
+        cache.close()
+
+        then:
+        !cache.isOpen()
+        cacheFile.delete()
+        !cacheFile.exists()
+
+        when:
+        cache = newCache()
+
+        then:
+        cache.get("a") == null
+    }
+
+    def "discards a file with an unknown format"() {
+        given:
+        cache.put("a", 1)
+        cache.close()
+        cacheFile.bytes = new byte[1024]
+
+        when:
+        cache = newCache()
+
+        then:
+        cache.get("a") == null
+
+        when:
+        cache.put("a", 2)
+        reopen()
+
+        then:
+        cache.get("a") == 2
+    }
+
+    def "can clear the cache"() {
+        given:
+        cache.put("a", 1)
+
+        when:
+        cache.clear()
+
+        then:
+        cache.get("a") == null
+        cache.isOpen()
+    }
+}
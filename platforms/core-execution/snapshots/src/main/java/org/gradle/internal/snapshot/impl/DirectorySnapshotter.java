@@ -17,6 +17,7 @@
 package org.gradle.internal.snapshot.impl;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Interner;
@@ -58,17 +59,30 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
+import static java.util.Objects.requireNonNull;
 import static org.gradle.internal.snapshot.DirectorySnapshotBuilder.EmptyDirectoryHandlingStrategy.INCLUDE_EMPTY_DIRS;
 
 /**
  * For creating {@link DirectorySnapshot}s of directories.
+ *
+ * When created with a {@link ForkJoinPool}, sub-directories are split off and snapshotted concurrently
+ * whenever the pool has capacity to spare, so files in different directories are hashed in parallel.
+ * The resulting snapshots are the same as when walking the hierarchy on a single thread.
  */
 public class DirectorySnapshotter {
     private static final EnumSet<FileVisitOption> DONT_FOLLOW_SYMLINKS = EnumSet.noneOf(FileVisitOption.class);
+    /**
+     * Only split off another sub-directory when fewer tasks than this are waiting to be picked up by other threads.
+     */
+    private static final int MAX_SURPLUS_QUEUED_SUBTREES = 3;
     private static final SymbolicLinkMapping EMPTY_SYMBOLIC_LINK_MAPPING = new SymbolicLinkMapping() {
 
         @Override
@@ -77,8 +91,8 @@ public String remapAbsolutePath(Path path) {
         }
 
         @Override
-        public SymbolicLinkMapping withNewMapping(String source, String target, RelativePathTracker currentPathTracker) {
-            return new DefaultSymbolicLinkMapping(source, target, currentPathTracker.getSegments());
+        public SymbolicLinkMapping withNewMapping(String source, String target, Iterable<String> currentSegments) {
+            return new DefaultSymbolicLinkMapping(source, target, ImmutableList.copyOf(currentSegments));
         }
 
         @Override
@@ -91,12 +105,28 @@ public Iterable<String> getRemappedSegments(Iterable<String> segments) {
     private final Interner<String> stringInterner;
     private final DefaultExcludes defaultExcludes;
     private final DirectorySnapshotterStatistics.Collector collector;
+    @Nullable
+    private final ForkJoinPool forkJoinPool;
 
     public DirectorySnapshotter(FileHasher hasher, Interner<String> stringInterner, Collection<String> defaultExcludes, DirectorySnapshotterStatistics.Collector collector) {
+        this(hasher, stringInterner, defaultExcludes, collector, null);
+    }
+
+    /**
+     * Creates a snapshotter walking directory hierarchies in parallel using the given pool, or on the calling thread if no pool is given.
+     */
+    public DirectorySnapshotter(
+        FileHasher hasher,
+        Interner<String> stringInterner,
+        Collection<String> defaultExcludes,
+        DirectorySnapshotterStatistics.Collector collector,
+        @Nullable ForkJoinPool forkJoinPool
+    ) {
         this.hasher = hasher;
         this.stringInterner = stringInterner;
         this.defaultExcludes = new DefaultExcludes(defaultExcludes);
         this.collector = collector;
+        this.forkJoinPool = forkJoinPool;
     }
 
     /**
@@ -124,9 +154,14 @@ public FileSystemLocationSnapshot snapshot(
         try {
             AtomicBoolean hasBeenFiltered = new AtomicBoolean();
             Path rootPath = Paths.get(absolutePath);
-            PathVisitor visitor = new PathVisitor(predicate, hasBeenFiltered, hasher, stringInterner, defaultExcludes, collector, EMPTY_SYMBOLIC_LINK_MAPPING, previouslyKnownSnapshots, unfilteredSnapshotRecorder);
-            Files.walkFileTree(rootPath, DONT_FOLLOW_SYMLINKS, Integer.MAX_VALUE, visitor);
-            FileSystemLocationSnapshot result = visitor.getResult();
+            FileSystemLocationSnapshot result;
+            if (forkJoinPool == null) {
+                PathVisitor visitor = new PathVisitor(predicate, hasBeenFiltered, hasher, stringInterner, defaultExcludes, collector, EMPTY_SYMBOLIC_LINK_MAPPING, previouslyKnownSnapshots, unfilteredSnapshotRecorder);
+                Files.walkFileTree(rootPath, DONT_FOLLOW_SYMLINKS, Integer.MAX_VALUE, visitor);
+                result = visitor.getResult();
+            } else {
+                result = snapshotInParallel(forkJoinPool, rootPath, predicate, hasBeenFiltered, previouslyKnownSnapshots, unfilteredSnapshotRecorder);
+            }
             if (result == null) {
                 // The root is always visited (PathVisitor.shouldVisitDirectory() never filters it),
                 // so a completed walk of an existing directory always produces a result.
@@ -141,15 +176,117 @@ public FileSystemLocationSnapshot snapshot(
         }
     }
 
+    @Nullable
+    private FileSystemLocationSnapshot snapshotInParallel(
+        ForkJoinPool forkJoinPool,
+        Path rootPath,
+        SnapshottingFilter.@Nullable DirectoryWalkerPredicate predicate,
+        AtomicBoolean hasBeenFiltered,
+        Map<String, ? extends FileSystemLocationSnapshot> previouslyKnownSnapshots,
+        Consumer<FileSystemLocationSnapshot> unfilteredSnapshotRecorder
+    ) throws IOException {
+        long startTime = System.nanoTime();
+        ParallelWalk parallelWalk = new ParallelWalk();
+        PathVisitor visitor = new PathVisitor(predicate, hasBeenFiltered, hasher, stringInterner, defaultExcludes, collector, EMPTY_SYMBOLIC_LINK_MAPPING, previouslyKnownSnapshots, unfilteredSnapshotRecorder,
+            new ArrayDeque<>(), parallelWalk, false);
+        SubtreeSnapshotTask rootTask = new SubtreeSnapshotTask(rootPath, visitor, parallelWalk);
+        forkJoinPool.invoke(rootTask);
+        FileSystemLocationSnapshot result = rootTask.getResult();
+        collector.recordParallelSnapshot(parallelWalk.forkedSubtrees.sum(), System.nanoTime() - startTime, parallelWalk.busyTime.sum());
+        return result;
+    }
+
+    /**
+     * State shared by all the tasks snapshotting parts of the same hierarchy.
+     */
+    private static class ParallelWalk {
+        private final LongAdder forkedSubtrees = new LongAdder();
+        private final LongAdder busyTime = new LongAdder();
+    }
+
+    /**
+     * Walks a sub-directory with its own {@link PathVisitor}.
+     *
+     * Failures are kept until the result is requested, so they are rethrown unchanged on the thread waiting for the result.
+     */
+    private static class SubtreeSnapshotTask extends RecursiveAction {
+        private final Path directory;
+        private final PathVisitor visitor;
+        private final ParallelWalk parallelWalk;
+        @Nullable
+        private FileSystemLocationSnapshot result;
+        @Nullable
+        private Throwable failure;
+
+        public SubtreeSnapshotTask(Path directory, PathVisitor visitor, ParallelWalk parallelWalk) {
+            this.directory = directory;
+            this.visitor = visitor;
+            this.parallelWalk = parallelWalk;
+        }
+
+        @Override
+        protected void compute() {
+            long startTime = System.nanoTime();
+            try {
+                Files.walkFileTree(directory, DONT_FOLLOW_SYMLINKS, Integer.MAX_VALUE, visitor);
+                result = visitor.getResult();
+            } catch (Throwable t) {
+                failure = t;
+            } finally {
+                parallelWalk.busyTime.add(System.nanoTime() - startTime - visitor.getTimeWaitingForSubtrees());
+            }
+        }
+
+        @Nullable
+        public FileSystemLocationSnapshot getResult() throws IOException {
+            Throwable failure = this.failure;
+            if (failure instanceof IOException) {
+                throw (IOException) failure;
+            }
+            if (failure != null) {
+                throw UncheckedException.throwAsUncheckedException(failure);
+            }
+            return result;
+        }
+    }
+
     private interface SymbolicLinkMapping {
         String remapAbsolutePath(Path path);
 
         @CheckReturnValue
-        SymbolicLinkMapping withNewMapping(String source, String target, RelativePathTracker currentPathTracker);
+        SymbolicLinkMapping withNewMapping(String source, String target, Iterable<String> currentSegments);
 
         Iterable<String> getRemappedSegments(Iterable<String> segments);
     }
 
+    /**
+     * The mapping for a sub-directory walked on its own, where the path tracker starts at the sub-directory.
+     */
+    private static class SubtreeSymbolicLinkMapping implements SymbolicLinkMapping {
+        private final SymbolicLinkMapping delegate;
+        private final ImmutableList<String> subtreeSegments;
+
+        public SubtreeSymbolicLinkMapping(SymbolicLinkMapping delegate, ImmutableList<String> subtreeSegments) {
+            this.delegate = delegate;
+            this.subtreeSegments = subtreeSegments;
+        }
+
+        @Override
+        public String remapAbsolutePath(Path path) {
+            return delegate.remapAbsolutePath(path);
+        }
+
+        @Override
+        public SymbolicLinkMapping withNewMapping(String source, String target, Iterable<String> currentSegments) {
+            return delegate.withNewMapping(source, target, Iterables.concat(subtreeSegments, currentSegments));
+        }
+
+        @Override
+        public Iterable<String> getRemappedSegments(Iterable<String> segments) {
+            return delegate.getRemappedSegments(Iterables.concat(subtreeSegments, segments));
+        }
+    }
+
     private static class DefaultSymbolicLinkMapping implements SymbolicLinkMapping {
         private final String sourcePath;
         private final String targetPath;
@@ -177,8 +314,8 @@ public String remapAbsolutePath(String absolutePath) {
         }
 
         @Override
-        public SymbolicLinkMapping withNewMapping(String source, String target, RelativePathTracker currentPathTracker) {
-            return new DefaultSymbolicLinkMapping(remapAbsolutePath(source), target, getRemappedSegments(currentPathTracker.getSegments()));
+        public SymbolicLinkMapping withNewMapping(String source, String target, Iterable<String> currentSegments) {
+            return new DefaultSymbolicLinkMapping(remapAbsolutePath(source), target, ImmutableList.copyOf(getRemappedSegments(currentSegments)));
         }
 
         @Override
@@ -269,10 +406,17 @@ private static class PathVisitor extends DirectorySnapshotterStatistics.Collecti
         private final Interner<String> stringInterner;
         private final DefaultExcludes defaultExcludes;
         private final SymbolicLinkMapping symbolicLinkMapping;
-        private final Deque<String> parentDirectories = new ArrayDeque<>();
+        private final Deque<String> parentDirectories;
         private final Set<FileSystemLocationSnapshot> filteredDirectorySnapshots = new HashSet<>();
         private final ImmutableMap<String, ? extends FileSystemLocationSnapshot> previouslyKnownSnapshots;
         private final Consumer<FileSystemLocationSnapshot> unfilteredSnapshotRecorder;
+        @Nullable
+        private final ParallelWalk parallelWalk;
+        /**
+         * The sub-directories split off from each directory currently being visited, innermost first.
+         */
+        private final Deque<List<ForkedSubtree>> forkedSubtrees = new ArrayDeque<>();
+        private long timeWaitingForSubtrees;
 
         public PathVisitor(
             SnapshottingFilter.@Nullable DirectoryWalkerPredicate predicate,
@@ -285,7 +429,25 @@ public PathVisitor(
             Map<String, ? extends FileSystemLocationSnapshot> previouslyKnownSnapshots,
             Consumer<FileSystemLocationSnapshot> unfilteredSnapshotRecorder
         ) {
-            super(statisticsCollector);
+            this(predicate, hasBeenFiltered, hasher, stringInterner, defaultExcludes, statisticsCollector, symbolicLinkMapping, previouslyKnownSnapshots, unfilteredSnapshotRecorder,
+                new ArrayDeque<>(), null, false);
+        }
+
+        public PathVisitor(
+            SnapshottingFilter.@Nullable DirectoryWalkerPredicate predicate,
+            AtomicBoolean hasBeenFiltered,
+            FileHasher hasher,
+            Interner<String> stringInterner,
+            DefaultExcludes defaultExcludes,
+            DirectorySnapshotterStatistics.Collector statisticsCollector,
+            SymbolicLinkMapping symbolicLinkMapping,
+            Map<String, ? extends FileSystemLocationSnapshot> previouslyKnownSnapshots,
+            Consumer<FileSystemLocationSnapshot> unfilteredSnapshotRecorder,
+            Deque<String> parentDirectories,
+            @Nullable ParallelWalk parallelWalk,
+            boolean continuesParentWalk
+        ) {
+            super(statisticsCollector, continuesParentWalk);
             this.builder = FilteredTrackingMerkleDirectorySnapshotBuilder.sortingRequired(this::recordUnfilteredSnapshot);
             this.predicate = predicate;
             this.hasBeenFiltered = hasBeenFiltered;
@@ -295,6 +457,8 @@ public PathVisitor(
             this.symbolicLinkMapping = symbolicLinkMapping;
             this.previouslyKnownSnapshots = ImmutableMap.copyOf(previouslyKnownSnapshots);
             this.unfilteredSnapshotRecorder = unfilteredSnapshotRecorder;
+            this.parentDirectories = parentDirectories;
+            this.parallelWalk = parallelWalk;
         }
 
         private void recordUnfilteredSnapshot(FileSystemLocationSnapshot snapshot) {
@@ -322,8 +486,17 @@ protected FileVisitResult doPreVisitDirectory(Path dir, BasicFileAttributes attr
                     }
                 }
 
+                if (shouldForkSubtree()) {
+                    forkSubtree(dir);
+                    pathTracker.leave();
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+
                 builder.enterDirectory(AccessType.DIRECT, internedRemappedAbsolutePath, fileName, INCLUDE_EMPTY_DIRS);
                 parentDirectories.addFirst(dir.toString());
+                if (parallelWalk != null) {
+                    forkedSubtrees.addFirst(new ArrayList<>());
+                }
                 return FileVisitResult.CONTINUE;
             } else {
                 pathTracker.leave();
@@ -340,6 +513,9 @@ protected FileVisitResult doPostVisitDirectory(Path dir, IOException exc) {
             if (isNotFileSystemLoopException(exc)) {
                 throw new UncheckedIOException(String.format("Could not read directory path '%s'.", dir), exc);
             }
+            if (parallelWalk != null) {
+                visitForkedSubtrees(forkedSubtrees.removeFirst());
+            }
             boolean currentLevelComplete = builder.isCurrentLevelUnfiltered();
             FileSystemLocationSnapshot currentLevel = builder.leaveDirectory();
             if (!currentLevelComplete) {
@@ -349,6 +525,66 @@ protected FileVisitResult doPostVisitDirectory(Path dir, IOException exc) {
             return FileVisitResult.CONTINUE;
         }
 
+        private boolean shouldForkSubtree() {
+            return parallelWalk != null
+                && !pathTracker.isRoot()
+                && ForkJoinTask.inForkJoinPool()
+                && ForkJoinTask.getSurplusQueuedTaskCount() < MAX_SURPLUS_QUEUED_SUBTREES;
+        }
+
+        private void forkSubtree(Path dir) {
+            ParallelWalk parallelWalk = requireNonNull(this.parallelWalk);
+            ForkedSubtree subtree = new ForkedSubtree();
+            PathVisitor subtreeVisitor = new PathVisitor(
+                predicate,
+                subtree.hasBeenFiltered,
+                hasher,
+                stringInterner,
+                defaultExcludes,
+                collector,
+                new SubtreeSymbolicLinkMapping(symbolicLinkMapping, ImmutableList.copyOf(pathTracker.getSegments())),
+                previouslyKnownSnapshots,
+                subtree.unfilteredSnapshots::add,
+                new ArrayDeque<>(parentDirectories),
+                parallelWalk,
+                true
+            );
+            subtree.task = new SubtreeSnapshotTask(dir, subtreeVisitor, parallelWalk);
+            parallelWalk.forkedSubtrees.increment();
+            requireNonNull(forkedSubtrees.peekFirst()).add(subtree);
+            subtree.task.fork();
+        }
+
+        /**
+         * Adds the snapshots of the sub-directories split off from the current directory,
+         * as if they had been visited by this visitor.
+         */
+        private void visitForkedSubtrees(List<ForkedSubtree> subtrees) {
+            for (ForkedSubtree subtree : subtrees) {
+                SubtreeSnapshotTask task = requireNonNull(subtree.task);
+                long startTime = System.nanoTime();
+                task.join();
+                timeWaitingForSubtrees += System.nanoTime() - startTime;
+                DirectorySnapshot subtreeSnapshot;
+                try {
+                    subtreeSnapshot = (DirectorySnapshot) requireNonNull(task.getResult());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(String.format("Could not list contents of directory '%s'.", task.directory), e);
+                }
+                builder.visitDirectory(subtreeSnapshot);
+                subtree.unfilteredSnapshots.forEach(unfilteredSnapshotRecorder);
+                if (subtree.hasBeenFiltered.get()) {
+                    filteredDirectorySnapshots.add(subtreeSnapshot);
+                    builder.markCurrentLevelAsFiltered();
+                    hasBeenFiltered.set(true);
+                }
+            }
+        }
+
+        public long getTimeWaitingForSubtrees() {
+            return timeWaitingForSubtrees;
+        }
+
         @Override
         protected FileVisitResult doVisitFile(Path file, BasicFileAttributes attrs) {
             String internedFileName = getInternedFileName(file);
@@ -400,10 +636,14 @@ private DirectorySnapshot followSymlink(Path file, String internedFileName, Atom
                         stringInterner,
                         defaultExcludes,
                         collector,
-                        symbolicLinkMapping.withNewMapping(file.toString(), targetDirString, pathTracker),
+                        symbolicLinkMapping.withNewMapping(file.toString(), targetDirString, pathTracker.getSegments()),
                         previouslyKnownSnapshots,
-                        unfilteredSnapshotRecorder);
+                        unfilteredSnapshotRecorder,
+                        new ArrayDeque<>(),
+                        parallelWalk,
+                        false);
                     Files.walkFileTree(targetDir, EnumSet.noneOf(FileVisitOption.class), Integer.MAX_VALUE, subtreeVisitor);
+                    timeWaitingForSubtrees += subtreeVisitor.getTimeWaitingForSubtrees();
                     return (DirectorySnapshot) subtreeVisitor.getResult();
                 } else {
                     return null;
@@ -531,4 +771,11 @@ public FileSystemLocationSnapshot getResult() {
             return builder.getResult();
         }
     }
+
+    private static class ForkedSubtree {
+        private final AtomicBoolean hasBeenFiltered = new AtomicBoolean();
+        private final List<FileSystemLocationSnapshot> unfilteredSnapshots = new ArrayList<>();
+        @Nullable
+        private SubtreeSnapshotTask task;
+    }
 }
@@ -25,6 +25,7 @@
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.text.MessageFormat;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 public interface DirectorySnapshotterStatistics {
@@ -48,12 +49,37 @@ public interface DirectorySnapshotterStatistics {
      */
     long getFailedFiles();
 
+    /**
+     * The number of directory trees snapshotted with a parallel walk.
+     */
+    long getParallelHierarchyCount();
+
+    /**
+     * The number of sub-directories split off during parallel walks and snapshotted concurrently.
+     */
+    long getParallelSubtreeCount();
+
+    /**
+     * The elapsed time of parallel walks, in nanoseconds.
+     */
+    long getParallelWalkTime();
+
+    /**
+     * The time all threads spent on parallel walks combined, in nanoseconds.
+     * Comparing it to {@link #getParallelWalkTime()} shows how much time walking in parallel saved.
+     */
+    long getParallelWalkBusyTime();
+
     @ServiceScope(Scope.Global.class)
     class Collector {
         private final AtomicLong hierarchyCount = new AtomicLong();
         private final AtomicLong directoryCount = new AtomicLong();
         private final AtomicLong fileCount = new AtomicLong();
         private final AtomicLong failedFileCount = new AtomicLong();
+        private final AtomicLong parallelHierarchyCount = new AtomicLong();
+        private final AtomicLong parallelSubtreeCount = new AtomicLong();
+        private final AtomicLong parallelWalkTime = new AtomicLong();
+        private final AtomicLong parallelWalkBusyTime = new AtomicLong();
 
         public void recordVisitHierarchy() {
             hierarchyCount.incrementAndGet();
@@ -71,11 +97,22 @@ public void recordVisitFileFailed() {
             failedFileCount.incrementAndGet();
         }
 
+        public void recordParallelSnapshot(long subtreeCount, long walkTime, long busyTime) {
+            parallelHierarchyCount.incrementAndGet();
+            parallelSubtreeCount.addAndGet(subtreeCount);
+            parallelWalkTime.addAndGet(walkTime);
+            parallelWalkBusyTime.addAndGet(busyTime);
+        }
+
         public DirectorySnapshotterStatistics collect() {
             long hierarchyCount = this.hierarchyCount.getAndSet(0);
             long directoryCount = this.directoryCount.getAndSet(0);
             long fileCount = this.fileCount.getAndSet(0);
             long failedFileCount = this.failedFileCount.getAndSet(0);
+            long parallelHierarchyCount = this.parallelHierarchyCount.getAndSet(0);
+            long parallelSubtreeCount = this.parallelSubtreeCount.getAndSet(0);
+            long parallelWalkTime = this.parallelWalkTime.getAndSet(0);
+            long parallelWalkBusyTime = this.parallelWalkBusyTime.getAndSet(0);
 
             return new DirectorySnapshotterStatistics() {
                 @Override
@@ -98,10 +135,36 @@ public long getFailedFiles() {
                     return failedFileCount;
                 }
 
+                @Override
+                public long getParallelHierarchyCount() {
+                    return parallelHierarchyCount;
+                }
+
+                @Override
+                public long getParallelSubtreeCount() {
+                    return parallelSubtreeCount;
+                }
+
+                @Override
+                public long getParallelWalkTime() {
+                    return parallelWalkTime;
+                }
+
+                @Override
+                public long getParallelWalkBusyTime() {
+                    return parallelWalkBusyTime;
+                }
+
                 @Override
                 public String toString() {
-                    return MessageFormat.format("Snapshot {0,number,integer} directory hierarchies (visited {1,number,integer} directories, {2,number,integer} files and {3,number,integer} failed files)",
+                    String statistics = MessageFormat.format("Snapshot {0,number,integer} directory hierarchies (visited {1,number,integer} directories, {2,number,integer} files and {3,number,integer} failed files)",
                         hierarchyCount, directoryCount, fileCount, failedFileCount);
+                    if (parallelHierarchyCount == 0) {
+                        return statistics;
+                    }
+                    double parallelism = parallelWalkTime == 0 ? 1 : (double) parallelWalkBusyTime / parallelWalkTime;
+                    return statistics + MessageFormat.format(", walked {0,number,integer} hierarchies in parallel (split off {1,number,integer} directories, parallelism {2,number,#.##}, saved {3,number,integer} ms)",
+                        parallelHierarchyCount, parallelSubtreeCount, parallelism, TimeUnit.NANOSECONDS.toMillis(Math.max(0, parallelWalkBusyTime - parallelWalkTime)));
                 }
             };
         }
@@ -109,15 +172,30 @@ public String toString() {
 
     abstract class CollectingFileVisitor implements FileVisitor<Path> {
         protected final Collector collector;
+        private boolean rootDirectoryAlreadyRecorded;
 
         public CollectingFileVisitor(Collector collector) {
+            this(collector, false);
+        }
+
+        /**
+         * @param continuesParentWalk whether this visitor walks a directory already visited by another visitor as part of the same hierarchy.
+         */
+        protected CollectingFileVisitor(Collector collector, boolean continuesParentWalk) {
             this.collector = collector;
-            collector.recordVisitHierarchy();
+            this.rootDirectoryAlreadyRecorded = continuesParentWalk;
+            if (!continuesParentWalk) {
+                collector.recordVisitHierarchy();
+            }
         }
 
         @Override
         public final FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
-            collector.recordVisitDirectory();
+            if (rootDirectoryAlreadyRecorded) {
+                rootDirectoryAlreadyRecorded = false;
+            } else {
+                collector.recordVisitDirectory();
+            }
             return doPreVisitDirectory(dir, attrs);
         }
 
@@ -28,6 +28,7 @@ import org.junit.Rule
 import spock.lang.Specification
 
 import java.nio.file.NoSuchFileException
+import java.util.concurrent.ForkJoinPool
 
 @UsesNativeServices
 @CleanupTestDirectory(fieldName = "tmpDir")
@@ -168,6 +169,28 @@ class DirectorySnapshotterStatisticsTest extends Specification {
         "file" | "java.io.FileNotFoundException: %s (Permission denied)"
     }
 
+    def "records parallel walks without counting split off directories twice"() {
+        given:
+        def root = tmpDir.createDir("root")
+        (1..8).each { root.createFile("sub-dir-$it/nested/file.txt") }
+        def collector = new DirectorySnapshotterStatistics.Collector()
+        def parallelSnapshotter = new DirectorySnapshotter(fileHasher, new StringInterner(), [], collector, new ForkJoinPool(4))
+
+        when:
+        parallelSnapshotter.snapshot(root.absolutePath, null, [:]) {}
+        def statistics = collector.collect()
+
+        then:
+        statistics.visitedHierarchyCount == 1
+        statistics.visitedDirectoryCount == 17
+        statistics.visitedFiles == 8
+        statistics.parallelHierarchyCount == 1
+        statistics.parallelSubtreeCount > 0
+        statistics.parallelWalkTime > 0
+        statistics.parallelWalkBusyTime > 0
+        statistics.toString().contains("walked 1 hierarchies in parallel")
+    }
+
     private snapshot(File root) {
         directorySnapshotter.snapshot(root.absolutePath, null, [:]) {}
     }
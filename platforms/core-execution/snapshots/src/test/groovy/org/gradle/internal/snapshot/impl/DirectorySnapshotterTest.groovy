@@ -44,6 +44,7 @@ import spock.lang.Issue
 import spock.lang.Specification
 
 import java.nio.file.Paths
+import java.util.concurrent.ForkJoinPool
 import java.util.function.Consumer
 
 @UsesNativeServices
@@ -532,6 +533,59 @@ class DirectorySnapshotterTest extends Specification {
         pipe.delete()
     }
 
+    @Requires(FileSystemTestPreconditions.Symlinks)
+    def "walking in parallel produces the same snapshot as walking on a single thread (filtered: #filtered)"() {
+        def rootDir = tmpDir.createDir("root")
+        (1..4).each { first ->
+            (1..4).each { second ->
+                rootDir.file("dir$first/sub$second/file.txt").text = "$first/$second"
+                rootDir.file("dir$first/sub$second/file.html").text = "$first/$second"
+                rootDir.file("dir$first/sub$second/.git/ignored.txt").text = "ignored"
+            }
+        }
+        def linkTarget = tmpDir.createDir("linkTarget")
+        linkTarget.file("nested/linked.txt").text = "linked"
+        linkTarget.file("nested/linked.html").text = "linked"
+        rootDir.file("dir1/sub1/link").createLink(linkTarget)
+        rootDir.file("dir2/cycle").createLink(rootDir.file("dir2"))
+
+        def predicate = filtered ? directoryWalkerPredicate(new PatternSet().include("**/*.txt")) : null
+        def sequentialSnapshotter = new DirectorySnapshotter(fileHasher, new StringInterner(), DirectoryScanner.getDefaultExcludes() as List, statisticsCollector)
+        def parallelSnapshotter = new DirectorySnapshotter(fileHasher, new StringInterner(), DirectoryScanner.getDefaultExcludes() as List, statisticsCollector, new ForkJoinPool(4))
+        List<FileSystemLocationSnapshot> parallelUnfilteredSnapshots = []
+
+        when:
+        def sequentialSnapshot = sequentialSnapshotter.snapshot(rootDir.absolutePath, predicate, [:], unfilteredSubSnapshotsCollector)
+        def parallelSnapshot = parallelSnapshotter.snapshot(rootDir.absolutePath, predicate, [:], parallelUnfilteredSnapshots.&add)
+
+        then:
+        parallelSnapshot.hash == sequentialSnapshot.hash
+        SnapshotVisitorUtil.getAbsolutePaths(parallelSnapshot, true) == SnapshotVisitorUtil.getAbsolutePaths(sequentialSnapshot, true)
+        SnapshotVisitorUtil.getRelativePaths(parallelSnapshot, true) == SnapshotVisitorUtil.getRelativePaths(sequentialSnapshot, true)
+        parallelUnfilteredSnapshots*.absolutePath.sort() == unfilteredSubsnapshots*.absolutePath.sort()
+
+        where:
+        filtered << [false, true]
+    }
+
+    @Requires(OsTestPreconditions.Unix)
+    def "failures are reported unchanged when walking in parallel"() {
+        def rootDir = tmpDir.createDir("root")
+        (1..4).each { rootDir.createFile("dir$it/sub/file.txt") }
+        def pipe = rootDir.file("dir3/sub/testPipe").createNamedPipe()
+        def parallelSnapshotter = new DirectorySnapshotter(fileHasher, new StringInterner(), [], statisticsCollector, new ForkJoinPool(4))
+
+        when:
+        parallelSnapshotter.snapshot(rootDir.absolutePath, null, [:], unfilteredSubSnapshotsCollector)
+
+        then:
+        def ex = thrown(UncheckedIOException)
+        ex.message == "java.io.IOException: Cannot snapshot ${pipe.absolutePath}: not a regular file"
+
+        cleanup:
+        pipe.delete()
+    }
+
     def "default excludes are correctly parsed"() {
         def defaultExcludes = new DirectorySnapshotter.DefaultExcludes(DirectoryScanner.getDefaultExcludes() as List)
 
@@ -31,45 +31,85 @@
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BooleanSupplier;
 import java.util.function.Function;
 
 public class DefaultResourceLockCoordinationService implements ResourceLockCoordinationService, Closeable {
-    private final Object lock = new Object();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition stateChanged = lock.newCondition();
     private final Set<Action<ResourceLock>> releaseHandlers = new LinkedHashSet<Action<ResourceLock>>();
-    private @Nullable Thread currentOwner;
+    // Written only by the thread holding the lock, so a thread can check whether it is the owner without taking the lock
+    private volatile @Nullable Thread currentOwner;
+    // Only accessed by the current owner
     private @Nullable DefaultResourceLockState currentState;
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contendedAcquisitions = new LongAdder();
+    private final LongAdder contendedWaitTime = new LongAdder();
+    private final LongAdder wakeups = new LongAdder();
 
     @Override
     public void close() throws IOException {
-        synchronized (lock) {
+        acquireLock();
+        try {
             if (!releaseHandlers.isEmpty()) {
                 throw new IllegalStateException("Some lock release listeners have not been removed.");
             }
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public void assertHasStateLock() {
-        synchronized (lock) {
-            if (getCurrent() == null) {
-                throw new IllegalStateException();
-            }
+        if (getCurrent() == null) {
+            throw new IllegalStateException();
         }
     }
 
     @Override
     public void addLockReleaseListener(Action<ResourceLock> listener) {
-        synchronized (lock) {
+        acquireLock();
+        try {
             releaseHandlers.add(listener);
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public void removeLockReleaseListener(Action<ResourceLock> listener) {
-        synchronized (lock) {
+        acquireLock();
+        try {
             releaseHandlers.remove(listener);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public StateLockStatistics getStateLockStatistics() {
+        return new StateLockStatistics(acquisitions.sum(), contendedAcquisitions.sum(), contendedWaitTime.sum(), wakeups.sum());
+    }
+
+    /**
+     * Acquires the state lock, first without blocking so that waiting for another thread to release it can be tracked.
+     */
+    private void acquireLock() {
+        if (lock.isHeldByCurrentThread()) {
+            lock.lock();
+            return;
         }
+        acquisitions.increment();
+        if (lock.tryLock()) {
+            return;
+        }
+        contendedAcquisitions.increment();
+        long startTime = System.nanoTime();
+        lock.lock();
+        contendedWaitTime.add(System.nanoTime() - startTime);
     }
 
     @Override
@@ -94,7 +134,8 @@ public void withStateLock(final Runnable action) {
     @Override
     @SuppressWarnings("InterruptedInCatchBlock")
     public boolean withStateLock(Function<ResourceLockState, ResourceLockState.Disposition> stateLockAction) {
-        synchronized (lock) {
+        acquireLock();
+        try {
             DefaultResourceLockState resourceLockState = new DefaultResourceLockState();
             DefaultResourceLockState previous = startOperation(resourceLockState);
             try {
@@ -108,7 +149,8 @@ public boolean withStateLock(Function<ResourceLockState, ResourceLockState.Dispo
                             resourceLockState.reset();
                             finishOperation(previous);
                             try {
-                                lock.wait();
+                                stateChanged.await();
+                                wakeups.increment();
                             } catch (InterruptedException e) {
                                 // Interrupting the state lock thread means something changed,
                                 // so let's retry obtaining the lock.
@@ -133,6 +175,8 @@ public boolean withStateLock(Function<ResourceLockState, ResourceLockState.Dispo
             } finally {
                 finishOperation(previous);
             }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -159,12 +203,10 @@ private void finishOperation(@Nullable DefaultResourceLockState previous) {
 
     @Override
     public @Nullable ResourceLockState getCurrent() {
-        synchronized (lock) {
-            if (currentOwner != Thread.currentThread()) {
-                return null;
-            } else {
-                return currentState;
-            }
+        if (currentOwner != Thread.currentThread()) {
+            return null;
+        } else {
+            return currentState;
         }
     }
 
@@ -182,8 +224,11 @@ private void maybeNotifyStateChange(DefaultResourceLockState resourceLockState)
 
     @Override
     public void notifyStateChange() {
-        synchronized (lock) {
-            lock.notifyAll();
+        acquireLock();
+        try {
+            stateChanged.signalAll();
+        } finally {
+            lock.unlock();
         }
     }
 
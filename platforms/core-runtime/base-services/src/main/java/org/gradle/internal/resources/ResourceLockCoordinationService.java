@@ -73,4 +73,9 @@ public interface ResourceLockCoordinationService {
     void addLockReleaseListener(Action<ResourceLock> listener);
 
     void removeLockReleaseListener(Action<ResourceLock> listener);
+
+    /**
+     * Returns how contended the state lock has been since this service was created.
+     */
+    StateLockStatistics getStateLockStatistics();
 }
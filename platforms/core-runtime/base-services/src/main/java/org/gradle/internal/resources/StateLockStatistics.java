@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.resources;
+
+/**
+ * A snapshot of how contended the state lock of a {@link ResourceLockCoordinationService} has been.
+ */
+public class StateLockStatistics {
+    public static final StateLockStatistics EMPTY = new StateLockStatistics(0, 0, 0, 0);
+
+    private final long acquisitions;
+    private final long contendedAcquisitions;
+    private final long contendedWaitTime;
+    private final long wakeups;
+
+    public StateLockStatistics(long acquisitions, long contendedAcquisitions, long contendedWaitTime, long wakeups) {
+        this.acquisitions = acquisitions;
+        this.contendedAcquisitions = contendedAcquisitions;
+        this.contendedWaitTime = contendedWaitTime;
+        this.wakeups = wakeups;
+    }
+
+    /**
+     * The number of times a thread acquired the state lock, not counting nested acquisitions.
+     */
+    public long getAcquisitions() {
+        return acquisitions;
+    }
+
+    /**
+     * The number of times a thread had to wait for another thread to release the state lock.
+     */
+    public long getContendedAcquisitions() {
+        return contendedAcquisitions;
+    }
+
+    /**
+     * The total time in nanoseconds threads spent waiting for another thread to release the state lock.
+     */
+    public long getContendedWaitTime() {
+        return contendedWaitTime;
+    }
+
+    /**
+     * The number of times a thread waiting for a state change was woken up.
+     */
+    public long getWakeups() {
+        return wakeups;
+    }
+
+    /**
+     * Returns the statistics collected since the given snapshot was taken.
+     */
+    public StateLockStatistics since(StateLockStatistics earlier) {
+        return new StateLockStatistics(
+            acquisitions - earlier.acquisitions,
+            contendedAcquisitions - earlier.contendedAcquisitions,
+            contendedWaitTime - earlier.contendedWaitTime,
+            wakeups - earlier.wakeups
+        );
+    }
+}
@@ -24,6 +24,7 @@
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.xpath.XPathFactory;
@@ -59,6 +60,21 @@ public static SAXParserFactory newSAXParserFactory() {
         }
     }
 
+    /**
+     * Creates a {@link XMLInputFactory} that does not resolve external entities or DTDs.
+     * A {@link javax.xml.stream.XMLResolver} can be set on the result to supply well-known DTDs.
+     */
+    public static XMLInputFactory newXMLInputFactory() {
+        try {
+            XMLInputFactory xif = XMLInputFactory.newInstance();
+            xif.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            xif.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+            return xif;
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException(errorMessageFor("XMLInputFactory"), e);
+        }
+    }
+
     public static XPathFactory newXPathFactory() {
         try {
             XPathFactory xpf = XPathFactory.newInstance();
@@ -207,6 +207,56 @@ class DefaultResourceLockCoordinationServiceTest extends ConcurrentSpec {
         noExceptionThrown()
     }
 
+    def "is not associated with a resource lock state outside of withStateLock"() {
+        when:
+        async {
+            start {
+                coordinationService.withStateLock(lockAction {
+                    instant.locked
+                    thread.blockUntil.checked
+                    return FINISHED
+                })
+            }
+            start {
+                thread.blockUntil.locked
+                assert coordinationService.getCurrent() == null
+                instant.checked
+            }
+        }
+
+        then:
+        noExceptionThrown()
+    }
+
+    def "tracks contended acquisitions of the state lock"() {
+        def before = coordinationService.stateLockStatistics
+
+        when:
+        async {
+            start {
+                coordinationService.withStateLock(lockAction {
+                    instant.locked
+                    ConcurrentTestUtil.poll {
+                        assert coordinationService.stateLockStatistics.since(before).contendedAcquisitions == 1
+                    }
+                    return FINISHED
+                })
+            }
+            start {
+                thread.blockUntil.locked
+                coordinationService.withStateLock(lockAction {
+                    return FINISHED
+                })
+            }
+        }
+        def statistics = coordinationService.stateLockStatistics.since(before)
+
+        then:
+        statistics.acquisitions == 2
+        statistics.contendedAcquisitions == 1
+        statistics.contendedWaitTime > 0
+    }
+
     def "locks are rolled back when an exception is thrown"() {
         def lock1 = resourceLock("lock1", false)
         def lock2 = resourceLock("lock2", false)
@@ -33,6 +33,8 @@ dependencies {
     api(projects.buildOperations)
     api(projects.buildOption)
     api(projects.concurrent)
+    api(projects.execution)
+    api(projects.snapshots)
     api(projects.stdlibJavaExtensions)
 
     api(libs.guava)
@@ -40,6 +42,7 @@ dependencies {
 
     implementation(projects.baseServices)
     implementation(projects.coreApi)
+    implementation(projects.serialization)
 
     implementation(libs.jacksonCore)
     implementation(libs.jacksonDatabind)
@@ -17,6 +17,7 @@
 package org.gradle.internal.operations.trace
 
 
+import groovy.json.JsonSlurper
 import org.gradle.integtests.fixtures.AbstractIntegrationSpec
 import org.gradle.integtests.fixtures.BuildOperationTreeFixture
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
@@ -52,6 +53,30 @@ class BuildOperationTraceIntegrationTest extends AbstractIntegrationSpec {
         file("operations-log.txt").exists()
     }
 
+    def "produces a binary trace that can be queried"() {
+        when:
+        run "help", "-D${BuildOperationTrace.SYSPROP}=trace", "-D${BuildOperationTrace.FORMAT_SYSPROP}=binary"
+
+        then:
+        file("trace-log.bin").exists()
+        !file("trace-log.txt").exists()
+
+        and:
+        def reader = BuildOperationTrace.binaryReader(file("trace").path)
+        def root = reader.slowest(null, 1).first()
+        root.displayName == "Run build"
+        root.parentId == null
+        reader.children(root.id).size() > 0
+        reader.summary().sum { it.count } > 1
+
+        when:
+        reader.writeChromeTrace(file("trace-chrome.json").toPath())
+
+        then:
+        def chromeTrace = new JsonSlurper().parse(file("trace-chrome.json"))
+        chromeTrace.traceEvents.find { it.ph == "b" && it.name == "Run build" }
+    }
+
     def "no tree files are produced by default"() {
         when:
         run "help", "-D${BuildOperationTrace.SYSPROP}=trace"
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.operations.trace
+
+import jdk.jfr.consumer.RecordedEvent
+import jdk.jfr.consumer.RecordingFile
+import org.gradle.integtests.fixtures.daemon.DaemonIntegrationSpec
+
+/**
+ * Tests that the execution engine emits events into an active (user-managed) JFR recording.
+ */
+class ExecutionJfrEventsIntegrationTest extends DaemonIntegrationSpec {
+
+    def "emits execution step, file system and fingerprinting events into an active JFR recording"() {
+        given:
+        def jfr = file("build.jfr")
+        executer.withBuildJvmOpts("-XX:StartFlightRecording=filename=${jfr.absolutePath},dumponexit=true")
+        file("input.txt") << "input"
+        buildFile """
+            tasks.register("copy", Copy) {
+                from("input.txt")
+                into("build/copy")
+            }
+        """
+
+        when:
+        succeeds("copy")
+        stopDaemonAndWait()
+
+        then:
+        def events = RecordingFile.readAllEvents(jfr.toPath())
+        def steps = eventsNamed(events, ExecutionStepJfrEvent.NAME).findAll { it.getString("work") == "task ':copy'" }
+        def stepNames = steps*.getString("step") as Set
+        stepNames.containsAll(["IdentifyStep", "CaptureMutableStateBeforeExecutionStep", "ResolveChangesStep", "StoreExecutionStateStep", "ExecuteStep.Mutable"])
+
+        and:
+        !eventsNamed(events, FingerprintJfrEvent.NAME).isEmpty()
+        !eventsNamed(events, FileSystemSnapshotJfrEvent.NAME).isEmpty()
+    }
+
+    private static List<RecordedEvent> eventsNamed(List<RecordedEvent> events, String name) {
+        events.findAll { it.eventType.name == name }
+    }
+}
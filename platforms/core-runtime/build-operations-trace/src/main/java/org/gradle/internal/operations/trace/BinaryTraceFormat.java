@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.operations.trace;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Constants describing the binary build operation log, written to {@code «path-base»-log.bin}.
+ * <p>
+ * The log starts with {@link #MAGIC} and {@link #VERSION}, followed by a sequence of records that are only ever appended.
+ * Each record starts with a tag byte:
+ * <ul>
+ * <li>{@link #STRING}: a string added to the string table. Strings in other records are written as a reference into this table.</li>
+ * <li>{@link #START}: id, parent id, details type, display name, start time, details as JSON.</li>
+ * <li>{@link #PROGRESS}: id, details type, time, details as JSON.</li>
+ * <li>{@link #FINISH}: id, parent id, details type, display name, start time, end time, result type, failure, result as JSON.
+ * The finish record repeats what is known from the start record, so that queries about durations only need to look at finish records.</li>
+ * <li>{@link #SUMMARY}: written once the build completes, the count, total and maximum duration of operations for each details type.
+ * The types are written in place, and the offset of this record is written as the last 8 bytes of the log,
+ * so that the summary can be read without scanning the log.</li>
+ * </ul>
+ * Numbers are written as variable length values. JSON payloads are length prefixed and can be skipped without being parsed.
+ */
+final class BinaryTraceFormat {
+
+    static final byte[] MAGIC = "GBOT".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 1;
+
+    static final byte STRING = 1;
+    static final byte START = 2;
+    static final byte PROGRESS = 3;
+    static final byte FINISH = 4;
+    static final byte SUMMARY = 5;
+
+    /**
+     * String reference for a {@code null} value.
+     */
+    static final int NULL_STRING = 0;
+
+    /**
+     * String reference for a value that is written in place, used once the string table is full.
+     */
+    static final int INLINE_STRING = 1;
+
+    static final int FIRST_INTERNED_STRING = 2;
+
+    /**
+     * Upper bound on the size of the string table, which is held in memory by both the writer and the reader.
+     */
+    static final int MAX_INTERNED_STRINGS = 1 << 16;
+
+    private BinaryTraceFormat() {
+    }
+}
@@ -0,0 +1,433 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.operations.trace;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
+import org.jspecify.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import static org.gradle.internal.operations.trace.BinaryTraceFormat.FINISH;
+import static org.gradle.internal.operations.trace.BinaryTraceFormat.FIRST_INTERNED_STRING;
+import static org.gradle.internal.operations.trace.BinaryTraceFormat.INLINE_STRING;
+import static org.gradle.internal.operations.trace.BinaryTraceFormat.NULL_STRING;
+import static org.gradle.internal.operations.trace.BinaryTraceFormat.PROGRESS;
+import static org.gradle.internal.operations.trace.BinaryTraceFormat.START;
+import static org.gradle.internal.operations.trace.BinaryTraceFormat.STRING;
+import static org.gradle.internal.operations.trace.BinaryTraceFormat.SUMMARY;
+
+/**
+ * Reads a build operation log written in the binary format, see {@link BinaryTraceFormat}.
+ * <p>
+ * The log is read as a stream, so the memory used does not depend on the size of the log.
+ * A log that was not completed, for example because the build process crashed, can be read up to the last record that was written.
+ *
+ * @see BuildOperationTraceQuery
+ */
+public class BinaryTraceReader {
+
+    private static final Comparator<FinishedOperation> BY_DURATION = Comparator.comparingLong(FinishedOperation::getDuration);
+
+    private final Path logFile;
+
+    public BinaryTraceReader(Path logFile) {
+        this.logFile = logFile;
+    }
+
+    /**
+     * Visits the records of the log in the order they were written.
+     *
+     * @param readPayloads whether the JSON details and results should be read. When {@code false}, these are skipped without being decoded.
+     */
+    public void visit(Visitor visitor, boolean readPayloads) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(logFile)) {
+            KryoBackedDecoder decoder = new KryoBackedDecoder(inputStream, 64 * 1024);
+            readHeader(decoder);
+            List<String> strings = new ArrayList<>();
+            try {
+                while (true) {
+                    byte tag = decoder.readByte();
+                    switch (tag) {
+                        case STRING:
+                            strings.add(decoder.readString());
+                            break;
+                        case START:
+                            visitor.started(new StartedOperation(
+                                decoder.readSmallLong(),
+                                readParentId(decoder),
+                                readString(decoder, strings),
+                                readString(decoder, strings),
+                                decoder.readSmallLong(),
+                                readPayload(decoder, readPayloads)
+                            ));
+                            break;
+                        case PROGRESS:
+                            visitor.progress(new OperationProgress(
+                                decoder.readSmallLong(),
+                                readString(decoder, strings),
+                                decoder.readSmallLong(),
+                                readPayload(decoder, readPayloads)
+                            ));
+                            break;
+                        case FINISH:
+                            visitor.finished(new FinishedOperation(
+                                decoder.readSmallLong(),
+                                readParentId(decoder),
+                                readString(decoder, strings),
+                                readString(decoder, strings),
+                                decoder.readSmallLong(),
+                                decoder.readSmallLong(),
+                                readString(decoder, strings),
+                                decoder.readNullableString(),
+                                readPayload(decoder, readPayloads)
+                            ));
+                            break;
+                        case SUMMARY:
+                            return;
+                        default:
+                            throw new IOException("Unexpected record " + tag + " at offset " + (decoder.getReadPosition() - 1) + " of " + logFile);
+                    }
+                }
+            } catch (EOFException e) {
+                // The log was not completed, possibly in the middle of a record.
+                // Visitors are only called once a record has been read completely.
+            }
+        }
+    }
+
+    /**
+     * Returns the {@code count} longest running operations with the given details type, or of any type when {@code type} is {@code null}.
+     * The longest running operation is returned first.
+     */
+    public List<FinishedOperation> slowest(@Nullable String type, int count) throws IOException {
+        PriorityQueue<FinishedOperation> slowest = new PriorityQueue<>(BY_DURATION);
+        visit(new Visitor() {
+            @Override
+            public void finished(FinishedOperation operation) {
+                if (type != null && !type.equals(operation.type)) {
+                    return;
+                }
+                if (slowest.size() < count) {
+                    slowest.add(operation);
+                } else if (count > 0 && operation.getDuration() > slowest.element().getDuration()) {
+                    slowest.remove();
+                    slowest.add(operation);
+                }
+            }
+        }, false);
+        List<FinishedOperation> result = new ArrayList<>(slowest);
+        result.sort(BY_DURATION.reversed());
+        return result;
+    }
+
+    /**
+     * Returns the direct children of the given operation, in the order they finished.
+     */
+    public List<FinishedOperation> children(long parentId) throws IOException {
+        List<FinishedOperation> children = new ArrayList<>();
+        visit(new Visitor() {
+            @Override
+            public void finished(FinishedOperation operation) {
+                if (operation.parentId != null && operation.parentId == parentId) {
+                    children.add(operation);
+                }
+            }
+        }, false);
+        return children;
+    }
+
+    /**
+     * Returns the number of operations and their durations, for each details type.
+     * Uses the summary written at the end of the log when present, otherwise the log is scanned.
+     */
+    public List<TypeSummary> summary() throws IOException {
+        Long summaryOffset = summaryOffset();
+        if (summaryOffset != null) {
+            try (InputStream inputStream = Files.newInputStream(logFile)) {
+                KryoBackedDecoder decoder = new KryoBackedDecoder(inputStream);
+                decoder.skipBytes(summaryOffset + 1);
+                int count = decoder.readSmallInt();
+                List<TypeSummary> summaries = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    summaries.add(new TypeSummary(decoder.readNullableString(), decoder.readSmallLong(), decoder.readSmallLong(), decoder.readSmallLong()));
+                }
+                return summaries;
+            }
+        }
+
+        Map<@Nullable String, long[]> totals = new LinkedHashMap<>();
+        visit(new Visitor() {
+            @Override
+            public void finished(FinishedOperation operation) {
+                long[] total = totals.computeIfAbsent(operation.type, t -> new long[3]);
+                total[0]++;
+                total[1] += operation.getDuration();
+                total[2] = Math.max(total[2], operation.getDuration());
+            }
+        }, false);
+        List<TypeSummary> summaries = new ArrayList<>(totals.size());
+        totals.forEach((type, total) -> summaries.add(new TypeSummary(type, total[0], total[1], total[2])));
+        return summaries;
+    }
+
+    @Nullable
+    private Long summaryOffset() throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(logFile.toFile(), "r")) {
+            long length = file.length();
+            if (length < BinaryTraceFormat.MAGIC.length + 9) {
+                return null;
+            }
+            byte[] trailer = new byte[8];
+            file.seek(length - trailer.length);
+            file.readFully(trailer);
+            long offset = new KryoBackedDecoder(new ByteArrayInputStream(trailer)).readLong();
+            if (offset < BinaryTraceFormat.MAGIC.length || offset >= length - trailer.length) {
+                return null;
+            }
+            file.seek(offset);
+            return file.readByte() == SUMMARY ? offset : null;
+        }
+    }
+
+    /**
+     * Converts the log to the Chrome trace event format, which can be opened in Perfetto or {@code chrome://tracing}.
+     * Each operation is written as an async slice, which is nested under its parent by the viewer.
+     */
+    public void writeChromeTrace(Path output) throws IOException {
+        try (JsonGenerator generator = new JsonFactory().createGenerator(output.toFile(), JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeStringField("displayTimeUnit", "ms");
+            generator.writeArrayFieldStart("traceEvents");
+            visit(new Visitor() {
+                @Override
+                public void started(StartedOperation operation) {
+                    writeEvent(generator, "b", operation.id, operation.displayName, operation.startTime, operation.type, "details", operation.details);
+                }
+
+                @Override
+                public void progress(OperationProgress progress) {
+                    writeEvent(generator, "n", progress.id, progress.type, progress.time, progress.type, "details", progress.details);
+                }
+
+                @Override
+                public void finished(FinishedOperation operation) {
+                    writeEvent(generator, "e", operation.id, operation.displayName, operation.endTime, operation.resultType, "result", operation.result);
+                }
+            }, true);
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    private static void writeEvent(JsonGenerator generator, String phase, long id, @Nullable String name, long time, @Nullable String type, String payloadName, @Nullable String payload) {
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("ph", phase);
+            generator.writeStringField("cat", "build-operation");
+            generator.writeNumberField("id", id);
+            generator.writeStringField("name", name == null ? String.valueOf(id) : name);
+            generator.writeNumberField("ts", time * 1000);
+            generator.writeNumberField("pid", 1);
+            generator.writeNumberField("tid", 1);
+            if (type != null || payload != null) {
+                generator.writeObjectFieldStart("args");
+                if (type != null) {
+                    generator.writeStringField("type", type);
+                }
+                if (payload != null) {
+                    generator.writeFieldName(payloadName);
+                    generator.writeRawValue(payload);
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void readHeader(KryoBackedDecoder decoder) throws IOException {
+        byte[] magic = new byte[BinaryTraceFormat.MAGIC.length];
+        decoder.readBytes(magic);
+        if (!Arrays.equals(magic, BinaryTraceFormat.MAGIC)) {
+            throw new IOException(logFile + " is not a binary build operation trace.");
+        }
+        int version = decoder.readSmallInt();
+        if (version != BinaryTraceFormat.VERSION) {
+            throw new IOException("Unsupported binary build operation trace version " + version + " in " + logFile + ".");
+        }
+    }
+
+    @Nullable
+    private static Long readParentId(KryoBackedDecoder decoder) throws IOException {
+        long parentId = decoder.readSmallLong();
+        return parentId == 0 ? null : parentId - 1;
+    }
+
+    @Nullable
+    private static String readString(KryoBackedDecoder decoder, List<String> strings) throws IOException {
+        int ref = decoder.readSmallInt();
+        if (ref == NULL_STRING) {
+            return null;
+        } else if (ref == INLINE_STRING) {
+            return decoder.readString();
+        } else {
+            return strings.get(ref - FIRST_INTERNED_STRING);
+        }
+    }
+
+    @Nullable
+    private static String readPayload(KryoBackedDecoder decoder, boolean read) throws IOException {
+        int length = decoder.readSmallInt();
+        if (length == 0) {
+            return null;
+        }
+        if (!read) {
+            decoder.skipBytes(length);
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        decoder.readBytes(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Receives the records of a log. Records are passed in the order they were written.
+     */
+    public interface Visitor {
+        default void started(StartedOperation operation) {
+        }
+
+        default void progress(OperationProgress progress) {
+        }
+
+        default void finished(FinishedOperation operation) {
+        }
+    }
+
+    public static class StartedOperation {
+        public final long id;
+        public final @Nullable Long parentId;
+        public final @Nullable String type;
+        public final @Nullable String displayName;
+        public final long startTime;
+        public final @Nullable String details;
+
+        StartedOperation(long id, @Nullable Long parentId, @Nullable String type, @Nullable String displayName, long startTime, @Nullable String details) {
+            this.id = id;
+            this.parentId = parentId;
+            this.type = type;
+            this.displayName = displayName;
+            this.startTime = startTime;
+            this.details = details;
+        }
+    }
+
+    public static class OperationProgress {
+        public final long id;
+        public final @Nullable String type;
+        public final long time;
+        public final @Nullable String details;
+
+        OperationProgress(long id, @Nullable String type, long time, @Nullable String details) {
+            this.id = id;
+            this.type = type;
+            this.time = time;
+            this.details = details;
+        }
+    }
+
+    public static class FinishedOperation {
+        public final long id;
+        public final @Nullable Long parentId;
+        public final @Nullable String type;
+        public final @Nullable String displayName;
+        public final long startTime;
+        public final long endTime;
+        public final @Nullable String resultType;
+        public final @Nullable String failure;
+        public final @Nullable String result;
+
+        FinishedOperation(
+            long id,
+            @Nullable Long parentId,
+            @Nullable String type,
+            @Nullable String displayName,
+            long startTime,
+            long endTime,
+            @Nullable String resultType,
+            @Nullable String failure,
+            @Nullable String result
+        ) {
+            this.id = id;
+            this.parentId = parentId;
+            this.type = type;
+            this.displayName = displayName;
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.resultType = resultType;
+            this.failure = failure;
+            this.result = result;
+        }
+
+        public long getDuration() {
+            return endTime - startTime;
+        }
+
+        @Override
+        public String toString() {
+            return displayName + " [" + getDuration() + "ms] (" + id + ")";
+        }
+    }
+
+    public static class TypeSummary {
+        public final @Nullable String type;
+        public final long count;
+        public final long totalDuration;
+        public final long maxDuration;
+
+        TypeSummary(@Nullable String type, long count, long totalDuration, long maxDuration) {
+            this.type = type;
+            this.count = count;
+            this.totalDuration = totalDuration;
+            this.maxDuration = maxDuration;
+        }
+
+        @Override
+        public String toString() {
+            return type + ": " + count + " operations, total " + totalDuration + "ms, max " + maxDuration + "ms";
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.operations.trace;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
+import org.gradle.internal.IoActions;
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+import static org.gradle.internal.operations.trace.BinaryTraceFormat.FINISH;
+import static org.gradle.internal.operations.trace.BinaryTraceFormat.INLINE_STRING;
+import static org.gradle.internal.operations.trace.BinaryTraceFormat.MAX_INTERNED_STRINGS;
+import static org.gradle.internal.operations.trace.BinaryTraceFormat.NULL_STRING;
+import static org.gradle.internal.operations.trace.BinaryTraceFormat.PROGRESS;
+import static org.gradle.internal.operations.trace.BinaryTraceFormat.START;
+import static org.gradle.internal.operations.trace.BinaryTraceFormat.STRING;
+import static org.gradle.internal.operations.trace.BinaryTraceFormat.SUMMARY;
+
+/**
+ * Writes the build operation log in the binary format described by {@link BinaryTraceFormat}.
+ * <p>
+ * Only operations that are currently running are held in memory, so the memory used by the writer
+ * does not grow with the length of the build.
+ */
+class BinaryTraceWriter implements BuildOperationTrace.TraceWriter {
+
+    private static final byte[] NO_PAYLOAD = new byte[0];
+
+    private final Path logFile;
+    private final ObjectMapper objectMapper;
+    private final OutputStream outputStream;
+    private final KryoBackedEncoder encoder;
+    private final int maxInternedStrings;
+
+    private final Map<String, Integer> strings = new HashMap<>();
+    private final Map<Long, RunningOperation> running = new HashMap<>();
+    private final Map<@Nullable String, TypeSummary> summaries = new LinkedHashMap<>();
+
+    BinaryTraceWriter(Path logFile, ObjectMapper objectMapper, OutputStream outputStream) {
+        this(logFile, objectMapper, outputStream, MAX_INTERNED_STRINGS);
+    }
+
+    @VisibleForTesting
+    BinaryTraceWriter(Path logFile, ObjectMapper objectMapper, OutputStream outputStream, int maxInternedStrings) {
+        this.logFile = logFile;
+        this.maxInternedStrings = maxInternedStrings;
+        this.objectMapper = objectMapper;
+        this.outputStream = outputStream;
+        this.encoder = new KryoBackedEncoder(outputStream, 64 * 1024);
+        encoder.writeBytes(BinaryTraceFormat.MAGIC, 0, BinaryTraceFormat.MAGIC.length);
+        encoder.writeSmallInt(BinaryTraceFormat.VERSION);
+    }
+
+    @Override
+    public void write(SerializedOperation serializedOperation) {
+        try {
+            if (serializedOperation instanceof SerializedOperationStart) {
+                writeStart((SerializedOperationStart) serializedOperation);
+            } else if (serializedOperation instanceof SerializedOperationProgress) {
+                writeProgress((SerializedOperationProgress) serializedOperation);
+            } else {
+                writeFinish((SerializedOperationFinish) serializedOperation);
+            }
+        } catch (IOException e) {
+            IoActions.closeQuietly(encoder);
+            throw new UncheckedIOException(e);
+        } catch (Throwable t) {
+            IoActions.closeQuietly(encoder);
+            throw t;
+        }
+    }
+
+    private void writeStart(SerializedOperationStart start) throws IOException {
+        int type = intern(start.detailsClassName);
+        int displayName = intern(start.displayName);
+        byte[] details = payload(start.details);
+        running.put(start.id, new RunningOperation(start.parentId, start.detailsClassName, start.displayName, start.startTime));
+
+        encoder.writeByte(START);
+        encoder.writeSmallLong(start.id);
+        writeParentId(start.parentId);
+        writeStringRef(type, start.detailsClassName);
+        writeStringRef(displayName, start.displayName);
+        encoder.writeSmallLong(start.startTime);
+        encoder.writeBinary(details);
+    }
+
+    private void writeProgress(SerializedOperationProgress progress) throws IOException {
+        int type = intern(progress.detailsClassName);
+        byte[] details = payload(progress.details);
+
+        encoder.writeByte(PROGRESS);
+        encoder.writeSmallLong(progress.id);
+        writeStringRef(type, progress.detailsClassName);
+        encoder.writeSmallLong(progress.time);
+        encoder.writeBinary(details);
+    }
+
+    private void writeFinish(SerializedOperationFinish finish) throws IOException {
+        RunningOperation start = running.remove(finish.id);
+        if (start == null) {
+            // The start event was filtered out, record the finish on its own
+            start = new RunningOperation(null, null, null, finish.endTime);
+        }
+        int type = intern(start.type);
+        int displayName = intern(start.displayName);
+        int resultType = intern(finish.resultClassName);
+        byte[] result = payload(finish.result);
+
+        encoder.writeByte(FINISH);
+        encoder.writeSmallLong(finish.id);
+        writeParentId(start.parentId);
+        writeStringRef(type, start.type);
+        writeStringRef(displayName, start.displayName);
+        encoder.writeSmallLong(start.startTime);
+        encoder.writeSmallLong(finish.endTime);
+        writeStringRef(resultType, finish.resultClassName);
+        encoder.writeNullableString(finish.failureMsg);
+        encoder.writeBinary(result);
+
+        summaries.computeIfAbsent(start.type, t -> new TypeSummary()).add(finish.endTime - start.startTime);
+        if (start.parentId == null) {
+            // Records are buffered, make sure everything up to the end of each top level operation is on disk
+            encoder.flush();
+        }
+    }
+
+    private void writeParentId(@Nullable Long parentId) {
+        encoder.writeSmallLong(parentId == null ? 0 : parentId + 1);
+    }
+
+    /**
+     * Returns the reference to use for the given string, writing a string record when the string is seen for the first time.
+     */
+    private int intern(@Nullable String value) {
+        if (value == null) {
+            return NULL_STRING;
+        }
+        Integer ref = strings.get(value);
+        if (ref != null) {
+            return ref;
+        }
+        if (strings.size() >= maxInternedStrings) {
+            return INLINE_STRING;
+        }
+        int newRef = BinaryTraceFormat.FIRST_INTERNED_STRING + strings.size();
+        strings.put(value, newRef);
+        encoder.writeByte(STRING);
+        encoder.writeString(value);
+        return newRef;
+    }
+
+    private void writeStringRef(int ref, @Nullable String value) {
+        if (ref == INLINE_STRING) {
+            encoder.writeSmallInt(INLINE_STRING);
+            encoder.writeString(requireNonNull(value));
+        } else {
+            encoder.writeSmallInt(ref);
+        }
+    }
+
+    private byte[] payload(@Nullable Object value) throws IOException {
+        return value == null ? NO_PAYLOAD : objectMapper.writeValueAsBytes(value);
+    }
+
+    @Override
+    public void complete(boolean writeTree) {
+        try {
+            long summaryOffset = encoder.getWritePosition();
+            encoder.writeByte(SUMMARY);
+            encoder.writeSmallInt(summaries.size());
+            for (Map.Entry<@Nullable String, TypeSummary> entry : summaries.entrySet()) {
+                TypeSummary summary = entry.getValue();
+                encoder.writeNullableString(entry.getKey());
+                encoder.writeSmallLong(summary.count);
+                encoder.writeSmallLong(summary.totalDuration);
+                encoder.writeSmallLong(summary.maxDuration);
+            }
+            encoder.writeLong(summaryOffset);
+            encoder.flush();
+            System.out.println("Build operation trace: " + logFile);
+        } finally {
+            IoActions.closeQuietly(encoder);
+            IoActions.closeQuietly(outputStream);
+        }
+    }
+
+    private static class RunningOperation {
+        final @Nullable Long parentId;
+        final @Nullable String type;
+        final @Nullable String displayName;
+        final long startTime;
+
+        RunningOperation(@Nullable Long parentId, @Nullable String type, @Nullable String displayName, long startTime) {
+            this.parentId = parentId;
+            this.type = type;
+            this.displayName = displayName;
+            this.startTime = startTime;
+        }
+    }
+
+    private static class TypeSummary {
+        long count;
+        long totalDuration;
+        long maxDuration;
+
+        void add(long duration) {
+            count++;
+            totalDuration += duration;
+            maxDuration = Math.max(maxDuration, duration);
+        }
+    }
+}
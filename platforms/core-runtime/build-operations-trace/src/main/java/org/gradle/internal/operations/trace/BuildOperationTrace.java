@@ -109,6 +109,10 @@
  * The generation of trees can be very memory hungry, so you might need to increase heap memory of the build process
  * to ensure the build completes successfully.
  * <p>
+ * For long builds, {@code -Dorg.gradle.internal.operations.trace.format=binary} writes {@code «path-base»-log.bin} instead,
+ * a compact format that can be queried and converted to a Chrome trace with {@link BuildOperationTraceQuery}
+ * without loading it into memory. Trees are not generated for the binary format.
+ * <p>
  * The "trace" produced here is different to the trace produced by Gradle Profiler.
  * There, the focus is analyzing the performance profile.
  * Here, the focus is debugging/developing the information structure of build operations.
@@ -143,6 +147,15 @@ public class BuildOperationTrace implements Stoppable {
 
     private static final InternalOption<Boolean> TRACE_TREE_OPTION = InternalOptions.ofBoolean(TREE_SYSPROP, false);
 
+    /**
+     * The format of the log, either {@code json} (the default) or {@code binary}.
+     *
+     * @see BinaryTraceFormat
+     */
+    public static final String FORMAT_SYSPROP = SYSPROP + ".format";
+
+    private static final InternalOption<@Nullable String> FORMAT_OPTION = InternalOptions.ofStringOrNull(FORMAT_SYSPROP);
+
     /**
      * Delimiter for entries in {@link #FILTER_SYSPROP}.
      */
@@ -169,7 +182,8 @@ public BuildOperationTrace(File userActionRootDir, InternalOptions internalOptio
             return;
         }
 
-        this.writer = new TraceWriter(basePath);
+        boolean binary = isBinaryFormat(internalOptions);
+        this.writer = binary ? createBinaryWriter(basePath) : new JsonTraceWriter(basePath);
         this.processor = new MultiProducerSingleConsumerProcessor<>("trace-writer", writer::write);
         this.processor.start();
 
@@ -179,7 +193,7 @@ public BuildOperationTrace(File userActionRootDir, InternalOptions internalOptio
             this.outputTree = false;
             this.listener = new FilteringBuildOperationListener(serializer, filter);
         } else {
-            this.outputTree = internalOptions.getBoolean(TRACE_TREE_OPTION);
+            this.outputTree = !binary && internalOptions.getBoolean(TRACE_TREE_OPTION);
             this.listener = serializer;
         }
 
@@ -197,6 +211,22 @@ private static Path resolveBasePath(InternalOptions internalOptions, File userAc
         return basePath.isEmpty() ? base.resolve("operations") : base.resolve(basePath);
     }
 
+    private static boolean isBinaryFormat(InternalOptions internalOptions) {
+        String format = internalOptions.getValueOrNull(FORMAT_OPTION);
+        if (format == null || format.isEmpty() || format.equals("json")) {
+            return false;
+        }
+        if (format.equals("binary")) {
+            return true;
+        }
+        throw new IllegalArgumentException("Unsupported build operation trace format '" + format + "', supported formats are 'json' and 'binary'.");
+    }
+
+    private static TraceWriter createBinaryWriter(Path basePath) {
+        Path logFile = binaryLogFile(basePath);
+        return new BinaryTraceWriter(logFile, createObjectMapper(), openStream(logFile.toFile()));
+    }
+
     @Nullable
     private static Set<String> getFilter(InternalOptions internalOptions) {
         String filterProperty = internalOptions.getValueOrNull(FILTER_OPTION);
@@ -219,47 +249,56 @@ public void stop() {
         }
     }
 
-    private static class TraceWriter {
+    private static ObjectMapper createObjectMapper() {
+        return new ObjectMapper()
+            .registerModule(new SimpleModule()
+                .addSerializer(Class.class, new JsonClassSerializer())
+                .addSerializer(Throwable.class, new JsonThrowableSerializer())
+                .addSerializer(AttributeContainer.class, new JsonAttributeContainerSerializer())
+                .addSerializer(ComponentArtifactIdentifier.class, new JsonComponentArtifactIdentifierSerializer())
+                .setSerializerModifier(new SkipDeprecatedBeanSerializerModifier())
+            )
+            .registerModule(new JavaTimeModule())
+            .registerModule(new Jdk8Module())
+            .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false)
+            .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+    }
+
+    private static OutputStream openStream(File logFile) {
+        try {
+            GFileUtils.mkdirs(logFile.getParentFile());
+            if (logFile.isFile()) {
+                GFileUtils.forceDelete(logFile);
+            }
+            //noinspection ResultOfMethodCallIgnored
+            logFile.createNewFile();
+            return new BufferedOutputStream(Files.newOutputStream(logFile.toPath()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    interface TraceWriter {
+
+        void write(SerializedOperation serializedOperation);
+
+        void complete(boolean writeTree);
+
+    }
+
+    private static class JsonTraceWriter implements TraceWriter {
 
         private final Path basePath;
         private final ObjectMapper objectMapper;
         private final OutputStream logOutputStream;
 
-        public TraceWriter(Path basePath) {
+        public JsonTraceWriter(Path basePath) {
             this.basePath = basePath;
             this.objectMapper = createObjectMapper();
             this.logOutputStream = openStream(logFile(basePath).toFile());
         }
 
-        private static ObjectMapper createObjectMapper() {
-            return new ObjectMapper()
-                .registerModule(new SimpleModule()
-                    .addSerializer(Class.class, new JsonClassSerializer())
-                    .addSerializer(Throwable.class, new JsonThrowableSerializer())
-                    .addSerializer(AttributeContainer.class, new JsonAttributeContainerSerializer())
-                    .addSerializer(ComponentArtifactIdentifier.class, new JsonComponentArtifactIdentifierSerializer())
-                    .setSerializerModifier(new SkipDeprecatedBeanSerializerModifier())
-                )
-                .registerModule(new JavaTimeModule())
-                .registerModule(new Jdk8Module())
-                .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false)
-                .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
-        }
-
-        private static OutputStream openStream(File logFile) {
-            try {
-                GFileUtils.mkdirs(logFile.getParentFile());
-                if (logFile.isFile()) {
-                    GFileUtils.forceDelete(logFile);
-                }
-                //noinspection ResultOfMethodCallIgnored
-                logFile.createNewFile();
-                return new BufferedOutputStream(Files.newOutputStream(logFile.toPath()));
-            } catch (IOException e) {
-                throw new UncheckedIOException(e);
-            }
-        }
-
+        @Override
         public void write(SerializedOperation serializedOperation) {
             try {
                 objectMapper.writeValue(logOutputStream, serializedOperation.toMap());
@@ -274,6 +313,7 @@ public void write(SerializedOperation serializedOperation) {
             }
         }
 
+        @Override
         public void complete(boolean writeTree) {
             try {
                 System.out.println("Build operation trace: " + logFile(basePath));
@@ -512,6 +552,19 @@ private static Path logFile(Path basePath) {
         return withSuffix(basePath, "-log.txt");
     }
 
+    private static Path binaryLogFile(Path basePath) {
+        return withSuffix(basePath, "-log.bin");
+    }
+
+    /**
+     * Returns a reader for the binary log written when {@link #FORMAT_SYSPROP} is {@code binary}.
+     *
+     * @param basePath The same path used for {@link #SYSPROP} when the trace was recorded.
+     */
+    public static BinaryTraceReader binaryReader(String basePath) {
+        return new BinaryTraceReader(binaryLogFile(Paths.get(basePath)));
+    }
+
     private static Path withSuffix(Path base, String suffix) {
         return base.resolveSibling(base.getFileName() + suffix);
     }
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.operations.trace;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Command line tool to query a binary build operation log, as written when {@link BuildOperationTrace#FORMAT_SYSPROP} is {@code binary}.
+ * <p>
+ * Usage: {@code BuildOperationTraceQuery «path-base»-log.bin «command»}, where the command is one of:
+ * <ul>
+ * <li>{@code summary}: the number of operations and their total and maximum duration, for each details type.</li>
+ * <li>{@code slowest «count» [«details-type»]}: the longest running operations, optionally only those with the given details type.</li>
+ * <li>{@code children «id»}: the direct children of an operation.</li>
+ * <li>{@code chrome «output-file»}: converts the log to the Chrome trace event format, which can be opened in Perfetto.</li>
+ * </ul>
+ */
+public class BuildOperationTraceQuery {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            usage();
+            return;
+        }
+        BinaryTraceReader reader = new BinaryTraceReader(Paths.get(args[0]));
+        switch (args[1]) {
+            case "summary":
+                for (BinaryTraceReader.TypeSummary summary : reader.summary()) {
+                    System.out.println(summary);
+                }
+                break;
+            case "slowest":
+                if (args.length < 3) {
+                    usage();
+                    return;
+                }
+                print(reader.slowest(args.length > 3 ? args[3] : null, Integer.parseInt(args[2])));
+                break;
+            case "children":
+                if (args.length < 3) {
+                    usage();
+                    return;
+                }
+                print(reader.children(Long.parseLong(args[2])));
+                break;
+            case "chrome":
+                if (args.length < 3) {
+                    usage();
+                    return;
+                }
+                Path output = Paths.get(args[2]);
+                reader.writeChromeTrace(output);
+                System.out.println("Chrome trace written to " + output.toAbsolutePath());
+                break;
+            default:
+                usage();
+        }
+    }
+
+    private static void print(List<BinaryTraceReader.FinishedOperation> operations) {
+        for (BinaryTraceReader.FinishedOperation operation : operations) {
+            System.out.println(operation.getDuration() + "ms " + operation.displayName + " (" + operation.id + (operation.type == null ? "" : ", " + operation.type) + ")");
+        }
+    }
+
+    private static void usage() {
+        System.err.println("Usage: BuildOperationTraceQuery <trace-log.bin> summary | slowest <count> [<details-type>] | children <id> | chrome <output-file>");
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.operations.trace;
+
+import jdk.jfr.FlightRecorder;
+import org.gradle.cache.Cache;
+import org.gradle.internal.Deferrable;
+import org.gradle.internal.Try;
+import org.gradle.internal.execution.DeferredResult;
+import org.gradle.internal.execution.FileCollectionFingerprinter;
+import org.gradle.internal.execution.FileCollectionFingerprinterRegistry;
+import org.gradle.internal.execution.Identity;
+import org.gradle.internal.execution.UnitOfWork;
+import org.gradle.internal.execution.steps.Context;
+import org.gradle.internal.execution.steps.DeferredExecutionAwareStep;
+import org.gradle.internal.execution.steps.Result;
+import org.gradle.internal.execution.steps.Step;
+import org.gradle.internal.fingerprint.CurrentFileCollectionFingerprint;
+import org.gradle.internal.fingerprint.FileCollectionFingerprint;
+import org.gradle.internal.fingerprint.FileNormalizer;
+import org.gradle.internal.snapshot.FileSystemLocationSnapshot;
+import org.gradle.internal.snapshot.FileSystemSnapshot;
+import org.gradle.internal.snapshot.MetadataSnapshot;
+import org.gradle.internal.vfs.VirtualFileSystem;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Decorates the execution engine, the virtual file system and fingerprinting so that they emit JFR events
+ * into whatever JFR recording is active.
+ *
+ * <p>Like {@link BuildOperationJfrEmitter}, this does not start or manage a recording.
+ * The decorators only check whether the event types are enabled when no recording is active,
+ * so they are always installed. Together, the events show where the time of a unit of work
+ * that was not spent running its action went:
+ * <ul>
+ * <li>{@link ExecutionStepJfrEvent} for every step of the execution pipeline,</li>
+ * <li>{@link FileSystemSnapshotJfrEvent} for each virtual file system miss that is snapshotted from disk,
+ * and {@link VirtualFileSystemStatisticsJfrEvent} with the number of hits and misses,</li>
+ * <li>{@link FingerprintJfrEvent} for each file collection that is fingerprinted.</li>
+ * </ul>
+ */
+public class ExecutionJfrEvents {
+
+    private static final LongAdder VFS_HITS = new LongAdder();
+    private static final LongAdder VFS_MISSES = new LongAdder();
+
+    static {
+        if (FlightRecorder.isAvailable()) {
+            FlightRecorder.addPeriodicEvent(VirtualFileSystemStatisticsJfrEvent.class, () -> {
+                VirtualFileSystemStatisticsJfrEvent event = new VirtualFileSystemStatisticsJfrEvent();
+                event.hits = VFS_HITS.sumThenReset();
+                event.misses = VFS_MISSES.sumThenReset();
+                event.commit();
+            });
+        }
+    }
+
+    private ExecutionJfrEvents() {
+    }
+
+    /**
+     * Records an {@link ExecutionStepJfrEvent} each time the given step is executed.
+     */
+    public static <C extends Context, R extends Result> Step<C, R> recordStep(Step<C, R> step) {
+        return new RecordingStep<>(step);
+    }
+
+    /**
+     * Records an {@link ExecutionStepJfrEvent} each time the given step is executed, including when it is executed deferred.
+     */
+    public static <C extends Context, R extends Result> DeferredExecutionAwareStep<C, R> recordDeferredStep(DeferredExecutionAwareStep<C, R> step) {
+        return new RecordingDeferredStep<>(step);
+    }
+
+    /**
+     * Counts the lookups in the given virtual file system, and records a {@link FileSystemSnapshotJfrEvent} for each location that is snapshotted.
+     */
+    public static VirtualFileSystem recordLookups(VirtualFileSystem virtualFileSystem) {
+        return new RecordingVirtualFileSystem(virtualFileSystem);
+    }
+
+    /**
+     * Records a {@link FingerprintJfrEvent} each time a fingerprinter from the given registry fingerprints a file collection.
+     */
+    public static FileCollectionFingerprinterRegistry recordFingerprinting(FileCollectionFingerprinterRegistry registry) {
+        return spec -> new RecordingFingerprinter(registry.getFingerprinter(spec));
+    }
+
+    private static class RecordingStep<C extends Context, R extends Result> implements Step<C, R> {
+        private final Step<C, R> delegate;
+        final String stepName;
+
+        RecordingStep(Step<C, R> delegate) {
+            this.delegate = delegate;
+            this.stepName = stepName(delegate.getClass());
+        }
+
+        @Override
+        public R execute(UnitOfWork work, C context) {
+            ExecutionStepJfrEvent event = new ExecutionStepJfrEvent();
+            if (!event.isEnabled()) {
+                return delegate.execute(work, context);
+            }
+            event.begin();
+            try {
+                return delegate.execute(work, context);
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.step = stepName;
+                    event.work = work.getDisplayName();
+                    event.commit();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the name of the step class without its package, e.g. "ExecuteStep.Mutable".
+     */
+    private static String stepName(Class<?> stepClass) {
+        String name = stepClass.getName();
+        return name.substring(name.lastIndexOf('.') + 1).replace('$', '.');
+    }
+
+    private static class RecordingDeferredStep<C extends Context, R extends Result> extends RecordingStep<C, R> implements DeferredExecutionAwareStep<C, R> {
+        private final DeferredExecutionAwareStep<C, R> delegate;
+
+        RecordingDeferredStep(DeferredExecutionAwareStep<C, R> delegate) {
+            super(delegate);
+            this.delegate = delegate;
+        }
+
+        @Override
+        public <T> Deferrable<Try<T>> executeDeferred(UnitOfWork work, C context, Cache<Identity, DeferredResult<T>> cache) {
+            ExecutionStepJfrEvent event = new ExecutionStepJfrEvent();
+            if (!event.isEnabled()) {
+                return delegate.executeDeferred(work, context, cache);
+            }
+            event.begin();
+            try {
+                return delegate.executeDeferred(work, context, cache);
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.step = stepName;
+                    event.work = work.getDisplayName();
+                    event.commit();
+                }
+            }
+        }
+    }
+
+    private static class RecordingVirtualFileSystem implements VirtualFileSystem {
+        private final VirtualFileSystem delegate;
+
+        RecordingVirtualFileSystem(VirtualFileSystem delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Optional<FileSystemLocationSnapshot> findSnapshot(String absolutePath) {
+            return count(delegate.findSnapshot(absolutePath));
+        }
+
+        @Override
+        public Optional<MetadataSnapshot> findMetadata(String absolutePath) {
+            return count(delegate.findMetadata(absolutePath));
+        }
+
+        private static <T> Optional<T> count(Optional<T> result) {
+            (result.isPresent() ? VFS_HITS : VFS_MISSES).increment();
+            return result;
+        }
+
+        @Override
+        public Stream<FileSystemLocationSnapshot> findRootSnapshotsUnder(String absolutePath) {
+            return delegate.findRootSnapshotsUnder(absolutePath);
+        }
+
+        @Override
+        public FileSystemLocationSnapshot store(String absolutePath, Supplier<FileSystemLocationSnapshot> snapshotSupplier) {
+            FileSystemSnapshotJfrEvent event = new FileSystemSnapshotJfrEvent();
+            if (!event.isEnabled()) {
+                return delegate.store(absolutePath, snapshotSupplier);
+            }
+            event.begin();
+            try {
+                return delegate.store(absolutePath, snapshotSupplier);
+            } finally {
+                commit(event, absolutePath);
+            }
+        }
+
+        @Override
+        public <T> T storeWithAction(String baseLocation, StoringAction<T> storingAction) {
+            FileSystemSnapshotJfrEvent event = new FileSystemSnapshotJfrEvent();
+            if (!event.isEnabled()) {
+                return delegate.storeWithAction(baseLocation, storingAction);
+            }
+            event.begin();
+            try {
+                return delegate.storeWithAction(baseLocation, storingAction);
+            } finally {
+                commit(event, baseLocation);
+            }
+        }
+
+        private static void commit(FileSystemSnapshotJfrEvent event, String location) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.location = location;
+                event.commit();
+            }
+        }
+
+        @Override
+        public void invalidate(Iterable<String> locations) {
+            delegate.invalidate(locations);
+        }
+
+        @Override
+        public void invalidateAll() {
+            delegate.invalidateAll();
+        }
+    }
+
+    private static class RecordingFingerprinter implements FileCollectionFingerprinter {
+        private final FileCollectionFingerprinter delegate;
+
+        RecordingFingerprinter(FileCollectionFingerprinter delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public FileNormalizer getNormalizer() {
+            return delegate.getNormalizer();
+        }
+
+        @Override
+        public CurrentFileCollectionFingerprint fingerprint(FileSystemSnapshot snapshot, @Nullable FileCollectionFingerprint previousFingerprint) {
+            FingerprintJfrEvent event = new FingerprintJfrEvent();
+            if (!event.isEnabled()) {
+                return delegate.fingerprint(snapshot, previousFingerprint);
+            }
+            event.begin();
+            CurrentFileCollectionFingerprint fingerprint = delegate.fingerprint(snapshot, previousFingerprint);
+            event.end();
+            if (event.shouldCommit()) {
+                event.normalizer = String.valueOf(delegate.getNormalizer());
+                event.fileCount = fingerprint.getFingerprints().size();
+                event.commit();
+            }
+            return fingerprint;
+        }
+
+        @Override
+        public CurrentFileCollectionFingerprint empty() {
+            return delegate.empty();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.operations.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event describing the execution of a single step of the execution engine for a unit of work.
+ * <p>
+ * Steps delegate to the next step in the pipeline, so the events for a unit of work are nested.
+ * The time spent in a step itself is its duration minus the duration of the step it delegates to.
+ */
+@Name(ExecutionStepJfrEvent.NAME)
+@Label("Execution Step")
+@Category({"Gradle", "Execution"})
+@StackTrace(false)
+class ExecutionStepJfrEvent extends Event {
+
+    static final String NAME = "org.gradle.internal.execution.Step";
+
+    /**
+     * Name of the step class without its package, e.g. "ResolveChangesStep" or "ExecuteStep.Mutable"
+     */
+    @Label("Step")
+    String step;
+
+    /**
+     * Display name of the unit of work being executed, e.g. "task ':compileJava'"
+     */
+    @Label("Work")
+    String work;
+
+}
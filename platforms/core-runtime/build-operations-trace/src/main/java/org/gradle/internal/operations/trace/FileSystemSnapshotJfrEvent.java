@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.operations.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event describing a location that was not found in the virtual file system and had to be snapshotted from disk.
+ */
+@Name(FileSystemSnapshotJfrEvent.NAME)
+@Label("File System Snapshot")
+@Category({"Gradle", "Execution", "File System"})
+@StackTrace(false)
+class FileSystemSnapshotJfrEvent extends Event {
+
+    static final String NAME = "org.gradle.internal.vfs.Snapshot";
+
+    /**
+     * Absolute path of the snapshotted location
+     */
+    @Label("Location")
+    String location;
+
+}
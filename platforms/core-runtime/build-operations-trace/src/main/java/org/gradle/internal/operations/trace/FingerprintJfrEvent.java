@@ -0,0 +1,48 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.operations.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event describing the fingerprinting of a snapshotted file collection.
+ */
+@Name(FingerprintJfrEvent.NAME)
+@Label("File Collection Fingerprint")
+@Category({"Gradle", "Execution", "Fingerprinting"})
+@StackTrace(false)
+class FingerprintJfrEvent extends Event {
+
+    static final String NAME = "org.gradle.internal.execution.Fingerprint";
+
+    /**
+     * The normalizer used, e.g. "ABSOLUTE_PATH"
+     */
+    @Label("Normalizer")
+    String normalizer;
+
+    /**
+     * Number of files in the fingerprint
+     */
+    @Label("File Count")
+    int fileCount;
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.operations.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+/**
+ * Periodic JFR event with the number of virtual file system lookups since the previous event.
+ * <p>
+ * Lookups are far too frequent to be recorded one by one, so only lookups that miss are recorded
+ * individually, as {@link FileSystemSnapshotJfrEvent}.
+ */
+@Name(VirtualFileSystemStatisticsJfrEvent.NAME)
+@Label("Virtual File System Lookups")
+@Category({"Gradle", "Execution", "File System"})
+@Period("1 s")
+@StackTrace(false)
+class VirtualFileSystemStatisticsJfrEvent extends Event {
+
+    static final String NAME = "org.gradle.internal.vfs.Statistics";
+
+    /**
+     * Number of lookups answered by the virtual file system
+     */
+    @Label("Hits")
+    long hits;
+
+    /**
+     * Number of lookups not answered by the virtual file system
+     */
+    @Label("Misses")
+    long misses;
+
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.operations.trace
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import groovy.json.JsonSlurper
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+class BinaryTraceReaderTest extends Specification {
+
+    @TempDir
+    Path tmpDir
+
+    def "reads the operations written to the log"() {
+        given:
+        def log = writeBuild(tmpDir.resolve("log.bin"))
+        def reader = new BinaryTraceReader(log)
+
+        when:
+        def started = []
+        def progress = []
+        def finished = []
+        reader.visit(new BinaryTraceReader.Visitor() {
+            @Override
+            void started(BinaryTraceReader.StartedOperation operation) {
+                started << operation
+            }
+
+            @Override
+            void progress(BinaryTraceReader.OperationProgress operation) {
+                progress << operation
+            }
+
+            @Override
+            void finished(BinaryTraceReader.FinishedOperation operation) {
+                finished << operation
+            }
+        }, true)
+
+        then:
+        started*.id == [1L, 2L, 3L]
+        started*.parentId == [null, 1L, 1L]
+        started*.displayName == ["Run build", "Task :a", "Task :b"]
+        started[0].type == "BuildDetails"
+        new JsonSlurper().parseText(started[0].details) == [name: "build"]
+
+        progress*.id == [2L]
+        progress[0].type == "Output"
+        new JsonSlurper().parseText(progress[0].details) == [text: "hello"]
+
+        finished*.id == [2L, 3L, 1L]
+        finished*.displayName == ["Task :a", "Task :b", "Run build"]
+        finished*.type == ["TaskDetails", "TaskDetails", "BuildDetails"]
+        finished*.duration == [30L, 70L, 100L]
+        finished*.failure == [null, "boom", null]
+        finished[2].resultType == "BuildResult"
+        new JsonSlurper().parseText(finished[2].result) == [successful: true]
+
+        and:
+        reader.slowest(null, 2)*.id == [1L, 3L]
+        reader.slowest("TaskDetails", 5)*.id == [3L, 2L]
+        reader.children(1)*.id == [2L, 3L]
+        reader.children(2).empty
+        summaries(reader) == ["BuildDetails: 1 operations, total 100ms, max 100ms", "TaskDetails: 2 operations, total 100ms, max 70ms"]
+    }
+
+    def "writes strings in place once the string table is full"() {
+        given:
+        def log = tmpDir.resolve("log.bin")
+        def writer = new BinaryTraceWriter(log, new ObjectMapper(), Files.newOutputStream(log), 2)
+        writer.write(start(1, null, "Run build", "BuildDetails", 0))
+        (2..5).each { id ->
+            writer.write(start(id, 1, "Task :t$id", "TaskDetails", id))
+            writer.write(finish(id, id + 10))
+        }
+        writer.write(finish(1, 100))
+        writer.complete(false)
+        def reader = new BinaryTraceReader(log)
+
+        when:
+        def finished = []
+        reader.visit(new BinaryTraceReader.Visitor() {
+            @Override
+            void finished(BinaryTraceReader.FinishedOperation operation) {
+                finished << operation
+            }
+        }, false)
+
+        then:
+        finished*.displayName == ["Task :t2", "Task :t3", "Task :t4", "Task :t5", "Run build"]
+        finished*.type == ["TaskDetails"] * 4 + ["BuildDetails"]
+        reader.slowest("TaskDetails", 1)*.displayName == ["Task :t2"]
+        summaries(reader) == ["BuildDetails: 1 operations, total 100ms, max 100ms", "TaskDetails: 4 operations, total 40ms, max 10ms"]
+    }
+
+    def "reads a log that was not completed up to the last complete record"() {
+        given:
+        def completeLog = writeBuild(tmpDir.resolve("complete.bin"))
+        byte[] bytes = Files.readAllBytes(completeLog)
+        def truncatedLog = tmpDir.resolve("truncated.bin")
+        def headerLength = BinaryTraceFormat.MAGIC.length + 1
+
+        expect:
+        (headerLength..<bytes.length).each { length ->
+            Files.write(truncatedLog, Arrays.copyOf(bytes, length))
+            def reader = new BinaryTraceReader(truncatedLog)
+            def finishedIds = []
+            reader.visit(new BinaryTraceReader.Visitor() {
+                @Override
+                void finished(BinaryTraceReader.FinishedOperation operation) {
+                    finishedIds << operation.id
+                }
+            }, true)
+            assert finishedIds == [2L, 3L, 1L].take(finishedIds.size())
+            assert reader.summary().sum(0L) { it.count } == finishedIds.size()
+        }
+    }
+
+    def "computes the summary from the operations when the log has no summary"() {
+        given:
+        def log = tmpDir.resolve("log.bin")
+        def writer = new BinaryTraceWriter(log, new ObjectMapper(), Files.newOutputStream(log))
+        writeOperations(writer)
+
+        expect:
+        summaries(new BinaryTraceReader(log)) == ["BuildDetails: 1 operations, total 100ms, max 100ms", "TaskDetails: 2 operations, total 100ms, max 70ms"]
+    }
+
+    static Path writeBuild(Path log) {
+        def writer = new BinaryTraceWriter(log, new ObjectMapper(), Files.newOutputStream(log))
+        writeOperations(writer)
+        writer.complete(false)
+        return log
+    }
+
+    private static void writeOperations(BinaryTraceWriter writer) {
+        writer.write(start(1, null, "Run build", "BuildDetails", 0, [name: "build"]))
+        writer.write(start(2, 1, "Task :a", "TaskDetails", 10))
+        writer.write(new SerializedOperationProgress([id: 2, time: 20, details: [text: "hello"], detailsClassName: "Output"]))
+        writer.write(start(3, 1, "Task :b", "TaskDetails", 20))
+        writer.write(finish(2, 40))
+        writer.write(finish(3, 90, "boom"))
+        writer.write(new SerializedOperationFinish([id: 1, endTime: 100, result: [successful: true], resultClassName: "BuildResult"]))
+    }
+
+    private static SerializedOperationStart start(long id, Long parentId, String displayName, String type, long startTime, Map<String, ?> details = [:]) {
+        return new SerializedOperationStart([id: id, parentId: parentId, displayName: displayName, startTime: startTime, details: details, detailsClassName: type])
+    }
+
+    private static SerializedOperationFinish finish(long id, long endTime, String failure = null) {
+        return new SerializedOperationFinish([id: id, endTime: endTime, failure: failure])
+    }
+
+    private static List<String> summaries(BinaryTraceReader reader) {
+        return reader.summary()*.toString().sort()
+    }
+}
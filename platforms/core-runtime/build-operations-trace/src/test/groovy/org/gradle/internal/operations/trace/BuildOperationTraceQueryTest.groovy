@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.operations.trace
+
+import groovy.json.JsonSlurper
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Path
+
+class BuildOperationTraceQueryTest extends Specification {
+
+    @TempDir
+    Path tmpDir
+
+    Path log
+
+    def setup() {
+        log = BinaryTraceReaderTest.writeBuild(tmpDir.resolve("log.bin"))
+    }
+
+    def "prints the summary"() {
+        expect:
+        query("summary").readLines().sort() == [
+            "BuildDetails: 1 operations, total 100ms, max 100ms",
+            "TaskDetails: 2 operations, total 100ms, max 70ms"
+        ]
+    }
+
+    def "prints the slowest operations"() {
+        expect:
+        query("slowest", "2").readLines() == ["100ms Run build (1, BuildDetails)", "70ms Task :b (3, TaskDetails)"]
+        query("slowest", "5", "TaskDetails").readLines() == ["70ms Task :b (3, TaskDetails)", "30ms Task :a (2, TaskDetails)"]
+    }
+
+    def "prints the children of an operation"() {
+        expect:
+        query("children", "1").readLines() == ["30ms Task :a (2, TaskDetails)", "70ms Task :b (3, TaskDetails)"]
+        query("children", "3").empty
+    }
+
+    def "converts the log to a Chrome trace"() {
+        given:
+        def output = tmpDir.resolve("trace.json")
+
+        when:
+        def printed = query("chrome", output.toString())
+
+        then:
+        printed.trim() == "Chrome trace written to " + output.toAbsolutePath()
+
+        and:
+        def trace = new JsonSlurper().parse(output.toFile())
+        trace.traceEvents.collect { [it.ph, it.id, it.name] } == [
+            ["b", 1, "Run build"],
+            ["b", 2, "Task :a"],
+            ["n", 2, "Output"],
+            ["b", 3, "Task :b"],
+            ["e", 2, "Task :a"],
+            ["e", 3, "Task :b"],
+            ["e", 1, "Run build"]
+        ]
+        trace.traceEvents[0].ts == 0
+        trace.traceEvents[0].args == [type: "BuildDetails", details: [name: "build"]]
+        trace.traceEvents[6].ts == 100_000
+        trace.traceEvents[6].args == [type: "BuildResult", result: [successful: true]]
+    }
+
+    def "prints the usage for an unknown or incomplete command"() {
+        when:
+        def printed = query(*args)
+
+        then:
+        printed.empty
+        lastStdErr.startsWith("Usage: BuildOperationTraceQuery")
+
+        where:
+        args << [["unknown"], ["slowest"], ["children"], ["chrome"]]
+    }
+
+    private String lastStdErr
+
+    private String query(String... args) {
+        def stdOut = new ByteArrayOutputStream()
+        def stdErr = new ByteArrayOutputStream()
+        def originalOut = System.out
+        def originalErr = System.err
+        System.setOut(new PrintStream(stdOut, true))
+        System.setErr(new PrintStream(stdErr, true))
+        try {
+            BuildOperationTraceQuery.main([log.toString(), *args] as String[])
+        } finally {
+            System.setOut(originalOut)
+            System.setErr(originalErr)
+        }
+        lastStdErr = stdErr.toString()
+        return stdOut.toString()
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.remote;
+
+import org.gradle.internal.concurrent.DefaultExecutorFactory;
+import org.gradle.internal.id.UUIDGenerator;
+import org.gradle.internal.remote.internal.IncomingConnector;
+import org.gradle.internal.remote.internal.OutgoingConnector;
+import org.gradle.internal.remote.internal.hub.MessageHubBackedClient;
+import org.gradle.internal.remote.internal.hub.MessageHubBackedServer;
+import org.gradle.internal.remote.internal.inet.InetAddressFactory;
+import org.gradle.internal.remote.internal.inet.TcpIncomingConnector;
+import org.gradle.internal.remote.internal.inet.TcpOutgoingConnector;
+import org.gradle.internal.remote.internal.inet.UnixDomainSocketIncomingConnector;
+import org.gradle.internal.remote.internal.inet.UnixDomainSocketOutgoingConnector;
+import org.gradle.internal.serialize.BaseSerializerFactory;
+import org.gradle.internal.serialize.DefaultSerializerRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the round trip latency and the one way throughput of method calls between two {@link ObjectConnection}s
+ * connected over loopback TCP or a Unix domain socket.
+ */
+@Fork(1)
+@Threads(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class MessageHubTransportBenchmark {
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"tcp", "unix"})
+    String transport;
+
+    @Param({"64", "8192"})
+    int payloadSize;
+
+    private DefaultExecutorFactory executorFactory;
+    private ConnectionAcceptor acceptor;
+    private ObjectConnection serverConnection;
+    private ObjectConnection clientConnection;
+    private Messages server;
+    private final BlockingQueue<String> replies = new LinkedBlockingQueue<String>();
+    private String payload;
+
+    public interface Messages {
+        void ping(String payload);
+
+        void send(String payload);
+
+        void endOfBatch();
+    }
+
+    public interface Replies {
+        void reply(String payload);
+    }
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        if (transport.equals("unix") && !UnixDomainSocketOutgoingConnector.isSupported()) {
+            throw new IllegalStateException("Unix domain sockets are not supported by this JVM.");
+        }
+        executorFactory = new DefaultExecutorFactory();
+        TcpIncomingConnector tcpIncomingConnector = new TcpIncomingConnector(executorFactory, new InetAddressFactory(), new UUIDGenerator(), 10);
+        IncomingConnector incomingConnector = transport.equals("unix") ? new UnixDomainSocketIncomingConnector(tcpIncomingConnector, executorFactory) : tcpIncomingConnector;
+        OutgoingConnector outgoingConnector = transport.equals("unix") ? new UnixDomainSocketOutgoingConnector(new TcpOutgoingConnector()) : new TcpOutgoingConnector();
+
+        final SynchronousQueue<ObjectConnection> accepted = new SynchronousQueue<ObjectConnection>();
+        acceptor = new MessageHubBackedServer(incomingConnector, executorFactory).accept(connection -> {
+            final Replies replier = connection.addOutgoing(Replies.class);
+            connection.addIncoming(Messages.class, new Messages() {
+                @Override
+                public void ping(String payload) {
+                    replier.reply(payload);
+                }
+
+                @Override
+                public void send(String payload) {
+                }
+
+                @Override
+                public void endOfBatch() {
+                    replier.reply("");
+                }
+            });
+            connection.useParameterSerializers(serializers());
+            connection.connect();
+            try {
+                accepted.put(connection);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        clientConnection = new MessageHubBackedClient(outgoingConnector, executorFactory).getConnection(acceptor.getAddress());
+        server = clientConnection.addOutgoing(Messages.class);
+        clientConnection.addIncoming(Replies.class, replies::add);
+        clientConnection.useParameterSerializers(serializers());
+        clientConnection.connect();
+        serverConnection = accepted.take();
+
+        StringBuilder builder = new StringBuilder(payloadSize);
+        for (int i = 0; i < payloadSize; i++) {
+            builder.append((char) ('a' + i % 26));
+        }
+        payload = builder.toString();
+    }
+
+    private static DefaultSerializerRegistry serializers() {
+        DefaultSerializerRegistry registry = new DefaultSerializerRegistry();
+        registry.register(String.class, BaseSerializerFactory.STRING_SERIALIZER);
+        return registry;
+    }
+
+    @TearDown
+    public void tearDown() {
+        clientConnection.stop();
+        serverConnection.stop();
+        acceptor.stop();
+        executorFactory.stop();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String roundTrip() throws InterruptedException {
+        server.ping(payload);
+        return replies.take();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BATCH_SIZE)
+    public String oneWay() throws InterruptedException {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            server.send(payload);
+        }
+        server.endOfBatch();
+        return replies.take();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.remote.internal.hub;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters for the outgoing messages of a {@link MessageHub}. A frame is the set of messages written to a connection between two flushes.
+ */
+public class DispatchStatistics {
+    private final AtomicLong messages = new AtomicLong();
+    private final AtomicLong frames = new AtomicLong();
+    private final AtomicLong maxQueueDepth = new AtomicLong();
+
+    void messagesTaken(int queueDepth) {
+        if (queueDepth > maxQueueDepth.get()) {
+            maxQueueDepth.set(queueDepth);
+        }
+    }
+
+    void frameFlushed(int messageCount) {
+        if (messageCount > 0) {
+            messages.addAndGet(messageCount);
+            frames.incrementAndGet();
+        }
+    }
+
+    /**
+     * The number of messages flushed to connections.
+     */
+    public long getMessages() {
+        return messages.get();
+    }
+
+    /**
+     * The number of frames flushed to connections.
+     */
+    public long getFrames() {
+        return frames.get();
+    }
+
+    public double getMessagesPerFrame() {
+        long frames = getFrames();
+        return frames == 0 ? 0 : (double) getMessages() / frames;
+    }
+
+    /**
+     * The largest number of messages that were waiting to be written to a connection at once.
+     */
+    public long getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d messages in %d frames, %.1f messages per frame, max queue depth %d", getMessages(), getFrames(), getMessagesPerFrame(), getMaxQueueDepth());
+    }
+}
@@ -28,9 +28,12 @@
 import org.gradle.internal.remote.internal.RemoteConnection;
 import org.gradle.internal.remote.internal.hub.protocol.*;
 import org.gradle.internal.remote.internal.hub.queue.EndPointQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -46,7 +49,9 @@
 public class MessageHub implements AsyncStoppable {
     private enum State {Running, Stopping, Stopped}
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(MessageHub.class);
     private static final Discard DISCARD = new Discard();
+    private static final long MAX_FLUSH_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
     private final ManagedExecutor workers;
     private final String displayName;
     private final Action<? super Throwable> errorHandler;
@@ -55,6 +60,7 @@ private enum State {Running, Stopping, Stopped}
     private final IncomingQueue incomingQueue = new IncomingQueue(lock);
     private final OutgoingQueue outgoingQueue = new OutgoingQueue(incomingQueue, lock);
     private final ConnectionSet connections = new ConnectionSet(incomingQueue, outgoingQueue);
+    private final DispatchStatistics statistics = new DispatchStatistics();
 
     /**
      * @param errorHandler Notified when some async activity fails. Must be thread-safe.
@@ -153,6 +159,13 @@ public void addConnection(RemoteConnection<InterHubMessage> connection) {
         }
     }
 
+    /**
+     * Returns counters for the outgoing messages written to connections so far.
+     */
+    public DispatchStatistics getDispatchStatistics() {
+        return statistics;
+    }
+
     /**
      * Signals that no further connections will be added.
      */
@@ -311,33 +324,58 @@ private ConnectionDispatch(ConnectionState connectionState) {
             this.connectionState = connectionState;
         }
 
+        /**
+         * Writes queued messages to the connection, flushing them as a single frame once the queue is empty, so that messages
+         * dispatched while earlier ones are being written share a flush. A frame is also flushed once its first message has waited
+         * for {@link #MAX_FLUSH_DELAY_NANOS}, and when the end of the stream is reached. The connection writes out large frames as they fill its buffer.
+         */
         @Override
         public void run() {
             try {
                 List<InterHubMessage> messages = new ArrayList<InterHubMessage>();
+                int unflushed = 0;
+                long firstUnflushedAt = 0;
                 try {
                     while (true) {
                         lock.lock();
                         try {
-                            queue.take(messages);
+                            if (unflushed == 0) {
+                                queue.take(messages);
+                            } else {
+                                queue.poll(messages);
+                            }
                         } finally {
                             lock.unlock();
                         }
+                        if (messages.isEmpty()) {
+                            flush(unflushed);
+                            unflushed = 0;
+                            continue;
+                        }
+                        statistics.messagesTaken(messages.size());
+                        if (unflushed == 0) {
+                            firstUnflushedAt = System.nanoTime();
+                        }
                         for (InterHubMessage message : messages) {
                             try {
                                 connection.dispatch(message);
                             } catch (RecoverableMessageIOException e) {
                                 addToIncoming(new StreamFailureMessage(e));
                             }
+                            unflushed++;
                             if (message instanceof EndOfStream) {
-                                connection.flush();
+                                flush(unflushed);
                                 return;
                             }
                         }
-                        connection.flush();
                         messages.clear();
+                        if (System.nanoTime() - firstUnflushedAt >= MAX_FLUSH_DELAY_NANOS) {
+                            flush(unflushed);
+                            unflushed = 0;
+                        }
                     }
                 } finally {
+                    LOGGER.debug("Finished dispatching to {}: {}.", connection, statistics);
                     lock.lock();
                     try {
                         connectionState.dispatchFinished();
@@ -349,6 +387,11 @@ public void run() {
                 errorHandler.execute(t);
             }
         }
+
+        private void flush(int messages) {
+            statistics.frameFlushed(messages);
+            connection.flush();
+        }
     }
 
     private class ChannelDispatch<T> implements Dispatch<T> {
@@ -17,25 +17,37 @@
 
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import org.jspecify.annotations.Nullable;
 
 import java.net.InetAddress;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 public class MultiChoiceAddress implements InetEndpoint {
     private final UUID canonicalAddress;
     private final int port;
     private final List<InetAddress> candidates;
+    @Nullable
+    private final String unixSocketPath;
 
     public MultiChoiceAddress(UUID canonicalAddress, int port, List<InetAddress> candidates) {
+        this(canonicalAddress, port, candidates, null);
+    }
+
+    public MultiChoiceAddress(UUID canonicalAddress, int port, List<InetAddress> candidates, @Nullable String unixSocketPath) {
         this.canonicalAddress = canonicalAddress;
         this.port = port;
         this.candidates = new ArrayList<InetAddress>(candidates);
+        this.unixSocketPath = unixSocketPath;
     }
 
     @Override
     public String getDisplayName() {
+        if (unixSocketPath != null) {
+            return "[" + canonicalAddress + " port:" + port + ", addresses:" + candidates + ", unix socket:" + unixSocketPath + "]";
+        }
         return "[" + canonicalAddress + " port:" + port + ", addresses:" + candidates + "]";
     }
 
@@ -53,6 +65,18 @@ public int getPort() {
         return port;
     }
 
+    /**
+     * The path of a Unix domain socket that accepts the same connections as the port, if any.
+     */
+    @Nullable
+    public String getUnixSocketPath() {
+        return unixSocketPath;
+    }
+
+    public MultiChoiceAddress withUnixSocketPath(String unixSocketPath) {
+        return new MultiChoiceAddress(canonicalAddress, port, candidates, unixSocketPath);
+    }
+
     @Override
     public String toString() {
         return getDisplayName();
@@ -67,7 +91,7 @@ public boolean equals(Object o) {
             return false;
         }
         MultiChoiceAddress other = (MultiChoiceAddress) o;
-        return other.canonicalAddress.equals(canonicalAddress) && port == other.port && candidates.equals(other.candidates);
+        return other.canonicalAddress.equals(canonicalAddress) && port == other.port && candidates.equals(other.candidates) && Objects.equals(unixSocketPath, other.unixSocketPath);
     }
 
     @Override
@@ -76,6 +100,6 @@ public int hashCode() {
     }
 
     public MultiChoiceAddress addAddresses(Iterable<InetAddress> candidates) {
-        return new MultiChoiceAddress(canonicalAddress, port, Lists.newArrayList(Iterables.concat(candidates, this.candidates)));
+        return new MultiChoiceAddress(canonicalAddress, port, Lists.newArrayList(Iterables.concat(candidates, this.candidates)), unixSocketPath);
     }
 }
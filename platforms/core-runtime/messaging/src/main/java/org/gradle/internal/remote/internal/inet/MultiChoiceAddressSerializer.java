@@ -37,7 +37,8 @@ public MultiChoiceAddress read(Decoder decoder) throws IOException {
             InetAddress address = InetAddress.getByAddress(decoder.readBinary());
             addresses.add(address);
         }
-        return new MultiChoiceAddress(canonicalAddress, port, addresses);
+        String unixSocketPath = decoder.readNullableString();
+        return new MultiChoiceAddress(canonicalAddress, port, addresses, unixSocketPath);
     }
 
     @Override
@@ -50,5 +51,6 @@ public void write(Encoder encoder, MultiChoiceAddress address) throws IOExceptio
         for (InetAddress inetAddress : address.getCandidates()) {
             encoder.writeBinary(inetAddress.getAddress());
         }
+        encoder.writeNullableString(address.getUnixSocketPath());
     }
 }
@@ -21,6 +21,7 @@
 import org.gradle.internal.remote.internal.RemoteConnection;
 import org.gradle.internal.serialize.StatefulSerializer;
 
+import java.io.IOException;
 import java.nio.channels.SocketChannel;
 
 class SocketConnectCompletion implements ConnectCompletion {
@@ -32,7 +33,11 @@ public SocketConnectCompletion(SocketChannel socket) {
 
     @Override
     public String toString() {
-        return socket.socket().getLocalSocketAddress() + " to " + socket.socket().getRemoteSocketAddress();
+        try {
+            return SocketConnection.displayAddress(socket.getLocalAddress()) + " to " + SocketConnection.displayAddress(socket.getRemoteAddress());
+        } catch (IOException e) {
+            return socket.toString();
+        }
     }
 
     @Override
@@ -32,6 +32,7 @@
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.ServerSocketChannel;
@@ -76,7 +77,7 @@ public ConnectionAcceptor accept(Action<ConnectCompletion> action, boolean allow
         LOGGER.debug("Listening on {}.", address);
 
         final ManagedExecutor executor = executorFactory.create("Incoming " + (allowRemote ? "remote" : "local")+ " TCP Connector on port " + localPort);
-        executor.execute(new Receiver(serverSocket, action, allowRemote));
+        executor.execute(receiver(serverSocket, action, allowRemote));
 
         return new ConnectionAcceptor() {
             @Override
@@ -97,6 +98,14 @@ public void stop() {
         };
     }
 
+    /**
+     * Creates a loop that accepts connections on the given channel, checks their handshake and passes them to the given action.
+     * The loop closes the channel when it finishes.
+     */
+    Runnable receiver(ServerSocketChannel serverSocket, Action<ConnectCompletion> action, boolean allowRemote) {
+        return new Receiver(serverSocket, action, allowRemote);
+    }
+
     private class Receiver implements Runnable {
         private final ServerSocketChannel serverSocket;
         private final Action<ConnectCompletion> action;
@@ -114,9 +123,9 @@ public void run() {
                 try {
                     while (true) {
                         final SocketChannel socket = serverSocket.accept();
-                        InetSocketAddress remoteSocketAddress = (InetSocketAddress) socket.socket().getRemoteSocketAddress();
-                        InetAddress remoteInetAddress = remoteSocketAddress.getAddress();
-                        if (!allowRemote && !addressFactory.isCommunicationAddress(remoteInetAddress)) {
+                        // Unix domain socket peers are always local
+                        SocketAddress remoteSocketAddress = socket.getRemoteAddress();
+                        if (!allowRemote && remoteSocketAddress instanceof InetSocketAddress && !addressFactory.isCommunicationAddress(((InetSocketAddress) remoteSocketAddress).getAddress())) {
                             LOGGER.error("Cannot accept connection from remote address {}.", remoteSocketAddress);
                             socket.close();
                             continue;
@@ -130,7 +139,7 @@ public void run() {
                             continue;
                         }
 
-                        LOGGER.debug("Accepted connection from {} to {}.", socket.socket().getRemoteSocketAddress(), socket.socket().getLocalSocketAddress());
+                        LOGGER.debug("Accepted connection from {} to {}.", remoteSocketAddress, socket.getLocalAddress());
                         try {
                             action.execute(new SocketConnectCompletion(socket));
                         } catch (Throwable t) {
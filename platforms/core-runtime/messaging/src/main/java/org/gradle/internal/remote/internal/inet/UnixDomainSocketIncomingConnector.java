@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.remote.internal.inet;
+
+import org.gradle.api.Action;
+import org.gradle.internal.concurrent.CompositeStoppable;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.ManagedExecutor;
+import org.gradle.internal.remote.Address;
+import org.gradle.internal.remote.ConnectionAcceptor;
+import org.gradle.internal.remote.internal.ConnectCompletion;
+import org.gradle.internal.remote.internal.IncomingConnector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Accepts local connections on a Unix domain socket as well as on the TCP port of the given connector.
+ *
+ * <p>The address of the returned acceptor carries both, so that peers which can use Unix domain sockets connect over the socket
+ * and other peers, for example workers running on an older Java version, connect over TCP. See {@link UnixDomainSocketOutgoingConnector}.</p>
+ *
+ * <p>The socket is created in a new temporary directory that only the current user can access, and both are deleted when the acceptor
+ * is stopped. Should the socket not be available, for example because the path is too long, only TCP is used.</p>
+ */
+public class UnixDomainSocketIncomingConnector implements IncomingConnector {
+    private static final Logger LOGGER = LoggerFactory.getLogger(UnixDomainSocketIncomingConnector.class);
+    private static final String SOCKET_FILE_NAME = "socket";
+
+    private final TcpIncomingConnector tcpConnector;
+    private final ExecutorFactory executorFactory;
+    private final File tmpDir;
+
+    public UnixDomainSocketIncomingConnector(TcpIncomingConnector tcpConnector, ExecutorFactory executorFactory) {
+        this(tcpConnector, executorFactory, new File(System.getProperty("java.io.tmpdir")));
+    }
+
+    UnixDomainSocketIncomingConnector(TcpIncomingConnector tcpConnector, ExecutorFactory executorFactory, File tmpDir) {
+        this.tcpConnector = tcpConnector;
+        this.executorFactory = executorFactory;
+        this.tmpDir = tmpDir;
+    }
+
+    @Override
+    public ConnectionAcceptor accept(Action<ConnectCompletion> action, boolean allowRemote) {
+        final ConnectionAcceptor tcpAcceptor = tcpConnector.accept(action, allowRemote);
+        if (allowRemote) {
+            return tcpAcceptor;
+        }
+
+        final Path socketDir;
+        final ServerSocketChannel serverSocket;
+        try {
+            socketDir = Files.createTempDirectory(tmpDir.toPath(), "gradle-");
+        } catch (IOException e) {
+            LOGGER.debug("Could not create a directory for a Unix domain socket, using TCP only.", e);
+            return tcpAcceptor;
+        }
+        Path socketPath = socketDir.resolve(SOCKET_FILE_NAME);
+        try {
+            if (socketPath.toString().length() > UnixDomainSockets.MAX_PATH_LENGTH) {
+                throw new IOException("Unix domain socket path " + socketPath + " is too long.");
+            }
+            serverSocket = UnixDomainSockets.bind(socketPath);
+        } catch (IOException e) {
+            LOGGER.debug("Could not listen on a Unix domain socket, using TCP only.", e);
+            deleteSocket(socketDir);
+            return tcpAcceptor;
+        }
+
+        final Address address = ((MultiChoiceAddress) tcpAcceptor.getAddress()).withUnixSocketPath(socketPath.toString());
+        LOGGER.debug("Listening on {}.", address);
+
+        final ManagedExecutor executor = executorFactory.create("Incoming local Unix domain socket Connector on " + socketPath);
+        executor.execute(tcpConnector.receiver(serverSocket, action, false));
+
+        return new ConnectionAcceptor() {
+            @Override
+            public Address getAddress() {
+                return address;
+            }
+
+            @Override
+            public void requestStop() {
+                tcpAcceptor.requestStop();
+                CompositeStoppable.stoppable(serverSocket).stop();
+                deleteSocket(socketDir);
+            }
+
+            @Override
+            public void stop() {
+                requestStop();
+                CompositeStoppable.stoppable(tcpAcceptor, executor).stop();
+            }
+        };
+    }
+
+    private static void deleteSocket(Path socketDir) {
+        try {
+            Files.deleteIfExists(socketDir.resolve(SOCKET_FILE_NAME));
+            Files.deleteIfExists(socketDir);
+        } catch (IOException e) {
+            LOGGER.debug("Could not delete Unix domain socket directory {}.", socketDir, e);
+        }
+    }
+}
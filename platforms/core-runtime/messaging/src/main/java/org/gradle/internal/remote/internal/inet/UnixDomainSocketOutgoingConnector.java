@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.remote.internal.inet;
+
+import org.gradle.internal.remote.Address;
+import org.gradle.internal.remote.internal.ConnectCompletion;
+import org.gradle.internal.remote.internal.ConnectException;
+import org.gradle.internal.remote.internal.OutgoingConnector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Paths;
+
+import static org.gradle.internal.remote.internal.inet.TcpOutgoingConnector.CONNECTION_PREAMBLE;
+
+/**
+ * Connects over the Unix domain socket of an address, when it has one, and over TCP otherwise or when the socket cannot be reached.
+ * See {@link UnixDomainSocketIncomingConnector}.
+ */
+public class UnixDomainSocketOutgoingConnector implements OutgoingConnector {
+    private static final Logger LOGGER = LoggerFactory.getLogger(UnixDomainSocketOutgoingConnector.class);
+
+    private final OutgoingConnector tcpConnector;
+
+    public UnixDomainSocketOutgoingConnector(OutgoingConnector tcpConnector) {
+        this.tcpConnector = tcpConnector;
+    }
+
+    /**
+     * Returns true when Unix domain sockets can be used in this process.
+     */
+    public static boolean isSupported() {
+        return UnixDomainSockets.isSupported();
+    }
+
+    @Override
+    public ConnectCompletion connect(Address destinationAddress) throws ConnectException {
+        if (destinationAddress instanceof MultiChoiceAddress) {
+            String unixSocketPath = ((MultiChoiceAddress) destinationAddress).getUnixSocketPath();
+            if (unixSocketPath != null) {
+                try {
+                    SocketChannel socketChannel = tryConnect(unixSocketPath);
+                    LOGGER.debug("Connected to Unix domain socket {}.", unixSocketPath);
+                    return new SocketConnectCompletion(socketChannel);
+                } catch (IOException e) {
+                    LOGGER.debug("Cannot connect to Unix domain socket {}, falling back to TCP.", unixSocketPath, e);
+                }
+            }
+        }
+        return tcpConnector.connect(destinationAddress);
+    }
+
+    private static SocketChannel tryConnect(String unixSocketPath) throws IOException {
+        SocketChannel socketChannel = UnixDomainSockets.connect(Paths.get(unixSocketPath));
+        try {
+            SocketBlockingUtil.configureNonblocking(socketChannel);
+            socketChannel.write(ByteBuffer.wrap(CONNECTION_PREAMBLE));
+            return socketChannel;
+        } catch (IOException e) {
+            socketChannel.close();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.remote.internal.inet;
+
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.os.OperatingSystem;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+
+/**
+ * Access to Unix domain socket channels, which are available from Java 16.
+ *
+ * <p>This module also runs in worker processes on older Java versions, so the Java 16 API is looked up reflectively.</p>
+ */
+final class UnixDomainSockets {
+    /**
+     * The longest socket path accepted on all supported platforms, which is limited by the size of {@code sockaddr_un.sun_path}.
+     */
+    static final int MAX_PATH_LENGTH = 100;
+
+    @Nullable
+    private static final Api API = Api.lookup();
+
+    private UnixDomainSockets() {
+    }
+
+    /**
+     * Returns true when this JVM can open Unix domain socket channels.
+     *
+     * <p>Windows is excluded, as its support for Unix domain sockets depends on the Windows version and does not
+     * improve on loopback TCP.</p>
+     */
+    static boolean isSupported() {
+        return API != null && !OperatingSystem.current().isWindows();
+    }
+
+    static ServerSocketChannel bind(Path path) throws IOException {
+        ServerSocketChannel channel = (ServerSocketChannel) api().invoke(api().openServerSocketChannel);
+        try {
+            channel.bind(api().addressOf(path));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return channel;
+    }
+
+    static SocketChannel connect(Path path) throws IOException {
+        SocketChannel channel = (SocketChannel) api().invoke(api().openSocketChannel);
+        try {
+            channel.connect(api().addressOf(path));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return channel;
+    }
+
+    private static Api api() {
+        if (API == null) {
+            throw new UnsupportedOperationException("Unix domain sockets are not supported by this JVM.");
+        }
+        return API;
+    }
+
+    private static class Api {
+        private final ProtocolFamily unix;
+        private final Method openServerSocketChannel;
+        private final Method openSocketChannel;
+        private final Method addressOf;
+
+        private Api(ProtocolFamily unix, Method openServerSocketChannel, Method openSocketChannel, Method addressOf) {
+            this.unix = unix;
+            this.openServerSocketChannel = openServerSocketChannel;
+            this.openSocketChannel = openSocketChannel;
+            this.addressOf = addressOf;
+        }
+
+        @Nullable
+        static Api lookup() {
+            try {
+                ProtocolFamily unix = StandardProtocolFamily.valueOf("UNIX");
+                Method openServerSocketChannel = ServerSocketChannel.class.getMethod("open", ProtocolFamily.class);
+                Method openSocketChannel = SocketChannel.class.getMethod("open", ProtocolFamily.class);
+                Method addressOf = Class.forName("java.net.UnixDomainSocketAddress").getMethod("of", Path.class);
+                return new Api(unix, openServerSocketChannel, openSocketChannel, addressOf);
+            } catch (IllegalArgumentException | ReflectiveOperationException e) {
+                return null;
+            }
+        }
+
+        Object invoke(Method open) throws IOException {
+            try {
+                return open.invoke(null, unix);
+            } catch (InvocationTargetException e) {
+                throw rethrow(e);
+            } catch (IllegalAccessException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+        }
+
+        SocketAddress addressOf(Path path) throws IOException {
+            try {
+                return (SocketAddress) addressOf.invoke(null, path);
+            } catch (InvocationTargetException e) {
+                throw rethrow(e);
+            } catch (IllegalAccessException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+        }
+
+        private static IOException rethrow(InvocationTargetException e) throws IOException {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw UncheckedException.throwAsUncheckedException(e.getCause());
+        }
+    }
+}
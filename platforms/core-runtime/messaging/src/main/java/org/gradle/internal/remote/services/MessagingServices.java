@@ -28,6 +28,8 @@
 import org.gradle.internal.remote.internal.inet.InetAddressFactory;
 import org.gradle.internal.remote.internal.inet.TcpIncomingConnector;
 import org.gradle.internal.remote.internal.inet.TcpOutgoingConnector;
+import org.gradle.internal.remote.internal.inet.UnixDomainSocketIncomingConnector;
+import org.gradle.internal.remote.internal.inet.UnixDomainSocketOutgoingConnector;
 import org.gradle.internal.service.Provides;
 import org.gradle.internal.service.ServiceRegistrationProvider;
 
@@ -45,7 +47,14 @@
  * </ul>
  */
 public class MessagingServices implements ServiceRegistrationProvider {
+    /**
+     * Set to {@code false} to only use TCP for connections between Gradle processes.
+     */
+    public static final String UNIX_DOMAIN_SOCKETS_PROPERTY = "org.gradle.internal.remote.unix-domain-sockets";
+
     private final IdGenerator<UUID> idGenerator = new UUIDGenerator();
+    private final boolean useUnixDomainSockets = UnixDomainSocketOutgoingConnector.isSupported()
+        && Boolean.parseBoolean(System.getProperty(UNIX_DOMAIN_SOCKETS_PROPERTY, "true"));
 
     @Provides
     protected InetAddressFactory createInetAddressFactory() {
@@ -54,17 +63,19 @@ protected InetAddressFactory createInetAddressFactory() {
 
     @Provides
     protected OutgoingConnector createOutgoingConnector() {
-        return new TcpOutgoingConnector();
+        TcpOutgoingConnector tcpConnector = new TcpOutgoingConnector();
+        return useUnixDomainSockets ? new UnixDomainSocketOutgoingConnector(tcpConnector) : tcpConnector;
     }
 
     @Provides
     protected IncomingConnector createIncomingConnector(ExecutorFactory executorFactory, InetAddressFactory inetAddressFactory) {
-        return new TcpIncomingConnector(
+        TcpIncomingConnector tcpConnector = new TcpIncomingConnector(
                 executorFactory,
                 inetAddressFactory,
                 idGenerator,
                 10
         );
+        return useUnixDomainSockets ? new UnixDomainSocketIncomingConnector(tcpConnector, executorFactory) : tcpConnector;
     }
 
     @Provides
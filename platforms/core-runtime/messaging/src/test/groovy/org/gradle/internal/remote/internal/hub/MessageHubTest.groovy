@@ -196,6 +196,43 @@ class MessageHubTest extends ConcurrentSpec {
         connection.stop()
     }
 
+    def "outgoing messages dispatched while earlier messages are written are flushed together"() {
+        RemoteConnection<InterHubMessage> outgoing = Mock()
+        def connection = new MockOutgoingConnection(outgoing)
+        def dispatcher = hub.getOutgoing("channel", String)
+
+        given:
+        hub.addConnection(connection)
+
+        when:
+        dispatcher.dispatch("message1")
+        thread.blockUntil.writingMessage1
+        dispatcher.dispatch("message2")
+        dispatcher.dispatch("message3")
+        instant.queued
+        thread.blockUntil.flushed
+
+        then:
+        1 * outgoing.dispatch({ it.payload == "message1" }) >> {
+            instant.writingMessage1
+            thread.blockUntil.queued
+        }
+        1 * outgoing.dispatch({ it.payload == "message2" })
+        1 * outgoing.dispatch({ it.payload == "message3" })
+        1 * outgoing.flush() >> {
+            instant.flushed
+        }
+        0 * _._
+
+        and:
+        hub.dispatchStatistics.messages == 3
+        hub.dispatchStatistics.frames == 1
+        hub.dispatchStatistics.maxQueueDepth == 2
+
+        cleanup:
+        connection.stop()
+    }
+
     def "each outgoing message is dispatched to exactly one connection"() {
         def messages = new CopyOnWriteArrayList()
         RemoteConnection<InterHubMessage> outgoing = Mock()
@@ -24,4 +24,13 @@ class MultiChoiceAddressSerializerTest extends SerializerSpec {
         expect:
         serialize(address, new MultiChoiceAddressSerializer()) == address
     }
+
+    def "serializes an address with a Unix domain socket"() {
+        def address = new MultiChoiceAddress(UUID.randomUUID(), 1234, [InetAddress.getByName(null)], "/tmp/gradle-123/socket")
+
+        expect:
+        def result = serialize(address, new MultiChoiceAddressSerializer())
+        result == address
+        result.unixSocketPath == "/tmp/gradle-123/socket"
+    }
 }
@@ -29,6 +29,15 @@ class MultiChoiceAddressTest extends Specification {
         address.toString() == address.displayName
     }
 
+    def "display name includes Unix domain socket"() {
+        InetAddress candidate = InetAddress.getByName("1.1.1.1")
+        UUID uuid = UUID.randomUUID()
+        def address = new MultiChoiceAddress(uuid, 1234, [candidate]).withUnixSocketPath("/tmp/gradle-123/socket")
+
+        expect:
+        address.displayName == "[${uuid} port:1234, addresses:[/1.1.1.1], unix socket:/tmp/gradle-123/socket]"
+    }
+
     def "addresses are equal when their canonical id and port and candidate addresses are equal"() {
         InetAddress address1 = InetAddress.getByName("1.1.1.1")
         InetAddress address2 = InetAddress.getByName("1.0.0.1")
@@ -39,11 +48,13 @@ class MultiChoiceAddressTest extends Specification {
         def differentPort = new MultiChoiceAddress(id, 1567, [address1])
         def differentCandidates = new MultiChoiceAddress(id, 1234, [address2])
         def differentCanonical = new MultiChoiceAddress(otherId, 1234, [address1])
+        def differentUnixSocket = new MultiChoiceAddress(id, 1234, [address1], "/tmp/socket")
 
         expect:
         address Matchers.strictlyEqual(same)
         address != differentCandidates
         address != differentPort
         address != differentCanonical
+        address != differentUnixSocket
     }
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.remote.internal.inet
+
+import org.gradle.api.Action
+import org.gradle.internal.id.UUIDGenerator
+import org.gradle.internal.remote.internal.ConnectCompletion
+import org.gradle.internal.serialize.BaseSerializerFactory
+import org.gradle.internal.serialize.Serializers
+import org.gradle.test.fixtures.concurrent.ConcurrentSpec
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.test.precondition.Requires
+import org.gradle.test.preconditions.JdkVersionTestPreconditions
+import org.gradle.test.preconditions.OsTestPreconditions
+import org.junit.Rule
+import spock.lang.Shared
+import spock.lang.Timeout
+
+@Timeout(60)
+@Requires([JdkVersionTestPreconditions.Jdk16OrLater, OsTestPreconditions.NotWindows])
+class UnixDomainSocketConnectorTest extends ConcurrentSpec {
+    @Rule
+    TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider(getClass())
+    @Shared def serializer = Serializers.stateful(BaseSerializerFactory.STRING_SERIALIZER)
+    final def tcpIncomingConnector = new TcpIncomingConnector(executorFactory, new InetAddressFactory(), new UUIDGenerator(), 1)
+    // Use the system temporary directory, as the test directory may be too deep for a socket path
+    final def incomingConnector = new UnixDomainSocketIncomingConnector(tcpIncomingConnector, executorFactory)
+    final def outgoingConnector = new UnixDomainSocketOutgoingConnector(new TcpOutgoingConnector())
+
+    def "client connects over Unix domain socket"() {
+        when:
+        def acceptor = incomingConnector.accept({ ConnectCompletion completion ->
+            def conn = completion.create(serializer)
+            conn.dispatch("hello")
+            conn.stop()
+        } as Action, false)
+        def connection = outgoingConnector.connect(acceptor.address).create(serializer)
+
+        then:
+        acceptor.address.unixSocketPath != null
+        connection.toString().contains(acceptor.address.unixSocketPath)
+        connection.receive() == "hello"
+
+        cleanup:
+        connection?.stop()
+        acceptor?.stop()
+    }
+
+    def "client that cannot use Unix domain sockets connects over TCP"() {
+        when:
+        def acceptor = incomingConnector.accept({ ConnectCompletion completion ->
+            def conn = completion.create(serializer)
+            conn.dispatch("hello")
+            conn.stop()
+        } as Action, false)
+        def connection = new TcpOutgoingConnector().connect(acceptor.address).create(serializer)
+
+        then:
+        connection.receive() == "hello"
+
+        cleanup:
+        connection?.stop()
+        acceptor?.stop()
+    }
+
+    def "client falls back to TCP when socket is not available"() {
+        when:
+        def acceptor = incomingConnector.accept({ ConnectCompletion completion ->
+            def conn = completion.create(serializer)
+            conn.dispatch("hello")
+            conn.stop()
+        } as Action, false)
+        new File(acceptor.address.unixSocketPath).delete()
+        def connection = outgoingConnector.connect(acceptor.address).create(serializer)
+
+        then:
+        !connection.toString().contains("unix:")
+        connection.receive() == "hello"
+
+        cleanup:
+        connection?.stop()
+        acceptor?.stop()
+    }
+
+    def "deletes socket when stopped"() {
+        when:
+        def acceptor = incomingConnector.accept(Mock(Action), false)
+        def socketFile = new File(acceptor.address.unixSocketPath)
+
+        then:
+        socketFile.exists()
+
+        when:
+        acceptor.stop()
+
+        then:
+        !socketFile.exists()
+        !socketFile.parentFile.exists()
+    }
+
+    def "only uses TCP when remote connections are allowed"() {
+        when:
+        def acceptor = incomingConnector.accept(Mock(Action), true)
+
+        then:
+        acceptor.address.unixSocketPath == null
+
+        cleanup:
+        acceptor?.stop()
+    }
+
+    def "only uses TCP when socket path is too long"() {
+        def longDir = tmpDir.createDir("x" * UnixDomainSockets.MAX_PATH_LENGTH)
+        def connector = new UnixDomainSocketIncomingConnector(tcpIncomingConnector, executorFactory, longDir)
+
+        when:
+        def acceptor = connector.accept(Mock(Action), false)
+
+        then:
+        acceptor.address.unixSocketPath == null
+        longDir.list().length == 0
+
+        cleanup:
+        acceptor?.stop()
+    }
+}
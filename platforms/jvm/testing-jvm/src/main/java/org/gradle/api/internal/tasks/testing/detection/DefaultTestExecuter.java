@@ -30,19 +30,25 @@
 import org.gradle.api.internal.tasks.testing.processors.PatternMatchTestDefinitionProcessor;
 import org.gradle.api.internal.tasks.testing.processors.RestartEveryNTestDefinitionProcessor;
 import org.gradle.api.internal.tasks.testing.processors.RunPreviousFailedFirstTestDefinitionProcessor;
+import org.gradle.api.internal.tasks.testing.processors.TestDefinitionDurationEstimator;
 import org.gradle.api.internal.tasks.testing.processors.TestMainAction;
 import org.gradle.api.internal.tasks.testing.results.TestRetryShieldingTestResultProcessor;
 import org.gradle.api.internal.tasks.testing.worker.ForkedTestClasspath;
 import org.gradle.api.internal.tasks.testing.worker.ForkingTestDefinitionProcessor;
+import org.gradle.api.internal.tasks.testing.worker.ReusingTestDefinitionProcessor;
+import org.gradle.api.internal.tasks.testing.worker.TestWorkerReuse;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
 import org.gradle.internal.Cast;
 import org.gradle.internal.Factory;
 import org.gradle.internal.actor.ActorFactory;
+import org.gradle.internal.buildoption.InternalOption;
+import org.gradle.internal.buildoption.InternalOptions;
 import org.gradle.internal.time.Clock;
 import org.gradle.internal.work.WorkerLeaseService;
 import org.gradle.process.internal.worker.WorkerProcessFactory;
 import org.gradle.util.internal.IncubationLogger;
+import org.jspecify.annotations.Nullable;
 
 import java.io.File;
 import java.util.ArrayList;
@@ -56,6 +62,27 @@ public class DefaultTestExecuter implements TestExecuter<JvmTestExecutionSpec> {
 
     private static final Logger LOGGER = Logging.getLogger(DefaultTestExecuter.class);
 
+    /**
+     * Runs tests in pooled workers that are reused by later test tasks started with the same options, see {@link ReusingTestDefinitionProcessor}.
+     */
+    public static final InternalOption<Boolean> REUSE_WORKERS = InternalOptions.ofBoolean("org.gradle.internal.testing.reuse-workers", false);
+
+    /**
+     * The number of test tasks a reused worker runs before it is stopped.
+     */
+    public static final InternalOption<Integer> REUSED_WORKER_MAX_USES = InternalOptions.ofInt("org.gradle.internal.testing.reuse-workers.max-uses", 50);
+
+    /**
+     * The share of its maximum heap that a reused worker may still use after running a test task's tests, before it is stopped.
+     */
+    public static final InternalOption<Integer> REUSED_WORKER_MAX_HEAP_USAGE_PERCENT = InternalOptions.ofInt("org.gradle.internal.testing.reuse-workers.max-heap-usage-percent", 50);
+
+    /**
+     * Merges the output events of tests in the test workers before sending them to the build process. The merged events carry the time of
+     * their first line, and output still pending when a worker dies without stopping is lost.
+     */
+    public static final InternalOption<Boolean> BATCH_OUTPUT = InternalOptions.ofBoolean("org.gradle.internal.testing.batch-output", false);
+
     private final WorkerProcessFactory workerFactory;
     private final ActorFactory actorFactory;
     private final ForkedTestClasspathFactory testClasspathFactory;
@@ -63,12 +90,13 @@ public class DefaultTestExecuter implements TestExecuter<JvmTestExecutionSpec> {
     private final int maxWorkerCount;
     private final Clock clock;
     private final DefaultTestFilter testFilter;
+    private final @Nullable TestWorkerReuse workerReuse;
     private TestDefinitionProcessor<TestDefinition> processor;
 
     public DefaultTestExecuter(
         WorkerProcessFactory workerFactory, ActorFactory actorFactory, ModuleRegistry moduleRegistry,
         WorkerLeaseService workerLeaseService, int maxWorkerCount,
-        Clock clock, DefaultTestFilter testFilter
+        Clock clock, DefaultTestFilter testFilter, @Nullable TestWorkerReuse workerReuse
     ) {
         this.workerFactory = workerFactory;
         this.actorFactory = actorFactory;
@@ -77,6 +105,7 @@ public DefaultTestExecuter(
         this.maxWorkerCount = maxWorkerCount;
         this.clock = clock;
         this.testFilter = testFilter;
+        this.workerReuse = workerReuse;
     }
 
     @Override
@@ -94,12 +123,18 @@ public void execute(final JvmTestExecutionSpec testExecutionSpec, TestResultProc
             testExecutionSpec.getModulePath()
         );
 
-        final Factory<TestDefinitionProcessor<TestDefinition>> forkingProcessorFactory = () -> new ForkingTestDefinitionProcessor<>(workerLeaseService, workerFactory, testInstanceFactory, testExecutionSpec.getJavaForkOptions(), classpath, testFramework.getWorkerConfigurationAction());
+        final Factory<TestDefinitionProcessor<TestDefinition>> forkingProcessorFactory;
+        if (workerReuse != null && testExecutionSpec.getForkEvery() == 0 && ReusingTestDefinitionProcessor.canReuseWorkers(classpath)) {
+            forkingProcessorFactory = () -> new ReusingTestDefinitionProcessor<>(workerLeaseService, workerFactory, workerReuse, testInstanceFactory, testExecutionSpec.getJavaForkOptions(), classpath, testFramework.getWorkerConfigurationAction());
+        } else {
+            forkingProcessorFactory = () -> new ForkingTestDefinitionProcessor<>(workerLeaseService, workerFactory, testInstanceFactory, testExecutionSpec.getJavaForkOptions(), classpath, testFramework.getWorkerConfigurationAction());
+        }
         final Factory<TestDefinitionProcessor<TestDefinition>> reforkingProcessorFactory = () -> new RestartEveryNTestDefinitionProcessor<>(forkingProcessorFactory, testExecutionSpec.getForkEvery());
+        final TestDefinitionDurationEstimator durationEstimator = new TestDefinitionDurationEstimator(testExecutionSpec.getPreviousTestClassDurations());
         processor =
             new PatternMatchTestDefinitionProcessor<>(testFilter,
-                new RunPreviousFailedFirstTestDefinitionProcessor<>(testExecutionSpec.getPreviousFailedTestClasses(), Collections.emptySet(),
-                    new MaxNParallelTestDefinitionProcessor<>(getMaxParallelForks(testExecutionSpec), reforkingProcessorFactory, actorFactory)));
+                new RunPreviousFailedFirstTestDefinitionProcessor<>(testExecutionSpec.getPreviousFailedTestClasses(), Collections.emptySet(), durationEstimator,
+                    new MaxNParallelTestDefinitionProcessor<>(getMaxParallelForks(testExecutionSpec), reforkingProcessorFactory, actorFactory, durationEstimator)));
 
         final FileTree testClassFiles = testExecutionSpec.getCandidateClassFiles();
         final Set<File> testDefinitionDirs = testExecutionSpec.getCandidateTestDefinitionDirs();
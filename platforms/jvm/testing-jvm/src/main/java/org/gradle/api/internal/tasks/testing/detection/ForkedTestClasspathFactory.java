@@ -45,7 +45,8 @@ public ForkedTestClasspath create(
         return new ForkedTestClasspath(
             ImmutableList.copyOf(classpath),
             ImmutableList.copyOf(modulepath),
-            withImplementation(ImmutableList.of())
+            withImplementation(ImmutableList.of()),
+            ImmutableList.copyOf(moduleRegistry.getModule("gradle-testing-jvm-infrastructure").getImplementationClasspath().getAsURLs())
         );
     }
 
@@ -42,7 +42,9 @@
 import org.gradle.api.internal.tasks.testing.junitplatform.JUnitPlatformTestFramework;
 import org.gradle.api.internal.tasks.testing.results.serializable.SerializableTestResultStore;
 import org.gradle.api.internal.tasks.testing.testng.TestNGTestFramework;
+import org.gradle.api.internal.tasks.testing.worker.ReusableTestWorkerPool;
 import org.gradle.api.internal.tasks.testing.worker.TestWorker;
+import org.gradle.api.internal.tasks.testing.worker.TestWorkerReuse;
 import org.gradle.api.jvm.ModularitySpec;
 import org.gradle.api.model.ObjectFactory;
 import org.gradle.api.provider.Property;
@@ -70,6 +72,7 @@
 import org.gradle.internal.Cast;
 import org.gradle.internal.UncheckedException;
 import org.gradle.internal.actor.ActorFactory;
+import org.gradle.internal.buildoption.InternalOptions;
 import org.gradle.internal.concurrent.CompositeStoppable;
 import org.gradle.internal.deprecation.DeprecationLogger;
 import org.gradle.internal.instrumentation.api.annotations.NotToBeReplacedByLazyProperty;
@@ -101,6 +104,7 @@
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -689,14 +693,19 @@ protected JvmTestExecutionSpec createTestExecutionSpec() {
         JavaForkOptions javaForkOptions = getForkOptionsFactory().newJavaForkOptions();
         copyTo(javaForkOptions);
         javaForkOptions.systemProperty(TestWorker.WORKER_TMPDIR_SYS_PROPERTY, new File(getTemporaryDir(), "work"));
+        if (getServices().get(InternalOptions.class).getValue(DefaultTestExecuter.BATCH_OUTPUT)) {
+            javaForkOptions.systemProperty(TestWorker.BATCH_OUTPUT_SYS_PROPERTY, true);
+        }
         JavaModuleDetector javaModuleDetector = getJavaModuleDetector();
         boolean testIsModule = javaModuleDetector.isModule(modularity.getInferModulePath().get(), getTestClassesDirs());
         FileCollection classpath = javaModuleDetector.inferClasspath(testIsModule, stableClasspath);
         FileCollection modulePath = javaModuleDetector.inferModulePath(testIsModule, stableClasspath);
         Set<File> candidateTestDefinitionDirs = determineCandidateTestDefinitionDirs();
+        PreviousTestResults previousTestResults = readPreviousTestResults();
         return new JvmTestExecutionSpec(getTestFramework(), classpath, modulePath,
             getCandidateClassFiles(), isScanForTestClasses(), candidateTestDefinitionDirs,
-            getTestClassesDirs(), getPath(), getIdentityPath(), getForkEvery(), javaForkOptions, getMaxParallelForks(), getPreviousFailedTestClasses(), testIsModule);
+            getTestClassesDirs(), getPath(), getIdentityPath(), getForkEvery(), javaForkOptions, getMaxParallelForks(),
+            previousTestResults.failedTestClasses, previousTestResults.testClassDurations, testIsModule);
     }
 
     private Set<File> determineCandidateTestDefinitionDirs() {
@@ -734,11 +743,12 @@ private void validateExecutableMatchesToolchain() {
             toolchainExecutable, "toolchain from `javaLauncher` property");
     }
 
-    private Set<String> getPreviousFailedTestClasses() {
+    private PreviousTestResults readPreviousTestResults() {
         SerializableTestResultStore store = new SerializableTestResultStore(getBinaryResultsDirectory().getAsFile().get().toPath());
         // We ignore if we can't read the old results file, as this is just an optimization.
         if (store.hasResultsSafe()) {
             final Set<String> previousFailedTestClasses = new HashSet<>();
+            final Map<String, Long> previousTestClassDurations = new HashMap<>();
             try {
                 store.forEachResult((id, parentId, result, ranges) -> {
                     // Test class descriptors set both name and class name to the test class name
@@ -746,14 +756,25 @@ private Set<String> getPreviousFailedTestClasses() {
                         if (result.getResultType() == TestResult.ResultType.FAILURE) {
                             previousFailedTestClasses.add(result.getClassName());
                         }
+                        previousTestClassDurations.merge(result.getClassName(), result.getDuration(), Long::sum);
                     }
                 });
             } catch (Exception e) {
                 throw UncheckedException.throwAsUncheckedException(e);
             }
-            return previousFailedTestClasses;
+            return new PreviousTestResults(previousFailedTestClasses, previousTestClassDurations);
         } else {
-            return Collections.emptySet();
+            return new PreviousTestResults(Collections.emptySet(), Collections.emptyMap());
+        }
+    }
+
+    private static class PreviousTestResults {
+        private final Set<String> failedTestClasses;
+        private final Map<String, Long> testClassDurations;
+
+        PreviousTestResults(Set<String> failedTestClasses, Map<String, Long> testClassDurations) {
+            this.failedTestClasses = failedTestClasses;
+            this.testClassDurations = testClassDurations;
         }
     }
 
@@ -788,12 +809,26 @@ protected TestExecuter<JvmTestExecutionSpec> createTestExecuter() {
                 getServices().get(WorkerLeaseService.class),
                 getServices().get(StartParameter.class).getMaxWorkerCount(),
                 getServices().get(Clock.class),
-                (DefaultTestFilter) getFilter());
+                (DefaultTestFilter) getFilter(),
+                createTestWorkerReuse());
         } else {
             return testExecuter;
         }
     }
 
+    @Nullable
+    private TestWorkerReuse createTestWorkerReuse() {
+        InternalOptions internalOptions = getServices().get(InternalOptions.class);
+        if (!internalOptions.getValue(DefaultTestExecuter.REUSE_WORKERS)) {
+            return null;
+        }
+        return new TestWorkerReuse(
+            getServices().get(ReusableTestWorkerPool.class),
+            internalOptions.getValue(DefaultTestExecuter.REUSED_WORKER_MAX_USES),
+            internalOptions.getValue(DefaultTestExecuter.REUSED_WORKER_MAX_HEAP_USAGE_PERCENT)
+        );
+    }
+
     @Override
     protected List<String> getNoMatchingTestErrorReasons() {
         List<String> reasons = new ArrayList<>();
@@ -745,6 +745,40 @@ This can indicate that a dependency has been compromised. Please carefully verif
         stop << [true, false]
     }
 
+    def "re-verifies artifacts verified by a previous build when the verification metadata changes"() {
+        def foo = uncheckedModule("org", "foo")
+        createMetadataFile {
+            addChecksum(foo, "sha1")
+            addChecksum(foo, "sha1", "pom", "pom")
+        }
+
+        given:
+        terseConsoleOutput(false)
+        javaLibrary()
+        buildFile << """
+            dependencies {
+                implementation "org:foo:1.0"
+            }
+        """
+
+        when:
+        succeeds ':compileJava'
+
+        then:
+        noExceptionThrown()
+
+        when:
+        replaceMetadataFile {
+            addChecksum("org:foo:1.0", "sha1", "invalid")
+            addChecksum(foo, "sha1", "pom", "pom")
+        }
+        fails ':compileJava'
+
+        then:
+        failure.assertHasCause """Dependency verification failed for configuration ':compileClasspath':
+  - On artifact foo-1.0.jar (org:foo:1.0) in repository 'maven': expected a 'sha1' checksum of 'invalid' but was '${getChecksum(foo, "sha1")}'"""
+    }
+
     def "can skip verification of metadata"() {
         given:
         javaLibrary()
@@ -956,8 +956,8 @@ This can indicate that a dependency has been compromised. Please carefully verif
     }
 
 
-    // This test exercises the fact that the signature cache is aware
-    // of changes of the artifact
+    // This test exercises the fact that the signature cache and the cache
+    // of verified artifacts are aware of changes of the artifact
     def "can detect tampered file between builds (terse output=#terse)"() {
         createMetadataFile {
             keyServer(keyServerFixture.uri)
@@ -1063,6 +1063,136 @@ If the artifacts are trustworthy, you will need to update the gradle/verificatio
         terse << [true, false]
     }
 
+    def "re-verifies artifacts verified by a previous build when their signature is replaced"() {
+        createMetadataFile {
+            keyServer(keyServerFixture.uri)
+            verifySignatures()
+            addTrustedKey("org:foo:1.0", validPublicKeyHexString)
+            addTrustedKey("org:foo:1.0", validPublicKeyHexString, "pom", "pom")
+        }
+        keyServerFixture.withDefaultSigningKey()
+        def keyring = newKeyRing()
+        keyServerFixture.registerPublicKey(keyring.publicKey)
+
+        given:
+        terseConsoleOutput(false)
+        javaLibrary()
+        def foo = uncheckedModule("org", "foo", "1.0") {
+            withSignature {
+                signAsciiArmored(it)
+            }
+        }
+        buildFile << """
+            dependencies {
+                implementation "org:foo:1.0"
+            }
+        """
+
+        when:
+        succeeds ":compileJava"
+
+        then:
+        noExceptionThrown()
+
+        when:
+        def version = new File(CacheLayout.FILE_STORE.getPath(metadataCacheDir), "org/foo/1.0")
+        def signatureFile = version.listFiles().collect { new File(it, "foo-1.0.jar.asc") }.find { it.exists() }
+        signatureFile.bytes = keyring.sign(foo.artifactFile).bytes
+        fails ":compileJava"
+
+        then:
+        failure.assertHasCause """Dependency verification failed for configuration ':compileClasspath':
+  - On artifact foo-1.0.jar (org:foo:1.0) in repository 'maven': Artifact was signed with key '${Fingerprint.of(keyring.publicKey)}'"""
+    }
+
+    @UnsupportedWithConfigurationCache(because = "the keyring is not an input of the configuration cache entry")
+    def "re-verifies artifacts verified by a previous build when the keyring changes"() {
+        // key will not be published on the server fixture but available locally
+        def keyring = newKeyRing()
+        def pkId = toHexString(keyring.publicKey.fingerprint)
+        createMetadataFile {
+            disableKeyServers()
+            verifySignatures()
+            addTrustedKey("org:foo:1.0", pkId)
+            addTrustedKey("org:foo:1.0", pkId, "pom", "pom")
+        }
+        def keyringFile = file("gradle/verification-keyring.keys")
+        keyring.writePublicKeyRingTo(keyringFile)
+
+        given:
+        terseConsoleOutput(false)
+        javaLibrary()
+        uncheckedModule("org", "foo", "1.0") {
+            withSignature {
+                keyring.sign(it)
+            }
+        }
+        buildFile << """
+            dependencies {
+                implementation "org:foo:1.0"
+            }
+        """
+
+        when:
+        succeeds ":compileJava"
+
+        then:
+        noExceptionThrown()
+
+        when:
+        newKeyRing().writePublicKeyRingTo(keyringFile)
+        fails ":compileJava"
+
+        then:
+        failure.assertHasCause """Dependency verification failed for configuration ':compileClasspath':
+  - On artifact foo-1.0.jar (org:foo:1.0) in repository 'maven': Artifact was signed with key"""
+    }
+
+    @UnsupportedWithConfigurationCache(because = "the configuration cache entry is reused when refreshing keys")
+    def "does not reuse verification results of a previous build when refreshing keys"() {
+        createMetadataFile {
+            keyServer(keyServerFixture.uri)
+            verifySignatures()
+            addTrustedKey("org:foo:1.0", validPublicKeyHexString)
+            addTrustedKey("org:foo:1.0", validPublicKeyHexString, "pom", "pom")
+        }
+        keyServerFixture.withDefaultSigningKey()
+
+        given:
+        terseConsoleOutput(false)
+        javaLibrary()
+        uncheckedModule("org", "foo", "1.0") {
+            withSignature {
+                signAsciiArmored(it)
+            }
+        }
+        buildFile << """
+            dependencies {
+                implementation "org:foo:1.0"
+            }
+        """
+
+        when:
+        succeeds ":compileJava"
+
+        then:
+        noExceptionThrown()
+
+        when: "the key server becomes unavailable"
+        keyServerFixture.stop()
+        succeeds ":compileJava"
+
+        then: "the previous results are reused"
+        noExceptionThrown()
+
+        when:
+        fails ":compileJava", "--refresh-keys"
+
+        then: "the artifacts are verified again"
+        failure.assertHasCause """Dependency verification failed for configuration ':compileClasspath':
+  - On artifact foo-1.0.jar (org:foo:1.0) in repository 'maven': Artifact was signed with key"""
+    }
+
     def "unsigned artifacts require checksum verification (terse output=#terse)"() {
         createMetadataFile {
             keyServer(keyServerFixture.uri)
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser;
+
+import org.apache.commons.io.IOUtils;
+import org.gradle.internal.xml.XmlFactories;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Compares the streaming POM parser with parsing POMs into a DOM, as Gradle did before.
+ * <p>
+ * By default, the POMs bundled with the benchmark are parsed. Set the {@code corpus} parameter to a directory,
+ * such as a local Maven repository, to parse all the POMs found in it instead.
+ */
+@Fork(1)
+@Threads(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class PomParserBenchmark {
+    private static final String[] BUNDLED_POMS = {"library.pom", "bom.pom"};
+
+    @Param({""})
+    String corpus;
+
+    private final List<byte[]> poms = new ArrayList<>();
+    private DocumentBuilderFactory documentBuilderFactory;
+    private byte[] m2Entities;
+
+    @Setup
+    public void setup() throws IOException {
+        if (corpus.isEmpty()) {
+            for (String name : BUNDLED_POMS) {
+                try (InputStream inputStream = PomParserBenchmark.class.getResourceAsStream(name)) {
+                    poms.add(IOUtils.toByteArray(inputStream));
+                }
+            }
+        } else {
+            try (Stream<Path> files = Files.walk(Paths.get(corpus))) {
+                for (Path file : (Iterable<Path>) files.filter(path -> path.toString().endsWith(".pom"))::iterator) {
+                    poms.add(Files.readAllBytes(file));
+                }
+            }
+        }
+        if (poms.isEmpty()) {
+            throw new IllegalStateException("No POMs found in " + corpus);
+        }
+        documentBuilderFactory = XmlFactories.newDocumentBuilderFactory();
+        documentBuilderFactory.setValidating(false);
+        m2Entities = IOUtils.toByteArray(org.apache.ivy.plugins.parser.m2.PomReader.class.getResourceAsStream("m2-entities.ent"));
+    }
+
+    @Benchmark
+    public void dom(Blackhole blackhole) throws Exception {
+        for (byte[] pom : poms) {
+            DocumentBuilder documentBuilder = documentBuilderFactory.newDocumentBuilder();
+            documentBuilder.setEntityResolver((publicId, systemId) -> {
+                if ((systemId != null) && systemId.endsWith("m2-entities.ent")) {
+                    return new InputSource(new ByteArrayInputStream(m2Entities));
+                }
+                return null;
+            });
+            Document document = documentBuilder.parse(new PomXmlParser.AddDTDFilterInputStream(new ByteArrayInputStream(pom)), "pom.xml");
+            blackhole.consume(document);
+        }
+    }
+
+    @Benchmark
+    public void streaming(Blackhole blackhole) throws Exception {
+        for (byte[] pom : poms) {
+            blackhole.consume(PomXmlParser.parse(pom, "pom.xml"));
+        }
+    }
+}
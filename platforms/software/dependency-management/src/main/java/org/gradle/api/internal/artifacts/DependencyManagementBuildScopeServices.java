@@ -325,7 +325,8 @@ DependencyVerificationOverride createDependencyVerificationOverride(
         ListenerManager listenerManager,
         BuildCommencedTimeProvider timeProvider,
         ServiceRegistry serviceRegistry,
-        FileResourceListener fileResourceListener
+        FileResourceListener fileResourceListener,
+        BuildScopedCacheBuilderFactory buildScopedCacheBuilderFactory
     ) {
         DependencyVerificationOverride override = startParameterResolutionOverride.dependencyVerificationOverride(
             buildOperationExecutor,
@@ -334,7 +335,8 @@ DependencyVerificationOverride createDependencyVerificationOverride(
             documentationRegistry,
             timeProvider,
             () -> serviceRegistry.get(GradleProperties.class),
-            fileResourceListener
+            fileResourceListener,
+            buildScopedCacheBuilderFactory
         );
         registerBuildFinishedHooks(listenerManager, override);
         return override;
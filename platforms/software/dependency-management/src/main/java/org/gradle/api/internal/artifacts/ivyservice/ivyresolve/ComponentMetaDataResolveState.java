@@ -31,15 +31,21 @@ class ComponentMetaDataResolveState {
     private final ModuleComponentIdentifier componentIdentifier;
 
     final ModuleComponentRepository<ExternalModuleComponentGraphResolveState> repository;
+    private final boolean speculative;
 
     private boolean searchedLocally;
     private boolean searchedRemotely;
 
     public ComponentMetaDataResolveState(ModuleComponentIdentifier componentIdentifier, ComponentOverrideMetadata componentOverrideMetadata, ModuleComponentRepository<ExternalModuleComponentGraphResolveState> repository, VersionedComponentChooser versionedComponentChooser) {
+        this(componentIdentifier, componentOverrideMetadata, repository, versionedComponentChooser, false);
+    }
+
+    public ComponentMetaDataResolveState(ModuleComponentIdentifier componentIdentifier, ComponentOverrideMetadata componentOverrideMetadata, ModuleComponentRepository<ExternalModuleComponentGraphResolveState> repository, VersionedComponentChooser versionedComponentChooser, boolean speculative) {
         this.componentOverrideMetadata = componentOverrideMetadata;
         this.componentIdentifier = componentIdentifier;
         this.repository = repository;
         this.versionedComponentChooser = versionedComponentChooser;
+        this.speculative = speculative;
         this.resolveResult = new DefaultBuildableModuleComponentMetaDataResolveResult<>();
     }
 
@@ -59,7 +65,7 @@ BuildableModuleComponentMetaDataResolveResult<ExternalModuleComponentGraphResolv
 
         if (!searchedRemotely) {
             searchedRemotely = true;
-            process(repository.getRemoteAccess());
+            process(speculative ? repository.getSpeculativeRemoteAccess() : repository.getRemoteAccess());
             return resolveResult;
         }
 
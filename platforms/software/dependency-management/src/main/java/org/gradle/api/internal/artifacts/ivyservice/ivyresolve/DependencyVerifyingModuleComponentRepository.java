@@ -86,6 +86,12 @@ public ModuleComponentRepositoryAccess<ExternalModuleComponentGraphResolveState>
         return remoteAccess;
     }
 
+    @Override
+    public ModuleComponentRepositoryAccess<ExternalModuleComponentGraphResolveState> getSpeculativeRemoteAccess() {
+        // Speculative requests only populate the caches, what they fetch is verified when it is read back through the local access
+        return delegate.getSpeculativeRemoteAccess();
+    }
+
     @Override
     public Map<ComponentArtifactIdentifier, ResolvableArtifact> getArtifactCache() {
         return delegate.getArtifactCache();
@@ -44,6 +44,7 @@
 import org.gradle.internal.resolve.result.ErroringResolveResult;
 
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.Callable;
 
 /**
@@ -51,7 +52,7 @@
  * This allows other repository implementations to throw exceptions on failure.
  *
  * This implementation will also disable any repository that throws a critical failure, failing-fast with that
- * repository for any subsequent requests.
+ * repository for any subsequent requests. Failures of speculative requests are reported, but never disable the repository.
  */
 public class ErrorHandlingModuleComponentRepository implements ModuleComponentRepository<ExternalModuleComponentGraphResolveState> {
 
@@ -59,6 +60,7 @@ public class ErrorHandlingModuleComponentRepository implements ModuleComponentRe
     private final ErrorHandlingModuleComponentRepositoryAccess local;
     private final RepositoryDisabler remoteRepositoryDisabler;
     private final ErrorHandlingModuleComponentRepositoryAccess remote;
+    private final ErrorHandlingModuleComponentRepositoryAccess speculativeRemote;
 
     @SuppressWarnings("this-escape")
     public ErrorHandlingModuleComponentRepository(ModuleComponentRepository<ExternalModuleComponentGraphResolveState> delegate, RepositoryDisabler remoteRepositoryDisabler) {
@@ -66,6 +68,8 @@ public ErrorHandlingModuleComponentRepository(ModuleComponentRepository<External
         this.remoteRepositoryDisabler = remoteRepositoryDisabler;
         this.local = new ErrorHandlingModuleComponentRepositoryAccess(delegate.getLocalAccess(), getId(), RepositoryDisabler.NoOpDisabler.INSTANCE, getName(), false);
         this.remote = new ErrorHandlingModuleComponentRepositoryAccess(delegate.getRemoteAccess(), getId(), remoteRepositoryDisabler, getName(), isContinueOnConnectionFailure());
+        // A speculative request is not retried, as nothing waits for it
+        this.speculativeRemote = new ErrorHandlingModuleComponentRepositoryAccess(delegate.getRemoteAccess(), getId(), new NonDisablingRepositoryDisabler(remoteRepositoryDisabler), 1, 0, getName(), isContinueOnConnectionFailure());
     }
 
     @Override
@@ -93,6 +97,11 @@ public ModuleComponentRepositoryAccess<ExternalModuleComponentGraphResolveState>
         return remote;
     }
 
+    @Override
+    public ModuleComponentRepositoryAccess<ExternalModuleComponentGraphResolveState> getSpeculativeRemoteAccess() {
+        return speculativeRemote;
+    }
+
     @Override
     public Map<ComponentArtifactIdentifier, ResolvableArtifact> getArtifactCache() {
         return delegate.getArtifactCache();
@@ -113,6 +122,32 @@ public boolean isRepositoryDisabled() {
         return remoteRepositoryDisabler.isDisabled(getId()) || delegate.isRepositoryDisabled();
     }
 
+    /**
+     * Honours the repositories disabled by other requests, without disabling any.
+     */
+    private static final class NonDisablingRepositoryDisabler implements RepositoryDisabler {
+        private final RepositoryDisabler delegate;
+
+        private NonDisablingRepositoryDisabler(RepositoryDisabler delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean isDisabled(String repositoryId) {
+            return delegate.isDisabled(repositoryId);
+        }
+
+        @Override
+        public Optional<Throwable> getDisabledReason(String repositoryId) {
+            return delegate.getDisabledReason(repositoryId);
+        }
+
+        @Override
+        public boolean tryDisableRepository(String repositoryId, Throwable throwable, boolean retriesExceeded) {
+            return false;
+        }
+    }
+
     private static final class ErrorHandlingModuleComponentRepositoryAccess implements ModuleComponentRepositoryAccess<ExternalModuleComponentGraphResolveState> {
         private static final Logger LOGGER = Logging.getLogger(ErrorHandlingModuleComponentRepositoryAccess.class);
         private final static String MAX_TENTATIVES_BEFORE_DISABLING = "org.gradle.internal.repository.max.tentatives";
@@ -74,6 +74,11 @@ public ModuleComponentRepositoryAccess<ExternalModuleComponentGraphResolveState>
         return new FilteringAccess(delegate.getRemoteAccess());
     }
 
+    @Override
+    public ModuleComponentRepositoryAccess<ExternalModuleComponentGraphResolveState> getSpeculativeRemoteAccess() {
+        return new FilteringAccess(delegate.getSpeculativeRemoteAccess());
+    }
+
     @Override
     public Map<ComponentArtifactIdentifier, ResolvableArtifact> getArtifactCache() {
         return delegate.getArtifactCache();
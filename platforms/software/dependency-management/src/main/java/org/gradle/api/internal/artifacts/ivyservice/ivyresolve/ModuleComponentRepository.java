@@ -55,6 +55,14 @@
      */
     ModuleComponentRepositoryAccess<T> getRemoteAccess();
 
+    /**
+     * Accessor that attempts to locate module components remotely for a speculative request, such as a metadata prefetch.
+     * Failures are reported in the result, but unlike with {@link #getRemoteAccess()}, they never disable the repository.
+     */
+    default ModuleComponentRepositoryAccess<T> getSpeculativeRemoteAccess() {
+        return getRemoteAccess();
+    }
+
     // TODO - put this somewhere else
     Map<ComponentArtifactIdentifier, ResolvableArtifact> getArtifactCache();
 
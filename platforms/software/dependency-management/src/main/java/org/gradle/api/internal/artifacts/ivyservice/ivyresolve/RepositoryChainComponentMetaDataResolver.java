@@ -24,7 +24,9 @@
 import org.gradle.internal.DisplayName;
 import org.gradle.internal.UncheckedException;
 import org.gradle.internal.component.external.model.ExternalModuleComponentGraphResolveState;
+import org.gradle.internal.component.model.ComponentGraphResolveState;
 import org.gradle.internal.component.model.ComponentOverrideMetadata;
+import org.gradle.internal.component.model.DefaultComponentOverrideMetadata;
 import org.gradle.internal.model.CalculatedValue;
 import org.gradle.internal.model.CalculatedValueFactory;
 import org.gradle.internal.resolve.ModuleVersionResolveException;
@@ -98,6 +100,25 @@ public boolean isFetchingMetadataCheap(ComponentIdentifier identifier) {
         return true;
     }
 
+    /**
+     * Fetches the metadata into the repository caches, bypassing the results recorded by {@link #resolve}, as these depend on the
+     * override metadata of the first request. Repositories are searched the same way, but a failure never disables a repository.
+     */
+    @Override
+    @Nullable
+    public ComponentGraphResolveState prefetch(ModuleComponentIdentifier identifier) {
+        List<ComponentMetaDataResolveState> resolveStates = new ArrayList<>();
+        for (ModuleComponentRepository<ExternalModuleComponentGraphResolveState> repository : repositories) {
+            resolveStates.add(new ComponentMetaDataResolveState(identifier, DefaultComponentOverrideMetadata.EMPTY, repository, versionedComponentChooser, true));
+        }
+        RepositoryFailureCollector errors = new RepositoryFailureCollector();
+        RepositoryChainModuleResolution resolution = findBestMatch(resolveStates, errors);
+        for (Throwable error : errors.getFailures()) {
+            LOGGER.debug("Discarding prefetch failure.", error);
+        }
+        return resolution == null ? null : resolution.component;
+    }
+
     private BuildableComponentResolveResult resolveModule(ModuleComponentIdentifier identifier, ComponentOverrideMetadata componentOverrideMetadata) {
         LOGGER.debug("Attempting to resolve component for {} using repositories {}", identifier, repositoryNames);
 
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.commons.io.IOUtils;
+import org.gradle.internal.buildoption.InternalOption;
+import org.gradle.internal.buildoption.InternalOptions;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.hash.Hashing;
+import org.gradle.internal.service.scopes.Scope;
+import org.gradle.internal.service.scopes.ServiceScope;
+import org.jspecify.annotations.Nullable;
+
+import javax.inject.Inject;
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Keeps the parsed content of recently read POMs, keyed by the hash of their content.
+ * <p>
+ * A parent POM is read again for each of its children, and a BOM for each POM that imports it.
+ * The cache holds the parsed elements only, as the properties of a POM depend on the child it is read for.
+ */
+@ServiceScope(Scope.BuildTree.class)
+public class ParsedPomCache {
+    /**
+     * The maximum number of elements retained across all cached POMs. Caching is disabled when set to 0.
+     */
+    public static final InternalOption<Integer> MAX_ELEMENTS_OPTION = InternalOptions.ofInt("org.gradle.internal.dependency-resolution.parsed-pom-cache.max-elements", 250_000);
+
+    public static final ParsedPomCache DISABLED = new ParsedPomCache(0);
+
+    @Nullable
+    private final Cache<HashCode, PomElement> cache;
+
+    @Inject
+    public ParsedPomCache(InternalOptions internalOptions) {
+        this(internalOptions.getInt(MAX_ELEMENTS_OPTION));
+    }
+
+    public ParsedPomCache(int maxElements) {
+        this.cache = maxElements > 0
+            ? CacheBuilder.newBuilder().maximumWeight(maxElements).<HashCode, PomElement>weigher((key, element) -> element.getElementCount()).build()
+            : null;
+    }
+
+    /**
+     * Returns the root element of the given POM content, parsing it if it has not been seen recently.
+     */
+    public PomElement parse(InputStream content, String systemId) throws IOException, XMLStreamException {
+        if (cache == null) {
+            return PomXmlParser.parse(content, systemId);
+        }
+        byte[] bytes = IOUtils.toByteArray(content);
+        HashCode hash = Hashing.hashBytes(bytes);
+        PomElement element = cache.getIfPresent(hash);
+        if (element == null) {
+            element = PomXmlParser.parse(bytes, systemId);
+            cache.put(hash, element);
+        }
+        return element;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser;
+
+import com.google.common.collect.ImmutableList;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * An element of a POM, as read by {@link PomXmlParser}. Instances are immutable and can be shared between the readers of the same POM.
+ * <p>
+ * Only the elements that are used to build the metadata of a module are retained.
+ */
+public final class PomElement {
+    private final String name;
+    private final String textContent;
+    private final ImmutableList<PomElement> children;
+    private final boolean gradleMetadataMarker;
+    private final int elementCount;
+
+    PomElement(String name, String textContent, ImmutableList<PomElement> children, boolean gradleMetadataMarker) {
+        this.name = name;
+        this.textContent = textContent;
+        this.children = children;
+        this.gradleMetadataMarker = gradleMetadataMarker;
+        int elementCount = 1;
+        for (PomElement child : children) {
+            elementCount += child.elementCount;
+        }
+        this.elementCount = elementCount;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the text directly contained in this element, including whitespace. Only retained for elements whose text is used.
+     */
+    public String getTextContent() {
+        return textContent;
+    }
+
+    public ImmutableList<PomElement> getChildren() {
+        return children;
+    }
+
+    @Nullable
+    public PomElement getFirstChild(String name) {
+        for (PomElement child : children) {
+            if (child.name.equals(name)) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    public String getFirstChildText(String name) {
+        PomElement child = getFirstChild(name);
+        return child == null ? null : child.textContent;
+    }
+
+    /**
+     * Returns true if a comment directly inside this element contains a Gradle metadata marker.
+     */
+    public boolean hasGradleMetadataMarker() {
+        return gradleMetadataMarker;
+    }
+
+    /**
+     * The number of elements in the tree rooted at this element.
+     */
+    int getElementCount() {
+        return elementCount;
+    }
+}
@@ -0,0 +1,364 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.commons.io.IOUtils;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.classloader.ClassLoaderUtils;
+import org.gradle.internal.xml.XmlFactories;
+import org.jspecify.annotations.Nullable;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.LineNumberReader;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Reads POMs with a streaming parser into a tree of {@link PomElement}s.
+ * <p>
+ * Only the elements used by {@link PomReader} are materialized. Everything else, such as the build, reporting or
+ * developer information that makes up most of a typical POM, is skipped while reading.
+ */
+public final class PomXmlParser {
+    private static final byte[] M2_ENTITIES_RESOURCE;
+    private static final XMLInputFactory INPUT_FACTORY;
+
+    // The elements read by PomReader, by parent element
+    private static final ElementFilter DEPENDENCIES = elements()
+        .child("dependency", elements()
+            .leaves("groupId", "artifactId", "version", "scope", "type", "classifier", "optional")
+            .child("exclusions", elements()
+                .child("exclusion", elements().leaves("groupId", "artifactId"))));
+
+    private static final ElementFilter DEPENDENCY_MANAGEMENT = elements()
+        .child("dependencies", DEPENDENCIES);
+
+    private static final ElementFilter PROJECT = elements()
+        .leaves("groupId", "artifactId", "version", "packaging")
+        .child("parent", elements().leaves("groupId", "artifactId", "version"))
+        .child("properties", ElementFilter.ALL_LEAVES)
+        .child("dependencies", DEPENDENCIES)
+        .child("dependencyManagement", DEPENDENCY_MANAGEMENT)
+        .child("distributionManagement", elements()
+            .child("relocation", elements().leaves("groupId", "artifactId", "version")))
+        .child("profiles", elements()
+            .child("profile", elements()
+                .leaves("id")
+                .child("activation", elements()
+                    .leaves("activeByDefault")
+                    .child("property", elements().leaves("name")))
+                .child("properties", ElementFilter.ALL_LEAVES)
+                .child("dependencies", DEPENDENCIES)
+                .child("dependencyManagement", DEPENDENCY_MANAGEMENT)));
+
+    static {
+        byte[] bytes;
+        try {
+            bytes = IOUtils.toByteArray(org.apache.ivy.plugins.parser.m2.PomReader.class.getResourceAsStream("m2-entities.ent"));
+        } catch (IOException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+        M2_ENTITIES_RESOURCE = bytes;
+
+        // Set the context classloader the bootstrap classloader, to work around the way that JAXP locates implementation classes
+        // This should ensure that the JAXP classes provided by the JVM are used, rather than some other implementation
+        ClassLoader original = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(ClassLoaderUtils.getPlatformClassLoader());
+        try {
+            INPUT_FACTORY = XmlFactories.newXMLInputFactory();
+            INPUT_FACTORY.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+            INPUT_FACTORY.setProperty(XMLInputFactory.IS_COALESCING, true);
+            INPUT_FACTORY.setXMLResolver((publicId, systemId, baseUri, namespace) -> {
+                if ((systemId != null) && systemId.endsWith("m2-entities.ent")) {
+                    return new ByteArrayInputStream(M2_ENTITIES_RESOURCE);
+                }
+                return null;
+            });
+        } finally {
+            Thread.currentThread().setContextClassLoader(original);
+        }
+    }
+
+    private PomXmlParser() {}
+
+    /**
+     * Parses the given POM content. The root element is returned whatever its name is.
+     */
+    public static PomElement parse(InputStream content, String systemId) throws IOException, XMLStreamException {
+        return parse(IOUtils.toByteArray(content), systemId);
+    }
+
+    /**
+     * Parses the given POM content. The root element is returned whatever its name is.
+     */
+    public static PomElement parse(byte[] content, String systemId) throws IOException, XMLStreamException {
+        InputStream input = new ByteArrayInputStream(content);
+        if (requiresDoctype(content)) {
+            input = new AddDTDFilterInputStream(input);
+        }
+        XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(systemId, input);
+        try {
+            while (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                if (!reader.hasNext()) {
+                    throw new XMLStreamException("Premature end of file.", reader.getLocation());
+                }
+            }
+            return readElement(reader, PROJECT, true);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Reading the Maven entities takes about as long as reading a typical POM, so they are only declared for POMs that may use them.
+     * The doctype is also added when the POM declares its own, so that the declaration is rejected.
+     */
+    private static boolean requiresDoctype(byte[] content) {
+        for (int i = 0; i < content.length; i++) {
+            byte b = content[i];
+            if (b == '&') {
+                if (!startsWith(content, i + 1, "#") && !startsWith(content, i + 1, "amp;") && !startsWith(content, i + 1, "lt;")
+                    && !startsWith(content, i + 1, "gt;") && !startsWith(content, i + 1, "quot;") && !startsWith(content, i + 1, "apos;")) {
+                    return true;
+                }
+            } else if (b == '<' && startsWith(content, i + 1, "!DOCTYPE")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean startsWith(byte[] content, int offset, String prefix) {
+        if (offset + prefix.length() > content.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (content[offset + i] != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static PomElement readElement(XMLStreamReader reader, ElementFilter filter, boolean root) throws XMLStreamException {
+        String name = reader.getLocalName();
+        StringBuilder text = null;
+        ImmutableList.Builder<PomElement> children = null;
+        boolean gradleMetadataMarker = false;
+        while (true) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    ElementFilter childFilter = filter.getChildFilter(reader.getLocalName());
+                    if (childFilter == null) {
+                        skipElement(reader);
+                    } else {
+                        if (children == null) {
+                            children = ImmutableList.builder();
+                        }
+                        children.add(readElement(reader, childFilter, false));
+                    }
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if (filter.retainsText()) {
+                        if (text == null) {
+                            text = new StringBuilder();
+                        }
+                        text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    }
+                    break;
+                case XMLStreamConstants.COMMENT:
+                    if (root) {
+                        String comment = reader.getText();
+                        gradleMetadataMarker |= comment.contains(MetaDataParser.GRADLE_6_METADATA_MARKER) || comment.contains(MetaDataParser.GRADLE_METADATA_MARKER);
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    return new PomElement(
+                        name,
+                        text == null ? "" : text.toString(),
+                        children == null ? ImmutableList.of() : children.build(),
+                        gradleMetadataMarker
+                    );
+                default:
+                    break;
+            }
+        }
+    }
+
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    @Nullable
+    public static String getFirstChildText(@Nullable PomElement parentElem, String name) {
+        return parentElem == null ? null : parentElem.getFirstChildText(name);
+    }
+
+    @Nullable
+    public static PomElement getFirstChildElement(@Nullable PomElement parentElem, String name) {
+        return parentElem == null ? null : parentElem.getFirstChild(name);
+    }
+
+    public static List<PomElement> getAllChilds(@Nullable PomElement parent) {
+        return parent == null ? Collections.emptyList() : parent.getChildren();
+    }
+
+    private static ElementFilter elements() {
+        return new ElementFilter(false);
+    }
+
+    /**
+     * Describes which children of an element are retained. Only the text of elements without retained children is kept.
+     */
+    private static final class ElementFilter {
+        static final ElementFilter LEAF = new ElementFilter(false);
+        static final ElementFilter ALL_LEAVES = new ElementFilter(true);
+
+        private final Map<String, ElementFilter> children = new HashMap<>();
+        private final boolean retainsAllChildren;
+
+        ElementFilter(boolean retainsAllChildren) {
+            this.retainsAllChildren = retainsAllChildren;
+        }
+
+        ElementFilter leaves(String... names) {
+            for (String name : names) {
+                children.put(name, LEAF);
+            }
+            return this;
+        }
+
+        ElementFilter child(String name, ElementFilter filter) {
+            children.put(name, filter);
+            return this;
+        }
+
+        @Nullable
+        ElementFilter getChildFilter(String name) {
+            return retainsAllChildren ? LEAF : children.get(name);
+        }
+
+        boolean retainsText() {
+            return children.isEmpty() && !retainsAllChildren;
+        }
+    }
+
+    public static final class AddDTDFilterInputStream extends FilterInputStream {
+        private static final int MARK = 10000;
+        private static final String DOCTYPE = "<!DOCTYPE project SYSTEM \"m2-entities.ent\">\n";
+
+        private int count;
+        private byte[] prefix = DOCTYPE.getBytes(UTF_8);
+
+        public AddDTDFilterInputStream(InputStream in) throws IOException {
+            super(new BufferedInputStream(in));
+
+            this.in.mark(MARK);
+
+            // TODO: we should really find a better solution for this...
+            // maybe we could use a FilterReader instead of a FilterInputStream?
+            int byte1 = this.in.read();
+            int byte2 = this.in.read();
+            int byte3 = this.in.read();
+
+            if (byte1 == 239 && byte2 == 187 && byte3 == 191) {
+                // skip the UTF-8 BOM
+                this.in.mark(MARK);
+            } else {
+                this.in.reset();
+            }
+
+            int bytesToSkip = 0;
+            LineNumberReader reader = new LineNumberReader(new InputStreamReader(this.in, UTF_8), 100);
+            String firstLine = reader.readLine();
+            if (firstLine != null) {
+                String trimmed = firstLine.trim();
+                if (trimmed.startsWith("<?xml ")) {
+                    int endIndex = trimmed.indexOf("?>");
+                    String xmlDecl = trimmed.substring(0, endIndex + 2);
+                    prefix = (xmlDecl + "\n" + DOCTYPE).getBytes(UTF_8);
+                    bytesToSkip = xmlDecl.getBytes(UTF_8).length;
+                }
+            }
+
+            this.in.reset();
+            for (int i = 0; i < bytesToSkip; i++) {
+                this.in.read();
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (count < prefix.length) {
+                return prefix[count++];
+            }
+
+            return super.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (b == null) {
+                throw new NullPointerException();
+            } else if ((off < 0) || (off > b.length) || (len < 0)
+                    || ((off + len) > b.length) || ((off + len) < 0)) {
+                throw new IndexOutOfBoundsException();
+            } else if (len == 0) {
+                return 0;
+            }
+
+            int nbrBytesCopied = 0;
+
+            if (count < prefix.length) {
+                int nbrBytesFromPrefix = Math.min(prefix.length - count, len);
+                System.arraycopy(prefix, count, b, off, nbrBytesFromPrefix);
+                nbrBytesCopied = nbrBytesFromPrefix;
+            }
+
+            if (nbrBytesCopied < len) {
+                nbrBytesCopied += in.read(b, off + nbrBytesCopied, len - nbrBytesCopied);
+            }
+
+            count += nbrBytesCopied;
+            return nbrBytesCopied;
+        }
+    }
+}
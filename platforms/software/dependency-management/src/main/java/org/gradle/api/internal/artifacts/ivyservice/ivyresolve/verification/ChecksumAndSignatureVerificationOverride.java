@@ -47,12 +47,16 @@
 import org.gradle.internal.component.external.model.ExternalModuleComponentGraphResolveState;
 import org.gradle.internal.concurrent.Stoppable;
 import org.gradle.internal.hash.ChecksumService;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.hash.Hasher;
+import org.gradle.internal.hash.Hashing;
 import org.gradle.internal.logging.ConsoleRenderer;
 import org.gradle.internal.operations.BuildOperationContext;
 import org.gradle.internal.operations.BuildOperationDescriptor;
 import org.gradle.internal.operations.BuildOperationExecutor;
 import org.gradle.internal.operations.RunnableBuildOperation;
 import org.gradle.internal.resource.local.FileResourceListener;
+import org.jspecify.annotations.Nullable;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -72,6 +76,8 @@ public class ChecksumAndSignatureVerificationOverride implements DependencyVerif
     private final BuildOperationExecutor buildOperationExecutor;
     private final ChecksumService checksumService;
     private final SignatureVerificationService signatureVerificationService;
+    private final CrossBuildVerifiedArtifactsCache verifiedArtifactsCache;
+    private final HashCode verificationInputs;
     private final DependencyVerificationMode verificationMode;
     private final FileResourceListener fileResourceListener;
     private final Set<VerificationQuery> verificationQueries = Sets.newConcurrentHashSet();
@@ -94,12 +100,14 @@ public ChecksumAndSignatureVerificationOverride(
         DocumentationRegistry documentationRegistry,
         File reportsDirectory,
         Factory<GradleProperties> gradlePropertiesFactory,
-        FileResourceListener fileResourceListener
+        FileResourceListener fileResourceListener,
+        CrossBuildVerifiedArtifactsCache verifiedArtifactsCache
     ) {
         this.buildOperationExecutor = buildOperationExecutor;
         this.checksumService = checksumService;
         this.verificationMode = verificationMode;
         this.fileResourceListener = fileResourceListener;
+        this.verifiedArtifactsCache = verifiedArtifactsCache;
         try {
             this.verifier = DependencyVerificationsXmlReader.readFromXml(
                 new FileInputStream(observed(verificationsFile))
@@ -112,6 +120,18 @@ public ChecksumAndSignatureVerificationOverride(
         }
         BuildTreeDefinedKeys localKeyring = new BuildTreeDefinedKeys(verificationsFile.getParentFile(), verifier.getConfiguration().getKeyringFormat());
         this.signatureVerificationService = signatureVerificationServiceFactory.create(localKeyring, keyServers(), verifier.getConfiguration().isUseKeyServers());
+        this.verificationInputs = hashVerificationInputs(verificationsFile, localKeyring.getEffectiveKeyringsFile());
+    }
+
+    private HashCode hashVerificationInputs(File verificationsFile, File keyringsFile) {
+        Hasher hasher = Hashing.newHasher();
+        hasher.putHash(checksumService.sha256(verificationsFile));
+        if (keyringsFile.exists()) {
+            hasher.putHash(checksumService.sha256(keyringsFile));
+        } else {
+            hasher.putNull();
+        }
+        return hasher.hash();
     }
 
     private List<URI> keyServers() {
@@ -146,14 +166,7 @@ private void verifyConcurrently() {
                     queue.add(new RunnableBuildOperation() {
                         @Override
                         public void run(BuildOperationContext context) {
-                            verifier.verify(checksumService, signatureVerificationService, ve.kind, ve.artifact, observed(ve.mainFile), observed(ve.signatureFile.create()), f -> {
-                                synchronized (failuresLock) {
-                                    failures.put(ve.artifact, new RepositoryAwareVerificationFailure(f, ve.repositoryName));
-                                    if (f.isFatal()) {
-                                        hasFatalFailure = true;
-                                    }
-                                }
-                            });
+                            verify(ve);
                         }
 
                         @Override
@@ -168,6 +181,47 @@ public BuildOperationDescriptor.Builder description() {
 
     }
 
+    private void verify(VerificationEvent event) {
+        File mainFile = observed(event.mainFile);
+        File signatureFile = observed(event.signatureFile.create());
+        // Artifacts already verified in the same state by a previous build are skipped. The hashes used
+        // to identify that state come from the checksum service, which the verification itself reuses.
+        String artifactKey = null;
+        HashCode state = null;
+        if (!verifier.shouldSkipVerification(event.kind) && mainFile.exists()) {
+            artifactKey = event.kind.name() + " " + event.artifact.getComponentIdentifier().getDisplayName() + " " + event.artifact.getFileName();
+            state = verificationStateOf(mainFile, signatureFile);
+            if (verifiedArtifactsCache.isVerified(artifactKey, state)) {
+                return;
+            }
+        }
+        AtomicBoolean failed = new AtomicBoolean();
+        verifier.verify(checksumService, signatureVerificationService, event.kind, event.artifact, mainFile, signatureFile, f -> {
+            failed.set(true);
+            synchronized (failuresLock) {
+                failures.put(event.artifact, new RepositoryAwareVerificationFailure(f, event.repositoryName));
+                if (f.isFatal()) {
+                    hasFatalFailure = true;
+                }
+            }
+        });
+        if (state != null && !failed.get()) {
+            verifiedArtifactsCache.markVerified(artifactKey, state);
+        }
+    }
+
+    private HashCode verificationStateOf(File mainFile, @Nullable File signatureFile) {
+        Hasher hasher = Hashing.newHasher();
+        hasher.putHash(verificationInputs);
+        hasher.putHash(checksumService.sha256(mainFile));
+        if (signatureFile != null && signatureFile.exists()) {
+            hasher.putHash(checksumService.sha256(signatureFile));
+        } else {
+            hasher.putNull();
+        }
+        return hasher.hash();
+    }
+
     @Override
     public ModuleComponentRepository<ExternalModuleComponentGraphResolveState> overrideDependencyVerification(ModuleComponentRepository<ExternalModuleComponentGraphResolveState> original) {
         return new DependencyVerifyingModuleComponentRepository(original, this, verifier.getConfiguration().isVerifySignatures());
@@ -254,6 +308,7 @@ private File observed(File file) {
     public void stop() {
         closed.set(true);
         signatureVerificationService.stop();
+        verifiedArtifactsCache.stop();
     }
 
     private static class VerificationQuery {
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.verification;
+
+import org.gradle.cache.FileLockManager;
+import org.gradle.cache.IndexedCache;
+import org.gradle.cache.PersistentCache;
+import org.gradle.cache.scopes.BuildScopedCacheBuilderFactory;
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.serialize.HashCodeSerializer;
+
+/**
+ * Remembers, across builds, the artifacts which passed dependency verification.
+ * <p>
+ * An artifact is identified by a key, and the state it was verified in by a hash of everything the verification
+ * depends on: the verification metadata, the keyring, and the contents of the artifact and of its signature.
+ * An artifact verified in the same state does not need to be verified again. Failures are never recorded,
+ * so that they are reported by every build.
+ */
+public class CrossBuildVerifiedArtifactsCache implements Stoppable {
+    private final PersistentCache store;
+    private final IndexedCache<String, HashCode> cache;
+    private final boolean reuseResults;
+
+    /**
+     * @param reuseResults whether previously recorded results are used. When false, results are recorded but not used.
+     */
+    public CrossBuildVerifiedArtifactsCache(BuildScopedCacheBuilderFactory cacheBuilderFactory, boolean reuseResults) {
+        this.reuseResults = reuseResults;
+        store = cacheBuilderFactory.createCacheBuilder("dependency-verification")
+            .withDisplayName("Dependency verification cache")
+            .withInitialLockMode(FileLockManager.LockMode.OnDemand)
+            .open();
+        cache = store.createIndexedCache("verified-artifacts", String.class, new HashCodeSerializer());
+    }
+
+    /**
+     * Returns true when the artifact has already been verified in the given state.
+     */
+    public boolean isVerified(String artifactKey, HashCode state) {
+        if (!reuseResults) {
+            return false;
+        }
+        return state.equals(store.useCache(() -> cache.getIfPresent(artifactKey)));
+    }
+
+    /**
+     * Records that the artifact passed verification in the given state.
+     */
+    public void markVerified(String artifactKey, HashCode state) {
+        store.useCache(() -> cache.put(artifactKey, state));
+    }
+
+    @Override
+    public void stop() {
+        store.close();
+    }
+}
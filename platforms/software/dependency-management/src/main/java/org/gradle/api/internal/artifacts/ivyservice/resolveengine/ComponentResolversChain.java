@@ -17,6 +17,7 @@
 
 import org.gradle.api.artifacts.component.ComponentIdentifier;
 import org.gradle.api.artifacts.component.ComponentSelector;
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.ComponentResolvers;
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.ErrorHandlingArtifactResolver;
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionSelector;
@@ -24,6 +25,7 @@
 import org.gradle.api.internal.component.ArtifactType;
 import org.gradle.internal.component.model.ComponentArtifactMetadata;
 import org.gradle.internal.component.model.ComponentArtifactResolveMetadata;
+import org.gradle.internal.component.model.ComponentGraphResolveState;
 import org.gradle.internal.component.model.ComponentOverrideMetadata;
 import org.gradle.internal.resolve.resolver.ArtifactResolver;
 import org.gradle.internal.resolve.resolver.ComponentMetaDataResolver;
@@ -101,6 +103,18 @@ public boolean isFetchingMetadataCheap(ComponentIdentifier identifier) {
             }
             return true;
         }
+
+        @Override
+        @Nullable
+        public ComponentGraphResolveState prefetch(ModuleComponentIdentifier identifier) {
+            for (ComponentMetaDataResolver resolver : resolvers) {
+                ComponentGraphResolveState component = resolver.prefetch(identifier);
+                if (component != null) {
+                    return component;
+                }
+            }
+            return null;
+        }
     }
 
     private static class ArtifactResolverChain implements ArtifactResolver {
@@ -0,0 +1,258 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.builder;
+
+import org.gradle.api.artifacts.VersionConstraint;
+import org.gradle.api.artifacts.component.ComponentSelector;
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
+import org.gradle.api.artifacts.component.ModuleComponentSelector;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionSelectorScheme;
+import org.gradle.internal.buildoption.InternalOption;
+import org.gradle.internal.buildoption.InternalOptions;
+import org.gradle.internal.component.external.model.DefaultModuleComponentIdentifier;
+import org.gradle.internal.component.external.model.ExternalModuleComponentGraphResolveState;
+import org.gradle.internal.component.model.ComponentGraphResolveState;
+import org.gradle.internal.component.model.DependencyMetadata;
+import org.gradle.internal.component.model.GraphSelectionCandidates;
+import org.gradle.internal.component.model.VariantGraphResolveState;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.ManagedExecutor;
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.operations.CurrentBuildOperationRef;
+import org.gradle.internal.resolve.resolver.ComponentMetaDataResolver;
+import org.gradle.internal.service.scopes.Scope;
+import org.gradle.internal.service.scopes.ServiceScope;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+
+/**
+ * Speculatively resolves the metadata of external components before the graph traversal reaches them.
+ * <p>
+ * The graph is traversed one node at a time, so a deep graph of remote modules is otherwise resolved one level at a time.
+ * As soon as the metadata of an external component is available, the prefetcher resolves the likely target of each of
+ * its dependencies on a bounded pool, and continues breadth-first with the dependencies of those targets. When the
+ * traversal reaches a component, it finds its metadata in the repository caches.
+ * <p>
+ * Prefetching only populates the repository caches (see {@link ComponentMetaDataResolver#prefetch}), and never records the
+ * resolution result of a component, so the traversal still resolves each component with the overrides of its own edges.
+ * Targets are guessed without applying exclusions, substitutions or forced versions: a wrong guess costs a request, but
+ * does not change the result. Only dependencies on a single static version that are neither changing nor request
+ * specific artifacts are prefetched. Failures are discarded here and never disable a repository.
+ * <p>
+ * Closing a session discards the prefetches that have not started, but does not wait for the running ones. Once the traversal
+ * has finished, no running prefetch can be of use to it, so it should not have to wait for a slow repository to answer a request
+ * it never made. Running prefetches finish in the background. For this reason they run outside of the build operation of the
+ * resolution, which may complete before they do.
+ */
+@ServiceScope(Scope.BuildTree.class)
+public class ComponentMetadataPrefetcher implements Stoppable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ComponentMetadataPrefetcher.class);
+
+    /**
+     * The number of threads used to prefetch metadata. Prefetching is disabled when set to 0.
+     */
+    public static final InternalOption<Integer> CONCURRENCY_OPTION = InternalOptions.ofInt("org.gradle.internal.dependency-resolution.metadata-prefetch.concurrency", 8);
+
+    /**
+     * The maximum number of prefetch tasks scheduled by a single graph resolution.
+     */
+    public static final InternalOption<Integer> LIMIT_OPTION = InternalOptions.ofInt("org.gradle.internal.dependency-resolution.metadata-prefetch.limit", 4096);
+
+    private static final Session NO_OP = new Session() {
+        @Override
+        public void prefetchDependenciesOf(ComponentGraphResolveState component) {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    @Nullable
+    private final ManagedExecutor executor;
+    private final int maxTasksPerSession;
+
+    @Inject
+    public ComponentMetadataPrefetcher(ExecutorFactory executorFactory, InternalOptions internalOptions) {
+        this(createExecutor(executorFactory, internalOptions.getInt(CONCURRENCY_OPTION)), internalOptions.getInt(LIMIT_OPTION));
+    }
+
+    public ComponentMetadataPrefetcher(@Nullable ManagedExecutor executor, int maxTasksPerSession) {
+        this.executor = executor;
+        this.maxTasksPerSession = maxTasksPerSession;
+    }
+
+    @Nullable
+    private static ManagedExecutor createExecutor(ExecutorFactory executorFactory, int concurrency) {
+        return concurrency > 0 ? executorFactory.create("Dependency metadata prefetch", concurrency) : null;
+    }
+
+    /**
+     * Starts prefetching for a single graph resolution. Components are prefetched using the given resolver.
+     */
+    public Session startSession(ComponentMetaDataResolver resolver, VersionSelectorScheme versionSelectorScheme) {
+        if (executor == null || maxTasksPerSession <= 0) {
+            return NO_OP;
+        }
+        return new DefaultSession(executor, maxTasksPerSession, resolver, versionSelectorScheme);
+    }
+
+    @Override
+    public void stop() {
+        if (executor != null) {
+            executor.stop();
+        }
+    }
+
+    public interface Session extends AutoCloseable {
+        /**
+         * Starts prefetching the dependencies of the given component, which has just been resolved. Does nothing for components that are not external.
+         */
+        void prefetchDependenciesOf(ComponentGraphResolveState component);
+
+        /**
+         * Discards the prefetches that have not started yet. Does not wait for the running ones, which finish in the background
+         * without scheduling any further prefetches.
+         */
+        @Override
+        void close();
+    }
+
+    private static class DefaultSession implements Session {
+        private final ManagedExecutor executor;
+        private final ComponentMetaDataResolver resolver;
+        private final VersionSelectorScheme versionSelectorScheme;
+        private final Set<ModuleComponentIdentifier> requested = ConcurrentHashMap.newKeySet();
+        private final Set<ModuleComponentIdentifier> expanded = ConcurrentHashMap.newKeySet();
+
+        // Guarded by this
+        private final List<Future<?>> tasks = new ArrayList<>();
+        private int remainingTasks;
+        private volatile boolean closed;
+
+        DefaultSession(ManagedExecutor executor, int maxTasks, ComponentMetaDataResolver resolver, VersionSelectorScheme versionSelectorScheme) {
+            this.executor = executor;
+            this.remainingTasks = maxTasks;
+            this.resolver = resolver;
+            this.versionSelectorScheme = versionSelectorScheme;
+        }
+
+        @Override
+        public void prefetchDependenciesOf(ComponentGraphResolveState component) {
+            // Local components are not safe to inspect outside of the graph traversal
+            if (component instanceof ExternalModuleComponentGraphResolveState && expanded.add((ModuleComponentIdentifier) component.getId())) {
+                submit(() -> prefetchDependencies(component));
+            }
+        }
+
+        private void prefetch(ModuleComponentIdentifier id, boolean transitive) {
+            ComponentGraphResolveState component = resolver.prefetch(id);
+            if (!transitive || closed) {
+                return;
+            }
+            if (component instanceof ExternalModuleComponentGraphResolveState && expanded.add((ModuleComponentIdentifier) component.getId())) {
+                prefetchDependencies(component);
+            }
+        }
+
+        private void prefetchDependencies(ComponentGraphResolveState component) {
+            GraphSelectionCandidates candidates = component.getCandidatesForGraphVariantSelection();
+            List<? extends VariantGraphResolveState> variants = candidates.getVariantsForAttributeMatching();
+            if (variants.isEmpty()) {
+                VariantGraphResolveState legacyVariant = candidates.getLegacyVariant();
+                variants = legacyVariant == null ? Collections.emptyList() : Collections.singletonList(legacyVariant);
+            }
+            for (VariantGraphResolveState variant : variants) {
+                for (DependencyMetadata dependency : variant.getDependencies()) {
+                    ModuleComponentIdentifier target = likelyTarget(dependency);
+                    if (target != null && requested.add(target)) {
+                        boolean transitive = dependency.isTransitive();
+                        if (!submit(() -> prefetch(target, transitive))) {
+                            return;
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Returns the component the dependency will most likely resolve to, or null when this cannot be known without resolving the graph.
+         */
+        @Nullable
+        private ModuleComponentIdentifier likelyTarget(DependencyMetadata dependency) {
+            if (dependency.isConstraint() || dependency.isChanging() || !dependency.getArtifacts().isEmpty()) {
+                return null;
+            }
+            ComponentSelector selector = dependency.getSelector();
+            if (!(selector instanceof ModuleComponentSelector)) {
+                return null;
+            }
+            ModuleComponentSelector moduleSelector = (ModuleComponentSelector) selector;
+            VersionConstraint versionConstraint = moduleSelector.getVersionConstraint();
+            String version = versionConstraint.getStrictVersion();
+            if (version.isEmpty()) {
+                version = versionConstraint.getRequiredVersion();
+            }
+            if (version.isEmpty()) {
+                version = versionConstraint.getPreferredVersion();
+            }
+            if (version.isEmpty() || versionSelectorScheme.parseSelector(version).isDynamic()) {
+                return null;
+            }
+            return DefaultModuleComponentIdentifier.newId(moduleSelector.getModuleIdentifier(), version);
+        }
+
+        private synchronized boolean submit(Runnable action) {
+            if (closed || remainingTasks == 0) {
+                return false;
+            }
+            remainingTasks--;
+            tasks.add(executor.submit(() -> run(action)));
+            return true;
+        }
+
+        private void run(Runnable action) {
+            if (closed) {
+                return;
+            }
+            try {
+                // The prefetch may outlive the resolution, so it must not start build operations as children of the resolution's operation
+                CurrentBuildOperationRef.instance().with(null, action);
+            } catch (RuntimeException e) {
+                LOGGER.debug("Failed to prefetch component metadata.", e);
+            }
+        }
+
+        @Override
+        public synchronized void close() {
+            closed = true;
+            for (Future<?> task : tasks) {
+                task.cancel(false);
+            }
+            tasks.clear();
+        }
+    }
+}
@@ -226,6 +226,7 @@ public void resolve() {
         }
         resolveState = result.getState();
         graphResolveState = result.getGraphState();
+        module.getResolveState().getMetadataPrefetch().prefetchDependenciesOf(resolveState);
     }
 
     /**
@@ -93,6 +93,7 @@ public class DependencyGraphBuilder {
     private final VersionParser versionParser;
     private final GraphVariantSelector variantSelector;
     private final BuildOperationExecutor buildOperationExecutor;
+    private final ComponentMetadataPrefetcher metadataPrefetcher;
 
     @Inject
     public DependencyGraphBuilder(
@@ -104,7 +105,8 @@ public DependencyGraphBuilder(
         ComponentIdGenerator idGenerator,
         VersionParser versionParser,
         GraphVariantSelector variantSelector,
-        BuildOperationExecutor buildOperationExecutor
+        BuildOperationExecutor buildOperationExecutor,
+        ComponentMetadataPrefetcher metadataPrefetcher
     ) {
         this.moduleExclusions = moduleExclusions;
         this.attributesFactory = attributesFactory;
@@ -115,6 +117,7 @@ public DependencyGraphBuilder(
         this.versionParser = versionParser;
         this.variantSelector = variantSelector;
         this.buildOperationExecutor = buildOperationExecutor;
+        this.metadataPrefetcher = metadataPrefetcher;
     }
 
     public void resolve(
@@ -136,30 +139,35 @@ public void resolve(
         ResolutionParameters.FailureResolutions failureResolutions,
         DependencyGraphVisitor modelVisitor
     ) {
-        ResolveState resolveState = new ResolveState(
-            idGenerator,
-            rootComponent,
-            rootVariant,
-            componentIdResolver,
-            componentMetaDataResolver,
-            edgeFilter,
-            moduleExclusions,
-            componentSelectorConverter,
-            attributesFactory,
-            attributeSchemaServices,
-            dependencySubstitutionApplicator,
-            versionSelectorScheme,
-            versionComparator,
-            versionParser,
-            conflictResolution,
-            syntheticDependencies,
-            moduleConflictResolver,
-            moduleReplacements,
-            capabilityResolutionRules,
-            variantSelector
-        );
-
-        traverseGraph(resolveState);
+        ResolveState resolveState;
+        // Prefetching only serves the traversal, so stop it before the graph is validated
+        try (ComponentMetadataPrefetcher.Session metadataPrefetch = metadataPrefetcher.startSession(componentMetaDataResolver, versionSelectorScheme)) {
+            resolveState = new ResolveState(
+                idGenerator,
+                rootComponent,
+                rootVariant,
+                componentIdResolver,
+                componentMetaDataResolver,
+                edgeFilter,
+                moduleExclusions,
+                componentSelectorConverter,
+                attributesFactory,
+                attributeSchemaServices,
+                dependencySubstitutionApplicator,
+                versionSelectorScheme,
+                versionComparator,
+                versionParser,
+                conflictResolution,
+                syntheticDependencies,
+                moduleConflictResolver,
+                moduleReplacements,
+                capabilityResolutionRules,
+                variantSelector,
+                metadataPrefetch
+            );
+
+            traverseGraph(resolveState);
+        }
 
         validateGraph(resolveState, failingOnDynamicVersions, failingOnChangingVersions, conflictResolution, failureResolutions);
 
@@ -100,6 +100,7 @@ public class ResolveState implements ComponentStateFactory<ComponentState> {
     private final ModuleConflictHandler moduleConflictHandler;
     private final CapabilitiesConflictHandler capabilitiesConflictHandler;
     private final GraphVariantSelector variantSelector;
+    private final ComponentMetadataPrefetcher.Session metadataPrefetch;
 
     public ResolveState(
         ComponentIdGenerator idGenerator,
@@ -121,7 +122,8 @@ public ResolveState(
         ModuleConflictResolver<ComponentState> moduleConflictResolver,
         ImmutableModuleReplacements moduleReplacements,
         ImmutableList<CapabilitiesResolutionInternal.CapabilityResolutionRule> capabilityResolutionRules,
-        GraphVariantSelector variantSelector
+        GraphVariantSelector variantSelector,
+        ComponentMetadataPrefetcher.Session metadataPrefetch
     ) {
         this.idGenerator = idGenerator;
         this.idResolver = idResolver;
@@ -138,6 +140,7 @@ public ResolveState(
         this.conflictResolution = conflictResolution;
         this.resolveOptimizations = new ResolveOptimizations();
         this.variantSelector = variantSelector;
+        this.metadataPrefetch = metadataPrefetch;
 
         this.moduleConflictHandler = new DefaultModuleConflictHandler(moduleConflictResolver, moduleReplacements, this);
         this.capabilitiesConflictHandler = new DefaultCapabilitiesConflictHandler(capabilityResolutionRules, this);
@@ -205,6 +208,10 @@ public ComponentMetaDataResolver getComponentMetadataResolver() {
         return metaDataResolver;
     }
 
+    ComponentMetadataPrefetcher.Session getMetadataPrefetch() {
+        return metadataPrefetch;
+    }
+
     private ModuleResolveState getModule(ModuleIdentifier id, boolean rootModule) {
         return modules.computeIfAbsent(id, mid -> new ModuleResolveState(this, id, metaDataResolver, attributesFactory, versionComparator, versionParser, selectorStateResolver, resolveOptimizations, rootModule, conflictResolution));
     }
@@ -214,6 +221,7 @@ public ComponentState getRevision(ComponentIdentifier componentIdentifier, Modul
         ComponentState componentState = getModule(id.getModule()).getVersion(id, componentIdentifier);
         if (!componentState.alreadyResolved()) {
             componentState.setState(state, graphState);
+            metadataPrefetch.prefetchDependenciesOf(state);
         }
         return componentState;
     }
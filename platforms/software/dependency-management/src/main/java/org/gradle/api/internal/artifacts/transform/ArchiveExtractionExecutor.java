@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.transform;
+
+import org.gradle.internal.buildoption.InternalOption;
+import org.gradle.internal.buildoption.InternalOptions;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.ManagedExecutor;
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.service.scopes.Scope;
+import org.gradle.internal.service.scopes.ServiceScope;
+import org.gradle.internal.work.WorkerLimits;
+import org.jspecify.annotations.Nullable;
+
+import javax.inject.Inject;
+import java.util.concurrent.Executor;
+
+/**
+ * The threads that extract the entries of large archives in parallel, shared by all the transforms of the build tree.
+ *
+ * <p>No more threads than the maximum number of workers are used, and they are only started when an archive is first extracted.</p>
+ */
+@ServiceScope(Scope.BuildTree.class)
+public class ArchiveExtractionExecutor implements Stoppable {
+
+    /**
+     * Whether large archives are extracted in parallel. When disabled, archives are extracted on the thread running the transform.
+     */
+    public static final InternalOption<Boolean> PARALLEL_EXTRACTION_OPTION = InternalOptions.ofBoolean("org.gradle.internal.transform.parallel-archive-extraction", true);
+
+    private final ExecutorFactory executorFactory;
+    private final int maxThreads;
+    private final boolean enabled;
+    @Nullable
+    private ManagedExecutor executor;
+
+    @Inject
+    public ArchiveExtractionExecutor(ExecutorFactory executorFactory, WorkerLimits workerLimits, InternalOptions internalOptions) {
+        this(executorFactory, workerLimits.getMaxWorkerCount(), internalOptions.getBoolean(PARALLEL_EXTRACTION_OPTION));
+    }
+
+    public ArchiveExtractionExecutor(ExecutorFactory executorFactory, int maxThreads, boolean enabled) {
+        this.executorFactory = executorFactory;
+        this.maxThreads = maxThreads;
+        this.enabled = enabled && maxThreads > 1;
+    }
+
+    /**
+     * Returns the executor to extract archive entries with, or null when archives are to be extracted on the calling thread.
+     */
+    @Nullable
+    public synchronized Executor getExecutor() {
+        if (!enabled) {
+            return null;
+        }
+        if (executor == null) {
+            executor = executorFactory.create("Archive extraction", maxThreads);
+        }
+        return executor;
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.stop();
+            executor = null;
+        }
+    }
+}
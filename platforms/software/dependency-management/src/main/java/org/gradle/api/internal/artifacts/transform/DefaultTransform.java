@@ -16,6 +16,7 @@
 
 package org.gradle.api.internal.artifacts.transform;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.reflect.TypeToken;
@@ -91,6 +92,7 @@
 import java.io.File;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Locale;
 import java.util.Map;
@@ -405,11 +407,22 @@ private static String getParameterObjectDisplayName(Object parameterObject) {
 
     private TransformAction<?> newTransformAction(Provider<FileSystemLocation> inputArtifactProvider, TransformDependencies transformDependencies, @Nullable InputChanges inputChanges) {
         TransformParameters parameters = isolatedParameters.get().getIsolatedParameterObject().isolate();
-        ServiceLookup services = new IsolationScheme<>(TransformAction.class, TransformParameters.class, TransformParameters.None.class).servicesForImplementation(parameters, internalServices, Collections.emptySet());
+        ServiceLookup services = new IsolationScheme<>(TransformAction.class, TransformParameters.class, TransformParameters.None.class).servicesForImplementation(parameters, internalServices, additionalAllowedServicesFor(implementationClass));
         services = new TransformServiceLookup(inputArtifactProvider, requiresDependencies ? transformDependencies : null, inputChanges, services);
         return instanceFactory.newInstance(services);
     }
 
+    /**
+     * Only the built-in unzip transform may use the threads shared for archive extraction. Other transforms cannot inject them.
+     */
+    @VisibleForTesting
+    static Collection<? extends Class<?>> additionalAllowedServicesFor(Class<?> implementationClass) {
+        if (UnzipTransform.class.isAssignableFrom(implementationClass)) {
+            return Collections.singleton(ArchiveExtractionExecutor.class);
+        }
+        return Collections.emptySet();
+    }
+
     public CalculatedValueContainer<IsolatedParameters, IsolateTransformParameters> getIsolatedParameters() {
         return isolatedParameters;
     }
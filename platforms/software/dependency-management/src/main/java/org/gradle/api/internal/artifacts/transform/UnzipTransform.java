@@ -16,7 +16,6 @@
 
 package org.gradle.api.internal.artifacts.transform;
 
-import com.google.common.io.Files;
 import org.apache.commons.io.IOUtils;
 import org.gradle.api.artifacts.transform.InputArtifact;
 import org.gradle.api.artifacts.transform.TransformAction;
@@ -28,14 +27,25 @@
 import org.gradle.api.tasks.PathSensitivity;
 import org.gradle.internal.UncheckedException;
 import org.gradle.work.DisableCachingByDefault;
+import org.jspecify.annotations.Nullable;
 
-import java.io.BufferedInputStream;
+import javax.inject.Inject;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.util.zip.ZipFile;
 
 import static org.apache.commons.io.FilenameUtils.removeExtension;
 import static org.gradle.internal.file.PathTraversalChecker.safePathName;
@@ -48,35 +58,196 @@
 @DisableCachingByDefault(because = "Not worth caching")
 public abstract class UnzipTransform implements TransformAction<TransformParameters.None> {
 
+    /**
+     * Archives with fewer entries, or with less uncompressed content, are extracted on the calling thread.
+     */
+    private static final int PARALLEL_EXTRACTION_MIN_ENTRIES = 64;
+    private static final long PARALLEL_EXTRACTION_MIN_SIZE = 4 * 1024 * 1024;
+    private static final int ENTRIES_PER_TASK = 16;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     @PathSensitive(PathSensitivity.NAME_ONLY)
     @InputArtifact
     public abstract Provider<FileSystemLocation> getZippedFile();
 
+    @Inject
+    protected abstract ArchiveExtractionExecutor getExtractionExecutor();
+
     @Override
     public void transform(TransformOutputs outputs) {
         File zippedFile = getZippedFile().get().getAsFile();
         String unzippedDirName = removeExtension(zippedFile.getName());
         File unzipDir = outputs.dir(unzippedDirName);
         try {
-            unzipTo(zippedFile, unzipDir);
+            unzipTo(zippedFile, unzipDir, getExtractionExecutor().getExecutor());
         } catch (IOException e) {
             throw UncheckedException.throwAsUncheckedException(e);
         }
     }
 
-    private static void unzipTo(File headersZip, File unzipDir) throws IOException {
-        try (ZipInputStream inputStream = new ZipInputStream(new BufferedInputStream(new FileInputStream(headersZip)))) {
-            ZipEntry entry;
-            while ((entry = inputStream.getNextEntry()) != null) {
-                if (entry.isDirectory()) {
-                    continue;
+    /**
+     * Extracts the files of the archive into the given directory.
+     * <p>
+     * The entries are read from the central directory, so that they can be extracted independently. All entry names
+     * are checked and all directories are created before anything is extracted. Large archives are then extracted
+     * in batches of entries, which the calling thread and the threads of the given executor take in turn. The calling
+     * thread only waits for batches that other threads are extracting, never for batches queued on a busy executor.
+     */
+    static void unzipTo(File zippedFile, File unzipDir, @Nullable Executor executor) throws IOException {
+        try (ZipFile zipFile = new ZipFile(zippedFile)) {
+            List<EntryExtraction> extractions = listExtractions(zipFile, unzipDir);
+            long totalSize = 0;
+            for (EntryExtraction extraction : extractions) {
+                totalSize += Math.max(0, extraction.entry.getSize());
+            }
+            if (executor == null || extractions.size() < PARALLEL_EXTRACTION_MIN_ENTRIES || totalSize < PARALLEL_EXTRACTION_MIN_SIZE) {
+                extract(zipFile, extractions, 0, extractions.size());
+                return;
+            }
+            extractInParallel(zipFile, extractions, executor);
+        }
+    }
+
+    private static void extractInParallel(ZipFile zipFile, List<EntryExtraction> extractions, Executor executor) throws IOException {
+        ParallelExtraction extraction = new ParallelExtraction(zipFile, extractions);
+        int helpers = Math.min(extraction.batchCount - 1, Runtime.getRuntime().availableProcessors());
+        for (int i = 0; i < helpers; i++) {
+            executor.execute(extraction::help);
+        }
+        // The calling thread takes batches as well, so it never waits for a batch that no other thread has started
+        extraction.extractRemainingBatches();
+        extraction.awaitHelpers();
+        Throwable failure = extraction.failure;
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+        if (failure != null) {
+            throw UncheckedException.throwAsUncheckedException(failure);
+        }
+    }
+
+    private static List<EntryExtraction> listExtractions(ZipFile zipFile, File unzipDir) throws IOException {
+        // When an archive contains the same file more than once, the last entry wins
+        Map<String, ZipEntry> entries = new LinkedHashMap<>();
+        Enumeration<? extends ZipEntry> enumeration = zipFile.entries();
+        while (enumeration.hasMoreElements()) {
+            ZipEntry entry = enumeration.nextElement();
+            if (entry.isDirectory()) {
+                continue;
+            }
+            entries.put(safePathName(entry.getName()), entry);
+        }
+
+        List<EntryExtraction> extractions = new ArrayList<>(entries.size());
+        Set<File> parentDirs = new HashSet<>();
+        for (Map.Entry<String, ZipEntry> entry : entries.entrySet()) {
+            File outFile = new File(unzipDir, entry.getKey());
+            File parentDir = outFile.getParentFile();
+            if (parentDirs.add(parentDir) && !parentDir.isDirectory() && !parentDir.mkdirs() && !parentDir.isDirectory()) {
+                throw new IOException("Unable to create directory '" + parentDir + "'");
+            }
+            extractions.add(new EntryExtraction(entry.getValue(), outFile));
+        }
+        return extractions;
+    }
+
+    private static void extract(ZipFile zipFile, List<EntryExtraction> extractions, int from, int to) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        for (int i = from; i < to; i++) {
+            EntryExtraction extraction = extractions.get(i);
+            try (InputStream inputStream = zipFile.getInputStream(extraction.entry); OutputStream outputStream = new FileOutputStream(extraction.outFile)) {
+                IOUtils.copyLarge(inputStream, outputStream, buffer);
+            }
+        }
+    }
+
+    /**
+     * Batches of entries that the calling thread and any number of helper threads take in turn until none are left.
+     */
+    private static class ParallelExtraction {
+        private final ZipFile zipFile;
+        private final List<EntryExtraction> extractions;
+        private final int batchCount;
+        private final AtomicInteger nextBatch = new AtomicInteger();
+        @Nullable
+        private volatile Throwable failure;
+
+        private final Object lock = new Object();
+        // Guarded by lock
+        private int activeHelpers;
+        private boolean finished;
+
+        ParallelExtraction(ZipFile zipFile, List<EntryExtraction> extractions) {
+            this.zipFile = zipFile;
+            this.extractions = extractions;
+            this.batchCount = (extractions.size() + ENTRIES_PER_TASK - 1) / ENTRIES_PER_TASK;
+        }
+
+        /**
+         * Runs on a helper thread. Does nothing when the calling thread has already extracted all batches.
+         */
+        void help() {
+            synchronized (lock) {
+                if (finished) {
+                    return;
+                }
+                activeHelpers++;
+            }
+            try {
+                extractRemainingBatches();
+            } finally {
+                synchronized (lock) {
+                    activeHelpers--;
+                    lock.notifyAll();
+                }
+            }
+        }
+
+        void extractRemainingBatches() {
+            int batch;
+            while (failure == null && (batch = nextBatch.getAndIncrement()) < batchCount) {
+                int from = batch * ENTRIES_PER_TASK;
+                try {
+                    extract(zipFile, extractions, from, Math.min(from + ENTRIES_PER_TASK, extractions.size()));
+                } catch (Throwable e) {
+                    synchronized (lock) {
+                        if (failure == null) {
+                            failure = e;
+                        }
+                    }
                 }
-                File outFile = new File(unzipDir, safePathName(entry.getName()));
-                Files.createParentDirs(outFile);
-                try (FileOutputStream outputStream = new FileOutputStream(outFile)) {
-                    IOUtils.copyLarge(inputStream, outputStream);
+            }
+        }
+
+        /**
+         * Waits for the helpers that are still extracting a batch, as they read from the archive which is closed on return.
+         * Helpers that have not started yet will not start extracting anymore.
+         */
+        void awaitHelpers() {
+            boolean interrupted = false;
+            synchronized (lock) {
+                finished = true;
+                while (activeHelpers > 0) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
                 }
             }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static class EntryExtraction {
+        private final ZipEntry entry;
+        private final File outFile;
+
+        EntryExtraction(ZipEntry entry, File outFile) {
+            this.entry = entry;
+            this.outFile = outFile;
         }
     }
 }
@@ -86,7 +86,7 @@ public void verify(ChecksumService checksumService,
             });
     }
 
-    private boolean shouldSkipVerification(ArtifactVerificationOperation.ArtifactKind kind) {
+    public boolean shouldSkipVerification(ArtifactVerificationOperation.ArtifactKind kind) {
         return kind == ArtifactVerificationOperation.ArtifactKind.METADATA && !config.isVerifyMetadata();
     }
 
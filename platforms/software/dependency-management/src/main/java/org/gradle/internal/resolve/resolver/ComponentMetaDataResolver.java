@@ -17,8 +17,11 @@
 package org.gradle.internal.resolve.resolver;
 
 import org.gradle.api.artifacts.component.ComponentIdentifier;
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
+import org.gradle.internal.component.model.ComponentGraphResolveState;
 import org.gradle.internal.component.model.ComponentOverrideMetadata;
 import org.gradle.internal.resolve.result.BuildableComponentResolveResult;
+import org.jspecify.annotations.Nullable;
 
 /**
  * Responsible for resolving a {@link ComponentIdentifier} to a {@link org.gradle.internal.component.model.ComponentGraphResolveState} instance for that component.
@@ -30,4 +33,15 @@ public interface ComponentMetaDataResolver {
     void resolve(ComponentIdentifier identifier, ComponentOverrideMetadata componentOverrideMetadata, BuildableComponentResolveResult result);
 
     boolean isFetchingMetadataCheap(ComponentIdentifier identifier);
+
+    /**
+     * Speculatively fetches the metadata of a module component into the repository caches, so that a later {@link #resolve} finds it there.
+     * No resolution result is recorded for the component, and failures are discarded without disabling any repository.
+     *
+     * @return the resolution state of the component, or null if it could not be fetched.
+     */
+    @Nullable
+    default ComponentGraphResolveState prefetch(ModuleComponentIdentifier identifier) {
+        return null;
+    }
 }
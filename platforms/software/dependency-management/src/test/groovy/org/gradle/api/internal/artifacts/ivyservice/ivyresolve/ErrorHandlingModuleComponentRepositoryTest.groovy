@@ -297,6 +297,42 @@ class ErrorHandlingModuleComponentRepositoryTest extends Specification {
     /**
      * Generates combinations of maxRetries, exception, effectiveRetries and whether the repository is disabled for testing.
      */
+    def "speculative remote access reports failures without disabling the repository"() {
+        given:
+        def repository = Stub(ModuleComponentRepository) {
+            getId() >> REPOSITORY_ID
+            getName() >> 'abc'
+            getRemoteAccess() >> delegate
+        }
+        def errorHandling = new ErrorHandlingModuleComponentRepository(repository, repositoryDisabler)
+        def moduleComponentIdentifier = new DefaultModuleComponentIdentifier(DefaultModuleIdentifier.newId('a', 'b'), '1.0')
+        def result = Mock(BuildableModuleComponentMetaDataResolveResult)
+
+        when: 'a speculative request fails'
+        errorHandling.speculativeRemoteAccess.resolveComponentMetaData(moduleComponentIdentifier, DefaultComponentOverrideMetadata.EMPTY, result)
+
+        then: 'the failure is reported, but the repository remains enabled'
+        1 * delegate.resolveComponentMetaData(moduleComponentIdentifier, _, result) >> { throw unknownHost }
+        1 * result.failed(_ as ModuleVersionResolveException)
+        !repositoryDisabler.isDisabled(REPOSITORY_ID)
+        !errorHandling.repositoryDisabled
+
+        when: 'a regular request fails the same way'
+        errorHandling.remoteAccess.resolveComponentMetaData(moduleComponentIdentifier, DefaultComponentOverrideMetadata.EMPTY, result)
+
+        then: 'the repository is disabled'
+        1 * delegate.resolveComponentMetaData(moduleComponentIdentifier, _, result) >> { throw unknownHost }
+        1 * result.failed(_ as ModuleVersionResolveException)
+        errorHandling.repositoryDisabled
+
+        when: 'a speculative request is made to the disabled repository'
+        errorHandling.speculativeRemoteAccess.resolveComponentMetaData(moduleComponentIdentifier, DefaultComponentOverrideMetadata.EMPTY, result)
+
+        then: 'it fails directly'
+        1 * result.failed(_ as ModuleVersionResolveException)
+        0 * delegate._
+    }
+
     List<List<?>> retryCombinations() {
         def retries = []
         (1..3).each { ret ->
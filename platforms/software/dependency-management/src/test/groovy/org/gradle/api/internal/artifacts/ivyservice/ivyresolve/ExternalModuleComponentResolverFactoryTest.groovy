@@ -43,6 +43,7 @@ import org.gradle.api.internal.artifacts.repositories.resolver.ExternalResourceR
 import org.gradle.api.internal.artifacts.verification.signatures.SignatureVerificationServiceFactory
 import org.gradle.api.internal.attributes.immutable.ImmutableAttributesSchema
 import org.gradle.api.internal.properties.GradleProperties
+import org.gradle.cache.scopes.BuildScopedCacheBuilderFactory
 import org.gradle.internal.action.InstantiatingAction
 import org.gradle.internal.component.external.model.ModuleComponentArtifactMetadata
 import org.gradle.internal.component.external.model.NoOpDerivationStrategy
@@ -75,7 +76,7 @@ class ExternalModuleComponentResolverFactoryTest extends Specification {
         ModuleRepositoryCacheProvider cacheProvider = new ModuleRepositoryCacheProvider(caches, caches)
         StartParameterResolutionOverride startParameterResolutionOverride = Mock(StartParameterResolutionOverride) {
             _ * overrideModuleVersionRepository(_) >> { ModuleComponentRepository repository -> repository }
-            _ * dependencyVerificationOverride(_, _, _, _, _, _, _) >> DependencyVerificationOverride.NO_VERIFICATION
+            _ * dependencyVerificationOverride(_, _, _, _, _, _, _, _) >> DependencyVerificationOverride.NO_VERIFICATION
         }
 
         def resolveStateFactory = DependencyManagementTestUtil.modelGraphResolveFactory()
@@ -86,7 +87,8 @@ class ExternalModuleComponentResolverFactoryTest extends Specification {
             new DocumentationRegistry(),
             Mock(BuildCommencedTimeProvider),
             () -> Mock(GradleProperties),
-            Stub(FileResourceListener)
+            Stub(FileResourceListener),
+            Mock(BuildScopedCacheBuilderFactory)
         )
 
         return new ExternalModuleComponentResolverFactory(
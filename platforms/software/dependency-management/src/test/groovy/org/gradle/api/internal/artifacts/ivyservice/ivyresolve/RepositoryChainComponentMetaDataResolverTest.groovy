@@ -26,6 +26,7 @@ import org.gradle.internal.component.external.model.ModuleComponentResolveMetada
 import org.gradle.internal.component.model.ComponentGraphResolveState
 import org.gradle.internal.component.model.ComponentGraphSpecificResolveState
 import org.gradle.internal.component.model.ComponentOverrideMetadata
+import org.gradle.internal.component.model.DefaultComponentOverrideMetadata
 import org.gradle.internal.model.CalculatedValueContainerFactory
 import org.gradle.internal.resolve.ModuleVersionNotFoundException
 import org.gradle.internal.resolve.ModuleVersionResolveException
@@ -34,6 +35,9 @@ import org.gradle.internal.resources.ProjectLeaseRegistry
 import org.gradle.internal.service.ServiceRegistry
 import spock.lang.Specification
 
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
 class RepositoryChainComponentMetaDataResolverTest extends Specification {
     final org.gradle.internal.Factory<String> broken = { "broken" }
     final metaData = metaData("1.2")
@@ -515,6 +519,53 @@ class RepositoryChainComponentMetaDataResolverTest extends Specification {
         0 * result._
     }
 
+    def "resolving a component while it is being prefetched uses the overrides of the request"() {
+        given:
+        def speculativeAccess = Mock(ModuleComponentRepositoryAccess)
+        def repo = Stub(ModuleComponentRepository) {
+            getLocalAccess() >> localAccess
+            getRemoteAccess() >> remoteAccess
+            getSpeculativeRemoteAccess() >> speculativeAccess
+            getName() >> "repo1"
+        }
+        resolver.add(repo)
+        def prefetchedState = Stub(ExternalModuleComponentGraphResolveState)
+        def prefetchStarted = new CountDownLatch(1)
+        def edgeResolved = new CountDownLatch(1)
+        def prefetched = null
+
+        when:
+        def prefetch = Thread.start {
+            prefetched = resolver.prefetch(moduleComponentId)
+        }
+        assert prefetchStarted.await(10, TimeUnit.SECONDS)
+        resolver.resolve(moduleComponentId, componentRequestMetaData, result)
+        edgeResolved.countDown()
+        prefetch.join()
+
+        then:
+        1 * localAccess.resolveComponentMetaData(moduleComponentId, DefaultComponentOverrideMetadata.EMPTY, _)
+        1 * speculativeAccess.resolveComponentMetaData(moduleComponentId, DefaultComponentOverrideMetadata.EMPTY, _) >> { id, meta, result ->
+            prefetchStarted.countDown()
+            assert edgeResolved.await(10, TimeUnit.SECONDS)
+            result.resolved(prefetchedState)
+        }
+        1 * localAccess.resolveComponentMetaData(moduleComponentId, componentRequestMetaData, _)
+        1 * remoteAccess.resolveComponentMetaData(moduleComponentId, componentRequestMetaData, _) >> { id, meta, result ->
+            result.resolved(componentState)
+        }
+        1 * result.resolved(_, _) >> { ComponentGraphResolveState state, ComponentGraphSpecificResolveState graphState ->
+            assert state == componentState
+        }
+        prefetched == prefetchedState
+
+        and:
+        0 * localAccess._
+        0 * remoteAccess._
+        0 * speculativeAccess._
+        0 * result._
+    }
+
     def metaData(String version) {
         return Stub(ModuleComponentResolveMetadata) {
             toString() >> version
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser
+
+import spock.lang.Specification
+
+class ParsedPomCacheTest extends Specification {
+    static final String POM = "<project><groupId>group-one</groupId><artifactId>artifact-one</artifactId></project>"
+
+    def "reuses parsed content of the same POM"() {
+        def cache = new ParsedPomCache(100)
+
+        when:
+        def first = parse(cache, POM)
+        def second = parse(cache, POM)
+        def other = parse(cache, POM.replace("one", "two"))
+
+        then:
+        second.is(first)
+        !other.is(first)
+        other.getFirstChildText("groupId") == "group-two"
+    }
+
+    def "does not retain POMs larger than the cache"() {
+        def cache = new ParsedPomCache(2)
+
+        expect:
+        !parse(cache, POM).is(parse(cache, POM))
+    }
+
+    def "does not retain POMs when disabled"() {
+        expect:
+        !parse(ParsedPomCache.DISABLED, POM).is(parse(ParsedPomCache.DISABLED, POM))
+    }
+
+    private static PomElement parse(ParsedPomCache cache, String content) {
+        return cache.parse(new ByteArrayInputStream(content.getBytes("UTF-8")), "pom.xml")
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser
+
+import spock.lang.Specification
+
+import javax.xml.stream.XMLStreamException
+
+class PomXmlParserTest extends Specification {
+
+    def "retains only the elements that are read from a POM"() {
+        when:
+        def project = parse """
+            <project>
+                <modelVersion>4.0.0</modelVersion>
+                <groupId>group-one</groupId>
+                <artifactId>artifact-one</artifactId>
+                <version>version-one</version>
+                <name>Test Artifact One</name>
+                <build>
+                    <plugins>
+                        <plugin>
+                            <dependencies>
+                                <dependency><groupId>plugin-dep</groupId></dependency>
+                            </dependencies>
+                        </plugin>
+                    </plugins>
+                </build>
+                <dependencies>
+                    <dependency>
+                        <groupId>group-two</groupId>
+                        <artifactId>artifact-two</artifactId>
+                        <version>version-two</version>
+                        <systemPath>/some/path</systemPath>
+                    </dependency>
+                </dependencies>
+            </project>
+        """
+
+        then:
+        project.name == "project"
+        project.children*.name == ["groupId", "artifactId", "version", "dependencies"]
+        project.getFirstChildText("groupId") == "group-one"
+        project.getFirstChildText("name") == null
+
+        def dependency = project.getFirstChild("dependencies").getFirstChild("dependency")
+        dependency.children*.name == ["groupId", "artifactId", "version"]
+        dependency.getFirstChildText("version") == "version-two"
+        project.elementCount == 9
+    }
+
+    def "retains all properties with their text"() {
+        when:
+        def project = parse """
+            <project>
+                <properties>
+                    <some.version>1.0</some.version>
+                    <other>  with spaces  </other>
+                    <nested>a<ignored>b</ignored>c</nested>
+                </properties>
+            </project>
+        """
+
+        then:
+        def properties = project.getFirstChild("properties")
+        properties.children*.name == ["some.version", "other", "nested"]
+        properties.children*.textContent == ["1.0", "  with spaces  ", "ac"]
+    }
+
+    def "reads text from character data and entities"() {
+        when:
+        def project = parse """<?xml version="1.0" encoding="UTF-8"?>
+            <project>
+                <groupId>group<![CDATA[-one]]></groupId>
+                <artifactId>artifact&nbsp;one</artifactId>
+                <version>1 &lt; 2</version>
+            </project>
+        """
+
+        then:
+        project.getFirstChildText("groupId") == "group-one"
+        project.getFirstChildText("artifactId") == "artifact\u00a0one"
+        project.getFirstChildText("version") == "1 < 2"
+    }
+
+    def "detects Gradle metadata marker in comment of root element"() {
+        when:
+        def project = parse """
+            <!-- ${MetaDataParser.GRADLE_6_METADATA_MARKER} -->
+            <project>
+                <groupId>group-one</groupId>
+                ${comment}
+            </project>
+        """
+
+        then:
+        project.hasGradleMetadataMarker() == marked
+
+        where:
+        comment                                               | marked
+        "<!-- ${MetaDataParser.GRADLE_6_METADATA_MARKER} -->" | true
+        "<!-- ${MetaDataParser.GRADLE_METADATA_MARKER} -->"   | true
+        "<!-- some comment -->"                               | false
+        ""                                                    | false
+    }
+
+    def "does not resolve external entities"() {
+        when:
+        parse """
+            <!DOCTYPE data [
+              <!ENTITY file SYSTEM "file:///some/file">
+            ]>
+            <project>
+                <version>&file;</version>
+            </project>
+        """
+
+        then:
+        def e = thrown(XMLStreamException)
+        e.message.contains("Already seen doctype")
+    }
+
+    def "fails on malformed content"() {
+        when:
+        parse """
+            <project>
+                <groupId>group-one</groupId
+            </project>
+        """
+
+        then:
+        thrown(XMLStreamException)
+    }
+
+    private static PomElement parse(String content) {
+        return PomXmlParser.parse(new ByteArrayInputStream(content.trim().getBytes("UTF-8")), "pom.xml")
+    }
+}
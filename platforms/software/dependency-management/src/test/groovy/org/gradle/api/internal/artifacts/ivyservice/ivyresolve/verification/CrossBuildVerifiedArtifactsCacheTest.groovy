@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.verification
+
+import org.gradle.cache.internal.DefaultUnscopedCacheBuilderFactory
+import org.gradle.cache.internal.scopes.DefaultBuildScopedCacheBuilderFactory
+import org.gradle.internal.hash.Hashing
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.testfixtures.internal.TestInMemoryCacheFactory
+import org.junit.Rule
+import spock.lang.Specification
+
+class CrossBuildVerifiedArtifactsCacheTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider(getClass())
+
+    def cacheBuilderFactory = new DefaultBuildScopedCacheBuilderFactory(tmpDir.file("caches"), new DefaultUnscopedCacheBuilderFactory(new TestInMemoryCacheFactory()))
+
+    def "reports artifacts verified in the same state"() {
+        def cache = new CrossBuildVerifiedArtifactsCache(cacheBuilderFactory, true)
+        def state = Hashing.hashString("state")
+
+        expect:
+        !cache.isVerified("ARTIFACT org:foo:1.0 foo-1.0.jar", state)
+
+        when:
+        cache.markVerified("ARTIFACT org:foo:1.0 foo-1.0.jar", state)
+
+        then:
+        cache.isVerified("ARTIFACT org:foo:1.0 foo-1.0.jar", state)
+        !cache.isVerified("ARTIFACT org:foo:1.0 foo-1.0.jar", Hashing.hashString("changed"))
+        !cache.isVerified("METADATA org:foo:1.0 foo-1.0.pom", state)
+
+        cleanup:
+        cache.stop()
+    }
+
+    def "records but does not reuse results when reuse is disabled"() {
+        def state = Hashing.hashString("state")
+
+        when:
+        def refreshing = new CrossBuildVerifiedArtifactsCache(cacheBuilderFactory, false)
+        refreshing.markVerified("ARTIFACT org:foo:1.0 foo-1.0.jar", state)
+
+        then:
+        !refreshing.isVerified("ARTIFACT org:foo:1.0 foo-1.0.jar", state)
+
+        when:
+        refreshing.stop()
+        def cache = new CrossBuildVerifiedArtifactsCache(cacheBuilderFactory, true)
+
+        then:
+        cache.isVerified("ARTIFACT org:foo:1.0 foo-1.0.jar", state)
+
+        cleanup:
+        cache?.stop()
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.builder
+
+import com.google.common.collect.ImmutableList
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier
+import org.gradle.api.internal.artifacts.DefaultModuleIdentifier
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.DefaultVersionComparator
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.DefaultVersionSelectorScheme
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionParser
+import org.gradle.internal.component.external.model.DefaultModuleComponentIdentifier
+import org.gradle.internal.component.external.model.DefaultModuleComponentSelector
+import org.gradle.internal.component.external.model.ExternalModuleComponentGraphResolveState
+import org.gradle.internal.component.local.model.LocalComponentGraphResolveState
+import org.gradle.internal.component.model.DefaultIvyArtifactName
+import org.gradle.internal.component.model.DependencyMetadata
+import org.gradle.internal.component.model.GraphSelectionCandidates
+import org.gradle.internal.component.model.VariantGraphResolveState
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import org.gradle.internal.resolve.resolver.ComponentMetaDataResolver
+import org.gradle.internal.operations.BuildOperationRef
+import org.gradle.internal.operations.CurrentBuildOperationRef
+import spock.lang.Specification
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CountDownLatch
+
+import static org.gradle.test.fixtures.ConcurrentTestUtil.poll
+
+class ComponentMetadataPrefetcherTest extends Specification {
+    def executorFactory = new DefaultExecutorFactory()
+    def versionSelectorScheme = new DefaultVersionSelectorScheme(new DefaultVersionComparator(), new VersionParser())
+    def components = new ConcurrentHashMap<ModuleComponentIdentifier, ExternalModuleComponentGraphResolveState>()
+    def resolved = new ConcurrentLinkedQueue<ModuleComponentIdentifier>()
+    def resolver = Stub(ComponentMetaDataResolver) {
+        prefetch(_) >> { ModuleComponentIdentifier id ->
+            resolved.add(id)
+            return components.get(id)
+        }
+    }
+
+    def cleanup() {
+        executorFactory.stop()
+    }
+
+    def "prefetches static dependencies of resolved components transitively"() {
+        def c = component("c", [])
+        def b = component("b", [dependency(c)])
+        def a = component("a", [dependency(b), dependency("d", "[1.0,2.0)"), dependency("e", "1.+"), dependency("f", "latest.release")])
+
+        when:
+        def session = prefetcher().startSession(resolver, versionSelectorScheme)
+        session.prefetchDependenciesOf(a)
+        poll { assert resolved.size() == 2 }
+        session.close()
+
+        then:
+        resolved as List == [b.id, c.id]
+    }
+
+    def "only prefetches into the repository caches"() {
+        def resolver = Mock(ComponentMetaDataResolver)
+        def b = component("b", [])
+        def a = component("a", [dependency(b)])
+
+        when:
+        def session = prefetcher().startSession(resolver, versionSelectorScheme)
+        session.prefetchDependenciesOf(a)
+        poll { assert resolved.size() == 1 }
+        session.close()
+
+        then:
+        1 * resolver.prefetch(b.id) >> { resolved.add(b.id); null }
+        0 * resolver._
+    }
+
+    def "does not prefetch constraints, changing dependencies or dependencies on specific artifacts"() {
+        def b = component("b", [])
+        def a = component("a", [
+            dependency(b, constraint: true),
+            dependency(b, changing: true),
+            dependency(b, artifacts: [new DefaultIvyArtifactName("b", "jar", "jar")])
+        ])
+
+        when:
+        def session = prefetcher().startSession(resolver, versionSelectorScheme)
+        session.prefetchDependenciesOf(a)
+        session.close()
+
+        then:
+        resolved.empty
+    }
+
+    def "prefetches each component once and does not expand non-transitive dependencies"() {
+        def d = component("d", [])
+        def c = component("c", [dependency(d)])
+        def b = component("b", [])
+        def a = component("a", [dependency(b), dependency(b), dependency(c, transitive: false)])
+
+        when:
+        def session = prefetcher().startSession(resolver, versionSelectorScheme)
+        session.prefetchDependenciesOf(a)
+        session.prefetchDependenciesOf(a)
+        poll { assert resolved.size() == 2 }
+        session.close()
+
+        then:
+        resolved.toList().toSorted { it.module } == [b.id, c.id]
+    }
+
+    def "ignores failures and local components"() {
+        def a = component("a", [dependency("missing", "1.0")])
+        def local = Stub(LocalComponentGraphResolveState)
+
+        when:
+        def session = prefetcher().startSession(resolver, versionSelectorScheme)
+        session.prefetchDependenciesOf(local)
+        session.prefetchDependenciesOf(a)
+        poll { assert resolved.size() == 1 }
+        session.close()
+
+        then:
+        resolved as List == [DefaultModuleComponentIdentifier.newId(DefaultModuleIdentifier.newId("org", "missing"), "1.0")]
+    }
+
+    def "stops scheduling prefetches once the limit is reached"() {
+        def dependencies = (1..10).collect { component("dep$it", []) }
+        def a = component("a", dependencies.collect { dependency(it) })
+
+        when:
+        def session = prefetcher(5).startSession(resolver, versionSelectorScheme)
+        session.prefetchDependenciesOf(a)
+        poll { assert resolved.size() == 4 }
+        session.close()
+        executorFactory.stop()
+
+        then:
+        // One task expands the component, the remaining ones resolve its dependencies
+        resolved.size() == 4
+    }
+
+    def "does nothing when disabled"() {
+        def b = component("b", [])
+        def a = component("a", [dependency(b)])
+
+        when:
+        def session = new ComponentMetadataPrefetcher(null, 0).startSession(resolver, versionSelectorScheme)
+        session.prefetchDependenciesOf(a)
+        session.close()
+
+        then:
+        resolved.empty
+    }
+
+    def "does not schedule prefetches after the session is closed"() {
+        def b = component("b", [])
+        def a = component("a", [dependency(b)])
+
+        when:
+        def session = prefetcher().startSession(resolver, versionSelectorScheme)
+        session.close()
+        session.prefetchDependenciesOf(a)
+
+        then:
+        resolved.empty
+    }
+
+    def "does not wait for running prefetches when the session is closed"() {
+        def started = new CountDownLatch(1)
+        def release = new CountDownLatch(1)
+        def c = component("c", [])
+        def b = component("b", [dependency(c)])
+        def a = component("a", [dependency(b)])
+        def blockingResolver = Stub(ComponentMetaDataResolver) {
+            prefetch(_) >> { ModuleComponentIdentifier id ->
+                resolved.add(id)
+                started.countDown()
+                release.await()
+                return components.get(id)
+            }
+        }
+
+        when:
+        def session = prefetcher().startSession(blockingResolver, versionSelectorScheme)
+        session.prefetchDependenciesOf(a)
+        started.await()
+        session.close()
+
+        then:
+        release.count == 1
+
+        when:
+        release.countDown()
+        executorFactory.stop()
+
+        then:
+        // The prefetch of b completes, but does not go on with its dependencies
+        resolved as List == [b.id]
+    }
+
+    def "runs prefetches outside of the build operation of the resolution"() {
+        def operations = new ConcurrentLinkedQueue<Object>()
+        def b = component("b", [])
+        def a = component("a", [dependency(b)])
+        def recordingResolver = Stub(ComponentMetaDataResolver) {
+            prefetch(_) >> { ModuleComponentIdentifier id ->
+                operations.add(Optional.ofNullable(CurrentBuildOperationRef.instance().get()))
+                resolved.add(id)
+                return null
+            }
+        }
+
+        when:
+        CurrentBuildOperationRef.instance().set(Stub(BuildOperationRef))
+        def session = prefetcher().startSession(recordingResolver, versionSelectorScheme)
+        session.prefetchDependenciesOf(a)
+        poll { assert resolved.size() == 1 }
+        session.close()
+
+        then:
+        operations as List == [Optional.empty()]
+
+        cleanup:
+        CurrentBuildOperationRef.instance().clear()
+    }
+
+    private ComponentMetadataPrefetcher prefetcher(int limit = 100) {
+        return new ComponentMetadataPrefetcher(executorFactory.create("prefetch", 2), limit)
+    }
+
+    private ExternalModuleComponentGraphResolveState component(String name, List<DependencyMetadata> dependencies) {
+        def id = DefaultModuleComponentIdentifier.newId(DefaultModuleIdentifier.newId("org", name), "1.0")
+        def variant = Stub(VariantGraphResolveState) {
+            getDependencies() >> dependencies
+        }
+        def candidates = Stub(GraphSelectionCandidates) {
+            getVariantsForAttributeMatching() >> [variant]
+        }
+        def component = Stub(ExternalModuleComponentGraphResolveState) {
+            getId() >> id
+            getCandidatesForGraphVariantSelection() >> candidates
+        }
+        components.put(id, component)
+        return component
+    }
+
+    private DependencyMetadata dependency(Map<String, ?> options = [:], ExternalModuleComponentGraphResolveState target) {
+        def id = target.id as ModuleComponentIdentifier
+        return dependency(options, id.module, id.version)
+    }
+
+    private DependencyMetadata dependency(Map<String, ?> options = [:], String module, String version) {
+        return Stub(DependencyMetadata) {
+            getSelector() >> DefaultModuleComponentSelector.newSelector(DefaultModuleIdentifier.newId("org", module), version)
+            getArtifacts() >> ImmutableList.copyOf(options.artifacts ?: [])
+            isConstraint() >> (options.constraint ?: false)
+            isChanging() >> (options.changing ?: false)
+            isTransitive() >> options.getOrDefault("transitive", true)
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.transform
+
+import org.gradle.api.artifacts.transform.TransformAction
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+import java.util.concurrent.Executor
+import java.util.concurrent.Executors
+import java.util.zip.ZipEntry
+import java.util.zip.ZipOutputStream
+
+class UnzipTransformTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider(getClass())
+
+    def executor = Executors.newFixedThreadPool(4)
+
+    def cleanup() {
+        executor.shutdownNow()
+    }
+
+    def "extracts the files of an archive"() {
+        def contents = tmpDir.createDir("contents")
+        contents.file("a.h").text = "a"
+        contents.file("nested/b.h").text = "b"
+        contents.file("nested/deeper/c.h").text = "c"
+        def zip = tmpDir.file("headers.zip")
+        contents.zipTo(zip)
+        def unzipDir = tmpDir.file("headers")
+
+        when:
+        UnzipTransform.unzipTo(zip, unzipDir, parallel ? executor : null)
+
+        then:
+        unzipDir.file("a.h").text == "a"
+        unzipDir.file("nested/b.h").text == "b"
+        unzipDir.file("nested/deeper/c.h").text == "c"
+
+        where:
+        parallel << [false, true]
+    }
+
+    def "extracts large archives in parallel"() {
+        def files = largeArchiveFiles()
+        def zip = largeArchive(files)
+        def unzipDir = tmpDir.file("large")
+
+        when:
+        UnzipTransform.unzipTo(zip, unzipDir, executor)
+
+        then:
+        files.every { name, bytes -> unzipDir.file(name).bytes == bytes }
+    }
+
+    def "extracts all batches on the calling thread when the executor does not run the helpers in time"() {
+        def files = largeArchiveFiles()
+        def zip = largeArchive(files)
+        def unzipDir = tmpDir.file("large")
+        def queued = []
+        def busyExecutor = { Runnable helper -> queued << helper } as Executor
+
+        when:
+        UnzipTransform.unzipTo(zip, unzipDir, busyExecutor)
+
+        then:
+        !queued.empty
+        files.every { name, bytes -> unzipDir.file(name).bytes == bytes }
+
+        when: "the helpers start after the archive has been extracted"
+        queued.each { it.run() }
+
+        then:
+        files.every { name, bytes -> unzipDir.file(name).bytes == bytes }
+    }
+
+    def "only unzip transforms can inject the archive extraction executor"() {
+        expect:
+        DefaultTransform.additionalAllowedServicesFor(UnzipTransform) == [ArchiveExtractionExecutor] as Set
+        DefaultTransform.additionalAllowedServicesFor(TransformAction).empty
+    }
+
+    private Map<String, byte[]> largeArchiveFiles() {
+        def random = new Random(42)
+        return (0..<200).collectEntries { i ->
+            def bytes = new byte[32 * 1024]
+            random.nextBytes(bytes)
+            ["dir${i % 10}/file${i}.bin".toString(), bytes]
+        }
+    }
+
+    private File largeArchive(Map<String, byte[]> files) {
+        def zip = tmpDir.file("large.zip")
+        zip.withOutputStream { output ->
+            new ZipOutputStream(output).withCloseable { zipOutput ->
+                files.each { name, bytes ->
+                    zipOutput.putNextEntry(new ZipEntry(name))
+                    zipOutput.write(bytes)
+                    zipOutput.closeEntry()
+                }
+            }
+        }
+        return zip
+    }
+
+    def "refuses to extract entries outside of the target directory"() {
+        def zip = tmpDir.file("evil.zip")
+        zip.withOutputStream { output ->
+            new ZipOutputStream(output).withCloseable { zipOutput ->
+                zipOutput.putNextEntry(new ZipEntry("good.txt"))
+                zipOutput.write("good".bytes)
+                zipOutput.putNextEntry(new ZipEntry("../../evil.txt"))
+                zipOutput.write("evil".bytes)
+            }
+        }
+        def unzipDir = tmpDir.file("evil")
+
+        when:
+        UnzipTransform.unzipTo(zip, unzipDir, executor)
+
+        then:
+        def e = thrown(IllegalArgumentException)
+        e.message == "'../../evil.txt' is not a safe archive entry or path name."
+        !unzipDir.file("good.txt").exists()
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.worker;
+
+import org.gradle.api.internal.tasks.testing.DefaultTestOutputEvent;
+import org.gradle.api.internal.tasks.testing.TestCompleteEvent;
+import org.gradle.api.internal.tasks.testing.TestDescriptorInternal;
+import org.gradle.api.internal.tasks.testing.TestResultProcessor;
+import org.gradle.api.internal.tasks.testing.TestStartEvent;
+import org.gradle.api.tasks.testing.TestFailure;
+import org.gradle.api.tasks.testing.TestMetadataEvent;
+import org.gradle.api.tasks.testing.TestOutputEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merges consecutive output events of a test before they are sent to the build process, so that a test writing many lines
+ * costs a few messages rather than one message per line.
+ *
+ * <p>Output is only merged at line boundaries and for the same test and destination. Any other event sends the pending output first,
+ * so the build process sees events in the order they happened. Pending output is also sent when it grows past {@link #MAX_PENDING_CHARS}
+ * and periodically, see {@link #flushEvery(ScheduledExecutorService, long)}, so a test that runs for a long time still shows its output
+ * as it goes.</p>
+ *
+ * <p>The output still travels as serialized events over the worker connection. Workers do not write it to a shared log that the build
+ * process reads directly. Batching only reduces the number of messages, not the number of times the text is copied.</p>
+ */
+class BatchingTestOutputResultProcessor implements TestResultProcessor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchingTestOutputResultProcessor.class);
+
+    static final int MAX_PENDING_CHARS = 64 * 1024;
+
+    private final TestResultProcessor delegate;
+    private final StringBuilder pendingMessage = new StringBuilder();
+    private Object pendingTestId;
+    private TestOutputEvent.Destination pendingDestination;
+    private long pendingLogTime;
+
+    BatchingTestOutputResultProcessor(TestResultProcessor delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Sends pending output at the given interval until the executor is stopped.
+     */
+    void flushEvery(ScheduledExecutorService executor, long intervalMillis) {
+        ScheduledFuture<?> ignored = executor.scheduleAtFixedRate(() -> {
+            try {
+                flush();
+            } catch (Throwable t) {
+                // Must not throw, otherwise further invocations are silently cancelled.
+                // A broken connection is reported by the next event sent from the worker thread.
+                LOGGER.debug("Could not send test output", t);
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void started(TestDescriptorInternal test, TestStartEvent event) {
+        flush();
+        delegate.started(test, event);
+    }
+
+    @Override
+    public synchronized void completed(Object testId, TestCompleteEvent event) {
+        flush();
+        delegate.completed(testId, event);
+    }
+
+    @Override
+    public synchronized void output(Object testId, TestOutputEvent event) {
+        String message = event.getMessage();
+        if (pendingTestId != null) {
+            if (canAppend(testId, event.getDestination(), message)) {
+                pendingMessage.append(message);
+                return;
+            }
+            flush();
+        }
+        if (message.length() >= MAX_PENDING_CHARS) {
+            delegate.output(testId, event);
+            return;
+        }
+        pendingTestId = testId;
+        pendingDestination = event.getDestination();
+        pendingLogTime = event.getLogTime();
+        pendingMessage.append(message);
+    }
+
+    private boolean canAppend(Object testId, TestOutputEvent.Destination destination, String message) {
+        return pendingTestId.equals(testId)
+            && pendingDestination == destination
+            && (pendingMessage.length() == 0 || pendingMessage.charAt(pendingMessage.length() - 1) == '\n')
+            && pendingMessage.length() + message.length() <= MAX_PENDING_CHARS;
+    }
+
+    @Override
+    public synchronized void failure(Object testId, TestFailure result) {
+        flush();
+        delegate.failure(testId, result);
+    }
+
+    @Override
+    public synchronized void published(Object testId, TestMetadataEvent keyValueEvent) {
+        flush();
+        delegate.published(testId, keyValueEvent);
+    }
+
+    /**
+     * Sends any pending output.
+     */
+    synchronized void flush() {
+        if (pendingTestId == null) {
+            return;
+        }
+        Object testId = pendingTestId;
+        TestOutputEvent event = new DefaultTestOutputEvent(pendingLogTime, pendingDestination, pendingMessage.toString());
+        pendingTestId = null;
+        pendingDestination = null;
+        pendingMessage.setLength(0);
+        delegate.output(testId, event);
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.worker;
+
+import org.gradle.api.internal.tasks.testing.TestDefinition;
+
+/**
+ * The commands accepted by a {@link ReusableTestWorker}. Each test task that uses the worker runs a session,
+ * bracketed by {@link #startSession(TestWorkerSessionSpec)} and {@link #stopSession()}.
+ *
+ * @see RemoteTestDefinitionProcessor
+ */
+public interface RemoteReusableTestWorker<D extends TestDefinition> {
+    /**
+     * Does not block.
+     */
+    void startSession(TestWorkerSessionSpec spec);
+
+    /**
+     * Does not block.
+     */
+    void processTestDefinition(D testDefinition);
+
+    /**
+     * Does not block. {@link ReusableTestWorkerResultProcessor#sessionStopped(long, long)} is called once the session has finished.
+     */
+    void stopSession();
+
+    /**
+     * Does not block. Stops the worker process, which must not be running a session.
+     */
+    void stop();
+}
@@ -0,0 +1,332 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.worker;
+
+import org.gradle.api.Action;
+import org.gradle.api.internal.tasks.testing.TestDefinition;
+import org.gradle.api.internal.tasks.testing.TestDefinitionProcessor;
+import org.gradle.api.internal.tasks.testing.TestResultProcessor;
+import org.gradle.api.internal.tasks.testing.WorkerTestDefinitionProcessorFactory;
+import org.gradle.internal.Cast;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.actor.ActorFactory;
+import org.gradle.internal.classloader.ClassLoaderUtils;
+import org.gradle.internal.classloader.FilteringClassLoader;
+import org.gradle.internal.classloader.MultiParentClassLoader;
+import org.gradle.internal.classloader.VisitableURLClassLoader;
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.dispatch.ContextClassLoaderProxy;
+import org.gradle.internal.id.IdGenerator;
+import org.gradle.internal.remote.ObjectConnection;
+import org.gradle.internal.serialize.ClassLoaderObjectInputStream;
+import org.gradle.internal.service.CloseableServiceRegistry;
+import org.gradle.internal.time.Clock;
+import org.gradle.process.internal.worker.WorkerProcessContext;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A test worker that runs the tests of several test tasks, one after the other, so that they share the cost of starting and warming up a JVM.
+ * Each task runs a session, see {@link RemoteReusableTestWorker}.
+ *
+ * <p>The worker process is started without an application classpath. Instead, each session loads the test runtime classpath and the
+ * test framework integration into fresh ClassLoaders, so no classes are shared between tasks:</p>
+ *
+ * <pre>
+ *      implementation               application
+ *   (Gradle infrastructure)  (test runtime classpath)
+ *              |                         |
+ *              |                       filter
+ *              |                 (shared packages)
+ *               \                       /
+ *                test framework implementation
+ * </pre>
+ *
+ * <p>System properties are restored and any security manager is reinstalled at the end of each session. State held outside of these
+ * ClassLoaders, such as threads started by tests, survives a session, which is why the build process recycles a worker after a number
+ * of sessions or once its heap usage has grown.</p>
+ */
+public class ReusableTestWorker<D extends TestDefinition> implements Action<WorkerProcessContext>, RemoteReusableTestWorker<D>, Serializable, Stoppable {
+    private enum State {IDLE, STARTED, STOPPED}
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReusableTestWorker.class);
+    private static final String WORK_THREAD_NAME = "Test worker";
+
+    /**
+     * Stops a worker that has not been used for this long, so it does not outlive a build process that went away without stopping it.
+     * This is longer than the build process keeps idle workers around.
+     */
+    private static final long IDLE_TIMEOUT_MINUTES = 180;
+
+    private final BlockingQueue<Runnable> runQueue = new ArrayBlockingQueue<Runnable>(1);
+    private WorkerProcessContext workerProcessContext;
+    private CloseableServiceRegistry testServices;
+    private SecurityManagerRef securityManagerRef;
+    private ReusableTestWorkerResultProcessor resultProcessor;
+    private TestResultProcessor testResultProcessor;
+    @Nullable
+    private BatchingTestOutputResultProcessor outputBatcher;
+    private Session<D> session;
+
+    /**
+     * Note that the state object is not synchronized and not thread-safe.  Any modifications to the
+     * the state should ONLY be made inside the main thread or inside a command passed to the run queue
+     * (which will execute on the main thread).
+     */
+    private volatile State state = State.IDLE;
+
+    @Override
+    public void execute(final WorkerProcessContext workerProcessContext) {
+        Thread.currentThread().setName(WORK_THREAD_NAME);
+
+        LOGGER.info("{} started.", workerProcessContext.getDisplayName());
+
+        this.workerProcessContext = workerProcessContext;
+        this.securityManagerRef = SecurityManagerRef.getOrFake();
+
+        System.setProperty(TestWorker.WORKER_ID_SYS_PROPERTY, workerProcessContext.getWorkerId().toString());
+
+        // Jars on the test runtime classpath may be rebuilt between sessions, so must not be served from the JarURLConnection cache
+        ClassLoaderUtils.disableUrlConnectionCaching();
+
+        testServices = TestWorker.TestFrameworkServiceRegistry.create(workerProcessContext);
+        startReceivingCommands(workerProcessContext);
+
+        try {
+            try {
+                while (state != State.STOPPED) {
+                    Runnable command = runQueue.poll(IDLE_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+                    if (command == null) {
+                        if (state == State.IDLE) {
+                            LOGGER.info("{} has been idle for {} minutes, stopping.", workerProcessContext.getDisplayName(), IDLE_TIMEOUT_MINUTES);
+                            break;
+                        }
+                        continue;
+                    }
+                    executeAndMaintainThreadName(command);
+                }
+            } catch (InterruptedException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+        } finally {
+            LOGGER.info("{} stopped.", workerProcessContext.getDisplayName());
+
+            // In the event that the main thread exits with an uncaught exception, stop processing
+            // and clear out the run queue to unblock any running communication threads
+            synchronized (this) {
+                state = State.STOPPED;
+                runQueue.clear();
+            }
+
+            TestWorker.flushPendingOutputQuietly(outputBatcher);
+
+            securityManagerRef.reinstall(LOGGER);
+            testServices.close();
+        }
+    }
+
+    private static void executeAndMaintainThreadName(Runnable action) {
+        try {
+            action.run();
+        } finally {
+            // Reset the thread name if the action changes it (e.g. if a test sets the thread name without resetting it afterwards)
+            Thread.currentThread().setName(WORK_THREAD_NAME);
+        }
+    }
+
+    private void startReceivingCommands(WorkerProcessContext workerProcessContext) {
+        ObjectConnection serverConnection = workerProcessContext.getServerConnection();
+        serverConnection.useParameterSerializers(TestEventSerializer.create());
+        this.resultProcessor = serverConnection.addOutgoing(ReusableTestWorkerResultProcessor.class);
+        this.outputBatcher = TestWorker.createOutputBatcher(resultProcessor, testServices);
+        this.testResultProcessor = outputBatcher != null ? outputBatcher : resultProcessor;
+        serverConnection.addIncoming(RemoteReusableTestWorker.class, this);
+        serverConnection.connect();
+    }
+
+    @Override
+    public void startSession(final TestWorkerSessionSpec spec) {
+        submitToRun(new Runnable() {
+            @Override
+            public void run() {
+                if (state != State.IDLE) {
+                    throw new IllegalStateException("A command to start a session has already been received");
+                }
+                session = new Session<D>(spec, workerProcessContext, testServices, testResultProcessor);
+                state = State.STARTED;
+            }
+        });
+    }
+
+    @Override
+    public void processTestDefinition(final D testDefinition) {
+        submitToRun(new Runnable() {
+            @Override
+            public void run() {
+                if (state != State.STARTED) {
+                    throw new IllegalStateException("Test classes cannot be processed until a command to start a session has been received");
+                }
+                try {
+                    session.processor.processTestDefinition(testDefinition);
+                } finally {
+                    // Clean the interrupted status
+                    Thread.interrupted();
+                }
+            }
+        });
+    }
+
+    @Override
+    public void stopSession() {
+        submitToRun(new Runnable() {
+            @Override
+            public void run() {
+                if (state != State.STARTED) {
+                    throw new IllegalStateException("A command to stop a session was received without a running session");
+                }
+                stopCurrentSession();
+                state = State.IDLE;
+
+                // Report what the session left behind, so the build process can decide whether to keep the worker
+                System.gc();
+                Runtime runtime = Runtime.getRuntime();
+                resultProcessor.sessionStopped(runtime.totalMemory() - runtime.freeMemory(), runtime.maxMemory());
+            }
+        });
+    }
+
+    @Override
+    public void stop() {
+        submitToRun(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    if (session != null) {
+                        stopCurrentSession();
+                    }
+                } finally {
+                    state = State.STOPPED;
+                }
+            }
+        });
+    }
+
+    private void stopCurrentSession() {
+        Session<D> current = session;
+        session = null;
+        try {
+            current.stop();
+        } finally {
+            if (outputBatcher != null) {
+                outputBatcher.flush();
+            }
+            // Clean the interrupted status
+            // because some test class processors do work here, e.g. JUnitPlatform
+            Thread.interrupted();
+            securityManagerRef.reinstall(LOGGER);
+        }
+    }
+
+    private synchronized void submitToRun(Runnable command) {
+        if (state != State.STOPPED) {
+            try {
+                runQueue.put(command);
+            } catch (InterruptedException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+        }
+    }
+
+    private static class Session<D extends TestDefinition> {
+        private final Properties systemProperties;
+        private final VisitableURLClassLoader applicationClassLoader;
+        private final VisitableURLClassLoader testFrameworkClassLoader;
+        private final TestDefinitionProcessor<D> processor;
+
+        Session(TestWorkerSessionSpec spec, WorkerProcessContext workerProcessContext, CloseableServiceRegistry testServices, TestResultProcessor resultProcessor) {
+            systemProperties = (Properties) System.getProperties().clone();
+            for (Map.Entry<String, String> entry : spec.getSystemProperties().entrySet()) {
+                System.setProperty(entry.getKey(), entry.getValue());
+            }
+
+            applicationClassLoader = new VisitableURLClassLoader("test-application", ClassLoader.getSystemClassLoader(), toUrls(spec.getApplicationClasspath()));
+            FilteringClassLoader.Spec sharedPackages = new FilteringClassLoader.Spec();
+            for (String sharedPackage : spec.getSharedPackages()) {
+                sharedPackages.allowPackage(sharedPackage);
+            }
+            ClassLoader parent = new MultiParentClassLoader(ReusableTestWorker.class.getClassLoader(), new FilteringClassLoader(applicationClassLoader, sharedPackages));
+            testFrameworkClassLoader = new VisitableURLClassLoader("test-framework-implementation", parent, spec.getTestFrameworkImplementationClasspath());
+
+            WorkerTestDefinitionProcessorFactory<D> factory = deserialize(spec.getSerializedProcessorFactory(), testFrameworkClassLoader);
+            Clock clock = testServices.get(Clock.class);
+            IdGenerator<Object> idGenerator = Cast.uncheckedNonnullCast(testServices.get(IdGenerator.class));
+            TestDefinitionProcessor<D> targetProcessor = factory.create(idGenerator, testServices.get(ActorFactory.class), clock);
+            targetProcessor = new WorkerTestDefinitionProcessor<>(targetProcessor, idGenerator.generateId(), workerProcessContext.getDisplayName(), clock);
+            ContextClassLoaderProxy<TestDefinitionProcessor<D>> proxy = new ContextClassLoaderProxy<>(
+                Cast.uncheckedNonnullCast(TestDefinitionProcessor.class), targetProcessor, applicationClassLoader
+            );
+            processor = proxy.getSource();
+            processor.startProcessing(resultProcessor);
+        }
+
+        void stop() {
+            try {
+                processor.stop();
+            } finally {
+                System.setProperties(systemProperties);
+                ClassLoaderUtils.tryClose(testFrameworkClassLoader);
+                ClassLoaderUtils.tryClose(applicationClassLoader);
+            }
+        }
+
+        private static List<URL> toUrls(List<File> files) {
+            List<URL> urls = new ArrayList<URL>(files.size());
+            for (File file : files) {
+                try {
+                    urls.add(file.toURI().toURL());
+                } catch (MalformedURLException e) {
+                    throw UncheckedException.throwAsUncheckedException(e);
+                }
+            }
+            return urls;
+        }
+
+        private static <D extends TestDefinition> WorkerTestDefinitionProcessorFactory<D> deserialize(byte[] serializedFactory, ClassLoader classLoader) {
+            try (ObjectInputStream inputStream = new ClassLoaderObjectInputStream(new ByteArrayInputStream(serializedFactory), classLoader)) {
+                return Cast.uncheckedNonnullCast(inputStream.readObject());
+            } catch (IOException | ClassNotFoundException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.worker;
+
+import org.gradle.api.internal.tasks.testing.TestResultProcessor;
+
+/**
+ * Receives the results of a {@link ReusableTestWorker}. The end of a session is reported through the same interface as the
+ * test results, so that it is delivered after all results of the session.
+ */
+public interface ReusableTestWorkerResultProcessor extends TestResultProcessor {
+    /**
+     * Called when a session has finished and the worker is ready to start the next one.
+     *
+     * @param usedHeapBytes the heap still in use after the session and a garbage collection, which grows when tests leak state
+     * @param maxHeapBytes the maximum heap size of the worker
+     */
+    void sessionStopped(long usedHeapBytes, long maxHeapBytes);
+}
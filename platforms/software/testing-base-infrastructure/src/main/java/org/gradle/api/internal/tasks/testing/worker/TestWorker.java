@@ -40,6 +40,7 @@
 import org.gradle.internal.service.ServiceRegistryBuilder;
 import org.gradle.internal.time.Clock;
 import org.gradle.process.internal.worker.WorkerProcessContext;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -66,12 +67,19 @@ private enum State {INITIALIZING, STARTED, STOPPED}
     private static final Logger LOGGER = LoggerFactory.getLogger(TestWorker.class);
     public static final String WORKER_ID_SYS_PROPERTY = "org.gradle.test.worker";
     public static final String WORKER_TMPDIR_SYS_PROPERTY = "org.gradle.internal.worker.tmpdir";
+    /**
+     * When set to {@code true} on the worker process, output events are merged before they are sent to the build process, see {@link BatchingTestOutputResultProcessor}.
+     */
+    public static final String BATCH_OUTPUT_SYS_PROPERTY = "org.gradle.internal.worker.batch-output";
     private static final String WORK_THREAD_NAME = "Test worker";
+    static final long OUTPUT_FLUSH_INTERVAL_MILLIS = 100;
 
     private final WorkerTestDefinitionProcessorFactory<D> factory;
     private final BlockingQueue<Runnable> runQueue = new ArrayBlockingQueue<Runnable>(1);
     private TestDefinitionProcessor<D> processor;
     private TestResultProcessor resultProcessor;
+    @Nullable
+    private BatchingTestOutputResultProcessor outputBatcher;
 
     /**
      * Note that the state object is not synchronized and not thread-safe.  Any modifications to the
@@ -115,6 +123,8 @@ public void execute(final WorkerProcessContext workerProcessContext) {
                 runQueue.clear();
             }
 
+            flushPendingOutputQuietly(outputBatcher);
+
             // Reset any security manager the tests seem to have installed
             securityManagerRef.reinstall(LOGGER);
             testServices.close();
@@ -147,7 +157,9 @@ private void startReceivingTests(WorkerProcessContext workerProcessContext, Serv
 
         ObjectConnection serverConnection = workerProcessContext.getServerConnection();
         serverConnection.useParameterSerializers(TestEventSerializer.create());
-        this.resultProcessor = serverConnection.addOutgoing(TestResultProcessor.class);
+        TestResultProcessor outgoing = serverConnection.addOutgoing(TestResultProcessor.class);
+        this.outputBatcher = createOutputBatcher(outgoing, testServices);
+        this.resultProcessor = outputBatcher != null ? outputBatcher : outgoing;
         serverConnection.addIncoming(RemoteTestDefinitionProcessor.class, this);
         serverConnection.connect();
     }
@@ -194,6 +206,9 @@ public void run() {
                 try {
                     processor.stop();
                 } finally {
+                    if (outputBatcher != null) {
+                        outputBatcher.flush();
+                    }
                     state = State.STOPPED;
                     // Clean the interrupted status
                     // because some test class processors do work here, e.g. JUnitPlatform
@@ -203,6 +218,34 @@ public void run() {
         });
     }
 
+    /**
+     * Returns a processor that batches the output events sent to the given processor, or null when batching is not enabled
+     * with {@link #BATCH_OUTPUT_SYS_PROPERTY}.
+     */
+    @Nullable
+    static BatchingTestOutputResultProcessor createOutputBatcher(TestResultProcessor delegate, ServiceRegistry testServices) {
+        if (!Boolean.getBoolean(BATCH_OUTPUT_SYS_PROPERTY)) {
+            return null;
+        }
+        BatchingTestOutputResultProcessor outputBatcher = new BatchingTestOutputResultProcessor(delegate);
+        outputBatcher.flushEvery(testServices.get(ExecutorFactory.class).createScheduled("Test output flusher", 1), OUTPUT_FLUSH_INTERVAL_MILLIS);
+        return outputBatcher;
+    }
+
+    /**
+     * Sends any output that is still pending when the worker stops because of a failure, without hiding the failure.
+     */
+    static void flushPendingOutputQuietly(@Nullable BatchingTestOutputResultProcessor outputBatcher) {
+        if (outputBatcher == null) {
+            return;
+        }
+        try {
+            outputBatcher.flush();
+        } catch (Throwable t) {
+            LOGGER.debug("Could not send test output", t);
+        }
+    }
+
     private synchronized void submitToRun(Runnable command) {
         if (state != State.STOPPED) {
             try {
@@ -213,7 +256,7 @@ private synchronized void submitToRun(Runnable command) {
         }
     }
 
-    private static class TestFrameworkServiceRegistry implements ServiceRegistrationProvider {
+    static class TestFrameworkServiceRegistry implements ServiceRegistrationProvider {
 
         public static CloseableServiceRegistry create(WorkerProcessContext workerProcessContext) {
             return ServiceRegistryBuilder.builder()
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.worker;
+
+import java.io.File;
+import java.io.Serializable;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Describes a single test task's use of a {@link ReusableTestWorker}: the test framework to run, and the classpaths and
+ * system properties that are specific to the task and therefore cannot be applied when the worker process is started.
+ */
+public class TestWorkerSessionSpec implements Serializable {
+    private final byte[] serializedProcessorFactory;
+    private final List<File> applicationClasspath;
+    private final List<URL> testFrameworkImplementationClasspath;
+    private final Set<String> sharedPackages;
+    private final Map<String, String> systemProperties;
+
+    public TestWorkerSessionSpec(
+        byte[] serializedProcessorFactory,
+        List<File> applicationClasspath,
+        List<URL> testFrameworkImplementationClasspath,
+        Set<String> sharedPackages,
+        Map<String, String> systemProperties
+    ) {
+        this.serializedProcessorFactory = serializedProcessorFactory;
+        this.applicationClasspath = applicationClasspath;
+        this.testFrameworkImplementationClasspath = testFrameworkImplementationClasspath;
+        this.sharedPackages = sharedPackages;
+        this.systemProperties = systemProperties;
+    }
+
+    /**
+     * The Java serialized {@link org.gradle.api.internal.tasks.testing.WorkerTestDefinitionProcessorFactory}, which can
+     * only be deserialized once the test framework implementation classpath has been loaded.
+     */
+    public byte[] getSerializedProcessorFactory() {
+        return serializedProcessorFactory;
+    }
+
+    public List<File> getApplicationClasspath() {
+        return applicationClasspath;
+    }
+
+    /**
+     * The part of the implementation classpath that links against the test framework on the application classpath.
+     */
+    public List<URL> getTestFrameworkImplementationClasspath() {
+        return testFrameworkImplementationClasspath;
+    }
+
+    /**
+     * The packages of the application classpath that are visible to the test framework implementation classpath.
+     */
+    public Set<String> getSharedPackages() {
+        return sharedPackages;
+    }
+
+    public Map<String, String> getSystemProperties() {
+        return systemProperties;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.worker
+
+import org.gradle.api.internal.tasks.testing.DefaultTestDescriptor
+import org.gradle.api.internal.tasks.testing.DefaultTestOutputEvent
+import org.gradle.api.internal.tasks.testing.TestCompleteEvent
+import org.gradle.api.internal.tasks.testing.TestResultProcessor
+import org.gradle.api.internal.tasks.testing.TestStartEvent
+import spock.lang.Specification
+import spock.lang.Subject
+
+import static org.gradle.api.tasks.testing.TestOutputEvent.Destination.StdErr
+import static org.gradle.api.tasks.testing.TestOutputEvent.Destination.StdOut
+
+class BatchingTestOutputResultProcessorTest extends Specification {
+
+    TestResultProcessor target = Mock()
+    @Subject processor = new BatchingTestOutputResultProcessor(target)
+
+    def "merges consecutive lines of the same test and destination"() {
+        when:
+        processor.output("1", new DefaultTestOutputEvent(10, StdOut, "one\n"))
+        processor.output("1", new DefaultTestOutputEvent(11, StdOut, "two\n"))
+
+        then:
+        0 * _
+
+        when:
+        processor.flush()
+
+        then:
+        1 * target.output("1", new DefaultTestOutputEvent(10, StdOut, "one\ntwo\n"))
+        0 * _
+
+        when:
+        processor.flush()
+
+        then:
+        0 * _
+    }
+
+    def "sends pending output before other events"() {
+        def test = new DefaultTestDescriptor("2", "Foo", "bar")
+        def startEvent = new TestStartEvent(12, "1")
+        def completeEvent = new TestCompleteEvent(13)
+
+        when:
+        processor.output("1", new DefaultTestOutputEvent(10, StdOut, "one\n"))
+        processor.started(test, startEvent)
+        processor.output("2", new DefaultTestOutputEvent(12, StdOut, "two\n"))
+        processor.completed("2", completeEvent)
+
+        then:
+        1 * target.output("1", new DefaultTestOutputEvent(10, StdOut, "one\n"))
+
+        then:
+        1 * target.started(test, startEvent)
+
+        then:
+        1 * target.output("2", new DefaultTestOutputEvent(12, StdOut, "two\n"))
+
+        then:
+        1 * target.completed("2", completeEvent)
+        0 * _
+    }
+
+    def "does not merge output of different tests or destinations"() {
+        when:
+        processor.output("1", new DefaultTestOutputEvent(10, StdOut, "one\n"))
+        processor.output("1", new DefaultTestOutputEvent(11, StdErr, "two\n"))
+        processor.output("2", new DefaultTestOutputEvent(12, StdErr, "three\n"))
+        processor.flush()
+
+        then:
+        1 * target.output("1", new DefaultTestOutputEvent(10, StdOut, "one\n"))
+
+        then:
+        1 * target.output("1", new DefaultTestOutputEvent(11, StdErr, "two\n"))
+
+        then:
+        1 * target.output("2", new DefaultTestOutputEvent(12, StdErr, "three\n"))
+        0 * _
+    }
+
+    def "only merges at line boundaries"() {
+        when:
+        processor.output("1", new DefaultTestOutputEvent(10, StdOut, "partial"))
+        processor.output("1", new DefaultTestOutputEvent(11, StdOut, " line\n"))
+        processor.flush()
+
+        then:
+        1 * target.output("1", new DefaultTestOutputEvent(10, StdOut, "partial"))
+
+        then:
+        1 * target.output("1", new DefaultTestOutputEvent(11, StdOut, " line\n"))
+        0 * _
+    }
+
+    def "sends pending output once it reaches the size limit"() {
+        def line = "x" * 1023 + "\n"
+        def linesPerEvent = BatchingTestOutputResultProcessor.MAX_PENDING_CHARS.intdiv(line.length())
+
+        when:
+        (linesPerEvent + 1).times {
+            processor.output("1", new DefaultTestOutputEvent(10, StdOut, line))
+        }
+
+        then:
+        1 * target.output("1", new DefaultTestOutputEvent(10, StdOut, line * linesPerEvent))
+        0 * _
+
+        when:
+        processor.flush()
+
+        then:
+        1 * target.output("1", new DefaultTestOutputEvent(10, StdOut, line))
+        0 * _
+    }
+
+    def "sends large output straight away"() {
+        def message = "x" * BatchingTestOutputResultProcessor.MAX_PENDING_CHARS
+
+        when:
+        processor.output("1", new DefaultTestOutputEvent(10, StdOut, message))
+
+        then:
+        1 * target.output("1", new DefaultTestOutputEvent(10, StdOut, message))
+        0 * _
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.worker
+
+import org.gradle.api.internal.tasks.testing.TestDefinition
+import org.gradle.api.internal.tasks.testing.TestDefinitionProcessor
+import org.gradle.api.internal.tasks.testing.TestResultProcessor
+import org.gradle.api.internal.tasks.testing.WorkerTestDefinitionProcessorFactory
+import org.gradle.internal.actor.ActorFactory
+import org.gradle.internal.id.IdGenerator
+import org.gradle.internal.remote.ObjectConnection
+import org.gradle.internal.service.DefaultServiceRegistry
+import org.gradle.internal.time.Clock
+import org.gradle.internal.time.Time
+import org.gradle.process.internal.worker.WorkerProcessContext
+import org.gradle.test.fixtures.concurrent.ConcurrentSpec
+import org.gradle.test.fixtures.file.TestFile
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.util.SetSystemProperties
+import org.junit.Rule
+
+import java.util.concurrent.CopyOnWriteArrayList
+
+class ReusableTestWorkerTest extends ConcurrentSpec {
+    static final String SESSION_RESOURCE = "session-resource.txt"
+
+    @Rule SetSystemProperties properties = new SetSystemProperties()
+    @Rule TestNameTestDirectoryProvider temporaryFolder = new TestNameTestDirectoryProvider(getClass())
+    def workerContext = Mock(WorkerProcessContext)
+    def connection = Mock(ObjectConnection)
+    def resultProcessor = Mock(ReusableTestWorkerResultProcessor)
+    def worker = new ReusableTestWorker<TestDefinition>()
+    def serviceRegistry = new DefaultServiceRegistry().add(Clock, Time.clock())
+    TestFile applicationClasspath
+    Closure sessionCommands
+
+    def setup() {
+        workerContext.workerId >> "<worker-id>"
+        workerContext.displayName >> "Test worker"
+        workerContext.serverConnection >> connection
+        workerContext.serviceRegistry >> serviceRegistry
+        connection.addOutgoing(ReusableTestWorkerResultProcessor) >> resultProcessor
+        connection.connect() >> {
+            start {
+                sessionCommands.call()
+                worker.stop()
+            }
+        }
+        applicationClasspath = temporaryFolder.createDir("classes")
+        applicationClasspath.file(SESSION_RESOURCE) << "resource"
+        RecordingProcessor.sessions.clear()
+    }
+
+    def cleanup() {
+        RecordingProcessor.sessions.clear()
+    }
+
+    def "runs the tests of each session with a new processor that is stopped at the end of the session"() {
+        def test1 = Mock(TestDefinition)
+        def test2 = Mock(TestDefinition)
+        def test3 = Mock(TestDefinition)
+        sessionCommands = {
+            worker.startSession(spec())
+            worker.processTestDefinition(test1)
+            worker.processTestDefinition(test2)
+            worker.stopSession()
+            worker.startSession(spec())
+            worker.processTestDefinition(test3)
+            worker.stopSession()
+        }
+
+        when:
+        runWorker()
+
+        then:
+        def sessions = RecordingProcessor.sessions
+        sessions*.tests == [[test1, test2], [test3]]
+        sessions.every { it.started && it.stopped }
+        2 * resultProcessor.sessionStopped(_, _)
+    }
+
+    def "stops the current session when the worker is stopped"() {
+        def test = Mock(TestDefinition)
+        sessionCommands = {
+            worker.startSession(spec())
+            worker.processTestDefinition(test)
+        }
+
+        when:
+        runWorker()
+
+        then:
+        RecordingProcessor.sessions.size() == 1
+        RecordingProcessor.sessions[0].stopped
+        0 * resultProcessor.sessionStopped(_, _)
+    }
+
+    def "applies the system properties of the session and restores the system properties at the end of the session"() {
+        System.setProperty("existing", "original")
+        def test = Mock(TestDefinition)
+        sessionCommands = {
+            worker.startSession(spec(existing: "session", added: "session"))
+            worker.processTestDefinition(test)
+            worker.stopSession()
+        }
+
+        when:
+        runWorker()
+
+        then:
+        RecordingProcessor.sessions[0].systemProperties == [existing: "session", added: "session"]
+        System.getProperty("existing") == "original"
+        System.getProperty("added") == null
+        System.getProperty(RecordingProcessor.PROPERTY_SET_BY_TEST) == null
+    }
+
+    def "loads the application classpath of each session in a class loader that is closed before the next session starts"() {
+        def test1 = Mock(TestDefinition)
+        def test2 = Mock(TestDefinition)
+        sessionCommands = {
+            worker.startSession(spec())
+            worker.processTestDefinition(test1)
+            worker.stopSession()
+            worker.startSession(spec())
+            worker.processTestDefinition(test2)
+            worker.stopSession()
+        }
+
+        when:
+        runWorker()
+
+        then:
+        def sessions = RecordingProcessor.sessions
+        sessions[0].applicationClassLoader != sessions[1].applicationClassLoader
+        sessions.every { it.resourceVisibleDuringSession }
+        sessions[1].previousClassLoaderClosed
+        sessions.every { it.applicationClassLoader.getResource(SESSION_RESOURCE) == null }
+    }
+
+    private void runWorker() {
+        async {
+            worker.execute(workerContext)
+        }
+    }
+
+    private TestWorkerSessionSpec spec(Map<String, String> systemProperties = [:]) {
+        def bytes = new ByteArrayOutputStream()
+        new ObjectOutputStream(bytes).withCloseable { it.writeObject(new RecordingProcessorFactory()) }
+        return new TestWorkerSessionSpec(bytes.toByteArray(), [applicationClasspath], [], [] as Set, systemProperties)
+    }
+
+    static class RecordingProcessorFactory implements WorkerTestDefinitionProcessorFactory<TestDefinition>, Serializable {
+        @Override
+        TestDefinitionProcessor<TestDefinition> create(IdGenerator<?> idGenerator, ActorFactory actorFactory, Clock clock) {
+            def session = new SessionRecord()
+            RecordingProcessor.sessions << session
+            return new RecordingProcessor(session)
+        }
+    }
+
+    static class SessionRecord {
+        List<TestDefinition> tests = []
+        boolean started
+        boolean stopped
+        Map<String, String> systemProperties
+        ClassLoader applicationClassLoader
+        boolean resourceVisibleDuringSession
+        boolean previousClassLoaderClosed
+    }
+
+    static class RecordingProcessor implements TestDefinitionProcessor<TestDefinition> {
+        static final String PROPERTY_SET_BY_TEST = "set.by.test"
+        static final List<SessionRecord> sessions = new CopyOnWriteArrayList<>()
+
+        private final SessionRecord session
+
+        RecordingProcessor(SessionRecord session) {
+            this.session = session
+        }
+
+        @Override
+        void startProcessing(TestResultProcessor resultProcessor) {
+            session.started = true
+        }
+
+        @Override
+        void processTestDefinition(TestDefinition testDefinition) {
+            session.tests << testDefinition
+            session.systemProperties = [existing: System.getProperty("existing"), added: System.getProperty("added")]
+            session.applicationClassLoader = Thread.currentThread().contextClassLoader
+            session.resourceVisibleDuringSession = session.applicationClassLoader.getResource(SESSION_RESOURCE) != null
+            def index = sessions.indexOf(session)
+            if (index > 0) {
+                session.previousClassLoaderClosed = sessions[index - 1].applicationClassLoader.getResource(SESSION_RESOURCE) == null
+            }
+            System.setProperty(PROPERTY_SET_BY_TEST, "true")
+        }
+
+        @Override
+        void stop() {
+            session.stopped = true
+        }
+
+        @Override
+        void stopNow() {
+            throw new UnsupportedOperationException()
+        }
+    }
+}
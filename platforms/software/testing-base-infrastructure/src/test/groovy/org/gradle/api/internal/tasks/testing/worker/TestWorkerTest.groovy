@@ -18,10 +18,12 @@
 package org.gradle.api.internal.tasks.testing.worker
 
 
+import org.gradle.api.internal.tasks.testing.DefaultTestOutputEvent
 import org.gradle.api.internal.tasks.testing.TestDefinition
 import org.gradle.api.internal.tasks.testing.TestDefinitionProcessor
 import org.gradle.api.internal.tasks.testing.TestResultProcessor
 import org.gradle.api.internal.tasks.testing.WorkerTestDefinitionProcessorFactory
+import org.gradle.api.tasks.testing.TestOutputEvent
 import org.gradle.internal.remote.ObjectConnection
 import org.gradle.internal.service.DefaultServiceRegistry
 import org.gradle.internal.time.Clock
@@ -48,6 +50,10 @@ class TestWorkerTest extends ConcurrentSpec {
         workerContext.serviceRegistry >> serviceRegistry
     }
 
+    def cleanup() {
+        System.clearProperty(TestWorker.BATCH_OUTPUT_SYS_PROPERTY)
+    }
+
     def createsTestProcessorAndBlocksUntilEndOfProcessingReceived() {
         when:
         async {
@@ -77,4 +83,40 @@ class TestWorkerTest extends ConcurrentSpec {
         1 * processor.processTestDefinition(test)
         1 * processor.stop()
     }
+
+    def "sends each output event to the build process by default"() {
+        when:
+        runWorkerPrintingTwoLines()
+
+        then:
+        1 * resultProcessor.output("<test>", { it.message == "line 1\n" })
+        1 * resultProcessor.output("<test>", { it.message == "line 2\n" })
+    }
+
+    def "merges output events sent to the build process when batching is enabled"() {
+        given:
+        System.setProperty(TestWorker.BATCH_OUTPUT_SYS_PROPERTY, "true")
+
+        when:
+        runWorkerPrintingTwoLines()
+
+        then:
+        1 * resultProcessor.output("<test>", { it.message == "line 1\nline 2\n" && it.logTime == 1 })
+    }
+
+    private void runWorkerPrintingTwoLines() {
+        factory.create(_, _, _) >> processor
+        connection.addOutgoing(TestResultProcessor) >> resultProcessor
+        processor.startProcessing(_) >> { TestResultProcessor results ->
+            results.output("<test>", new DefaultTestOutputEvent(1, TestOutputEvent.Destination.StdOut, "line 1\n"))
+            results.output("<test>", new DefaultTestOutputEvent(2, TestOutputEvent.Destination.StdOut, "line 2\n"))
+        }
+        connection.connect() >> {
+            start {
+                worker.startProcessing()
+                worker.stop()
+            }
+        }
+        worker.execute(workerContext)
+    }
 }
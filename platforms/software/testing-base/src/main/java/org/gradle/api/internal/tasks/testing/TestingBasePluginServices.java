@@ -18,14 +18,23 @@
 
 import org.gradle.api.internal.tasks.testing.operations.TestListenerBuildOperationAdapter;
 import org.gradle.api.internal.tasks.testing.results.AggregateTestEventReporter;
+import org.gradle.api.internal.tasks.testing.worker.ReusableTestWorkerPool;
 import org.gradle.api.tasks.testing.TestEventReporterFactory;
+import org.gradle.internal.service.Provides;
 import org.gradle.internal.service.ServiceRegistration;
 import org.gradle.internal.service.ServiceRegistrationProvider;
 import org.gradle.internal.service.scopes.AbstractGradleModuleServices;
+import org.gradle.internal.time.Clock;
+import org.gradle.process.internal.health.memory.MemoryManager;
 import org.jspecify.annotations.NullMarked;
 
 @NullMarked
 public class TestingBasePluginServices extends AbstractGradleModuleServices {
+    @Override
+    public void registerGradleUserHomeServices(ServiceRegistration registration) {
+        registration.addProvider(new TestingGradleUserHomeScopeServices());
+    }
+
     @Override
     public void registerBuildSessionServices(ServiceRegistration registration) {
         registration.addProvider(new TestingBuildSessionScopeServices());
@@ -41,6 +50,13 @@ public void registerBuildServices(ServiceRegistration registration) {
         registration.addProvider(new TestingBuildScopeServices());
     }
 
+    public static class TestingGradleUserHomeScopeServices implements ServiceRegistrationProvider {
+        @Provides
+        ReusableTestWorkerPool createReusableTestWorkerPool(MemoryManager memoryManager, Clock clock) {
+            return new ReusableTestWorkerPool(memoryManager, clock);
+        }
+    }
+
     public static class TestingBuildSessionScopeServices implements ServiceRegistrationProvider {
         void configure(ServiceRegistration serviceRegistration) {
             serviceRegistration.add(TestListenerBuildOperationAdapter.class);
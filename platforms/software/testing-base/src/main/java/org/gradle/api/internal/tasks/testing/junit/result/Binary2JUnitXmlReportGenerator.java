@@ -39,8 +39,10 @@
 import java.io.FilenameFilter;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @NullMarked
 public class Binary2JUnitXmlReportGenerator {
@@ -93,39 +95,55 @@ public BuildOperationDescriptor.Builder description() {
             }
         });
 
-        // Collect all results first to detect duplicate class names
-        List<TestClassResult> allResults = new ArrayList<>();
-        testResultsProvider.visitClasses(allResults::add);
-
-        // Count occurrences of each class name
-        Map<String, Integer> classNameCounts = new HashMap<>();
-        for (TestClassResult result : allResults) {
-            classNameCounts.merge(result.getClassName(), 1, Integer::sum);
-        }
-
-        // Track current index for each duplicate class name
-        Map<String, Integer> classNameCurrentIndex = new HashMap<>();
-
-        buildOperationExecutor.runAll((BuildOperationQueue<JUnitXmlReportFileGenerator> queue) -> {
+        Set<String> repeatedClassNames = testResultsProvider.getRepeatedClassNames();
+        if (repeatedClassNames != null) {
+            // Duplicate class names are known up front, so each class can be written as soon as it is visited
+            Map<String, Integer> classNameCurrentIndex = new HashMap<>();
+            buildOperationExecutor.runAll((BuildOperationQueue<JUnitXmlReportFileGenerator> queue) ->
+                testResultsProvider.visitClasses(result -> queue.add(createReportFileGenerator(result, repeatedClassNames, classNameCurrentIndex)))
+            );
+        } else {
+            // Collect all results first to detect duplicate class names
+            List<TestClassResult> allResults = new ArrayList<>();
+            testResultsProvider.visitClasses(allResults::add);
+
+            Set<String> classNames = new HashSet<>();
+            Set<String> duplicateClassNames = new HashSet<>();
             for (TestClassResult result : allResults) {
-                String className = result.getClassName();
-                String fileName;
-                if (classNameCounts.get(className) > 1) {
-                    // Duplicate class name - add numeric suffix
-                    int index = classNameCurrentIndex.merge(className, 1, Integer::sum);
-                    fileName = getReportFileName(className, index);
-                } else {
-                    // Unique class name - no suffix needed
-                    fileName = getReportFileName(className, 0);
+                if (!classNames.add(result.getClassName())) {
+                    duplicateClassNames.add(result.getClassName());
                 }
-                File reportFile = new File(testResultsDir, fileName);
-                queue.add(new JUnitXmlReportFileGenerator(result, reportFile, xmlWriter));
             }
-        });
+
+            Map<String, Integer> classNameCurrentIndex = new HashMap<>();
+            buildOperationExecutor.runAll((BuildOperationQueue<JUnitXmlReportFileGenerator> queue) -> {
+                for (TestClassResult result : allResults) {
+                    queue.add(createReportFileGenerator(result, duplicateClassNames, classNameCurrentIndex));
+                }
+            });
+        }
 
         LOG.info("Finished generating test XML results ({}) into: {}", clock.getElapsed(), testResultsDir);
     }
 
+    /**
+     * Creates the operation writing the report of the given class. Classes with a duplicate name get a numeric suffix,
+     * counting up in the order they are visited.
+     */
+    private JUnitXmlReportFileGenerator createReportFileGenerator(TestClassResult result, Set<String> duplicateClassNames, Map<String, Integer> classNameCurrentIndex) {
+        String className = result.getClassName();
+        String fileName;
+        if (duplicateClassNames.contains(className)) {
+            // Duplicate class name - add numeric suffix
+            int index = classNameCurrentIndex.merge(className, 1, Integer::sum);
+            fileName = getReportFileName(className, index);
+        } else {
+            // Unique class name - no suffix needed
+            fileName = getReportFileName(className, 0);
+        }
+        return new JUnitXmlReportFileGenerator(result, new File(testResultsDir, fileName), xmlWriter);
+    }
+
     private static String getReportFileName(String className, int index) {
         String suffix = index > 0 ? "-" + index : "";
         return SafeFileLocationUtils.toSafeFileName(REPORT_FILE_PREFIX, className + suffix + REPORT_FILE_EXTENSION, false);
@@ -18,9 +18,11 @@
 
 import org.gradle.api.Action;
 import org.gradle.api.tasks.testing.TestOutputEvent;
+import org.jspecify.annotations.Nullable;
 
 import java.io.Closeable;
 import java.io.Writer;
+import java.util.Set;
 
 public interface TestResultsProvider extends Closeable {
     /**
@@ -45,4 +47,15 @@ public interface TestResultsProvider extends Closeable {
     void visitClasses(Action<? super TestClassResult> visitor);
 
     boolean hasOutput(long classId, long testId, TestOutputEvent.Destination destination);
+
+    /**
+     * Returns the names of the classes that are visited more than once by {@link #visitClasses(org.gradle.api.Action)},
+     * or {@code null} if they are only known once all classes have been visited.
+     *
+     * Providers that know this up front allow reports to be written while the classes are being visited.
+     */
+    @Nullable
+    default Set<String> getRepeatedClassNames() {
+        return null;
+    }
 }
@@ -33,7 +33,9 @@
 /**
  * Manages a set of parallel {@link TestDefinitionProcessor}s.
  * <p>
- * Uses a simple round-robin algorithm to assign test definitions to processors.
+ * Assigns each test definition to the processor with the least estimated work assigned so far.
+ * When the test definitions arrive longest first, this balances the time each processor takes to finish.
+ * Without any previous durations, every definition is estimated to take the same time and definitions are assigned round-robin.
  */
 public class MaxNParallelTestDefinitionProcessor<D extends TestDefinition> implements TestDefinitionProcessor<D> {
     private final int maxProcessors;
@@ -41,18 +43,24 @@
     // for full compatibility, but in practice we don't need it.
     private final Factory<TestDefinitionProcessor<D>> factory;
     private final ActorFactory actorFactory;
+    private final TestDefinitionDurationEstimator durationEstimator;
     private TestResultProcessor resultProcessor;
-    private int pos;
     private final List<TestDefinitionProcessor<D>> processors = new ArrayList<>();
+    private final List<Long> assignedDurations = new ArrayList<>();
     private final List<TestDefinitionProcessor<D>> rawProcessors = new ArrayList<>();
     private final List<Actor> actors = new ArrayList<Actor>();
     private Actor resultProcessorActor;
     private volatile boolean stoppedNow;
 
     public MaxNParallelTestDefinitionProcessor(int maxProcessors, Factory<TestDefinitionProcessor<D>> factory, ActorFactory actorFactory) {
+        this(maxProcessors, factory, actorFactory, TestDefinitionDurationEstimator.NONE);
+    }
+
+    public MaxNParallelTestDefinitionProcessor(int maxProcessors, Factory<TestDefinitionProcessor<D>> factory, ActorFactory actorFactory, TestDefinitionDurationEstimator durationEstimator) {
         this.maxProcessors = maxProcessors;
         this.factory = factory;
         this.actorFactory = actorFactory;
+        this.durationEstimator = durationEstimator;
     }
 
     @Override
@@ -69,6 +77,7 @@ public void processTestDefinition(D testDefinition) {
         }
 
         TestDefinitionProcessor<D> processor;
+        int index;
         if (processors.size() < maxProcessors) {
             processor = factory.create();
             rawProcessors.add(processor);
@@ -76,14 +85,27 @@ public void processTestDefinition(D testDefinition) {
             processor = Cast.uncheckedNonnullCast(actor.getProxy(TestDefinitionProcessor.class));
             actors.add(actor);
             processors.add(processor);
+            assignedDurations.add(0L);
             processor.startProcessing(resultProcessor);
+            index = processors.size() - 1;
         } else {
-            processor = processors.get(pos);
-            pos = (pos + 1) % processors.size();
+            index = leastLoadedProcessor();
+            processor = processors.get(index);
         }
+        assignedDurations.set(index, assignedDurations.get(index) + durationEstimator.estimate(testDefinition));
         processor.processTestDefinition(testDefinition);
     }
 
+    private int leastLoadedProcessor() {
+        int leastLoaded = 0;
+        for (int i = 1; i < assignedDurations.size(); i++) {
+            if (assignedDurations.get(i) < assignedDurations.get(leastLoaded)) {
+                leastLoaded = i;
+            }
+        }
+        return leastLoaded;
+    }
+
     @Override
     public void stop() {
         try {
@@ -23,23 +23,36 @@
 import org.gradle.api.internal.tasks.testing.TestResultProcessor;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
  * In order to speed up the development feedback cycle, this class guarantee previous failed test classes
  * to be passed to its delegate first.
+ * <p>
+ * Within the previously failed and the other test definitions, the ones estimated to take longest are passed first,
+ * so that slow test classes do not end up being the last ones to start.
  */
 public class RunPreviousFailedFirstTestDefinitionProcessor<D extends TestDefinition> implements TestDefinitionProcessor<D> {
     private final Set<String> previousFailedTestClasses;
     private final Set<File> previousFailedTestDefinitionDirectories;
     private final TestDefinitionProcessor<D> delegate;
+    private final TestDefinitionDurationEstimator durationEstimator;
     private final LinkedHashSet<D> prioritizedTestDefinitions = new LinkedHashSet<>();
     private final LinkedHashSet<D> otherTestDefinitions = new LinkedHashSet<>();
 
     public RunPreviousFailedFirstTestDefinitionProcessor(Set<String> previousFailedTestClasses, Set<File> previousFailedTestDefinitionDirectories, TestDefinitionProcessor<D> delegate) {
+        this(previousFailedTestClasses, previousFailedTestDefinitionDirectories, TestDefinitionDurationEstimator.NONE, delegate);
+    }
+
+    public RunPreviousFailedFirstTestDefinitionProcessor(Set<String> previousFailedTestClasses, Set<File> previousFailedTestDefinitionDirectories, TestDefinitionDurationEstimator durationEstimator, TestDefinitionProcessor<D> delegate) {
         this.previousFailedTestClasses = previousFailedTestClasses;
         this.previousFailedTestDefinitionDirectories = previousFailedTestDefinitionDirectories;
+        this.durationEstimator = durationEstimator;
         this.delegate = delegate;
     }
 
@@ -59,15 +72,22 @@ public void processTestDefinition(D testDefinition) {
 
     @Override
     public void stop() {
-        for (D test : prioritizedTestDefinitions) {
+        for (D test : longestFirst(prioritizedTestDefinitions)) {
             delegate.processTestDefinition(test);
         }
-        for (D test : otherTestDefinitions) {
+        for (D test : longestFirst(otherTestDefinitions)) {
             delegate.processTestDefinition(test);
         }
         delegate.stop();
     }
 
+    private List<D> longestFirst(Collection<D> testDefinitions) {
+        List<D> sorted = new ArrayList<>(testDefinitions);
+        // The sort is stable, so definitions keep the order they were detected in when there are no previous durations
+        sorted.sort(Comparator.<D>comparingLong(durationEstimator::estimate).reversed());
+        return sorted;
+    }
+
     @Override
     public void stopNow() {
         delegate.stopNow();
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.processors;
+
+import org.gradle.api.internal.tasks.testing.ClassTestDefinition;
+import org.gradle.api.internal.tasks.testing.TestDefinition;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Estimates how long a test definition takes to run, based on how long its test class took in the previous execution of the test task.
+ * Definitions without a previous duration are assumed to take the average duration of those that have one.
+ */
+public class TestDefinitionDurationEstimator {
+    public static final TestDefinitionDurationEstimator NONE = new TestDefinitionDurationEstimator(Collections.emptyMap());
+
+    private final Map<String, Long> previousTestClassDurations;
+    private final long defaultDuration;
+
+    public TestDefinitionDurationEstimator(Map<String, Long> previousTestClassDurations) {
+        this.previousTestClassDurations = previousTestClassDurations;
+        long total = 0;
+        for (Long duration : previousTestClassDurations.values()) {
+            total += duration;
+        }
+        this.defaultDuration = previousTestClassDurations.isEmpty() ? 1 : Math.max(1, total / previousTestClassDurations.size());
+    }
+
+    /**
+     * Returns the estimated duration of the given test definition in milliseconds, which is always at least 1.
+     */
+    public long estimate(TestDefinition testDefinition) {
+        if (testDefinition instanceof ClassTestDefinition) {
+            Long duration = previousTestClassDurations.get(((ClassTestDefinition) testDefinition).getTestClassName());
+            if (duration != null) {
+                return Math.max(1, duration);
+            }
+        }
+        return defaultDuration;
+    }
+}
@@ -64,6 +64,12 @@
  *
  * <p>
  * The root results are recorded into `index.html`, and then each parent tells its children to generate starting at `{childName}/index.html`.
+ *
+ * <p>
+ * Unlike the JUnit XML report, this report is not streamed. It is generated once the tests have finished, from a {@link TestTreeModel} that
+ * holds all results of all stores, so its memory use grows with the number of tests. Every page is written again on each run, including the
+ * pages of classes whose results did not change.
+ * </p>
  */
 public abstract class GenericHtmlTestReportGenerator implements TestReportGenerator {
 
@@ -110,6 +116,9 @@ public Path generate(List<Path> resultsDirectories) {
                 outputReaders.add(store.createOutputReader(testOutputEventSerializer));
             }
 
+            // Unlike the JUnit XML report, which is streamed by StreamingTestResultsProvider, this report needs the whole tree:
+            // every page shows the totals of its subtree, the roots of all stores are merged, and file names are shortened
+            // based on the deepest path.
             TestTreeModel root = TestTreeModel.loadModelFromStores(stores);
             generateReport(root, outputReaders);
         } catch (Exception e) {
@@ -67,7 +67,7 @@ public Path generate(List<Path> resultsDirectories) {
             throw new IllegalArgumentException("JunitXmlTestReportGenerator can only generate a report from a single results directory. Found: " + resultsDirectories);
         }
 
-        TestTreeModelResultsProvider.useResultsFrom(
+        StreamingTestResultsProvider.useResultsFrom(
             resultsDirectories.get(0),
             resultsProvider ->
                 objectFactory.newInstance(
@@ -0,0 +1,550 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.report.generic;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import org.gradle.api.Action;
+import org.gradle.api.internal.tasks.testing.junit.result.TestClassResult;
+import org.gradle.api.internal.tasks.testing.junit.result.TestMethodResult;
+import org.gradle.api.internal.tasks.testing.junit.result.TestResultsProvider;
+import org.gradle.api.internal.tasks.testing.results.serializable.OutputEntry;
+import org.gradle.api.internal.tasks.testing.results.serializable.OutputRanges;
+import org.gradle.api.internal.tasks.testing.results.serializable.SerializableFailure;
+import org.gradle.api.internal.tasks.testing.results.serializable.SerializableTestResult;
+import org.gradle.api.internal.tasks.testing.results.serializable.SerializableTestResultStore;
+import org.gradle.api.internal.tasks.testing.results.serializable.TestOutputReader;
+import org.gradle.api.internal.tasks.testing.worker.TestEventSerializer;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.tasks.testing.TestMetadataEvent;
+import org.gradle.api.tasks.testing.TestOutputEvent;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.serialize.Serializer;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * A {@link TestResultsProvider} that condenses the results of a {@link SerializableTestResultStore} into test classes and test methods,
+ * the same way as {@link TestTreeModel} would, without loading all results into memory.
+ *
+ * <p>
+ * The store is read twice. The first pass only keeps the names and ids of the results, which is enough to decide which results make up
+ * each test class. The second pass, done by {@link #visitClasses(Action)}, keeps the results of a class only until the last of them has been
+ * read, and then hands the class to the visitor. Since the results of a class are usually stored next to each other, only a few classes
+ * are held in memory at any time, and reports can be written while the store is still being read. The output of a class can only be read
+ * once the class has been visited. Consumers that need random access to the results should use {@link TestTreeModelResultsProvider}.
+ * </p>
+ *
+ * <p>
+ * Any nodes above a test class will not be represented in the results. Primarily, this will be an issue for the root node,
+ * but may also affect results from JUnit 4 suites or non-class-based tests.
+ * </p>
+ */
+public final class StreamingTestResultsProvider implements TestResultsProvider {
+
+    private static final Logger LOGGER = Logging.getLogger(StreamingTestResultsProvider.class);
+
+    public static void useResultsFrom(Path resultsDir, Consumer<StreamingTestResultsProvider> resultsConsumer) {
+        SerializableTestResultStore resultsStore = new SerializableTestResultStore(resultsDir);
+        Serializer<TestOutputEvent> testOutputEventSerializer = TestEventSerializer.create().build(TestOutputEvent.class);
+        try (TestOutputReader outputReader = resultsStore.createOutputReader(testOutputEventSerializer)) {
+            ClassIndex index = ClassIndex.load(resultsStore);
+            resultsConsumer.accept(new StreamingTestResultsProvider(resultsStore, index, outputReader));
+        } catch (Exception e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+
+    /**
+     * A node of the merged tree of results, keyed by path like {@link TestTreeModel}, that only knows the ids of its results.
+     */
+    private static final class IndexNode {
+        @Nullable
+        private final IndexNode parent;
+        private final String name;
+        private final Map<String, IndexNode> children = new LinkedHashMap<>();
+        private final List<IndexEntry> entries = new ArrayList<>(1);
+
+        private IndexNode(@Nullable IndexNode parent, String name) {
+            this.parent = parent;
+            this.name = name;
+        }
+
+        void walkDepthFirst(Consumer<IndexNode> consumer) {
+            consumer.accept(this);
+            for (IndexNode child : children.values()) {
+                child.walkDepthFirst(consumer);
+            }
+        }
+    }
+
+    /**
+     * The counterpart of {@link PerRootInfo.Builder}, holding the ids of the results that were merged into it.
+     */
+    private static final class IndexEntry {
+        private final List<Long> ids = new ArrayList<>(1);
+        private final String name;
+        @Nullable
+        private final String className;
+        private boolean isLeaf;
+
+        private IndexEntry(long id, String name, @Nullable String className, boolean isLeaf) {
+            this.ids.add(id);
+            this.name = name;
+            this.className = className;
+            this.isLeaf = isLeaf;
+        }
+
+        void merge(IndexEntry other) {
+            if (!other.name.equals(name)) {
+                throw new IllegalArgumentException("Cannot merge PerRootInfo.Builder with different names: " + name + " and " + other.name);
+            }
+            ids.addAll(other.ids);
+            if (!other.isLeaf) {
+                isLeaf = false;
+            }
+        }
+    }
+
+    /**
+     * Everything that is known about a test class before its results are read.
+     */
+    private static final class ClassSlot {
+        private final long classId;
+        private final org.gradle.util.Path path;
+        private final String className;
+        private final List<Long> classResultIds;
+        /**
+         * The ids of all non-leaf results in the subtree of the class, in the order their output is reported.
+         */
+        private final List<Long> outputIds;
+        private final List<Long> leafIds;
+
+        private ClassSlot(long classId, org.gradle.util.Path path, String className, List<Long> classResultIds, List<Long> outputIds, List<Long> leafIds) {
+            this.classId = classId;
+            this.path = path;
+            this.className = className;
+            this.classResultIds = classResultIds;
+            this.outputIds = outputIds;
+            this.leafIds = leafIds;
+        }
+
+        int getRequiredResultCount() {
+            return outputIds.size() + leafIds.size();
+        }
+    }
+
+    /**
+     * The result of the first pass over the store.
+     */
+    private static final class ClassIndex {
+        private final List<ClassSlot> slots;
+        private final Map<Long, List<ClassSlot>> slotsByResultId;
+        private final Set<String> repeatedClassNames;
+
+        private ClassIndex(List<ClassSlot> slots) {
+            this.slots = slots;
+            this.slotsByResultId = new HashMap<>();
+            Set<String> classNames = new HashSet<>();
+            ImmutableSet.Builder<String> repeatedClassNames = ImmutableSet.builder();
+            for (ClassSlot slot : slots) {
+                for (Long id : Iterables.concat(slot.outputIds, slot.leafIds)) {
+                    slotsByResultId.computeIfAbsent(id, k -> new ArrayList<>(1)).add(slot);
+                }
+                if (!classNames.add(slot.className)) {
+                    repeatedClassNames.add(slot.className);
+                }
+            }
+            this.repeatedClassNames = repeatedClassNames.build();
+        }
+
+        static ClassIndex load(SerializableTestResultStore store) throws Exception {
+            IndexLoader loader = new IndexLoader();
+            store.forEachResult(loader);
+            return new ClassIndex(createSlots(loader.root));
+        }
+
+        private static List<ClassSlot> createSlots(@Nullable IndexNode root) {
+            if (root == null) {
+                return Collections.emptyList();
+            }
+            Map<IndexNode, List<Long>> leafIdsByGroupingNode = new LinkedHashMap<>();
+            root.walkDepthFirst(node -> {
+                // Ignore the root node as a leaf, it is not a test
+                if (node.children.isEmpty() && node.parent != null) {
+                    for (IndexEntry entry : node.entries) {
+                        if (entry.ids.size() > 1) {
+                            // Only one of these should be generated per leaf node, multiple results are not merged
+                            throw new IllegalStateException(
+                                "Expected exactly one result for leaf node " + pathOf(node) + " but found: " + entry.ids.size()
+                            );
+                        }
+                        IndexNode groupingNode = findGroupingNode(node, entry.className);
+                        leafIdsByGroupingNode.computeIfAbsent(groupingNode, k -> new ArrayList<>()).add(entry.ids.get(0));
+                    }
+                }
+            });
+
+            List<ClassSlot> slots = new ArrayList<>(leafIdsByGroupingNode.size());
+            long nextClassId = 1;
+            for (Map.Entry<IndexNode, List<Long>> grouping : leafIdsByGroupingNode.entrySet()) {
+                IndexNode groupingNode = grouping.getKey();
+                if (groupingNode.entries.size() != 1) {
+                    throw new IllegalStateException(
+                        "Expected exactly one run for grouping node " + pathOf(groupingNode) + " but found: " + groupingNode.entries.size()
+                    );
+                }
+                List<Long> outputIds = new ArrayList<>();
+                groupingNode.walkDepthFirst(node -> {
+                    if (!node.children.isEmpty()) {
+                        for (IndexEntry entry : node.entries) {
+                            outputIds.addAll(entry.ids);
+                        }
+                    }
+                });
+                slots.add(new ClassSlot(
+                    nextClassId++,
+                    pathOf(groupingNode),
+                    groupingNode.entries.get(0).name,
+                    groupingNode.entries.get(0).ids,
+                    outputIds,
+                    grouping.getValue()
+                ));
+            }
+            return slots;
+        }
+
+        private static IndexNode findGroupingNode(IndexNode leaf, @Nullable String className) {
+            IndexNode current = leaf;
+            IndexNode parent;
+            while ((parent = current.parent) != null) {
+                if (className != null && className.equals(parent.name)) {
+                    return parent;
+                }
+                // Pick highest non-root node if no class name match
+                // But don't group the leaf using itself, that doesn't make sense.
+                if (parent.parent == null && current != leaf) {
+                    // Parent is the root, so the current is the highest non-root node
+                    return current;
+                }
+                current = parent;
+            }
+            // Reached the root, return it
+            return current;
+        }
+
+        private static org.gradle.util.Path pathOf(IndexNode node) {
+            return node.parent == null ? org.gradle.util.Path.ROOT : pathOf(node.parent).child(node.name);
+        }
+    }
+
+    /**
+     * Builds the tree of {@link IndexNode}s, merging results exactly like {@link TestTreeModel} does.
+     */
+    private static final class IndexLoader implements SerializableTestResultStore.ResultProcessor {
+        private final Map<Long, List<IndexEntry>> childrenByParentId = new HashMap<>();
+        @Nullable
+        private IndexNode root;
+
+        @Override
+        public void process(long id, @Nullable Long parentId, SerializableTestResult result, OutputRanges outputRanges) {
+            boolean isLeaf = !childrenByParentId.containsKey(id);
+            IndexEntry entry = new IndexEntry(id, result.getName(), result.getClassName(), isLeaf);
+            if (parentId == null) {
+                if (root == null) {
+                    root = new IndexNode(null, "");
+                }
+                finalizeNode(root, entry);
+            } else {
+                childrenByParentId.computeIfAbsent(parentId, k -> new ArrayList<>()).add(entry);
+            }
+        }
+
+        private void finalizeNode(IndexNode node, IndexEntry entry) {
+            List<IndexEntry> existingEntries = node.entries;
+            if (!existingEntries.isEmpty()) {
+                // See TestTreeModel.StoreLoader.finalizePath() for why entries are merged this way
+                IndexEntry existingNonLeaf = existingEntries.stream()
+                    .filter(existing -> !existing.isLeaf)
+                    .findFirst()
+                    .orElse(null);
+                if (entry.isLeaf) {
+                    if (existingNonLeaf != null) {
+                        existingNonLeaf.merge(entry);
+                    } else {
+                        existingEntries.add(entry);
+                    }
+                } else {
+                    (existingNonLeaf != null ? existingNonLeaf : existingEntries.get(0)).merge(entry);
+                }
+            } else {
+                existingEntries.add(entry);
+            }
+
+            List<IndexEntry> children = childrenByParentId.remove(entry.ids.get(0));
+            if (children != null) {
+                for (IndexEntry child : children) {
+                    IndexNode childNode = node.children.computeIfAbsent(child.name, name -> new IndexNode(node, name));
+                    finalizeNode(childNode, child);
+                }
+            }
+        }
+    }
+
+    /**
+     * The results of a class that have been read so far.
+     */
+    private static final class PendingClass {
+        private final ClassSlot slot;
+        private final Map<Long, SerializableTestResult> results = new HashMap<>();
+        private final Map<Long, OutputRanges> outputRanges = new HashMap<>();
+        private int remainingResults;
+
+        private PendingClass(ClassSlot slot) {
+            this.slot = slot;
+            this.remainingResults = slot.getRequiredResultCount();
+        }
+
+        boolean add(long id, SerializableTestResult result, OutputRanges ranges) {
+            results.put(id, result);
+            outputRanges.put(id, ranges);
+            return --remainingResults == 0;
+        }
+    }
+
+    private static final class ClassOutput {
+        /**
+         * All output entries from this "class" and the intermediate nodes. Does not include output entries from "method"s.
+         */
+        final ImmutableList<OutputEntry> outputEntries;
+        final ImmutableMap<Long, OutputEntry> methodOutputEntries;
+
+        ClassOutput(ImmutableList<OutputEntry> outputEntries, ImmutableMap<Long, OutputEntry> methodOutputEntries) {
+            this.outputEntries = outputEntries;
+            this.methodOutputEntries = methodOutputEntries;
+        }
+    }
+
+    private final SerializableTestResultStore store;
+    private final ClassIndex index;
+    private final TestOutputReader outputReader;
+    private final Map<Long, ClassOutput> outputsByClassId = new ConcurrentHashMap<>();
+
+    private StreamingTestResultsProvider(SerializableTestResultStore store, ClassIndex index, TestOutputReader outputReader) {
+        this.store = store;
+        this.index = index;
+        this.outputReader = outputReader;
+    }
+
+    /**
+     * Visits each test class as soon as all of its results have been read from the store.
+     */
+    @Override
+    public void visitClasses(Action<? super TestClassResult> visitor) {
+        Map<Long, PendingClass> pendingClasses = new HashMap<>();
+        try {
+            store.forEachResult((id, parentId, result, outputRanges) -> {
+                List<ClassSlot> slots = index.slotsByResultId.get(id);
+                if (slots == null) {
+                    return;
+                }
+                for (ClassSlot slot : slots) {
+                    PendingClass pendingClass = pendingClasses.computeIfAbsent(slot.classId, k -> new PendingClass(slot));
+                    if (pendingClass.add(id, result, outputRanges)) {
+                        pendingClasses.remove(slot.classId);
+                        visitor.execute(completeClass(pendingClass));
+                    }
+                }
+            });
+        } catch (Exception e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+        if (!pendingClasses.isEmpty()) {
+            throw new IllegalStateException("Results of " + pendingClasses.size() + " test classes are missing from the store");
+        }
+    }
+
+    private TestClassResult completeClass(PendingClass pendingClass) {
+        ClassSlot slot = pendingClass.slot;
+        TestClassResult classResult = createEmptyClassResult(slot, pendingClass.results);
+
+        // We want these sorted by start time in order to preserve ordering between runs.
+        List<Long> leafIds = new ArrayList<>(slot.leafIds);
+        leafIds.sort(
+            Comparator.comparingLong((Long id) -> pendingClass.results.get(id).getStartTime())
+                .thenComparingLong(id -> id)
+        );
+
+        ImmutableMap.Builder<Long, OutputEntry> methodOutputEntries = ImmutableMap.builder();
+        for (Long leafId : leafIds) {
+            classResult.add(buildMethodResult(leafId, pendingClass.results.get(leafId)));
+            OutputRanges ranges = pendingClass.outputRanges.get(leafId);
+            if (ranges.hasOutput()) {
+                methodOutputEntries.put(leafId, new OutputEntry(leafId, ranges));
+            }
+        }
+
+        ImmutableList.Builder<OutputEntry> outputEntries = ImmutableList.builder();
+        for (Long outputId : slot.outputIds) {
+            OutputRanges ranges = pendingClass.outputRanges.get(outputId);
+            if (ranges.hasOutput()) {
+                outputEntries.add(new OutputEntry(outputId, ranges));
+            }
+        }
+
+        outputsByClassId.put(classResult.getId(), new ClassOutput(outputEntries.build(), methodOutputEntries.build()));
+        return classResult;
+    }
+
+    private static TestClassResult createEmptyClassResult(ClassSlot slot, Map<Long, SerializableTestResult> resultsById) {
+        List<SerializableTestResult> results = new ArrayList<>(slot.classResultIds.size());
+        for (Long id : slot.classResultIds) {
+            results.add(resultsById.get(id));
+        }
+        String name = results.get(0).getName();
+        String displayName = results.get(0).getDisplayName();
+        long earliestStartTime = results.get(0).getStartTime();
+        ImmutableList.Builder<TestMetadataEvent> metadatas = ImmutableList.builder();
+        metadatas.addAll(results.get(0).getMetadatas());
+        // Skip first result as we already used it
+        for (int i = 1; i < results.size(); i++) {
+            SerializableTestResult result = results.get(i);
+            // This can happen for a variety of cases, e.g. parameterized tests or multiple test frameworks.
+            // Therefore, we shouldn't fail, as a slightly broken report is better than a task failure.
+            if (!result.getDisplayName().equals(displayName)) {
+                LOGGER.warn(
+                    "Expected all results for grouping node {} to have the same display name, but found: {} and {}",
+                    slot.path, displayName, result.getDisplayName()
+                );
+            }
+            if (result.getStartTime() < earliestStartTime) {
+                earliestStartTime = result.getStartTime();
+            }
+            metadatas.addAll(result.getMetadatas());
+        }
+        return new TestClassResult(slot.classId, name, displayName, earliestStartTime, metadatas.build());
+    }
+
+    private static TestMethodResult buildMethodResult(long id, SerializableTestResult result) {
+        TestMethodResult methodResult = new TestMethodResult(
+            id,
+            result.getName(),
+            result.getDisplayName(),
+            result.getResultType(),
+            result.getDuration(),
+            result.getEndTime(),
+            ImmutableList.copyOf(result.getMetadatas())
+        );
+        methodResult.getFailures().addAll(result.getFailures());
+        if (result.getAssumptionFailure() != null) {
+            SerializableFailure assumptionFailure = result.getAssumptionFailure();
+            methodResult.setAssumptionFailure(
+                assumptionFailure.getMessage(), assumptionFailure.getStackTrace(), assumptionFailure.getExceptionType()
+            );
+        }
+        return methodResult;
+    }
+
+    @Override
+    public Set<String> getRepeatedClassNames() {
+        return index.repeatedClassNames;
+    }
+
+    private ClassOutput getClassOutput(long classId) {
+        ClassOutput classOutput = outputsByClassId.get(classId);
+        if (classOutput == null) {
+            throw new IllegalArgumentException("No class with id " + classId);
+        }
+        return classOutput;
+    }
+
+    @Override
+    public void writeAllOutput(long classId, TestOutputEvent.Destination destination, Writer writer) {
+        ClassOutput classOutput = getClassOutput(classId);
+        try {
+            outputReader.useTestOutputEvents(
+                Iterables.concat(classOutput.outputEntries, classOutput.methodOutputEntries.values()), destination,
+                event -> writer.write(event.getMessage())
+            );
+        } catch (IOException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+
+    @Override
+    public void writeNonTestOutput(long classId, TestOutputEvent.Destination destination, Writer writer) {
+        ClassOutput classOutput = getClassOutput(classId);
+        try {
+            outputReader.useTestOutputEvents(
+                classOutput.outputEntries, destination,
+                event -> writer.write(event.getMessage())
+            );
+        } catch (IOException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+
+    @Override
+    public void writeTestOutput(long classId, long testId, TestOutputEvent.Destination destination, Writer writer) {
+        OutputEntry testEntry = getClassOutput(classId).methodOutputEntries.get(testId);
+        if (testEntry == null) {
+            throw new IllegalArgumentException("No test with id " + testId + " in class with id " + classId);
+        }
+        try {
+            outputReader.useTestOutputEvents(
+                testEntry, destination,
+                event -> writer.write(event.getMessage())
+            );
+        } catch (IOException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+
+    @Override
+    public boolean hasOutput(long classId, long testId, TestOutputEvent.Destination destination) {
+        ClassOutput classOutput = outputsByClassId.get(classId);
+        if (classOutput != null) {
+            OutputEntry entry = classOutput.methodOutputEntries.get(testId);
+            if (entry != null) {
+                return outputReader.hasOutput(entry, destination);
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        outputReader.close();
+    }
+}
@@ -31,21 +31,32 @@
  * <p>In some cases, classes from the application classpath may be accessed by the implementation classpath. These
  * are specified by {@link WorkerProcessBuilder#sharedPackages}, but should likely be tracked in this class as well.</p>
  *
- * <p>This classpath is intended to be consumed by the {@link ForkingTestDefinitionProcessor}.</p>
+ * <p>This classpath is intended to be consumed by the {@link ForkingTestDefinitionProcessor} and the {@link ReusingTestDefinitionProcessor}.</p>
  */
 public class ForkedTestClasspath {
     private final ImmutableList<File> applicationClasspath;
     private final ImmutableList<File> applicationModulepath;
     private final ImmutableList<URL> implementationClasspath;
+    private final ImmutableList<URL> testFrameworkImplementationClasspath;
 
     public ForkedTestClasspath(
         ImmutableList<File> applicationClasspath,
         ImmutableList<File> applicationModulepath,
         ImmutableList<URL> implementationClasspath
+    ) {
+        this(applicationClasspath, applicationModulepath, implementationClasspath, ImmutableList.of());
+    }
+
+    public ForkedTestClasspath(
+        ImmutableList<File> applicationClasspath,
+        ImmutableList<File> applicationModulepath,
+        ImmutableList<URL> implementationClasspath,
+        ImmutableList<URL> testFrameworkImplementationClasspath
     ) {
         this.applicationClasspath = applicationClasspath;
         this.applicationModulepath = applicationModulepath;
         this.implementationClasspath = implementationClasspath;
+        this.testFrameworkImplementationClasspath = testFrameworkImplementationClasspath;
     }
 
     public ImmutableList<File> getApplicationClasspath() {
@@ -59,4 +70,12 @@ public ImmutableList<File> getApplicationModulepath() {
     public ImmutableList<URL> getImplementationClasspath() {
         return implementationClasspath;
     }
+
+    /**
+     * The part of the implementation classpath that links against the test framework on the application classpath,
+     * and therefore has to be loaded alongside it. Empty when this part is not known.
+     */
+    public ImmutableList<URL> getTestFrameworkImplementationClasspath() {
+        return testFrameworkImplementationClasspath;
+    }
 }
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.worker;
+
+import org.gradle.api.Action;
+import org.gradle.api.internal.tasks.testing.TestDefinition;
+import org.gradle.api.internal.tasks.testing.TestDescriptorInternal;
+import org.gradle.api.internal.tasks.testing.TestCompleteEvent;
+import org.gradle.api.internal.tasks.testing.TestResultProcessor;
+import org.gradle.api.internal.tasks.testing.TestStartEvent;
+import org.gradle.api.tasks.testing.TestFailure;
+import org.gradle.api.tasks.testing.TestMetadataEvent;
+import org.gradle.api.tasks.testing.TestOutputEvent;
+import org.gradle.internal.Cast;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.remote.ObjectConnection;
+import org.gradle.process.ExecResult;
+import org.gradle.process.internal.worker.WorkerProcess;
+import org.jspecify.annotations.Nullable;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The build process side of a {@link ReusableTestWorker}, which runs one session at a time on behalf of a {@link ReusingTestDefinitionProcessor}.
+ */
+class ReusableTestWorkerClient {
+    private final WorkerProcess workerProcess;
+    private final TestWorkerFingerprint fingerprint;
+    private final RemoteReusableTestWorker<TestDefinition> worker;
+    private final Lock lock = new ReentrantLock();
+    private final Condition sessionStopped = lock.newCondition();
+    private @Nullable TestResultProcessor resultProcessor;
+    private @Nullable Action<Throwable> unrecoverableErrorHandler;
+    private boolean sessionRunning;
+    private int uses;
+    private long usedHeapBytes;
+    private long maxHeapBytes;
+    private long idleSince;
+
+    @SuppressWarnings("this-escape")
+    ReusableTestWorkerClient(WorkerProcess workerProcess, TestWorkerFingerprint fingerprint) {
+        this.workerProcess = workerProcess;
+        this.fingerprint = fingerprint;
+
+        ObjectConnection connection = workerProcess.getConnection();
+        connection.useParameterSerializers(TestEventSerializer.create());
+        connection.addUnrecoverableErrorHandler(this::onUnrecoverableError);
+        connection.addIncoming(ReusableTestWorkerResultProcessor.class, new SessionResultProcessor());
+        this.worker = Cast.uncheckedNonnullCast(connection.addOutgoing(RemoteReusableTestWorker.class));
+        connection.connect();
+    }
+
+    String getDisplayName() {
+        return workerProcess.getDisplayName();
+    }
+
+    TestWorkerFingerprint getFingerprint() {
+        return fingerprint;
+    }
+
+    boolean isAlive() {
+        return !workerProcess.getExecResult().isPresent();
+    }
+
+    long getIdleSince() {
+        return idleSince;
+    }
+
+    void setIdleSince(long idleSince) {
+        this.idleSince = idleSince;
+    }
+
+    /**
+     * The maximum heap size of the worker as reported at the end of its last session, or 0 when it has not finished a session yet.
+     */
+    long getMaxHeapBytes() {
+        lock.lock();
+        try {
+            return maxHeapBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void startSession(TestWorkerSessionSpec spec, TestResultProcessor resultProcessor, Action<Throwable> unrecoverableErrorHandler) {
+        lock.lock();
+        try {
+            this.resultProcessor = resultProcessor;
+            this.unrecoverableErrorHandler = unrecoverableErrorHandler;
+            sessionRunning = true;
+            uses++;
+        } finally {
+            lock.unlock();
+        }
+        worker.startSession(spec);
+    }
+
+    void processTestDefinition(TestDefinition testDefinition) {
+        worker.processTestDefinition(testDefinition);
+    }
+
+    /**
+     * Stops the current session and waits for the worker to finish it.
+     *
+     * @return true if the session finished, false if the worker process exited first.
+     */
+    boolean stopSession() {
+        worker.stopSession();
+        lock.lock();
+        try {
+            while (sessionRunning) {
+                if (!isAlive()) {
+                    return false;
+                }
+                sessionStopped.await(100, TimeUnit.MILLISECONDS);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        } finally {
+            resultProcessor = null;
+            unrecoverableErrorHandler = null;
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns true if the worker is healthy enough to run another session, given how many sessions it has run and how much
+     * heap the last one left behind.
+     */
+    boolean canBeReused(int maxUses, int maxHeapUsagePercent) {
+        lock.lock();
+        try {
+            return isAlive()
+                && uses < maxUses
+                && usedHeapBytes * 100 <= maxHeapBytes * maxHeapUsagePercent;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops an idle worker.
+     */
+    void stop() {
+        if (isAlive()) {
+            worker.stop();
+        }
+        workerProcess.waitForStop();
+    }
+
+    /**
+     * Waits for a worker that exited by itself, failing if it exited with a non-zero exit value.
+     */
+    ExecResult waitForStop() {
+        return workerProcess.waitForStop();
+    }
+
+    void stopNow() {
+        workerProcess.stopNow();
+    }
+
+    private void onUnrecoverableError(Throwable throwable) {
+        Action<Throwable> handler;
+        lock.lock();
+        try {
+            handler = unrecoverableErrorHandler;
+        } finally {
+            lock.unlock();
+        }
+        if (handler != null) {
+            handler.execute(throwable);
+        }
+    }
+
+    private TestResultProcessor getResultProcessor() {
+        lock.lock();
+        try {
+            if (resultProcessor == null) {
+                throw new IllegalStateException("Received a test result from " + getDisplayName() + " outside of a session");
+            }
+            return resultProcessor;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forwards the results of the worker to the processor of the current session.
+     */
+    private class SessionResultProcessor implements ReusableTestWorkerResultProcessor {
+        @Override
+        public void started(TestDescriptorInternal test, TestStartEvent event) {
+            getResultProcessor().started(test, event);
+        }
+
+        @Override
+        public void completed(Object testId, TestCompleteEvent event) {
+            getResultProcessor().completed(testId, event);
+        }
+
+        @Override
+        public void output(Object testId, TestOutputEvent event) {
+            getResultProcessor().output(testId, event);
+        }
+
+        @Override
+        public void failure(Object testId, TestFailure result) {
+            getResultProcessor().failure(testId, result);
+        }
+
+        @Override
+        public void published(Object testId, TestMetadataEvent keyValueEvent) {
+            getResultProcessor().published(testId, keyValueEvent);
+        }
+
+        @Override
+        public void sessionStopped(long usedHeapBytes, long maxHeapBytes) {
+            lock.lock();
+            try {
+                ReusableTestWorkerClient.this.usedHeapBytes = usedHeapBytes;
+                ReusableTestWorkerClient.this.maxHeapBytes = maxHeapBytes;
+                sessionRunning = false;
+                sessionStopped.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.worker;
+
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.service.scopes.Scope;
+import org.gradle.internal.service.scopes.ServiceScope;
+import org.gradle.internal.time.Clock;
+import org.gradle.process.internal.health.memory.MemoryHolder;
+import org.gradle.process.internal.health.memory.MemoryManager;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps idle {@link ReusableTestWorker}s around, so that later test tasks in this or a later build can use them instead of starting new ones.
+ *
+ * <p>The number of idle workers is bounded, and workers are stopped when they have been idle for a while or when the system runs low on memory.</p>
+ */
+@ServiceScope(Scope.UserHome.class)
+public class ReusableTestWorkerPool implements MemoryHolder, Stoppable {
+    private static final Logger LOGGER = Logging.getLogger(ReusableTestWorkerPool.class);
+
+    /**
+     * How long a worker is kept when no task uses it, which is less than the time after which it stops by itself.
+     */
+    private static final long MAX_IDLE_TIME = TimeUnit.MINUTES.toMillis(60);
+
+    private final Object lock = new Object();
+    // Least recently used first
+    private final Deque<ReusableTestWorkerClient> idleWorkers = new ArrayDeque<>();
+    private final MemoryManager memoryManager;
+    private final Clock clock;
+    private final int maxIdleWorkers;
+
+    public ReusableTestWorkerPool(MemoryManager memoryManager, Clock clock) {
+        this(memoryManager, clock, Runtime.getRuntime().availableProcessors());
+    }
+
+    @SuppressWarnings("this-escape")
+    ReusableTestWorkerPool(MemoryManager memoryManager, Clock clock, int maxIdleWorkers) {
+        this.memoryManager = memoryManager;
+        this.clock = clock;
+        this.maxIdleWorkers = maxIdleWorkers;
+        memoryManager.addMemoryHolder(this);
+    }
+
+    /**
+     * Takes the most recently used idle worker with the given fingerprint out of the pool, if there is one.
+     */
+    @Nullable
+    ReusableTestWorkerClient reserveIdleWorker(TestWorkerFingerprint fingerprint) {
+        List<ReusableTestWorkerClient> expired = new ArrayList<>();
+        ReusableTestWorkerClient reserved = null;
+        synchronized (lock) {
+            long now = clock.getCurrentTime();
+            Iterator<ReusableTestWorkerClient> it = idleWorkers.descendingIterator();
+            while (it.hasNext()) {
+                ReusableTestWorkerClient candidate = it.next();
+                if (!candidate.isAlive() || now - candidate.getIdleSince() > MAX_IDLE_TIME) {
+                    it.remove();
+                    expired.add(candidate);
+                } else if (reserved == null && candidate.getFingerprint().equals(fingerprint)) {
+                    it.remove();
+                    reserved = candidate;
+                }
+            }
+        }
+        stopWorkers(expired);
+        if (reserved != null) {
+            LOGGER.debug("Reusing idle test worker '{}'.", reserved.getDisplayName());
+        }
+        return reserved;
+    }
+
+    /**
+     * Returns a worker that has finished its session to the pool.
+     */
+    void release(ReusableTestWorkerClient worker) {
+        List<ReusableTestWorkerClient> evicted = new ArrayList<>();
+        synchronized (lock) {
+            worker.setIdleSince(clock.getCurrentTime());
+            idleWorkers.addLast(worker);
+            while (idleWorkers.size() > maxIdleWorkers) {
+                evicted.add(idleWorkers.removeFirst());
+            }
+        }
+        stopWorkers(evicted);
+    }
+
+    @Override
+    public long attemptToRelease(long memoryAmountBytes) throws IllegalArgumentException {
+        if (memoryAmountBytes < 0) {
+            throw new IllegalArgumentException("Negative memory amount");
+        }
+        List<ReusableTestWorkerClient> toStop = new ArrayList<>();
+        long releasedBytes = 0;
+        synchronized (lock) {
+            while (releasedBytes < memoryAmountBytes && !idleWorkers.isEmpty()) {
+                ReusableTestWorkerClient worker = idleWorkers.removeFirst();
+                toStop.add(worker);
+                releasedBytes += worker.getMaxHeapBytes();
+            }
+        }
+        if (!toStop.isEmpty()) {
+            LOGGER.debug("Test worker(s) stopped to free some system memory {}", toStop.size());
+        }
+        stopWorkers(toStop);
+        return releasedBytes;
+    }
+
+    @Override
+    public void stop() {
+        memoryManager.removeMemoryHolder(this);
+        List<ReusableTestWorkerClient> workers;
+        synchronized (lock) {
+            workers = new ArrayList<>(idleWorkers);
+            idleWorkers.clear();
+        }
+        stopWorkers(workers);
+    }
+
+    private static void stopWorkers(List<ReusableTestWorkerClient> workers) {
+        for (ReusableTestWorkerClient worker : workers) {
+            try {
+                worker.stop();
+            } catch (Exception e) {
+                LOGGER.info("Failed to stop test worker '{}'.", worker.getDisplayName(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.worker;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.gradle.api.Action;
+import org.gradle.api.internal.tasks.testing.TestDefinition;
+import org.gradle.api.internal.tasks.testing.TestDefinitionProcessor;
+import org.gradle.api.internal.tasks.testing.TestResultProcessor;
+import org.gradle.api.internal.tasks.testing.WorkerTestDefinitionProcessorFactory;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.exceptions.DefaultMultiCauseException;
+import org.gradle.internal.nativeintegration.services.NativeServices.NativeServicesMode;
+import org.gradle.internal.work.WorkerLeaseRegistry;
+import org.gradle.internal.work.WorkerThreadRegistry;
+import org.gradle.process.JavaForkOptions;
+import org.gradle.process.ProcessExecutionException;
+import org.gradle.process.internal.worker.WorkerProcessBuilder;
+import org.gradle.process.internal.worker.WorkerProcessFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.net.URL;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs tests in a {@link ReusableTestWorker} taken from a {@link ReusableTestWorkerPool}, starting a new worker only when no idle one
+ * was started with the same options. Once the tests have run, the worker is returned to the pool unless it has been used too often,
+ * its heap usage has grown too much, or it has a Java agent attached.
+ *
+ * <p>The counterpart of {@link ForkingTestDefinitionProcessor}, which starts a new worker each time.</p>
+ */
+public class ReusingTestDefinitionProcessor<D extends TestDefinition> implements TestDefinitionProcessor<D> {
+    private final WorkerThreadRegistry workerThreadRegistry;
+    private final WorkerProcessFactory workerFactory;
+    private final TestWorkerReuse workerReuse;
+    private final WorkerTestDefinitionProcessorFactory<D> processorFactory;
+    private final JavaForkOptions options;
+    private final ForkedTestClasspath classpath;
+    private final Action<WorkerProcessBuilder> buildConfigAction;
+    private final Lock lock = new ReentrantLock();
+    private ReusableTestWorkerClient worker;
+    private TestResultProcessor resultProcessor;
+    private WorkerLeaseRegistry.WorkerLeaseCompletion completion;
+    private boolean stoppedNow;
+    private final Set<Throwable> unrecoverableExceptions = new HashSet<>();
+
+    public ReusingTestDefinitionProcessor(
+        WorkerThreadRegistry workerThreadRegistry,
+        WorkerProcessFactory workerFactory,
+        TestWorkerReuse workerReuse,
+        WorkerTestDefinitionProcessorFactory<D> processorFactory,
+        JavaForkOptions options,
+        ForkedTestClasspath classpath,
+        Action<WorkerProcessBuilder> buildConfigAction
+    ) {
+        this.workerThreadRegistry = workerThreadRegistry;
+        this.workerFactory = workerFactory;
+        this.workerReuse = workerReuse;
+        this.processorFactory = processorFactory;
+        this.options = options;
+        this.classpath = classpath;
+        this.buildConfigAction = buildConfigAction;
+    }
+
+    /**
+     * Returns true if tests with the given classpath can run in a reused worker. This requires the part of the implementation
+     * classpath that links against the test framework to be known, so it can be loaded separately for each test task.
+     */
+    public static boolean canReuseWorkers(ForkedTestClasspath classpath) {
+        return !classpath.getTestFrameworkImplementationClasspath().isEmpty() && classpath.getApplicationModulepath().isEmpty();
+    }
+
+    @Override
+    public void startProcessing(TestResultProcessor resultProcessor) {
+        this.resultProcessor = resultProcessor;
+    }
+
+    @Override
+    public void processTestDefinition(D testDefinition) {
+        lock.lock();
+        try {
+            if (stoppedNow) {
+                return;
+            }
+
+            if (worker == null) {
+                completion = workerThreadRegistry.startWorker();
+                try {
+                    worker = startSession();
+                } catch (RuntimeException e) {
+                    completion.leaseFinish();
+                    completion = null;
+                    throw e;
+                }
+            }
+
+            worker.processTestDefinition(testDefinition);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReusableTestWorkerClient startSession() {
+        List<URL> workerImplementationClasspath = ImmutableList.copyOf(
+            classpath.getImplementationClasspath().stream().filter(url -> !classpath.getTestFrameworkImplementationClasspath().contains(url)).iterator()
+        );
+        WorkerProcessBuilder builder = workerFactory.create(new ReusableTestWorker<D>());
+        builder.setBaseName(ForkingTestDefinitionProcessor.GRADLE_TEST_WORKER_NAME);
+        builder.setImplementationClasspath(workerImplementationClasspath);
+        // Disabled for faster startup, see https://github.com/gradle/gradle/pull/1883
+        builder.setNativeServicesMode(NativeServicesMode.DISABLED);
+        builder.getJavaCommand().copyJavaForkOptions(options);
+        buildConfigAction.execute(builder);
+
+        TestWorkerFingerprint fingerprint = TestWorkerFingerprint.of(builder, workerImplementationClasspath);
+        ReusableTestWorkerClient worker = fingerprint.isReusable() ? workerReuse.getPool().reserveIdleWorker(fingerprint) : null;
+        if (worker == null) {
+            // If the Test Worker JVM fails to start up, an exception will be thrown when we call start()
+            worker = new ReusableTestWorkerClient(builder.build().start(), fingerprint);
+        }
+
+        ImmutableMap.Builder<String, String> systemProperties = ImmutableMap.builder();
+        Object workerTmpDir = builder.getJavaCommand().getSystemProperties().get(TestWorker.WORKER_TMPDIR_SYS_PROPERTY);
+        if (workerTmpDir != null) {
+            systemProperties.put(TestWorker.WORKER_TMPDIR_SYS_PROPERTY, workerTmpDir.toString());
+        }
+        TestWorkerSessionSpec spec = new TestWorkerSessionSpec(
+            serialize(processorFactory),
+            classpath.getApplicationClasspath(),
+            classpath.getTestFrameworkImplementationClasspath(),
+            ImmutableSet.copyOf(builder.getSharedPackages()),
+            systemProperties.build()
+        );
+        worker.startSession(spec, resultProcessor, this::onUnrecoverableError);
+        return worker;
+    }
+
+    private static byte[] serialize(Object processorFactory) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream outputStream = new ObjectOutputStream(bytes)) {
+            outputStream.writeObject(processorFactory);
+        } catch (IOException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void onUnrecoverableError(Throwable throwable) {
+        lock.lock();
+        try {
+            if (!stoppedNow) {
+                unrecoverableExceptions.add(throwable);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void stop() {
+        try {
+            if (worker != null && !isStoppedNow()) {
+                if (worker.stopSession()) {
+                    if (isStoppedNow()) {
+                        return;
+                    }
+                    if (unrecoverableExceptions.isEmpty() && worker.getFingerprint().isReusable() && worker.canBeReused(workerReuse.getMaxUses(), workerReuse.getMaxHeapUsagePercent())) {
+                        workerReuse.getPool().release(worker);
+                    } else {
+                        worker.stop();
+                    }
+                } else if (!isStoppedNow()) {
+                    // The worker exited before finishing the tests, a non-zero exit value is reported by waitForStop()
+                    worker.waitForStop();
+                    throw new ProcessExecutionException("Process '" + worker.getDisplayName() + "' stopped before finishing the tests.");
+                }
+            }
+        } catch (ProcessExecutionException e) {
+            if (!isStoppedNow()) {
+                throw e;
+            }
+        } finally {
+            if (completion != null) {
+                completion.leaseFinish();
+            }
+        }
+
+        maybeRethrowUnrecoverableExceptions();
+    }
+
+    private boolean isStoppedNow() {
+        lock.lock();
+        try {
+            return stoppedNow;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void stopNow() {
+        lock.lock();
+        try {
+            stoppedNow = true;
+            if (worker != null) {
+                worker.stopNow();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * If there are communication errors while receiving test results from the test worker,
+     * we can get in a situation where a test appears skipped even though it actually failed.
+     * We want to capture the communication errors and be sure to fail the test execution so
+     * as to avoid any false positives.
+     */
+    private void maybeRethrowUnrecoverableExceptions() {
+        if (!unrecoverableExceptions.isEmpty()) {
+            throw new DefaultMultiCauseException("Unexpected errors were encountered while processing test results that may result in some results being incorrect or incomplete.", unrecoverableExceptions);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.worker;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.gradle.api.logging.LogLevel;
+import org.gradle.process.internal.JavaExecHandleBuilder;
+import org.gradle.process.internal.worker.WorkerProcessBuilder;
+import org.jspecify.annotations.Nullable;
+
+import java.io.File;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Everything about a {@link ReusableTestWorker} that is fixed when its process starts. A worker can only run the tests of
+ * a task that would have started an identical process.
+ *
+ * <p>Workers with a Java agent attached are never reused. An agent keeps its state for the lifetime of the process, and
+ * typically writes its results when the process exits, for example JaCoCo to its destination file. A reused worker would
+ * mix the results of several tasks, and report them too late for the task that attached the agent.</p>
+ */
+final class TestWorkerFingerprint {
+    private static final String WORKER_TMPDIR_JVM_ARG = "-D" + TestWorker.WORKER_TMPDIR_SYS_PROPERTY + "=";
+    private static final ImmutableList<String> AGENT_JVM_ARG_PREFIXES = ImmutableList.of("-javaagent:", "-agentlib:", "-agentpath:", "-Xrun");
+
+    private final String executable;
+    private final @Nullable File workingDir;
+    private final ImmutableMap<String, String> environment;
+    private final ImmutableList<String> jvmArgs;
+    private final ImmutableList<URL> implementationClasspath;
+    private final LogLevel logLevel;
+    private final boolean reusable;
+
+    private TestWorkerFingerprint(String executable, @Nullable File workingDir, ImmutableMap<String, String> environment, ImmutableList<String> jvmArgs, ImmutableList<URL> implementationClasspath, LogLevel logLevel) {
+        this.executable = executable;
+        this.workingDir = workingDir;
+        this.environment = environment;
+        this.jvmArgs = jvmArgs;
+        this.implementationClasspath = implementationClasspath;
+        this.logLevel = logLevel;
+        this.reusable = jvmArgs.stream().noneMatch(TestWorkerFingerprint::isAgentJvmArg);
+    }
+
+    private static boolean isAgentJvmArg(String jvmArg) {
+        return AGENT_JVM_ARG_PREFIXES.stream().anyMatch(jvmArg::startsWith);
+    }
+
+    /**
+     * Returns false if a worker started with these options must be stopped after its first session, as it has an agent attached.
+     */
+    boolean isReusable() {
+        return reusable;
+    }
+
+    static TestWorkerFingerprint of(WorkerProcessBuilder builder, List<URL> implementationClasspath) {
+        JavaExecHandleBuilder javaCommand = builder.getJavaCommand();
+        ImmutableMap.Builder<String, String> environment = ImmutableMap.builder();
+        for (Map.Entry<String, Object> entry : javaCommand.getEnvironment().entrySet()) {
+            environment.put(entry.getKey(), String.valueOf(entry.getValue()));
+        }
+        ImmutableList.Builder<String> jvmArgs = ImmutableList.builder();
+        for (String jvmArg : javaCommand.getAllJvmArgs()) {
+            // The temporary directory is specific to the task, and applied for each session instead
+            if (!jvmArg.startsWith(WORKER_TMPDIR_JVM_ARG)) {
+                jvmArgs.add(jvmArg);
+            }
+        }
+        return new TestWorkerFingerprint(
+            javaCommand.getExecutable(),
+            javaCommand.getWorkingDir(),
+            environment.build(),
+            jvmArgs.build(),
+            ImmutableList.copyOf(implementationClasspath),
+            builder.getLogLevel()
+        );
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        TestWorkerFingerprint that = (TestWorkerFingerprint) o;
+        return executable.equals(that.executable)
+            && Objects.equals(workingDir, that.workingDir)
+            && environment.equals(that.environment)
+            && jvmArgs.equals(that.jvmArgs)
+            && implementationClasspath.equals(that.implementationClasspath)
+            && logLevel == that.logLevel;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(executable, workingDir, environment, jvmArgs, implementationClasspath, logLevel);
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.worker;
+
+/**
+ * How test workers are reused across test tasks, see {@link ReusingTestDefinitionProcessor}.
+ */
+public class TestWorkerReuse {
+    private final ReusableTestWorkerPool pool;
+    private final int maxUses;
+    private final int maxHeapUsagePercent;
+
+    /**
+     * @param maxUses the number of test tasks a worker runs before it is stopped
+     * @param maxHeapUsagePercent the share of its maximum heap that a worker may still use after running a test task's tests, before it is stopped
+     */
+    public TestWorkerReuse(ReusableTestWorkerPool pool, int maxUses, int maxHeapUsagePercent) {
+        this.pool = pool;
+        this.maxUses = maxUses;
+        this.maxHeapUsagePercent = maxHeapUsagePercent;
+    }
+
+    public ReusableTestWorkerPool getPool() {
+        return pool;
+    }
+
+    public int getMaxUses() {
+        return maxUses;
+    }
+
+    public int getMaxHeapUsagePercent() {
+        return maxHeapUsagePercent;
+    }
+}
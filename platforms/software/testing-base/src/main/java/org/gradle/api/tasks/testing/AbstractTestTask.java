@@ -875,6 +875,7 @@ public Path generate(List<Path> resultsDirectories) {
             if (resultsDirectories.size() > 1) {
                 throw new IllegalArgumentException("CustomTestReportingGenerator can only generate a report from a single results directory. Found: " + resultsDirectories);
             }
+            // A custom reporter may read the output of a class before visiting it, which the streamed results do not allow
             TestTreeModelResultsProvider.useResultsFrom(
                 resultsDirectories.get(0),
                 resultsProvider -> testReporter.generateReport(resultsProvider, outputDir)
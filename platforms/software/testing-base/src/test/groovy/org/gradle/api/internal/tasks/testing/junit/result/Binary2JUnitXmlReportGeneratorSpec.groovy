@@ -79,6 +79,31 @@ class Binary2JUnitXmlReportGeneratorSpec extends Specification {
         numThreads << [1, 4]
     }
 
+    def "writes results while visiting classes when repeated class names are known up front"() {
+        generator = generatorWithMaxThreads(1)
+        generator.xmlWriter = new JUnitXmlResultWriter(temp.testDirectory.toPath(), "localhost", resultsProvider, new JUnitXmlResultOptions(false, false, false, false))
+
+        def fooTest1 = new TestClassResult(1, 'FooTest', 'FooTest', 100, [])
+            .add(new TestMethodResult(1, "foo", "foo", TestResult.ResultType.SUCCESS, 0, 200, []))
+        def barTest = new TestClassResult(2, 'BarTest', 'BarTest', 100, [])
+            .add(new TestMethodResult(2, "bar", "bar", TestResult.ResultType.SUCCESS, 0, 200, []))
+        def fooTest2 = new TestClassResult(3, 'FooTest', 'FooTest', 100, [])
+            .add(new TestMethodResult(3, "foo", "foo", TestResult.ResultType.SUCCESS, 0, 200, []))
+
+        resultsProvider.getRepeatedClassNames() >> (['FooTest'] as Set)
+        resultsProvider.visitClasses(_) >> { Action action ->
+            action.execute(fooTest1)
+            action.execute(barTest)
+            action.execute(fooTest2)
+        }
+
+        when:
+        generator.generate()
+
+        then:
+        temp.testDirectory.listFiles()*.name.sort() == ["TEST-BarTest.xml", "TEST-FooTest-1.xml", "TEST-FooTest-2.xml"]
+    }
+
     def "adds context information to the failure if something goes wrong"() {
         generator = generatorWithMaxThreads(1)
 
@@ -17,6 +17,7 @@
 package org.gradle.api.internal.tasks.testing.processors
 
 
+import org.gradle.api.internal.tasks.testing.ClassTestDefinition
 import org.gradle.api.internal.tasks.testing.TestDefinition
 import org.gradle.api.internal.tasks.testing.TestDefinitionProcessor
 import org.gradle.api.internal.tasks.testing.TestResultProcessor
@@ -169,6 +170,32 @@ class MaxNParallelTestDefinitionProcessorTest extends Specification {
         1 * asyncProcessor2.processTestDefinition(test)
     }
 
+    def assignsTestClassesToProcessorWithLeastEstimatedWork() {
+        def durationEstimator = new TestDefinitionDurationEstimator([Slow: 1000L, Medium: 600L, Fast1: 300L, Fast2: 300L, Fast3: 300L])
+        def processor = new MaxNParallelTestDefinitionProcessor(2, factory, actorFactory, durationEstimator)
+        TestDefinitionProcessor asyncProcessor1 = Mock()
+        TestDefinitionProcessor asyncProcessor2 = Mock()
+        Actor actor1 = Mock()
+        Actor actor2 = Mock()
+        1 * actorFactory.createActor(resultProcessor) >> resultProcessorActor
+        1 * resultProcessorActor.getProxy(TestResultProcessor) >> asyncResultProcessor
+        processor.startProcessing(resultProcessor)
+
+        when:
+        ['Slow', 'Medium', 'Fast1', 'Fast2', 'Fast3'].each { processor.processTestDefinition(new ClassTestDefinition(it)) }
+
+        then:
+        2 * factory.create() >>> [Mock(TestDefinitionProcessor), Mock(TestDefinitionProcessor)]
+        2 * actorFactory.createActor(_) >>> [actor1, actor2]
+        1 * actor1.getProxy(TestDefinitionProcessor) >> asyncProcessor1
+        1 * actor2.getProxy(TestDefinitionProcessor) >> asyncProcessor2
+        1 * asyncProcessor1.processTestDefinition(new ClassTestDefinition('Slow'))
+        1 * asyncProcessor2.processTestDefinition(new ClassTestDefinition('Medium'))
+        1 * asyncProcessor2.processTestDefinition(new ClassTestDefinition('Fast1'))
+        1 * asyncProcessor2.processTestDefinition(new ClassTestDefinition('Fast2'))
+        1 * asyncProcessor1.processTestDefinition(new ClassTestDefinition('Fast3'))
+    }
+
     def "stopNow propagates to factory created processors"() {
         TestDefinition test = Mock()
         TestDefinitionProcessor processor1 = Mock()
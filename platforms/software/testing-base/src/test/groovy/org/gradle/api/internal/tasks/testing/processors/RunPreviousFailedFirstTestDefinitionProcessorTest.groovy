@@ -47,4 +47,31 @@ class RunPreviousFailedFirstTestDefinitionProcessorTest extends Specification {
         then:
         1 * delegate.stop()
     }
+
+    def 'test classes that took longest in the previous run are passed to delegate first'() {
+        given:
+        def durationEstimator = new TestDefinitionDurationEstimator([Class1: 10L, Class2: 500L, Class3: 20L, Class4: 1000L])
+        processor = new RunPreviousFailedFirstTestDefinitionProcessor(['Class3'] as Set, [] as Set, durationEstimator, delegate)
+
+        when:
+        processor.startProcessing(testResultProcessor)
+        ['Class1', 'Class2', 'Class3', 'Class4', 'Class5'].each { processor.processTestDefinition(new ClassTestDefinition(it)) }
+        processor.stop()
+
+        then:
+        1 * delegate.startProcessing(testResultProcessor)
+        then:
+        1 * delegate.processTestDefinition(new ClassTestDefinition('Class3'))
+        then:
+        1 * delegate.processTestDefinition(new ClassTestDefinition('Class4'))
+        then:
+        1 * delegate.processTestDefinition(new ClassTestDefinition('Class2'))
+        then:
+        // Class5 has no previous duration and is assumed to take the average
+        1 * delegate.processTestDefinition(new ClassTestDefinition('Class5'))
+        then:
+        1 * delegate.processTestDefinition(new ClassTestDefinition('Class1'))
+        then:
+        1 * delegate.stop()
+    }
 }
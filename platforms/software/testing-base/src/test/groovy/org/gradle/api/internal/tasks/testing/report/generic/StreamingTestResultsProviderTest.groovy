@@ -0,0 +1,364 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.report.generic
+
+import org.gradle.api.internal.tasks.testing.DecoratingTestDescriptor
+import org.gradle.api.internal.tasks.testing.DefaultTestClassDescriptor
+import org.gradle.api.internal.tasks.testing.DefaultTestDescriptor
+import org.gradle.api.internal.tasks.testing.DefaultTestOutputEvent
+import org.gradle.api.internal.tasks.testing.DefaultTestSuiteDescriptor
+import org.gradle.api.internal.tasks.testing.TestCompleteEvent
+import org.gradle.api.internal.tasks.testing.TestStartEvent
+import org.gradle.api.internal.tasks.testing.junit.result.TestClassResult
+import org.gradle.api.internal.tasks.testing.results.DefaultTestResult
+import org.gradle.api.internal.tasks.testing.results.serializable.OutputEntry
+import org.gradle.api.internal.tasks.testing.results.serializable.SerializableTestResultStore
+import org.gradle.api.internal.tasks.testing.results.serializable.TestOutputReader
+import org.gradle.api.internal.tasks.testing.worker.TestEventSerializer
+import org.gradle.api.tasks.testing.TestFailure
+import org.gradle.api.tasks.testing.TestOutputEvent
+import org.gradle.api.tasks.testing.TestResult
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Path
+
+class StreamingTestResultsProviderTest extends Specification {
+
+    @TempDir
+    Path tempDir
+
+    def "closes the output events file once the results are no longer in use"() {
+        given:
+        def storeDir = writeStore()
+
+        when:
+        StreamingTestResultsProvider captured = null
+        long classId = -1
+        def outputWhileInUse = new StringWriter()
+        StreamingTestResultsProvider.useResultsFrom(storeDir) { provider ->
+            captured = provider
+            provider.visitClasses { classId = it.id }
+            provider.writeAllOutput(classId, TestOutputEvent.Destination.StdOut, outputWhileInUse)
+        }
+
+        then:
+        outputWhileInUse.toString() == "hello"
+
+        when:
+        captured.writeAllOutput(classId, TestOutputEvent.Destination.StdOut, new StringWriter())
+
+        then:
+        thrown(IllegalStateException)
+    }
+
+    def "condenses results into classes and methods"() {
+        given:
+        def storeDir = tempDir.resolve("classes")
+        def writer = new SerializableTestResultStore(storeDir).openWriter(0)
+        try {
+            def root = new DefaultTestSuiteDescriptor(1, "root")
+            def classA = new DecoratingTestDescriptor(new DefaultTestClassDescriptor(2, "com.example.A"), root)
+            def testA2 = new DecoratingTestDescriptor(new DefaultTestDescriptor(3, "com.example.A", "test2"), classA)
+            def testA1 = new DecoratingTestDescriptor(new DefaultTestDescriptor(4, "com.example.A", "test1"), classA)
+            def classB = new DecoratingTestDescriptor(new DefaultTestClassDescriptor(5, "com.example.B"), root)
+            def testB = new DecoratingTestDescriptor(new DefaultTestDescriptor(6, "com.example.B", "test"), classB)
+
+            writer.started(root, new TestStartEvent(100))
+            writer.started(classA, new TestStartEvent(100))
+            writer.started(classB, new TestStartEvent(100))
+            writer.started(testA2, new TestStartEvent(150))
+            writer.started(testB, new TestStartEvent(100))
+            writer.started(testA1, new TestStartEvent(100))
+            writer.output(classA, new DefaultTestOutputEvent(100, TestOutputEvent.Destination.StdOut, "before "))
+            writer.output(testA1, new DefaultTestOutputEvent(100, TestOutputEvent.Destination.StdOut, "test1"))
+            writer.completed(testA2, successResult(150, 200), new TestCompleteEvent(200))
+            writer.completed(testB, successResult(100, 200), new TestCompleteEvent(200))
+            writer.completed(testA1, successResult(100, 200), new TestCompleteEvent(200))
+            writer.completed(classA, successResult(100, 200), new TestCompleteEvent(200))
+            writer.completed(classB, successResult(100, 200), new TestCompleteEvent(200))
+            writer.completed(root, successResult(100, 200), new TestCompleteEvent(200))
+        } finally {
+            writer.close()
+        }
+
+        when:
+        def classes = [:]
+        def output = new StringWriter()
+        StreamingTestResultsProvider.useResultsFrom(storeDir) { provider ->
+            provider.visitClasses { classes[it.className] = it }
+            provider.writeAllOutput(classes["com.example.A"].id, TestOutputEvent.Destination.StdOut, output)
+        }
+
+        then:
+        classes.keySet() == ["com.example.A", "com.example.B"] as Set
+        // Methods are ordered by start time
+        classes["com.example.A"].results*.name == ["test1", "test2"]
+        classes["com.example.B"].results*.name == ["test"]
+        output.toString() == "before test1"
+    }
+
+    def "knows repeated class names before visiting the classes"() {
+        given:
+        def storeDir = tempDir.resolve("repeated")
+        def writer = new SerializableTestResultStore(storeDir).openWriter(0)
+        try {
+            def root = new DefaultTestSuiteDescriptor(1, "root")
+            def suite1 = new DecoratingTestDescriptor(new DefaultTestSuiteDescriptor(2, "suite1"), root)
+            def suite2 = new DecoratingTestDescriptor(new DefaultTestSuiteDescriptor(3, "suite2"), root)
+            def class1 = new DecoratingTestDescriptor(new DefaultTestClassDescriptor(4, "com.example.A"), suite1)
+            def class2 = new DecoratingTestDescriptor(new DefaultTestClassDescriptor(5, "com.example.A"), suite2)
+            def test1 = new DecoratingTestDescriptor(new DefaultTestDescriptor(6, "com.example.A", "test"), class1)
+            def test2 = new DecoratingTestDescriptor(new DefaultTestDescriptor(7, "com.example.A", "test"), class2)
+
+            [root, suite1, suite2, class1, class2, test1, test2].each { writer.started(it, new TestStartEvent(100)) }
+            [test1, class1, suite1, test2, class2, suite2, root].each { writer.completed(it, successResult(100, 200), new TestCompleteEvent(200)) }
+        } finally {
+            writer.close()
+        }
+
+        when:
+        Set<String> repeatedClassNames = null
+        def visited = []
+        StreamingTestResultsProvider.useResultsFrom(storeDir) { provider ->
+            repeatedClassNames = provider.repeatedClassNames
+            provider.visitClasses { visited << it.className }
+        }
+
+        then:
+        repeatedClassNames == ["com.example.A"] as Set
+        visited == ["com.example.A", "com.example.A"]
+    }
+
+    def "condenses the results of each store like the tree model of all stores does"() {
+        given:
+        def firstDir = tempDir.resolve("first")
+        def writer = new SerializableTestResultStore(firstDir).openWriter(0)
+        try {
+            def root = new DefaultTestSuiteDescriptor(1, "root")
+            // A class that is run twice, with a method that is run in both runs
+            def classA = new DecoratingTestDescriptor(new DefaultTestClassDescriptor(2, "com.example.A"), root)
+            def testA1 = new DecoratingTestDescriptor(new DefaultTestDescriptor(3, "com.example.A", "test1"), classA)
+            def testA2 = new DecoratingTestDescriptor(new DefaultTestDescriptor(4, "com.example.A", "test2"), classA)
+            def classARetry = new DecoratingTestDescriptor(new DefaultTestClassDescriptor(5, "com.example.A"), root)
+            def testA1Retry = new DecoratingTestDescriptor(new DefaultTestDescriptor(6, "com.example.A", "test1"), classARetry)
+            // The same class in two suites
+            def suite1 = new DecoratingTestDescriptor(new DefaultTestSuiteDescriptor(7, "suite1"), root)
+            def suite2 = new DecoratingTestDescriptor(new DefaultTestSuiteDescriptor(8, "suite2"), root)
+            def classB1 = new DecoratingTestDescriptor(new DefaultTestClassDescriptor(9, "com.example.B"), suite1)
+            def classB2 = new DecoratingTestDescriptor(new DefaultTestClassDescriptor(10, "com.example.B"), suite2)
+            def testB1 = new DecoratingTestDescriptor(new DefaultTestDescriptor(11, "com.example.B", "test"), classB1)
+            def testB2 = new DecoratingTestDescriptor(new DefaultTestDescriptor(12, "com.example.B", "test"), classB2)
+
+            writer.started(root, new TestStartEvent(100))
+            writer.started(classA, new TestStartEvent(100))
+            writer.output(classA, new DefaultTestOutputEvent(100, TestOutputEvent.Destination.StdOut, "setup A "))
+            writer.started(testA2, new TestStartEvent(110))
+            writer.started(testA1, new TestStartEvent(120))
+            writer.output(testA1, new DefaultTestOutputEvent(120, TestOutputEvent.Destination.StdOut, "test1 "))
+            writer.output(testA2, new DefaultTestOutputEvent(120, TestOutputEvent.Destination.StdErr, "test2 "))
+            writer.completed(testA1, failureResult(120, 130, "boom"), new TestCompleteEvent(130))
+            writer.completed(testA2, successResult(110, 140), new TestCompleteEvent(140))
+            writer.completed(classA, failureResult(100, 140, "boom"), new TestCompleteEvent(140))
+            writer.started(classARetry, new TestStartEvent(150))
+            writer.started(testA1Retry, new TestStartEvent(150))
+            writer.output(testA1Retry, new DefaultTestOutputEvent(150, TestOutputEvent.Destination.StdOut, "test1 again"))
+            writer.completed(testA1Retry, successResult(150, 160), new TestCompleteEvent(160))
+            writer.completed(classARetry, successResult(150, 160), new TestCompleteEvent(160))
+            [suite1, suite2, classB1, classB2].each { writer.started(it, new TestStartEvent(200)) }
+            writer.started(testB2, new TestStartEvent(200))
+            writer.started(testB1, new TestStartEvent(210))
+            writer.output(classB2, new DefaultTestOutputEvent(200, TestOutputEvent.Destination.StdOut, "setup B2"))
+            writer.completed(testB1, successResult(210, 220), new TestCompleteEvent(220))
+            writer.completed(classB1, successResult(200, 220), new TestCompleteEvent(220))
+            writer.completed(suite1, successResult(200, 220), new TestCompleteEvent(220))
+            writer.completed(testB2, successResult(200, 230), new TestCompleteEvent(230))
+            writer.completed(classB2, successResult(200, 230), new TestCompleteEvent(230))
+            writer.completed(suite2, successResult(200, 230), new TestCompleteEvent(230))
+            writer.completed(root, failureResult(100, 230, "boom"), new TestCompleteEvent(230))
+        } finally {
+            writer.close()
+        }
+
+        def secondDir = tempDir.resolve("second")
+        writer = new SerializableTestResultStore(secondDir).openWriter(0)
+        try {
+            def root = new DefaultTestSuiteDescriptor(1, "root")
+            def classA = new DecoratingTestDescriptor(new DefaultTestClassDescriptor(2, "com.example.A"), root)
+            def testA3 = new DecoratingTestDescriptor(new DefaultTestDescriptor(3, "com.example.A", "test3"), classA)
+            def classC = new DecoratingTestDescriptor(new DefaultTestClassDescriptor(4, "com.example.C"), root)
+            def testC = new DecoratingTestDescriptor(new DefaultTestDescriptor(5, "com.example.C", "test"), classC)
+
+            [root, classA, classC, testC, testA3].each { writer.started(it, new TestStartEvent(300)) }
+            writer.output(testC, new DefaultTestOutputEvent(300, TestOutputEvent.Destination.StdOut, "test C"))
+            writer.completed(testC, failureResult(300, 310, "broken"), new TestCompleteEvent(310))
+            writer.completed(testA3, successResult(300, 320), new TestCompleteEvent(320))
+            writer.completed(classC, failureResult(300, 310, "broken"), new TestCompleteEvent(310))
+            writer.completed(classA, successResult(300, 320), new TestCompleteEvent(320))
+            writer.completed(root, failureResult(300, 320, "broken"), new TestCompleteEvent(320))
+        } finally {
+            writer.close()
+        }
+
+        def stores = [firstDir, secondDir].collect { new SerializableTestResultStore(it) }
+        def model = TestTreeModel.loadModelFromStores(stores)
+
+        expect:
+        [firstDir, secondDir].eachWithIndex { Path storeDir, int rootIndex ->
+            def expected = condenseTreeModel(model, rootIndex, stores[rootIndex])
+            def actual = []
+            StreamingTestResultsProvider.useResultsFrom(storeDir) { provider ->
+                provider.visitClasses { actual << describe(it, provider) }
+            }
+            assert actual.sort() == expected.sort()
+        }
+    }
+
+    /**
+     * Condenses the results of one root of the tree model into classes the way the tree model based provider did, as a reference.
+     */
+    private static List<String> condenseTreeModel(TestTreeModel model, int rootIndex, SerializableTestResultStore store) {
+        Map<TestTreeModel, TestTreeModel> parentOf = new IdentityHashMap<>()
+        walk(model, rootIndex) { node -> node.getChildrenOf(rootIndex).each { parentOf[it] = node } }
+        Map<TestTreeModel, List<PerRootInfo>> leavesByGroupingNode = new IdentityHashMap<>()
+        walk(model, rootIndex) { TestTreeModel node ->
+            if (parentOf.containsKey(node) && isLeaf(node, rootIndex)) {
+                node.perRootInfo[rootIndex].each { PerRootInfo leaf ->
+                    assert leaf.results.size() == 1
+                    def groupingNode = findGroupingNode(parentOf, node, leaf.results[0].className)
+                    leavesByGroupingNode.computeIfAbsent(groupingNode) { [] } << leaf
+                }
+            }
+        }
+
+        def outputReader = store.createOutputReader(TestEventSerializer.create().build(TestOutputEvent))
+        try {
+            return leavesByGroupingNode.collect { groupingNode, leaves ->
+                assert groupingNode.perRootInfo[rootIndex].size() == 1
+                def classResults = groupingNode.perRootInfo[rootIndex][0].results
+                def classOutputEntries = []
+                walk(groupingNode, rootIndex) { TestTreeModel node ->
+                    if (!isLeaf(node, rootIndex)) {
+                        node.perRootInfo[rootIndex].each { info -> classOutputEntries.addAll(info.outputEntries.findAll { it.outputRanges.hasOutput() }) }
+                    }
+                }
+                def sortedLeaves = leaves.sort(false) { a, b -> a.results[0].startTime <=> b.results[0].startTime ?: a.id <=> b.id }
+                def methods = sortedLeaves.collect { leaf ->
+                    def result = leaf.results[0]
+                    def output = TestOutputEvent.Destination.values().collect { read(outputReader, [leaf.outputEntries[0]], it) }
+                    [leaf.id, result.name, result.displayName, result.resultType, result.duration, result.failures*.message, output]
+                }
+                def methodOutputEntries = sortedLeaves.collect { it.outputEntries[0] }.findAll { it.outputRanges.hasOutput() }
+                [
+                    classResults[0].name,
+                    classResults[0].displayName,
+                    classResults*.startTime.min(),
+                    methods,
+                    TestOutputEvent.Destination.values().collect { read(outputReader, classOutputEntries + methodOutputEntries, it) },
+                    TestOutputEvent.Destination.values().collect { read(outputReader, classOutputEntries, it) }
+                ].toString()
+            }
+        } finally {
+            outputReader.close()
+        }
+    }
+
+    private static String describe(TestClassResult classResult, StreamingTestResultsProvider provider) {
+        def methods = classResult.results.collect { method ->
+            def output = TestOutputEvent.Destination.values().collect { destination ->
+                def writer = new StringWriter()
+                if (provider.hasOutput(classResult.id, method.id, destination)) {
+                    provider.writeTestOutput(classResult.id, method.id, destination, writer)
+                }
+                writer.toString()
+            }
+            [method.id, method.name, method.displayName, method.resultType, method.duration, method.failures*.message, output]
+        }
+        [
+            classResult.className,
+            classResult.classDisplayName,
+            classResult.startTime,
+            methods,
+            TestOutputEvent.Destination.values().collect { destination ->
+                def writer = new StringWriter()
+                provider.writeAllOutput(classResult.id, destination, writer)
+                writer.toString()
+            },
+            TestOutputEvent.Destination.values().collect { destination ->
+                def writer = new StringWriter()
+                provider.writeNonTestOutput(classResult.id, destination, writer)
+                writer.toString()
+            }
+        ].toString()
+    }
+
+    private static boolean isLeaf(TestTreeModel node, int rootIndex) {
+        return !node.getChildrenOf(rootIndex).iterator().hasNext()
+    }
+
+    private static void walk(TestTreeModel node, int rootIndex, Closure<?> visitor) {
+        visitor(node)
+        node.getChildrenOf(rootIndex).each { walk(it, rootIndex, visitor) }
+    }
+
+    private static TestTreeModel findGroupingNode(Map<TestTreeModel, TestTreeModel> parentOf, TestTreeModel leaf, String className) {
+        def current = leaf
+        def parent
+        while ((parent = parentOf[current]) != null) {
+            if (className != null && className == parent.path.name) {
+                return parent
+            }
+            if (!parentOf.containsKey(parent) && current != leaf) {
+                return current
+            }
+            current = parent
+        }
+        return current
+    }
+
+    private static String read(TestOutputReader outputReader, List<OutputEntry> entries, TestOutputEvent.Destination destination) {
+        def text = new StringBuilder()
+        outputReader.useTestOutputEvents(entries, destination) { text.append(it.message) }
+        return text.toString()
+    }
+
+    private Path writeStore() {
+        def storeDir = tempDir.resolve("store")
+        def writer = new SerializableTestResultStore(storeDir).openWriter(0)
+        try {
+            def root = new DefaultTestSuiteDescriptor(1, "root")
+            def testA = new DecoratingTestDescriptor(new DefaultTestDescriptor(2, "com.example.MySuite", "testA"), root)
+
+            writer.started(root, new TestStartEvent(100))
+            writer.started(testA, new TestStartEvent(100))
+            writer.output(testA, new DefaultTestOutputEvent(100, TestOutputEvent.Destination.StdOut, "hello"))
+            writer.completed(testA, successResult(100, 200), new TestCompleteEvent(200))
+            writer.completed(root, successResult(100, 200), new TestCompleteEvent(200))
+        } finally {
+            writer.close()
+        }
+        return storeDir
+    }
+
+    private static TestResult successResult(long startTime, long endTime) {
+        return new DefaultTestResult(TestResult.ResultType.SUCCESS, startTime, endTime, 1, 1, 0, [], null)
+    }
+
+    private static TestResult failureResult(long startTime, long endTime, String message) {
+        return new DefaultTestResult(TestResult.ResultType.FAILURE, startTime, endTime, 1, 0, 1, [TestFailure.fromTestFrameworkFailure(new RuntimeException(message))], null)
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.worker
+
+import org.gradle.api.Action
+import org.gradle.api.internal.tasks.testing.TestResultProcessor
+import org.gradle.internal.remote.ObjectConnection
+import org.gradle.internal.time.Clock
+import org.gradle.process.ExecResult
+import org.gradle.process.internal.JavaExecHandleBuilder
+import org.gradle.process.internal.health.memory.MemoryManager
+import org.gradle.process.internal.worker.WorkerProcess
+import org.gradle.process.internal.worker.WorkerProcessBuilder
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class ReusableTestWorkerPoolTest extends Specification {
+    def memoryManager = Mock(MemoryManager)
+    long currentTime = 0
+    def clock = Stub(Clock) {
+        getCurrentTime() >> { currentTime }
+    }
+    def execResult = Stub(ExecResult)
+    def fingerprint = fingerprintFor("java")
+    List<String> stoppedWorkers = []
+    Set<String> exitedWorkers = [] as Set
+    long[] nextSessionHeap = [0, 0] as long[]
+
+    def "registers with the memory manager until stopped"() {
+        when:
+        def pool = new ReusableTestWorkerPool(memoryManager, clock, 2)
+
+        then:
+        1 * memoryManager.addMemoryHolder(_)
+
+        when:
+        pool.stop()
+
+        then:
+        1 * memoryManager.removeMemoryHolder(pool)
+    }
+
+    def "reserves the most recently released idle worker with the same fingerprint"() {
+        def pool = new ReusableTestWorkerPool(memoryManager, clock, 4)
+        def worker1 = worker("worker 1", fingerprint)
+        def worker2 = worker("worker 2", fingerprint)
+        def other = worker("other worker", fingerprintFor("other-java"))
+
+        when:
+        pool.release(worker1)
+        pool.release(other)
+        pool.release(worker2)
+
+        then:
+        pool.reserveIdleWorker(fingerprint) == worker2
+        pool.reserveIdleWorker(fingerprint) == worker1
+        pool.reserveIdleWorker(fingerprint) == null
+        pool.reserveIdleWorker(fingerprintFor("other-java")) == other
+        stoppedWorkers.empty
+    }
+
+    def "stops workers that have been idle for too long"() {
+        def pool = new ReusableTestWorkerPool(memoryManager, clock, 4)
+        def expired = worker("expired worker", fingerprint)
+        def recent = worker("recent worker", fingerprintFor("other-java"))
+
+        when:
+        pool.release(expired)
+        currentTime += TimeUnit.MINUTES.toMillis(30)
+        pool.release(recent)
+        currentTime += TimeUnit.MINUTES.toMillis(31)
+
+        then:
+        pool.reserveIdleWorker(fingerprint) == null
+        stoppedWorkers == ["expired worker"]
+        pool.reserveIdleWorker(fingerprintFor("other-java")) == recent
+    }
+
+    def "discards workers whose process has exited"() {
+        def pool = new ReusableTestWorkerPool(memoryManager, clock, 4)
+        def worker = worker("exited worker", fingerprint)
+
+        when:
+        pool.release(worker)
+        exitedWorkers << "exited worker"
+
+        then:
+        pool.reserveIdleWorker(fingerprint) == null
+        stoppedWorkers == ["exited worker"]
+    }
+
+    def "stops the least recently used workers when there are too many idle workers"() {
+        def pool = new ReusableTestWorkerPool(memoryManager, clock, 2)
+        def workers = (1..4).collect { worker("worker $it", fingerprint) }
+
+        when:
+        workers.each { pool.release(it) }
+
+        then:
+        stoppedWorkers == ["worker 1", "worker 2"]
+        pool.reserveIdleWorker(fingerprint) == workers[3]
+        pool.reserveIdleWorker(fingerprint) == workers[2]
+    }
+
+    def "stops the least recently used workers until the requested amount of memory is released"() {
+        def pool = new ReusableTestWorkerPool(memoryManager, clock, 4)
+        def workers = (1..3).collect { worker("worker $it", fingerprint) }
+        workers.each { finishSession(it, 100, 1000) }
+
+        when:
+        workers.each { pool.release(it) }
+        def released = pool.attemptToRelease(1500)
+
+        then:
+        released == 2000
+        stoppedWorkers == ["worker 1", "worker 2"]
+        pool.reserveIdleWorker(fingerprint) == workers[2]
+
+        when:
+        pool.attemptToRelease(-1)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "stops all idle workers when stopped"() {
+        def pool = new ReusableTestWorkerPool(memoryManager, clock, 4)
+
+        when:
+        pool.release(worker("worker 1", fingerprint))
+        pool.release(worker("worker 2", fingerprintFor("other-java")))
+        pool.stop()
+
+        then:
+        stoppedWorkers == ["worker 1", "worker 2"]
+        pool.reserveIdleWorker(fingerprint) == null
+    }
+
+    def "worker can be reused until it has run the maximum number of sessions"() {
+        def worker = worker("worker", fingerprint)
+
+        expect:
+        finishSession(worker, 100, 1000)
+        worker.canBeReused(2, 50)
+        finishSession(worker, 100, 1000)
+        !worker.canBeReused(2, 50)
+    }
+
+    def "worker can be reused while the heap used after its last session is below the threshold"() {
+        def worker = worker("worker", fingerprint)
+
+        expect:
+        finishSession(worker, 500, 1000)
+        worker.canBeReused(10, 50)
+        finishSession(worker, 501, 1000)
+        !worker.canBeReused(10, 50)
+        finishSession(worker, 100, 1000)
+        worker.canBeReused(10, 50)
+    }
+
+    def "worker cannot be reused once its process has exited"() {
+        def worker = worker("worker", fingerprint)
+        finishSession(worker, 100, 1000)
+
+        when:
+        exitedWorkers << "worker"
+
+        then:
+        !worker.canBeReused(10, 50)
+    }
+
+    private ReusableTestWorkerClient worker(String displayName, TestWorkerFingerprint fingerprint) {
+        ReusableTestWorkerResultProcessor resultProcessor = null
+        RemoteReusableTestWorker remoteWorker = Stub(RemoteReusableTestWorker) {
+            stopSession() >> { resultProcessor.sessionStopped(nextSessionHeap[0], nextSessionHeap[1]) }
+        }
+        def connection = Stub(ObjectConnection) {
+            addIncoming(ReusableTestWorkerResultProcessor, _) >> { args -> resultProcessor = args[1] }
+            addOutgoing(RemoteReusableTestWorker) >> remoteWorker
+        }
+        def workerProcess = Stub(WorkerProcess) {
+            getConnection() >> connection
+            getDisplayName() >> displayName
+            getExecResult() >> { exitedWorkers.contains(displayName) ? Optional.of(execResult) : Optional.empty() }
+            waitForStop() >> {
+                stoppedWorkers << displayName
+                execResult
+            }
+        }
+        return new ReusableTestWorkerClient(workerProcess, fingerprint)
+    }
+
+    private boolean finishSession(ReusableTestWorkerClient worker, long usedHeapBytes, long maxHeapBytes) {
+        nextSessionHeap = [usedHeapBytes, maxHeapBytes] as long[]
+        worker.startSession(new TestWorkerSessionSpec(new byte[0], [], [], [] as Set, [:]), Stub(TestResultProcessor), Stub(Action))
+        return worker.stopSession()
+    }
+
+    private TestWorkerFingerprint fingerprintFor(String executable) {
+        def javaCommand = Stub(JavaExecHandleBuilder) {
+            getExecutable() >> executable
+            getAllJvmArgs() >> []
+            getEnvironment() >> [:]
+        }
+        def builder = Stub(WorkerProcessBuilder) {
+            getJavaCommand() >> javaCommand
+        }
+        return TestWorkerFingerprint.of(builder, [])
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.worker
+
+import com.google.common.collect.ImmutableList
+import org.gradle.api.Action
+import org.gradle.api.internal.tasks.testing.TestDefinition
+import org.gradle.api.internal.tasks.testing.TestDefinitionProcessor
+import org.gradle.api.internal.tasks.testing.WorkerTestDefinitionProcessorFactory
+import org.gradle.internal.actor.ActorFactory
+import org.gradle.internal.id.IdGenerator
+import org.gradle.internal.remote.ObjectConnection
+import org.gradle.internal.time.Clock
+import org.gradle.internal.work.WorkerThreadRegistry
+import org.gradle.process.ExecResult
+import org.gradle.process.JavaForkOptions
+import org.gradle.process.ProcessExecutionException
+import org.gradle.process.internal.JavaExecHandleBuilder
+import org.gradle.process.internal.health.memory.MemoryManager
+import org.gradle.process.internal.worker.WorkerProcess
+import org.gradle.process.internal.worker.WorkerProcessBuilder
+import org.gradle.process.internal.worker.WorkerProcessFactory
+import spock.lang.Specification
+
+class ReusingTestDefinitionProcessorTest extends Specification {
+    WorkerThreadRegistry workerLeaseRegistry = Mock(WorkerThreadRegistry)
+    ReusableTestWorkerPool pool = new ReusableTestWorkerPool(Mock(MemoryManager), Stub(Clock))
+    List<String> jvmArgs = ["-Xmx512m"]
+    RemoteReusableTestWorker remoteWorker1 = Mock(RemoteReusableTestWorker)
+    RemoteReusableTestWorker remoteWorker2 = Mock(RemoteReusableTestWorker)
+    WorkerProcess workerProcess1 = Mock(WorkerProcess)
+    WorkerProcess workerProcess2 = Mock(WorkerProcess)
+    List<RemoteReusableTestWorker> remoteWorkers = []
+    List<ReusableTestWorkerResultProcessor> resultProcessors = []
+    List<WorkerProcess> workerProcesses = []
+    Set<WorkerProcess> exitedWorkerProcesses = [] as Set
+    ExecResult execResult = Stub(ExecResult)
+    WorkerProcessFactory workerProcessFactory = Stub(WorkerProcessFactory) {
+        create(_) >> { newWorkerProcessBuilder() }
+    }
+    def classpath = new ForkedTestClasspath(
+        ImmutableList.of(new File("cls.jar")),
+        ImmutableList.of(),
+        ImmutableList.of(new URL("file:worker.jar"), new URL("file:framework.jar")),
+        ImmutableList.of(new URL("file:framework.jar"))
+    )
+
+    def "starts worker on first test and loads the test framework implementation for the session"() {
+        given:
+        def test1 = Mock(TestDefinition)
+        def test2 = Mock(TestDefinition)
+        def processor = newProcessor()
+        TestWorkerSessionSpec spec = null
+
+        when:
+        processor.processTestDefinition(test1)
+        processor.processTestDefinition(test2)
+
+        then:
+        1 * workerLeaseRegistry.startWorker()
+        workerProcesses.size() == 1
+        1 * remoteWorker1.startSession(_) >> { spec = it[0] }
+        1 * remoteWorker1.processTestDefinition(test1)
+        1 * remoteWorker1.processTestDefinition(test2)
+        0 * remoteWorker1._
+        0 * remoteWorker2._
+        spec.applicationClasspath == [new File("cls.jar")]
+        spec.testFrameworkImplementationClasspath == [new URL("file:framework.jar")]
+        spec.systemProperties == [(TestWorker.WORKER_TMPDIR_SYS_PROPERTY): "tmp"]
+    }
+
+    def "reuses worker of a previous task started with the same options"() {
+        when:
+        runTests(newProcessor())
+        runTests(newProcessor())
+
+        then:
+        workerProcesses.size() == 1
+        2 * remoteWorker1.startSession(_)
+        0 * remoteWorker1.stop()
+    }
+
+    def "starts another worker for a task with different options"() {
+        when:
+        runTests(newProcessor())
+        jvmArgs = ["-Xmx1g"]
+        runTests(newProcessor())
+
+        then:
+        workerProcesses.size() == 2
+    }
+
+    def "does not reuse a worker with an agent attached in a later build"() {
+        given:
+        jvmArgs = ["-Xmx512m", agentJvmArg]
+
+        when: "the first build runs the tests"
+        runTests(newProcessor())
+
+        then:
+        workerProcesses.size() == 1
+        1 * remoteWorker1.stop()
+
+        when: "the second build runs the same tests with the same options"
+        runTests(newProcessor())
+
+        then:
+        workerProcesses.size() == 2
+        0 * remoteWorker1.startSession(_)
+        1 * remoteWorker2.startSession(_)
+        1 * remoteWorker2.stop()
+
+        where:
+        agentJvmArg << [
+            "-javaagent:/jacocoagent.jar=destfile=/build/jacoco/test.exec",
+            "-agentlib:jdwp=transport=dt_socket,server=y,suspend=n",
+            "-agentpath:/libprofiler.so"
+        ]
+    }
+
+    def "treats workers with an agent attached as not reusable"() {
+        expect:
+        TestWorkerFingerprint.of(newWorkerProcessBuilder(), []).isReusable()
+
+        when:
+        jvmArgs = ["-javaagent:/jacocoagent.jar"]
+
+        then:
+        !TestWorkerFingerprint.of(newWorkerProcessBuilder(), []).isReusable()
+    }
+
+    def "stops worker that has been used the maximum number of times"() {
+        when:
+        runTests(newProcessor(new TestWorkerReuse(pool, 2, 100)))
+        runTests(newProcessor(new TestWorkerReuse(pool, 2, 100)))
+        runTests(newProcessor(new TestWorkerReuse(pool, 2, 100)))
+
+        then:
+        workerProcesses.size() == 2
+        1 * remoteWorker1.stop()
+        0 * remoteWorker2.stop()
+    }
+
+    def "stops worker that uses too much heap after running the tests"() {
+        when:
+        runTests(newProcessor(), 600)
+        runTests(newProcessor())
+
+        then:
+        workerProcesses.size() == 2
+        1 * remoteWorker1.stop()
+    }
+
+    def "fails when the worker exits before finishing the tests"() {
+        given:
+        def processor = newProcessor()
+        processor.processTestDefinition(Mock(TestDefinition))
+
+        when:
+        processor.stop()
+
+        then:
+        1 * remoteWorker1.stopSession() >> { exitedWorkerProcesses << workerProcess1 }
+        def e = thrown(ProcessExecutionException)
+        e.message == "Process 'worker 1' stopped before finishing the tests."
+    }
+
+    def "stopNow propagates to worker process and does not return it to the pool"() {
+        given:
+        def processor = newProcessor()
+        processor.processTestDefinition(Mock(TestDefinition))
+
+        when:
+        processor.stopNow()
+        processor.stop()
+
+        then:
+        1 * workerProcess1.stopNow()
+        0 * remoteWorker1.stopSession()
+        noExceptionThrown()
+
+        when:
+        runTests(newProcessor())
+
+        then:
+        workerProcesses.size() == 2
+    }
+
+    def "cannot reuse workers when the test framework implementation classpath is not known"() {
+        expect:
+        ReusingTestDefinitionProcessor.canReuseWorkers(classpath)
+        !ReusingTestDefinitionProcessor.canReuseWorkers(new ForkedTestClasspath(ImmutableList.of(), ImmutableList.of(), ImmutableList.of()))
+        !ReusingTestDefinitionProcessor.canReuseWorkers(new ForkedTestClasspath(ImmutableList.of(), ImmutableList.of(new File("mod.jar")), ImmutableList.of(), ImmutableList.of(new URL("file:framework.jar"))))
+    }
+
+    void runTests(ReusingTestDefinitionProcessor processor, long usedHeapBytes = 100) {
+        processor.processTestDefinition(Mock(TestDefinition))
+        def index = remoteWorkers.size() - 1
+        remoteWorkers[index].stopSession() >> { resultProcessors[index].sessionStopped(usedHeapBytes, 1000) }
+        processor.stop()
+    }
+
+    WorkerProcessBuilder newWorkerProcessBuilder() {
+        def currentJvmArgs = jvmArgs
+        def javaCommand = Stub(JavaExecHandleBuilder) {
+            getExecutable() >> "java"
+            getAllJvmArgs() >> currentJvmArgs + ["-D${TestWorker.WORKER_TMPDIR_SYS_PROPERTY}=tmp"]
+            getEnvironment() >> [:]
+            getSystemProperties() >> [(TestWorker.WORKER_TMPDIR_SYS_PROPERTY): "tmp"]
+        }
+        return Stub(WorkerProcessBuilder) {
+            getJavaCommand() >> javaCommand
+            getSharedPackages() >> (["org.junit"] as Set)
+            build() >> { newWorkerProcess() }
+        }
+    }
+
+    WorkerProcess newWorkerProcess() {
+        def remoteWorker = [remoteWorker1, remoteWorker2][remoteWorkers.size()]
+        def workerProcess = [workerProcess1, workerProcess2][workerProcesses.size()]
+        def connection = Stub(ObjectConnection) {
+            addIncoming(ReusableTestWorkerResultProcessor, _) >> { args -> resultProcessors << args[1] }
+            addOutgoing(RemoteReusableTestWorker) >> remoteWorker
+        }
+        workerProcess.getConnection() >> connection
+        workerProcess.getDisplayName() >> "worker ${workerProcesses.size() + 1}".toString()
+        workerProcess.getExecResult() >> { exitedWorkerProcesses.contains(workerProcess) ? Optional.of(execResult) : Optional.empty() }
+        workerProcess.start() >> workerProcess
+        remoteWorkers << remoteWorker
+        workerProcesses << workerProcess
+        return workerProcess
+    }
+
+    ReusingTestDefinitionProcessor newProcessor(TestWorkerReuse workerReuse = new TestWorkerReuse(pool, 10, 50)) {
+        return new ReusingTestDefinitionProcessor(
+            workerLeaseRegistry, workerProcessFactory, workerReuse, new TestProcessorFactory(),
+            Stub(JavaForkOptions), classpath, Mock(Action)
+        )
+    }
+
+    static class TestProcessorFactory implements WorkerTestDefinitionProcessorFactory<TestDefinition>, Serializable {
+        @Override
+        TestDefinitionProcessor<TestDefinition> create(IdGenerator<?> idGenerator, ActorFactory actorFactory, Clock clock) {
+            throw new UnsupportedOperationException()
+        }
+    }
+}
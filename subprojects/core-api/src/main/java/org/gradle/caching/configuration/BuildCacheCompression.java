@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.caching.configuration;
+
+import org.gradle.api.Incubating;
+
+/**
+ * The compression Gradle uses for entries it stores in a build cache.
+ *
+ * <p>Gradle can load entries stored with any of these compressions, regardless of the compression configured for the build.</p>
+ *
+ * @see BuildCacheConfiguration#getCompression()
+ *
+ * @since 9.8.0
+ */
+@Incubating
+public enum BuildCacheCompression {
+    /**
+     * Entries are compressed with gzip. This is the default.
+     */
+    GZIP,
+
+    /**
+     * Entries are compressed with gzip, favouring speed over size.
+     * Entries can be loaded by older Gradle versions.
+     */
+    GZIP_FAST,
+
+    /**
+     * Entries are not compressed.
+     * Packing and unpacking entries is faster, at the cost of larger entries.
+     * Entries cannot be loaded by Gradle versions before 9.8.0.
+     */
+    NONE,
+
+    /**
+     * Entries are compressed with Zstandard.
+     * Packing and unpacking entries is considerably faster than with gzip, for entries of a similar size.
+     * Entries cannot be loaded by Gradle versions before 9.8.0.
+     */
+    ZSTD,
+
+    /**
+     * Entries are compressed with LZ4.
+     * Packing and unpacking entries is faster than with {@link #ZSTD}, at the cost of larger entries.
+     * Entries cannot be loaded by Gradle versions before 9.8.0.
+     */
+    LZ4
+}
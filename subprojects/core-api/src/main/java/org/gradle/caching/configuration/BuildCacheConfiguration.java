@@ -17,6 +17,8 @@
 package org.gradle.caching.configuration;
 
 import org.gradle.api.Action;
+import org.gradle.api.Incubating;
+import org.gradle.api.provider.Property;
 import org.gradle.caching.BuildCacheServiceFactory;
 import org.gradle.caching.local.DirectoryBuildCache;
 import org.gradle.internal.HasInternalProtocol;
@@ -101,4 +103,17 @@ public interface BuildCacheConfiguration {
      * @since 3.5
      */
     void remote(Action<? super BuildCache> configuration);
+
+    /**
+     * The compression used for entries this build stores in the build cache.
+     *
+     * <p>An entry is packed once and then stored in both the local and the remote build cache, so the compression applies to both.
+     * Entries are loaded with the compression they were stored with, so changing this setting does not invalidate existing entries.</p>
+     *
+     * <p>Defaults to {@link BuildCacheCompression#GZIP}.</p>
+     *
+     * @since 9.8.0
+     */
+    @Incubating
+    Property<BuildCacheCompression> getCompression();
 }
@@ -18,6 +18,7 @@ package org.gradle.api.internal.changedetection.state
 
 import org.gradle.integtests.fixtures.AbstractIntegrationSpec
 import org.gradle.integtests.fixtures.modes.ToBeFixedForConfigurationCache
+import org.gradle.util.GradleVersion
 import spock.lang.Issue
 
 import java.nio.file.Files
@@ -304,4 +305,37 @@ public abstract class CreateEmptyDirectory extends DefaultTask {
         "@InputDirectory" | "DirectoryProperty"   | "input"           | "getInput().file('input.txt').get().asFile.text"
         "@InputFile"      | "RegularFileProperty" | "input/input.txt" | "getInput().get().asFile.text"
     }
+
+    def "tasks are up-to-date when the execution history is memory-mapped"() {
+        buildFile """
+            task copy {
+                def input = file("input.txt")
+                def output = file("build/output.txt")
+                inputs.file(input)
+                outputs.file(output)
+                doLast {
+                    output.text = input.text
+                }
+            }
+        """
+        file("input.txt").text = "first"
+
+        when:
+        succeeds("copy", "-Dorg.gradle.internal.execution-history.memory-mapped=true")
+        then:
+        executedAndNotSkipped(":copy")
+        file(".gradle/${GradleVersion.current().version}/executionHistory/executionHistory.mmap.bin").assertIsFile()
+
+        when:
+        succeeds("copy", "-Dorg.gradle.internal.execution-history.memory-mapped=true")
+        then:
+        skipped(":copy")
+
+        when:
+        file("input.txt").text = "second"
+        succeeds("copy", "-Dorg.gradle.internal.execution-history.memory-mapped=true")
+        then:
+        executedAndNotSkipped(":copy")
+        file("build/output.txt").text == "second"
+    }
 }
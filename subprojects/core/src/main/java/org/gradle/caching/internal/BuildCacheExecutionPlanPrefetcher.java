@@ -0,0 +1,148 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.caching.internal;
+
+import org.gradle.caching.BuildCacheKey;
+import org.gradle.caching.internal.controller.BuildCacheController;
+import org.gradle.execution.plan.ExecutionPlanPrefetcher;
+import org.gradle.execution.plan.LocalTaskNode;
+import org.gradle.execution.plan.Node;
+import org.gradle.internal.concurrent.ManagedExecutor;
+import org.gradle.internal.execution.history.ExecutionHistoryStore;
+import org.gradle.internal.execution.history.PreviousExecutionState;
+import org.gradle.internal.file.FileType;
+import org.gradle.internal.snapshot.FileSystemSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Prefetches the build cache entries of tasks whose outputs were removed since they last executed, for example by {@code clean}.
+ *
+ * <p>The cache key of a task is only known once its inputs have been snapshotted, right before it executes.
+ * Instead, the key recorded in the execution history of the task is used as a prediction.
+ * It is only prefetched when outputs from that execution are gone, as otherwise the task is likely up-to-date and needs nothing from the cache.
+ * The execution history is read on a background thread, so finalizing the plan is not delayed.</p>
+ *
+ * <p>Tasks without execution history, as on a fresh checkout, are not prefetched.
+ * Their keys would have to be computed from their inputs ahead of execution, which needs the locks and steps of the execution engine.</p>
+ *
+ * <p>Entries that are in the local cache are not fetched again from the remote cache.
+ * Prefetched entries that the plan did not load are discarded once the plan completes, so they do not hold on to the memory budget of the remote cache.</p>
+ */
+public class BuildCacheExecutionPlanPrefetcher implements ExecutionPlanPrefetcher, Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BuildCacheExecutionPlanPrefetcher.class);
+
+    private final BuildCacheController buildCacheController;
+    private final ExecutionHistoryStore executionHistoryStore;
+    private final ManagedExecutor executor;
+    private final int maxEntriesPerPlan;
+
+    // Only accessed by the executor
+    private List<BuildCacheKey> prefetchedKeys = Collections.emptyList();
+
+    public BuildCacheExecutionPlanPrefetcher(
+        BuildCacheController buildCacheController,
+        ExecutionHistoryStore executionHistoryStore,
+        ManagedExecutor executor,
+        int maxEntriesPerPlan
+    ) {
+        this.buildCacheController = buildCacheController;
+        this.executionHistoryStore = executionHistoryStore;
+        this.executor = executor;
+        this.maxEntriesPerPlan = maxEntriesPerPlan;
+    }
+
+    @Override
+    public void planFinalized(List<Node> scheduledNodes) {
+        if (!buildCacheController.isEnabled()) {
+            return;
+        }
+        List<String> taskPaths = new ArrayList<>();
+        for (Node node : scheduledNodes) {
+            if (node instanceof LocalTaskNode) {
+                taskPaths.add(((LocalTaskNode) node).getTask().getPath());
+            }
+        }
+        if (!taskPaths.isEmpty()) {
+            executor.execute(() -> prefetch(taskPaths));
+        }
+    }
+
+    private void prefetch(List<String> taskPaths) {
+        List<BuildCacheKey> keys = new ArrayList<>();
+        for (String taskPath : taskPaths) {
+            if (keys.size() >= maxEntriesPerPlan) {
+                break;
+            }
+            predictCacheKey(taskPath).ifPresent(keys::add);
+        }
+        if (!keys.isEmpty()) {
+            LOGGER.debug("Prefetching {} build cache entries for the execution plan", keys.size());
+            buildCacheController.prefetch(keys);
+            prefetchedKeys = keys;
+        }
+    }
+
+    @Override
+    public void planCompleted() {
+        if (!buildCacheController.isEnabled()) {
+            return;
+        }
+        // Runs after the prefetch of the plan, as the executor has a single thread
+        executor.execute(this::discardPrefetched);
+    }
+
+    private void discardPrefetched() {
+        if (!prefetchedKeys.isEmpty()) {
+            buildCacheController.discardPrefetched(prefetchedKeys);
+            prefetchedKeys = Collections.emptyList();
+        }
+    }
+
+    private Optional<BuildCacheKey> predictCacheKey(String taskPath) {
+        try {
+            return executionHistoryStore.load(taskPath)
+                .filter(PreviousExecutionState::isSuccessful)
+                .filter(BuildCacheExecutionPlanPrefetcher::hasMissingOutputs)
+                .map(previousExecution -> new SimpleBuildCacheKey(previousExecution.getCacheKey()));
+        } catch (RuntimeException e) {
+            LOGGER.debug("Could not read the execution history of {} for prefetching", taskPath, e);
+            return Optional.empty();
+        }
+    }
+
+    private static boolean hasMissingOutputs(PreviousExecutionState previousExecution) {
+        return previousExecution.getOutputFilesProducedByWork().values().stream()
+            .flatMap(FileSystemSnapshot::roots)
+            .anyMatch(root -> root.getType() != FileType.Missing && !new File(root.getAbsolutePath()).exists());
+    }
+
+    /**
+     * Waits for the execution history of the last plan to be read, so it is not read after the history is closed.
+     */
+    @Override
+    public void close() {
+        executor.stop();
+    }
+}
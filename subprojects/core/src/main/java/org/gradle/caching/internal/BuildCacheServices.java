@@ -19,25 +19,31 @@
 import org.gradle.api.internal.StartParameterInternal;
 import org.gradle.api.internal.cache.StringInterner;
 import org.gradle.api.internal.file.temp.TemporaryFileProvider;
+import org.gradle.api.internal.provider.PropertyFactory;
 import org.gradle.caching.configuration.internal.BuildCacheConfigurationInternal;
 import org.gradle.caching.configuration.internal.BuildCacheServiceRegistration;
 import org.gradle.caching.configuration.internal.DefaultBuildCacheConfiguration;
 import org.gradle.caching.configuration.internal.DefaultBuildCacheServiceRegistration;
+import org.gradle.caching.internal.controller.BuildCacheController;
 import org.gradle.caching.internal.controller.impl.LifecycleAwareBuildCacheController;
 import org.gradle.caching.internal.controller.impl.LifecycleAwareBuildCacheControllerFactory;
 import org.gradle.caching.internal.origin.OriginMetadataFactory;
 import org.gradle.caching.internal.packaging.BuildCacheEntryPacker;
 import org.gradle.caching.internal.packaging.impl.DefaultTarPackerFileSystemSupport;
 import org.gradle.caching.internal.packaging.impl.FilePermissionAccess;
-import org.gradle.caching.internal.packaging.impl.GZipBuildCacheEntryPacker;
 import org.gradle.caching.internal.packaging.impl.TarBuildCacheEntryPacker;
 import org.gradle.caching.internal.packaging.impl.TarPackerFileSystemSupport;
 import org.gradle.caching.internal.services.BuildCacheControllerFactory;
 import org.gradle.caching.internal.services.DefaultBuildCacheControllerFactory;
 import org.gradle.caching.local.DirectoryBuildCache;
 import org.gradle.caching.local.internal.DirectoryBuildCacheServiceFactory;
+import org.gradle.execution.plan.ExecutionPlanPrefetcher;
 import org.gradle.internal.build.BuildState;
 import org.gradle.internal.build.RootBuildState;
+import org.gradle.internal.buildoption.InternalOption;
+import org.gradle.internal.buildoption.InternalOptions;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.execution.history.ExecutionHistoryStore;
 import org.gradle.internal.file.BufferProvider;
 import org.gradle.internal.file.Deleter;
 import org.gradle.internal.file.FileException;
@@ -60,11 +66,30 @@
 
 import java.io.File;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Build scoped services for build cache usage.
  */
 public final class BuildCacheServices extends AbstractGradleModuleServices {
+    /**
+     * The number of threads writing the files of unpacked build cache entries, or 0 to write them on the thread reading the entry.
+     */
+    public static final InternalOption<Integer> PARALLEL_UNPACK_THREADS = InternalOptions.ofInt("org.gradle.internal.build-cache.unpack-threads", 0);
+
+    /**
+     * Whether to prefetch the remote build cache entries of the tasks in an execution plan whose outputs were removed since they last executed.
+     *
+     * <p>Keys are predicted from execution history, so tasks without history, as on a fresh checkout, are not prefetched.
+     * The prefetcher is only created when this option is set.</p>
+     */
+    public static final InternalOption<Boolean> PREFETCH = InternalOptions.ofBoolean("org.gradle.internal.build-cache.prefetch", false);
+
+    /**
+     * The maximum number of entries prefetched for a single execution plan.
+     */
+    public static final InternalOption<Integer> PREFETCH_MAX_ENTRIES = InternalOptions.ofInt("org.gradle.internal.build-cache.prefetch.max-entries", 1000);
+
     @Override
     public void registerGlobalServices(ServiceRegistration registration) {
         registration.addProvider(new ServiceRegistrationProvider() {
@@ -107,11 +132,12 @@ BuildCacheConfigurationInternal createBuildCacheConfiguration(
                 Instantiator instantiator,
                 InstantiatorFactory instantiatorFactory,
                 ServiceRegistry services,
+                PropertyFactory propertyFactory,
                 List<BuildCacheServiceRegistration> allBuildCacheServiceFactories
             ) {
                 // We need to create an instantiator that has access to ObjectFactory
                 Instantiator buildScopedInstantiator = instantiatorFactory.decorate(services);
-                return instantiator.newInstance(DefaultBuildCacheConfiguration.class, buildScopedInstantiator, allBuildCacheServiceFactories);
+                return instantiator.newInstance(DefaultBuildCacheConfiguration.class, buildScopedInstantiator, propertyFactory, allBuildCacheServiceFactories);
             }
 
             @Provides
@@ -124,16 +150,24 @@ TarPackerFileSystemSupport createPackerFileSystemSupport(Deleter deleter) {
                 return new DefaultTarPackerFileSystemSupport(deleter);
             }
 
+            /**
+             * Packs entries without compression, the compression is added by each build cache controller.
+             */
             @Provides
             BuildCacheEntryPacker createResultPacker(
                 TarPackerFileSystemSupport fileSystemSupport,
                 FileSystem fileSystem,
                 StreamHasher fileHasher,
                 StringInterner stringInterner,
-                BufferProvider bufferProvider
+                BufferProvider bufferProvider,
+                ExecutorFactory executorFactory,
+                InternalOptions internalOptions
             ) {
-                return new GZipBuildCacheEntryPacker(
-                    new TarBuildCacheEntryPacker(fileSystemSupport, new FilePermissionsAccessAdapter(fileSystem), fileHasher, stringInterner, bufferProvider));
+                int unpackThreads = internalOptions.getInt(PARALLEL_UNPACK_THREADS);
+                ExecutorService fileWriteExecutor = unpackThreads > 0
+                    ? executorFactory.create("Build cache unpack", unpackThreads)
+                    : null;
+                return new TarBuildCacheEntryPacker(fileSystemSupport, new FilePermissionsAccessAdapter(fileSystem), fileHasher, stringInterner, bufferProvider, fileWriteExecutor);
             }
 
             @Provides
@@ -152,6 +186,24 @@ LifecycleAwareBuildCacheController createBuildCacheController(
                 }
             }
 
+            @Provides
+            ExecutionPlanPrefetcher createExecutionPlanPrefetcher(
+                BuildCacheController buildCacheController,
+                ExecutionHistoryStore executionHistoryStore,
+                ExecutorFactory executorFactory,
+                InternalOptions internalOptions
+            ) {
+                if (!internalOptions.getBoolean(PREFETCH)) {
+                    return ExecutionPlanPrefetcher.NONE;
+                }
+                return new BuildCacheExecutionPlanPrefetcher(
+                    buildCacheController,
+                    executionHistoryStore,
+                    executorFactory.create("Build cache prefetch", 1),
+                    internalOptions.getInt(PREFETCH_MAX_ENTRIES)
+                );
+            }
+
             @Provides
             BuildCacheControllerFactory createBuildCacheControllerFactory(
                 StartParameterInternal startParameter,
@@ -161,7 +213,8 @@ BuildCacheControllerFactory createBuildCacheControllerFactory(
                 TemporaryFileProvider temporaryFileProvider,
                 BuildCacheEntryPacker packer,
                 OriginMetadataFactory originMetadataFactory,
-                StringInterner stringInterner
+                StringInterner stringInterner,
+                ExecutorFactory executorFactory
             ) {
                 return new DefaultBuildCacheControllerFactory(
                     startParameter,
@@ -171,7 +224,8 @@ BuildCacheControllerFactory createBuildCacheControllerFactory(
                     stringInterner,
                     temporaryFileProvider,
                     packer,
-                    projectLeaseRegistry
+                    projectLeaseRegistry,
+                    executorFactory
                 );
             }
         });
@@ -66,6 +66,8 @@
 
 import java.util.List;
 
+import static org.gradle.internal.operations.trace.ExecutionJfrEvents.recordFingerprinting;
+
 @SuppressWarnings("deprecation")
 public class ProjectExecutionServices implements ServiceRegistrationProvider {
 
@@ -159,7 +161,7 @@ FileCollectionFingerprinterRegistrations createFileCollectionFingerprinterRegist
 
     @Provides
     FileCollectionFingerprinterRegistry createFileCollectionFingerprinterRegistry(FileCollectionFingerprinterRegistrations fileCollectionFingerprinterRegistrations) {
-        return new DefaultFileCollectionFingerprinterRegistry(fileCollectionFingerprinterRegistrations.getRegistrants());
+        return recordFingerprinting(new DefaultFileCollectionFingerprinterRegistry(fileCollectionFingerprinterRegistrations.getRegistrants()));
     }
 
     @Provides
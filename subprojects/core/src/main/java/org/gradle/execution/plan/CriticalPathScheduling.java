@@ -0,0 +1,195 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.execution.plan;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Orders the nodes of a plan so that the longest chains of work start first, and measures the effect this has.
+ *
+ * <p>The critical path time of a node is its expected execution time plus the longest critical path time of the nodes that depend on it.
+ * Once the last node of the plan has started, workers can only sit idle until the longest running chain completes. This idle time
+ * is measured, and compared with what replaying the executed nodes with their measured execution times gives in plan order.</p>
+ *
+ * <p>All methods are called while holding the execution state lock.</p>
+ */
+class CriticalPathScheduling {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CriticalPathScheduling.class);
+    private static final Comparator<Node> PLAN_ORDER = Comparator.<Node, Boolean>comparing(node -> !node.isPriority())
+        .thenComparingInt(Node::getIndex)
+        .thenComparing(NodeComparator.INSTANCE);
+
+    private final NodeExecutionTimes executionTimes;
+    private final Map<Node, Long> startTimes = new IdentityHashMap<>();
+    private final Map<Node, Long> measuredExecutionTimes = new IdentityHashMap<>();
+    private int running;
+    private int maxRunning;
+    private long lastChange;
+    private long tailStart = -1;
+    private long tailIdleTime;
+
+    CriticalPathScheduling(NodeExecutionTimes executionTimes) {
+        this.executionTimes = executionTimes;
+    }
+
+    /**
+     * Calculates the critical path time of the given nodes, which are in the order they are expected to execute.
+     */
+    void planFinalized(List<Node> scheduledNodes) {
+        Map<Node, Long> criticalPathTimes = new IdentityHashMap<>(scheduledNodes.size());
+        for (int i = scheduledNodes.size() - 1; i >= 0; i--) {
+            Node node = scheduledNodes.get(i);
+            long longestDependentPath = 0;
+            for (Node dependent : node.getDependencyPredecessors()) {
+                Long dependentPath = criticalPathTimes.get(dependent);
+                if (dependentPath != null) {
+                    longestDependentPath = Math.max(longestDependentPath, dependentPath);
+                }
+            }
+            long criticalPathTime = executionTimes.getExpectedExecutionTime(node) + longestDependentPath;
+            criticalPathTimes.put(node, criticalPathTime);
+            node.setCriticalPathTime(criticalPathTime);
+        }
+    }
+
+    void nodeStarted(Node node, boolean lastNodeToStart) {
+        long now = System.nanoTime();
+        accumulateTailIdleTime(now);
+        running++;
+        maxRunning = Math.max(maxRunning, running);
+        startTimes.put(node, now);
+        if (lastNodeToStart) {
+            tailStart = now;
+            tailIdleTime = 0;
+        } else {
+            tailStart = -1;
+        }
+    }
+
+    void nodeFinished(Node node) {
+        Long startTime = startTimes.remove(node);
+        if (startTime == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        accumulateTailIdleTime(now);
+        running--;
+        long executionTime = TimeUnit.NANOSECONDS.toMillis(now - startTime);
+        measuredExecutionTimes.put(node, executionTime);
+        if (!node.isFailed()) {
+            executionTimes.recordExecutionTime(node, executionTime);
+        }
+    }
+
+    private void accumulateTailIdleTime(long now) {
+        if (tailStart >= 0) {
+            tailIdleTime += (maxRunning - running) * (now - lastChange);
+        }
+        lastChange = now;
+    }
+
+    void report() {
+        if (tailStart < 0 || maxRunning < 2 || !LOGGER.isInfoEnabled()) {
+            return;
+        }
+        long planOrderIdleTime = simulateTailIdleTime(measuredExecutionTimes, maxRunning, PLAN_ORDER);
+        long criticalPathIdleTime = simulateTailIdleTime(measuredExecutionTimes, maxRunning, DefaultFinalizedExecutionPlan.NODE_EXECUTION_ORDER);
+        LOGGER.info(
+            "Workers were idle for {} ms after the last node started, using {} workers. Replaying the executed nodes gives {} ms in plan order and {} ms in critical path order, {} ms less.",
+            TimeUnit.NANOSECONDS.toMillis(tailIdleTime), maxRunning, planOrderIdleTime, criticalPathIdleTime, planOrderIdleTime - criticalPathIdleTime
+        );
+        tailStart = -1;
+    }
+
+    /**
+     * Replays the given nodes on the given number of workers, starting ready nodes in the given order, ignoring any locks the nodes need.
+     *
+     * @return the total time in milliseconds workers sit idle after the last node has started.
+     */
+    static long simulateTailIdleTime(Map<Node, Long> executionTimes, int workers, Comparator<Node> order) {
+        Map<Node, Integer> waitingForDependencies = new IdentityHashMap<>();
+        PriorityQueue<Node> ready = new PriorityQueue<>(order);
+        for (Node node : executionTimes.keySet()) {
+            int dependencies = 0;
+            for (Node dependency : node.getDependencySuccessors()) {
+                if (executionTimes.containsKey(dependency)) {
+                    dependencies++;
+                }
+            }
+            if (dependencies == 0) {
+                ready.add(node);
+            } else {
+                waitingForDependencies.put(node, dependencies);
+            }
+        }
+
+        PriorityQueue<SimulatedExecution> executing = new PriorityQueue<>(Comparator.comparingLong(execution -> execution.finishTime));
+        List<SimulatedExecution> executed = new ArrayList<>(executionTimes.size());
+        long now = 0;
+        long lastStart = 0;
+        while (!ready.isEmpty() || !executing.isEmpty()) {
+            while (executing.size() < workers && !ready.isEmpty()) {
+                Node node = ready.poll();
+                SimulatedExecution execution = new SimulatedExecution(node, now, now + executionTimes.get(node));
+                executing.add(execution);
+                executed.add(execution);
+                lastStart = now;
+            }
+            SimulatedExecution finished = executing.poll();
+            now = finished.finishTime;
+            for (Node dependent : finished.node.getDependencyPredecessors()) {
+                Integer dependencies = waitingForDependencies.get(dependent);
+                if (dependencies == null) {
+                    continue;
+                }
+                if (dependencies == 1) {
+                    waitingForDependencies.remove(dependent);
+                    ready.add(dependent);
+                } else {
+                    waitingForDependencies.put(dependent, dependencies - 1);
+                }
+            }
+        }
+
+        long busyTime = 0;
+        for (SimulatedExecution execution : executed) {
+            busyTime += Math.max(0, execution.finishTime - Math.max(execution.startTime, lastStart));
+        }
+        return workers * (now - lastStart) - busyTime;
+    }
+
+    private static class SimulatedExecution {
+        final Node node;
+        final long startTime;
+        final long finishTime;
+
+        SimulatedExecution(Node node, long startTime, long finishTime) {
+            this.node = node;
+            this.startTime = startTime;
+            this.finishTime = finishTime;
+        }
+    }
+}
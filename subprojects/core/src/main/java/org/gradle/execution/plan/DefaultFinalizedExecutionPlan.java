@@ -57,6 +57,12 @@ public int compare(Node node1, Node node2) {
             } else if (!node1.isPriority() && node2.isPriority()) {
                 return 1;
             }
+            // Start the longest chains of work first
+            if (node1.getCriticalPathTime() > node2.getCriticalPathTime()) {
+                return -1;
+            } else if (node1.getCriticalPathTime() < node2.getCriticalPathTime()) {
+                return 1;
+            }
             if (node1.getIndex() > node2.getIndex()) {
                 return 1;
             } else if (node1.getIndex() < node2.getIndex()) {
@@ -84,6 +90,9 @@ public int compare(Node node1, Node node2) {
     private final Map<Pair<Node, Node>, Boolean> reachableCache = new HashMap<>();
     private final OrdinalNodeAccess ordinalNodeAccess;
     private final Consumer<LocalTaskNode> completionHandler;
+    private final ExecutionPlanPrefetcher prefetcher;
+    @Nullable
+    private final CriticalPathScheduling criticalPathScheduling;
 
     // When true, there may be nodes that are both ready and "selectable", which means their project and resources are able to be locked
     // When false, there are definitely no nodes that are "selectable"
@@ -100,7 +109,9 @@ public DefaultFinalizedExecutionPlan(
         List<Node> scheduledNodes,
         boolean continueOnFailure,
         QueryableExecutionPlan contents,
-        Consumer<LocalTaskNode> completionHandler
+        Consumer<LocalTaskNode> completionHandler,
+        ExecutionPlanPrefetcher prefetcher,
+        NodeExecutionTimes executionTimes
     ) {
         this.displayName = displayName;
         this.outputHierarchy = outputHierarchy;
@@ -110,6 +121,8 @@ public DefaultFinalizedExecutionPlan(
         this.continueOnFailure = continueOnFailure;
         this.contents = contents;
         this.completionHandler = completionHandler;
+        this.prefetcher = prefetcher;
+        this.criticalPathScheduling = executionTimes == NodeExecutionTimes.NONE ? null : new CriticalPathScheduling(executionTimes);
 
         SetMultimap<FinalizerGroup, FinalizerGroup> reachableGroups = LinkedHashMultimap.create();
         for (Node node : scheduledNodes) {
@@ -118,6 +131,10 @@ public DefaultFinalizedExecutionPlan(
             }
         }
 
+        if (criticalPathScheduling != null) {
+            criticalPathScheduling.planFinalized(scheduledNodes);
+        }
+
         for (int i = 0; i < scheduledNodes.size(); i++) {
             Node node = scheduledNodes.get(i);
             node.setIndex(i);
@@ -127,6 +144,7 @@ public DefaultFinalizedExecutionPlan(
             maybeWaitingForNewNode(node, "scheduled");
         }
         lockCoordinator.addLockReleaseListener(resourceUnlockListener);
+        prefetcher.planFinalized(scheduledNodes);
     }
 
     @Override
@@ -146,7 +164,11 @@ public WorkSource<Node> asWorkSource() {
 
     @Override
     public void close() {
+        if (criticalPathScheduling != null) {
+            criticalPathScheduling.report();
+        }
         lockCoordinator.removeLockReleaseListener(resourceUnlockListener);
+        prefetcher.planCompleted();
         waitingToStartNodes.clear();
         readyNodes.clear();
         runningNodes.clear();
@@ -262,6 +284,7 @@ public Selection<Node> selectNext() {
                     // The node is ready to execute and its pre-execution nodes have not been scheduled, so do this now
                     node.visitPreExecutionNodes(prepareNode -> {
                         prepareNode.setIndex(node.getIndex());
+                        prepareNode.setCriticalPathTime(node.getCriticalPathTime());
                         prepareNode.require();
                         prepareNode.updateAllDependenciesComplete();
                         node.addDependencySuccessor(prepareNode);
@@ -279,6 +302,9 @@ public Selection<Node> selectNext() {
                 if (attemptToStart(node, resources)) {
                     readyNodes.remove();
                     waitingToStartNodes.remove(node);
+                    if (criticalPathScheduling != null) {
+                        criticalPathScheduling.nodeStarted(node, waitingToStartNodes.isEmpty());
+                    }
                     node.getConsumerState().started();
                     return Selection.of(node);
                 }
@@ -560,6 +586,9 @@ public void finishedExecuting(Node node, @Nullable Throwable failure) {
             }
 
             node.finishExecution(this::recordNodeCompleted);
+            if (criticalPathScheduling != null) {
+                criticalPathScheduling.nodeFinished(node);
+            }
             if (node.isFailed()) {
                 LOGGER.debug("Node {} failed", node);
                 handleFailure(node);
@@ -567,6 +596,7 @@ public void finishedExecuting(Node node, @Nullable Throwable failure) {
                 LOGGER.debug("Node {} finished executing", node);
                 node.visitPostExecutionNodes(postNode -> {
                     postNode.setIndex(node.getIndex());
+                    postNode.setCriticalPathTime(node.getCriticalPathTime());
                     postNode.require();
                     postNode.updateAllDependenciesComplete();
                     addNodeToPlan(postNode);
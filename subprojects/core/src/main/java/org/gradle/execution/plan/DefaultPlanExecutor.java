@@ -34,6 +34,8 @@
 import org.gradle.internal.operations.BuildOperationRef;
 import org.gradle.internal.operations.CurrentBuildOperationRef;
 import org.gradle.internal.resources.ResourceLockCoordinationService;
+import org.gradle.internal.resources.ResourceLockState;
+import org.gradle.internal.resources.StateLockStatistics;
 import org.gradle.internal.work.WorkerLeaseRegistry.WorkerLease;
 import org.gradle.internal.work.WorkerLeaseService;
 import org.gradle.internal.work.WorkerLimits;
@@ -63,6 +65,11 @@
 @NullMarked
 public class DefaultPlanExecutor implements PlanExecutor, Stoppable {
     public static final InternalOption<Boolean> STATS = InternalOptions.ofBoolean("org.gradle.internal.executor.stats", false);
+    /**
+     * Whether a worker selects its next item while still holding the state lock taken to mark its previous item finished.
+     * Disabled by default. Can be enabled to compare the contention on the state lock with the default behavior.
+     */
+    public static final InternalOption<Boolean> SELECT_ON_FINISH = InternalOptions.ofBoolean("org.gradle.internal.executor.select-on-finish", false);
     private static final Logger LOGGER = Logging.getLogger(DefaultPlanExecutor.class);
     private final WorkerLimits workerLimits;
     private final WorkerLeaseService workerLeaseService;
@@ -72,6 +79,7 @@ public class DefaultPlanExecutor implements PlanExecutor, Stoppable {
     private final MergedQueues queue;
     private final ExecutorState state = new ExecutorState();
     private final ExecutorStats stats;
+    private final boolean selectOnFinish;
 
     public DefaultPlanExecutor(
         WorkerLimits workerLimits,
@@ -85,7 +93,8 @@ public DefaultPlanExecutor(
         this.cancellationToken = cancellationToken;
         this.coordinationService = coordinationService;
         this.workerLeaseService = workerLeaseService;
-        this.stats = internalOptions.getBoolean(STATS) ? new CollectingExecutorStats(state) : state;
+        this.selectOnFinish = internalOptions.getBoolean(SELECT_ON_FINISH);
+        this.stats = internalOptions.getBoolean(STATS) ? new CollectingExecutorStats(state, coordinationService, selectOnFinish) : state;
         this.queue = new MergedQueues(coordinationService, false);
         this.executor = executorFactory.create("Execution worker");
     }
@@ -115,7 +124,7 @@ public <T> ExecutionResult<Void> process(WorkSource<T> workSource, Action<T> wor
         WorkerLease currentWorkerLease = workerLeaseService.getCurrentWorkerLease();
         MergedQueues thisPlanOnly = new MergedQueues(coordinationService, true);
         thisPlanOnly.add(planDetails);
-        new ExecutorWorker(thisPlanOnly, currentWorkerLease, cancellationToken, coordinationService, workerLeaseService, stats).run();
+        new ExecutorWorker(thisPlanOnly, currentWorkerLease, cancellationToken, coordinationService, workerLeaseService, stats, selectOnFinish).run();
 
         List<Throwable> failures = new ArrayList<>();
         awaitCompletion(workSource, currentWorkerLease, failures);
@@ -185,7 +194,7 @@ private void maybeStartWorkers(MergedQueues queue, Executor executor) {
         state.maybeStartWorkers(() -> {
             LOGGER.debug("Using {} parallel executor threads", executorCount);
             for (int i = 1; i < executorCount; i++) {
-                executor.execute(new ExecutorWorker(queue, null, cancellationToken, coordinationService, workerLeaseService, stats));
+                executor.execute(new ExecutorWorker(queue, null, cancellationToken, coordinationService, workerLeaseService, stats, selectOnFinish));
             }
         });
     }
@@ -354,6 +363,7 @@ private static class ExecutorWorker implements Runnable {
         private final ResourceLockCoordinationService coordinationService;
         private final WorkerLeaseService workerLeaseService;
         private final WorkerStats stats;
+        private final boolean selectOnFinish;
 
         private ExecutorWorker(
             MergedQueues queue,
@@ -361,7 +371,8 @@ private ExecutorWorker(
             BuildCancellationToken cancellationToken,
             ResourceLockCoordinationService coordinationService,
             WorkerLeaseService workerLeaseService,
-            ExecutorStats executorStats
+            ExecutorStats executorStats,
+            boolean selectOnFinish
         ) {
             this.queue = queue;
             this.workerLease = workerLease;
@@ -369,6 +380,7 @@ private ExecutorWorker(
             this.coordinationService = coordinationService;
             this.workerLeaseService = workerLeaseService;
             this.stats = executorStats.startWorker();
+            this.selectOnFinish = selectOnFinish;
         }
 
         @Override
@@ -382,14 +394,18 @@ public void run() {
                     releaseLeaseOnCompletion = false;
                 }
 
-                while (true) {
-                    WorkItem workItem = getNextItem(workerLease);
-                    if (workItem == null) {
-                        break;
-                    }
+                WorkItem workItem = getNextItem(workerLease);
+                while (workItem != null) {
                     Object selected = workItem.selection.getItem();
                     LOGGER.info("{} ({}) started.", selected, Thread.currentThread());
-                    execute(selected, workItem.plan, workItem.executor, workItem.parentOperation);
+                    WorkSource.Selection<WorkItem> next = execute(selected, workItem.plan, workItem.executor, workItem.parentOperation);
+                    if (next.isNoMoreWorkToStart()) {
+                        workItem = null;
+                    } else if (next.isNoWorkReadyToStart()) {
+                        workItem = getNextItem(workerLease);
+                    } else {
+                        workItem = next.getItem();
+                    }
                 }
 
                 if (releaseLeaseOnCompletion) {
@@ -414,81 +430,100 @@ private WorkItem getNextItem(final WorkerLease workerLease) {
                 selected = MutableReference.empty();
                 coordinationService.withStateLock(resourceLockState -> {
                     stats.finishWaitingForNextItem();
-                    if (cancellationToken.isCancellationRequested()) {
-                        queue.cancelExecution();
-                    }
+                    return trySelectNext(resourceLockState, workerLease, selected, true);
+                });
+            } finally {
+                stats.finishSelect();
+            }
 
-                    WorkSource.State state = queue.executionState();
-                    if (state == WorkSource.State.NoMoreWorkToStart) {
-                        return FINISHED;
-                    }
+            return selected.get();
+        }
 
-                    if (!workerLease.tryLock()) {
-                        // Cannot get a lease to run work
-                        // Do not call `startWaitingForNextItem()` as there may be work available but this worker cannot start it, and so should not be considered "waiting for work".
-                        // The health monitoring is currently only concerned with whether work can be started.
-                        // At some point it could be improved to track the health of all worker threads, not just the plan executor threads
-                        return RETRY;
-                    }
+        /**
+         * Selects an item that's ready to execute, if any. Must be called while holding the state lock.
+         * Releases the worker lease when no item is ready to execute.
+         *
+         * @param waitForWork whether this worker waits for a state change when no item is ready to execute
+         * @return {@code RETRY} when this worker should wait for a state change before selecting again
+         */
+        private ResourceLockState.Disposition trySelectNext(ResourceLockState resourceLockState, WorkerLease workerLease, MutableReference<WorkItem> selected, boolean waitForWork) {
+            if (cancellationToken.isCancellationRequested()) {
+                queue.cancelExecution();
+            }
 
-                    if (state == WorkSource.State.NoWorkReadyToStart) {
-                        stats.startWaitingForNextItem();
-                        // Release worker lease while waiting
-                        workerLease.unlock();
-                        return RETRY;
-                    }
+            WorkSource.State state = queue.executionState();
+            if (state == WorkSource.State.NoMoreWorkToStart) {
+                return FINISHED;
+            }
 
-                    // Have a worker lease and work may be available
+            if (!workerLease.tryLock()) {
+                // Cannot get a lease to run work
+                // Do not call `startWaitingForNextItem()` as there may be work available but this worker cannot start it, and so should not be considered "waiting for work".
+                // The health monitoring is currently only concerned with whether work can be started.
+                // At some point it could be improved to track the health of all worker threads, not just the plan executor threads
+                return RETRY;
+            }
 
-                    WorkSource.Selection<WorkItem> workItem;
-                    try {
-                        workItem = queue.selectNext();
-                    } catch (Throwable t) {
-                        resourceLockState.releaseLocks();
-                        queue.abortAllAndFail(t);
-                        return FINISHED;
-                    }
-                    if (workItem.isNoMoreWorkToStart()) {
-                        return FINISHED;
-                    } else if (workItem.isNoWorkReadyToStart()) {
-                        stats.startWaitingForNextItem();
-                        // Release worker lease while waiting
-                        workerLease.unlock();
-                        return RETRY;
-                    }
+            if (state == WorkSource.State.NoWorkReadyToStart) {
+                if (waitForWork) {
+                    stats.startWaitingForNextItem();
+                }
+                // Release worker lease while waiting
+                workerLease.unlock();
+                return RETRY;
+            }
 
-                    selected.set(workItem.getItem());
-                    return FINISHED;
-                });
-            } finally {
-                stats.finishSelect();
+            // Have a worker lease and work may be available
+
+            WorkSource.Selection<WorkItem> workItem;
+            try {
+                workItem = queue.selectNext();
+            } catch (Throwable t) {
+                resourceLockState.releaseLocks();
+                queue.abortAllAndFail(t);
+                return FINISHED;
+            }
+            if (workItem.isNoMoreWorkToStart()) {
+                return FINISHED;
+            } else if (workItem.isNoWorkReadyToStart()) {
+                if (waitForWork) {
+                    stats.startWaitingForNextItem();
+                }
+                // Release worker lease while waiting
+                workerLease.unlock();
+                return RETRY;
             }
 
-            return selected.get();
+            selected.set(workItem.getItem());
+            return FINISHED;
         }
 
-        private void execute(Object selected, WorkSource<Object> executionPlan, Action<Object> worker, BuildOperationRef parentOperation) {
+        /**
+         * Executes the item and marks it finished.
+         *
+         * @return The next item to execute, when one could be selected while marking the item finished, or {@code noWorkReadyToStart()} when the worker should wait for one
+         */
+        private WorkSource.Selection<WorkItem> execute(Object selected, WorkSource<Object> executionPlan, Action<Object> worker, BuildOperationRef parentOperation) {
             Throwable failure = null;
+            stats.startExecute();
             try {
-                stats.startExecute();
-                try {
-                    CurrentBuildOperationRef.instance().with(parentOperation, () -> {
-                        worker.execute(selected);
-                    });
-                } catch (Throwable t) {
-                    failure = t;
-                } finally {
-                    stats.finishExecute();
-                }
+                CurrentBuildOperationRef.instance().with(parentOperation, () -> {
+                    worker.execute(selected);
+                });
+            } catch (Throwable t) {
+                failure = t;
             } finally {
-                markFinished(selected, executionPlan, failure);
+                stats.finishExecute();
             }
+            return markFinished(selected, executionPlan, failure);
         }
 
-        private void markFinished(Object selected, WorkSource<Object> executionPlan, @Nullable Throwable failure) {
+        private WorkSource.Selection<WorkItem> markFinished(Object selected, WorkSource<Object> executionPlan, @Nullable Throwable failure) {
+            MutableReference<WorkItem> next = MutableReference.empty();
+            MutableReference<WorkSource.Selection<WorkItem>> selection = MutableReference.of(WorkSource.Selection.noWorkReadyToStart());
             stats.startMarkFinished();
             try {
-                coordinationService.withStateLock(() -> {
+                coordinationService.withStateLock(resourceLockState -> {
                     try {
                         executionPlan.finishedExecuting(selected, failure);
                     } catch (Throwable t) {
@@ -497,10 +532,22 @@ private void markFinished(Object selected, WorkSource<Object> executionPlan, @Nu
                     // Notify other threads that the item is finished as this may unblock further work
                     // or this might be the last item in the queue
                     coordinationService.notifyStateChange();
+                    // Finishing the item often makes its dependents ready, so select one without releasing and contending for the state lock again.
+                    // When no item can be selected, the worker no longer holds its lease, and waits for an item in getNextItem().
+                    if (selectOnFinish && trySelectNext(resourceLockState, workerLease, next, false) == FINISHED) {
+                        WorkItem nextItem = next.get();
+                        selection.set(nextItem != null ? WorkSource.Selection.of(nextItem) : WorkSource.Selection.noMoreWorkToStart());
+                    }
+                    // Never retry, as the item must be marked finished only once
+                    return FINISHED;
                 });
             } finally {
                 stats.finishMarkFinished();
             }
+            if (next.get() != null) {
+                stats.selectedOnFinish();
+            }
+            return selection.get();
         }
     }
 
@@ -538,6 +585,8 @@ private interface WorkerStats extends WorkerState {
 
         void finishMarkFinished();
 
+        void selectedOnFinish();
+
         void finish();
     }
 
@@ -644,6 +693,10 @@ public void startMarkFinished() {
             public void finishMarkFinished() {
             }
 
+            @Override
+            public void selectedOnFinish() {
+            }
+
             @Override
             public void finish() {
                 state.set(ExecutionState.Stopped);
@@ -669,9 +722,15 @@ public void finishWaitingForNextItem() {
     private static class CollectingExecutorStats implements ExecutorStats {
         private final List<CollectingWorkerStats> completedWorkers = new CopyOnWriteArrayList<>();
         private final ExecutorState delegate;
+        private final ResourceLockCoordinationService coordinationService;
+        private final boolean selectOnFinish;
+        private StateLockStatistics stateLockStatisticsAtStart;
 
-        public CollectingExecutorStats(ExecutorState delegate) {
+        public CollectingExecutorStats(ExecutorState delegate, ResourceLockCoordinationService coordinationService, boolean selectOnFinish) {
             this.delegate = delegate;
+            this.coordinationService = coordinationService;
+            this.selectOnFinish = selectOnFinish;
+            this.stateLockStatisticsAtStart = coordinationService.getStateLockStatistics();
         }
 
         @Override
@@ -693,9 +752,30 @@ public void report() {
                 LOGGER.lifecycle("average execute time: " + format(stats -> stats.totalExecuteTime));
                 LOGGER.lifecycle("average finish time: " + format(stats -> stats.totalMarkFinishedTime));
             }
+            LOGGER.lifecycle("select on finish: " + (selectOnFinish ? "enabled" : "disabled (baseline)"));
+            if (workerCount > 0) {
+                LOGGER.lifecycle("items selected on finish: " + completedWorkers.stream().mapToLong(stats -> stats.selectedOnFinishCount).sum());
+            }
+            StateLockStatistics stateLockStatistics = coordinationService.getStateLockStatistics();
+            reportStateLockContention(stateLockStatistics.since(stateLockStatisticsAtStart));
+            stateLockStatisticsAtStart = stateLockStatistics;
             completedWorkers.clear();
         }
 
+        private static void reportStateLockContention(StateLockStatistics statistics) {
+            LOGGER.lifecycle("state lock acquisitions: " + statistics.getAcquisitions());
+            if (statistics.getAcquisitions() > 0) {
+                BigDecimal contendedPercentage = BigDecimal.valueOf(statistics.getContendedAcquisitions() * 100).divide(BigDecimal.valueOf(statistics.getAcquisitions()), 1, RoundingMode.HALF_UP);
+                LOGGER.lifecycle("contended state lock acquisitions: " + statistics.getContendedAcquisitions() + " (" + contendedPercentage + "%)");
+            }
+            if (statistics.getContendedAcquisitions() > 0) {
+                BigDecimal averageNanos = BigDecimal.valueOf(statistics.getContendedWaitTime() / statistics.getContendedAcquisitions());
+                LOGGER.lifecycle("average wait for contended state lock: " + DecimalFormat.getNumberInstance().format(averageNanos.divide(BigDecimal.valueOf(1000), RoundingMode.HALF_UP)) + "us");
+                LOGGER.lifecycle("total wait for contended state lock: " + DecimalFormat.getNumberInstance().format(BigDecimal.valueOf(statistics.getContendedWaitTime()).divide(BigDecimal.valueOf(1000000), RoundingMode.HALF_UP)) + "ms");
+            }
+            LOGGER.lifecycle("wake-ups waiting for state changes: " + statistics.getWakeups());
+        }
+
         private String format(ToLongFunction<CollectingWorkerStats> statsProperty) {
             BigDecimal averageNanos = BigDecimal.valueOf(completedWorkers.stream().mapToLong(statsProperty).sum() / completedWorkers.size());
             return DecimalFormat.getNumberInstance().format(averageNanos.divide(BigDecimal.valueOf(1000000), RoundingMode.HALF_UP)) + "ms";
@@ -709,6 +789,7 @@ private static class CollectingWorkerStats implements WorkerStats {
         long totalSelectTime;
         long totalExecuteTime;
         long totalMarkFinishedTime;
+        long selectedOnFinishCount;
 
         public CollectingWorkerStats(CollectingExecutorStats owner, WorkerState delegate) {
             this.owner = owner;
@@ -759,6 +840,11 @@ public void finishMarkFinished() {
             }
         }
 
+        @Override
+        public void selectedOnFinish() {
+            selectedOnFinishCount++;
+        }
+
         @Override
         public void startWaitingForNextItem() {
             delegate.startWaitingForNextItem();
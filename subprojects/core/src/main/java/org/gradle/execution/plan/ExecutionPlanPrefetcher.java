@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.execution.plan;
+
+import org.gradle.internal.service.scopes.Scope;
+import org.gradle.internal.service.scopes.ServiceScope;
+
+import java.util.List;
+
+/**
+ * Starts fetching what the nodes of a finalized execution plan are likely to need, before they are ready to execute.
+ */
+@ServiceScope(Scope.Build.class)
+public interface ExecutionPlanPrefetcher {
+    ExecutionPlanPrefetcher NONE = scheduledNodes -> {
+    };
+
+    /**
+     * Called once the plan is finalized, with the scheduled nodes in the order they are expected to execute.
+     *
+     * <p>This is called while holding the execution state lock, so implementations must not block.</p>
+     */
+    void planFinalized(List<Node> scheduledNodes);
+
+    /**
+     * Called once the plan has finished executing, so that anything fetched for it and not used yet can be released.
+     *
+     * <p>Implementations must not block.</p>
+     */
+    default void planCompleted() {
+    }
+}
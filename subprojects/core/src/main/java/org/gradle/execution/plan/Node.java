@@ -68,6 +68,7 @@ public enum DependenciesState {
     private Throwable executionFailure;
     private boolean filtered;
     private int index;
+    private long criticalPathTime;
     private DependencyNodesSet dependencyNodes = DependencyNodesSet.EMPTY;
     private DependentNodesSet dependentNodes = DependentNodesSet.EMPTY;
     private MutationInfo mutationInfo = MutationInfo.EMPTY;
@@ -336,6 +337,17 @@ public void setIndex(int index) {
         this.index = index;
     }
 
+    /**
+     * Returns the expected execution time of the longest chain of nodes that starts with this node, in milliseconds.
+     */
+    public long getCriticalPathTime() {
+        return criticalPathTime;
+    }
+
+    public void setCriticalPathTime(long criticalPathTime) {
+        this.criticalPathTime = criticalPathTime;
+    }
+
     /**
      * Mark this node as filtered from the current plan. The node will be considered complete and successful.
      */
@@ -352,6 +364,7 @@ public void filtered() {
     public void reset() {
         group = NodeGroup.DEFAULT_GROUP;
         index = 0;
+        criticalPathTime = 0;
         if (!isCannotRunInAnyPlan()) {
             filtered = false;
             dependenciesProcessed = false;
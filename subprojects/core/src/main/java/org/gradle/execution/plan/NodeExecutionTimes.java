@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.execution.plan;
+
+import org.gradle.internal.buildoption.InternalOption;
+import org.gradle.internal.buildoption.InternalOptions;
+import org.gradle.internal.service.scopes.Scope;
+import org.gradle.internal.service.scopes.ServiceScope;
+
+/**
+ * Remembers how long nodes took to execute in earlier builds, so that the scheduler can start the longest chains of work first.
+ */
+@ServiceScope(Scope.BuildTree.class)
+public interface NodeExecutionTimes {
+    InternalOption<Boolean> CRITICAL_PATH_ORDERING = InternalOptions.ofBoolean("org.gradle.internal.scheduler.critical-path", false);
+
+    NodeExecutionTimes NONE = new NodeExecutionTimes() {
+        @Override
+        public long getExpectedExecutionTime(Node node) {
+            return 0;
+        }
+
+        @Override
+        public void recordExecutionTime(Node node, long executionTime) {
+        }
+    };
+
+    /**
+     * Returns the expected execution time of the given node in milliseconds, or 0 when it is not known.
+     *
+     * <p>This is called while holding the execution state lock, so implementations must not block.</p>
+     */
+    long getExpectedExecutionTime(Node node);
+
+    /**
+     * Records how long the given node took to execute, in milliseconds.
+     *
+     * <p>This is called while holding the execution state lock, so implementations must not block.</p>
+     */
+    void recordExecutionTime(Node node, long executionTime);
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.execution.plan;
+
+import org.gradle.api.internal.TaskInternal;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the execution time of the tasks of a build tree in a single file, which is read when the service is created and written when the build tree finishes.
+ *
+ * <p>Only executions where the task did some work are recorded, as the ordering of tasks that turn out to be up-to-date hardly matters.</p>
+ */
+public class PersistentNodeExecutionTimes implements NodeExecutionTimes, Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PersistentNodeExecutionTimes.class);
+    private static final int MAGIC = 0x47455854;
+    private static final int VERSION = 1;
+
+    private final File file;
+    private final Map<String, Long> executionTimes = new ConcurrentHashMap<>();
+    private volatile boolean changed;
+
+    public PersistentNodeExecutionTimes(File file) {
+        this.file = file;
+        read();
+    }
+
+    @Override
+    public long getExpectedExecutionTime(Node node) {
+        String key = keyOf(node);
+        if (key == null) {
+            return 0;
+        }
+        Long executionTime = executionTimes.get(key);
+        return executionTime == null ? 0 : executionTime;
+    }
+
+    @Override
+    public void recordExecutionTime(Node node, long executionTime) {
+        String key = keyOf(node);
+        if (key == null || !((LocalTaskNode) node).getTask().getState().getDidWork()) {
+            return;
+        }
+        executionTimes.put(key, executionTime);
+        changed = true;
+    }
+
+    @Nullable
+    private static String keyOf(Node node) {
+        if (node instanceof LocalTaskNode) {
+            TaskInternal task = ((LocalTaskNode) node).getTask();
+            return task.getIdentityPath().toString();
+        }
+        return null;
+    }
+
+    private void read() {
+        if (!file.isFile()) {
+            return;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                return;
+            }
+            int count = input.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = input.readUTF();
+                executionTimes.put(key, input.readLong());
+            }
+        } catch (IOException e) {
+            LOGGER.info("Could not read task execution times from {}.", file, e);
+            executionTimes.clear();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!changed) {
+            return;
+        }
+        File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        try {
+            Files.createDirectories(file.getParentFile().toPath());
+            Map<String, Long> snapshot = new HashMap<>(executionTimes);
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeInt(snapshot.size());
+                for (Map.Entry<String, Long> entry : snapshot.entrySet()) {
+                    output.writeUTF(entry.getKey());
+                    output.writeLong(entry.getValue());
+                }
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.info("Could not write task execution times to {}.", file, e);
+        }
+    }
+}
@@ -45,12 +45,15 @@
 import org.gradle.api.model.ObjectFactory;
 import org.gradle.api.problems.internal.ProblemsInternal;
 import org.gradle.api.tasks.util.internal.PatternSetFactory;
+import org.gradle.cache.scopes.BuildTreeScopedCacheBuilderFactory;
 import org.gradle.configuration.project.BuiltInCommand;
 import org.gradle.execution.DefaultTaskSelector;
 import org.gradle.execution.ProjectConfigurer;
 import org.gradle.execution.TaskNameResolver;
 import org.gradle.execution.TaskPathProjectEvaluator;
 import org.gradle.execution.TaskSelector;
+import org.gradle.execution.plan.NodeExecutionTimes;
+import org.gradle.execution.plan.PersistentNodeExecutionTimes;
 import org.gradle.execution.selection.BuildTaskSelector;
 import org.gradle.execution.selection.DefaultBuildTaskSelector;
 import org.gradle.initialization.BuildOptionBuildOperationProgressEventsEmitter;
@@ -92,6 +95,7 @@
 import org.gradle.problems.buildtree.ProblemDiagnosticsFactory;
 import org.gradle.problems.buildtree.ProblemReporter;
 
+import java.io.File;
 import java.util.List;
 
 /**
@@ -173,6 +177,14 @@ protected InternalOptions createInternalOptions(StartParameterInternal startPara
         return InternalOptionsFactory.createInternalOptions(startParameter, buildTreeLocations.getBuildTreeRootDirectory());
     }
 
+    @Provides
+    protected NodeExecutionTimes createNodeExecutionTimes(InternalOptions internalOptions, BuildTreeScopedCacheBuilderFactory cacheBuilderFactory) {
+        if (!internalOptions.getBoolean(NodeExecutionTimes.CRITICAL_PATH_ORDERING)) {
+            return NodeExecutionTimes.NONE;
+        }
+        return new PersistentNodeExecutionTimes(new File(cacheBuilderFactory.baseDirForCache("executionTimes"), "execution-times.bin"));
+    }
+
     @Provides
     FeatureFlags createFeatureFlags(FeatureFlagListener listener, StartParameterInternal startParameter) {
         return new DefaultFeatureFlags(listener, startParameter.getSystemPropertiesArgs());
@@ -20,11 +20,14 @@
 import org.gradle.api.internal.changedetection.state.DefaultExecutionHistoryCacheAccess;
 import org.gradle.api.problems.internal.ProblemsInternal;
 import org.gradle.cache.FileLockManager;
+import org.gradle.cache.IndexedCacheBackend;
 import org.gradle.cache.PersistentCache;
 import org.gradle.cache.internal.InMemoryCacheDecoratorFactory;
 import org.gradle.cache.scopes.BuildScopedCacheBuilderFactory;
 import org.gradle.caching.internal.controller.BuildCacheController;
 import org.gradle.initialization.BuildCancellationToken;
+import org.gradle.internal.buildoption.InternalOption;
+import org.gradle.internal.buildoption.InternalOptions;
 import org.gradle.internal.event.ListenerManager;
 import org.gradle.internal.execution.BuildOutputCleanupRegistry;
 import org.gradle.internal.execution.ExecutionEngine;
@@ -95,8 +98,15 @@
 import java.util.function.Supplier;
 
 import static org.gradle.internal.execution.steps.AfterExecutionOutputFilter.NO_FILTER;
+import static org.gradle.internal.operations.trace.ExecutionJfrEvents.recordDeferredStep;
+import static org.gradle.internal.operations.trace.ExecutionJfrEvents.recordStep;
 
 public class ExecutionBuildServices implements ServiceRegistrationProvider {
+    /**
+     * When set, the execution history is stored in a memory-mapped hash index instead of a B-tree.
+     */
+    public static final InternalOption<Boolean> MEMORY_MAPPED_EXECUTION_HISTORY = InternalOptions.ofBoolean("org.gradle.internal.execution-history.memory-mapped", false);
+
     @Provides
     ExecutionHistoryCacheAccess createCacheAccess(BuildScopedCacheBuilderFactory cacheBuilderFactory) {
         return new DefaultExecutionHistoryCacheAccess(cacheBuilderFactory);
@@ -107,13 +117,15 @@ ExecutionHistoryStore createExecutionHistoryStore(
         ExecutionHistoryCacheAccess executionHistoryCacheAccess,
         InMemoryCacheDecoratorFactory inMemoryCacheDecoratorFactory,
         StringInterner stringInterner,
-        ClassLoaderHierarchyHasher classLoaderHasher
+        ClassLoaderHierarchyHasher classLoaderHasher,
+        InternalOptions internalOptions
     ) {
         return new DefaultExecutionHistoryStore(
             executionHistoryCacheAccess,
             inMemoryCacheDecoratorFactory,
             stringInterner,
-            classLoaderHasher
+            classLoaderHasher,
+            internalOptions.getBoolean(MEMORY_MAPPED_EXECUTION_HISTORY) ? IndexedCacheBackend.MEMORY_MAPPED : IndexedCacheBackend.BTREE
         );
     }
 
@@ -169,54 +181,54 @@ public ExecutionEngine createExecutionEngine(
         // @formatter:off
         // CHECKSTYLE:OFF
         Step<IdentityContext, WorkspaceResult> immutablePipeline =
-            new AssignImmutableWorkspaceStep<>(deleter, fileSystemAccess, immutableWorkspaceMetadataStore, outputSnapshotter, workerLeaseService,
-            new MarkSnapshottingInputsStartedStep<>(
-            new CaptureImmutableStateBeforeExecutionStep<>(
-            new ValidateStep.Immutable<>(problemHandler,
-            new ResolveImmutableCachingStateStep<>(buildCacheController, emitBuildCacheDebugLogging,
-            new MarkSnapshottingInputsFinishedStep<>(
-            new NeverUpToDateStep<>(
-            new BuildCacheStep<>(buildCacheController, deleter, fileSystemAccess, outputChangeListener,
-            new CaptureOutputsAfterExecutionStep<>(buildOperationRunner, buildId, outputSnapshotter, NO_FILTER,
-            new BroadcastChangingOutputsStep<>(outputChangeListener,
-            new PreCreateOutputParentsStep<>(
-            new TimeoutStep<>(timeoutHandler, currentBuildOperationRef,
-            new CancelExecutionStep<>(cancellationToken,
-            new ExecuteStep.Immutable(buildOperationRunner
-        ))))))))))))));
+            recordStep(new AssignImmutableWorkspaceStep<>(deleter, fileSystemAccess, immutableWorkspaceMetadataStore, outputSnapshotter, workerLeaseService,
+            recordStep(new MarkSnapshottingInputsStartedStep<>(
+            recordStep(new CaptureImmutableStateBeforeExecutionStep<>(
+            recordStep(new ValidateStep.Immutable<>(problemHandler,
+            recordStep(new ResolveImmutableCachingStateStep<>(buildCacheController, emitBuildCacheDebugLogging,
+            recordStep(new MarkSnapshottingInputsFinishedStep<>(
+            recordStep(new NeverUpToDateStep<>(
+            recordStep(new BuildCacheStep<>(buildCacheController, deleter, fileSystemAccess, outputChangeListener,
+            recordStep(new CaptureOutputsAfterExecutionStep<>(buildOperationRunner, buildId, outputSnapshotter, NO_FILTER,
+            recordStep(new BroadcastChangingOutputsStep<>(outputChangeListener,
+            recordStep(new PreCreateOutputParentsStep<>(
+            recordStep(new TimeoutStep<>(timeoutHandler, currentBuildOperationRef,
+            recordStep(new CancelExecutionStep<>(cancellationToken,
+            recordStep(new ExecuteStep.Immutable(buildOperationRunner
+        ))))))))))))))))))))))))))));
 
         Step<IdentityContext, WorkspaceResult> mutablePipeline =
-            new AssignMutableWorkspaceStep<>(
-            new HandleStaleOutputsStep<>(buildOperationRunner, buildOutputCleanupRegistry,  deleter, outputChangeListener, outputFilesRepository,
-            new LoadPreviousExecutionStateStep<>(
-            new MarkSnapshottingInputsStartedStep<>(
-            new SkipEmptyMutableWorkStep(problemHandler, outputChangeListener, workInputListeners, skipEmptyWorkOutputsCleanerSupplier,
-            new CaptureMutableStateBeforeExecutionStep<>(buildOperationRunner, outputSnapshotter, overlappingOutputDetector,
-            new ValidateStep.Mutable<>(problemHandler,
-            new ResolveChangesStep<>(changeDetector,
-            new ResolveMutableCachingStateStep<>(buildCacheController, emitBuildCacheDebugLogging,
-            new MarkSnapshottingInputsFinishedStep<>(
-            new SkipUpToDateStep<>(
-            new StoreExecutionStateStep<>(
-            new BuildCacheStep<>(buildCacheController, deleter, fileSystemAccess, outputChangeListener,
-            new ResolveInputChangesStep<>(
-            new CaptureOutputsAfterExecutionStep<>(buildOperationRunner, buildId, outputSnapshotter, new OverlappingOutputsFilter(),
-            new BroadcastChangingOutputsStep<>(outputChangeListener,
-            new RemovePreviousOutputsStep<>(deleter, outputChangeListener,
-            new PreCreateOutputParentsStep<>(
-            new TimeoutStep<>(timeoutHandler, currentBuildOperationRef,
-            new CancelExecutionStep<>(cancellationToken,
-            new ExecuteStep.Mutable(buildOperationRunner
-        )))))))))))))))))))));
+            recordStep(new AssignMutableWorkspaceStep<>(
+            recordStep(new HandleStaleOutputsStep<>(buildOperationRunner, buildOutputCleanupRegistry,  deleter, outputChangeListener, outputFilesRepository,
+            recordStep(new LoadPreviousExecutionStateStep<>(
+            recordStep(new MarkSnapshottingInputsStartedStep<>(
+            recordStep(new SkipEmptyMutableWorkStep(problemHandler, outputChangeListener, workInputListeners, skipEmptyWorkOutputsCleanerSupplier,
+            recordStep(new CaptureMutableStateBeforeExecutionStep<>(buildOperationRunner, outputSnapshotter, overlappingOutputDetector,
+            recordStep(new ValidateStep.Mutable<>(problemHandler,
+            recordStep(new ResolveChangesStep<>(changeDetector,
+            recordStep(new ResolveMutableCachingStateStep<>(buildCacheController, emitBuildCacheDebugLogging,
+            recordStep(new MarkSnapshottingInputsFinishedStep<>(
+            recordStep(new SkipUpToDateStep<>(
+            recordStep(new StoreExecutionStateStep<>(
+            recordStep(new BuildCacheStep<>(buildCacheController, deleter, fileSystemAccess, outputChangeListener,
+            recordStep(new ResolveInputChangesStep<>(
+            recordStep(new CaptureOutputsAfterExecutionStep<>(buildOperationRunner, buildId, outputSnapshotter, new OverlappingOutputsFilter(),
+            recordStep(new BroadcastChangingOutputsStep<>(outputChangeListener,
+            recordStep(new RemovePreviousOutputsStep<>(deleter, outputChangeListener,
+            recordStep(new PreCreateOutputParentsStep<>(
+            recordStep(new TimeoutStep<>(timeoutHandler, currentBuildOperationRef,
+            recordStep(new CancelExecutionStep<>(cancellationToken,
+            recordStep(new ExecuteStep.Mutable(buildOperationRunner
+        ))))))))))))))))))))))))))))))))))))))))));
 
         return new DefaultExecutionEngine(
-            new IdentifyStep<>(buildOperationRunner, classLoaderHierarchyHasher,
-            new IdentityCacheStep<>(buildOperationProgressEventEmitter,
-            new ExecuteWorkBuildOperationFiringStep<>(buildOperationRunner,
-            new ChoosePipelineStep<>(
+            recordDeferredStep(new IdentifyStep<>(buildOperationRunner, classLoaderHierarchyHasher,
+            recordDeferredStep(new IdentityCacheStep<>(buildOperationProgressEventEmitter,
+            recordStep(new ExecuteWorkBuildOperationFiringStep<>(buildOperationRunner,
+            recordStep(new ChoosePipelineStep<>(
                 immutablePipeline,
                 mutablePipeline
-        )))), problems);
+        )))))))), problems);
         // CHECKSTYLE:ON
         // @formatter:on
     }
@@ -26,6 +26,7 @@
 import org.gradle.api.internal.changedetection.state.CachingFileHasher;
 import org.gradle.api.internal.changedetection.state.CrossBuildFileHashCache;
 import org.gradle.api.internal.changedetection.state.DefaultResourceSnapshotterCacheService;
+import org.gradle.api.internal.changedetection.state.DirectorySnapshottingPool;
 import org.gradle.api.internal.changedetection.state.FileHasherStatistics;
 import org.gradle.api.internal.changedetection.state.GradleUserHomeScopeFileTimeStampInspector;
 import org.gradle.api.internal.changedetection.state.PropertiesFileFilter;
@@ -48,6 +49,7 @@
 import org.gradle.internal.buildoption.InternalOption;
 import org.gradle.internal.buildoption.InternalOptions;
 import org.gradle.internal.classloader.ClasspathHasher;
+import org.gradle.internal.concurrent.ExecutorFactory;
 import org.gradle.internal.event.ListenerManager;
 import org.gradle.internal.execution.FileCollectionFingerprinterRegistry;
 import org.gradle.internal.execution.FileCollectionSnapshotter;
@@ -69,6 +71,7 @@
 import org.gradle.internal.hash.DefaultFileHasher;
 import org.gradle.internal.hash.FileHasher;
 import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.hash.Hashing;
 import org.gradle.internal.hash.StreamHasher;
 import org.gradle.internal.nativeintegration.NativeCapabilities;
 import org.gradle.internal.nativeintegration.filesystem.FileSystem;
@@ -98,12 +101,15 @@
 import org.gradle.internal.watch.vfs.impl.DefaultWatchableFileSystemDetector;
 import org.gradle.internal.watch.vfs.impl.FileWatchingFilter;
 import org.gradle.internal.watch.vfs.impl.WatchingNotSupportedVirtualFileSystem;
+import org.gradle.internal.watch.vfs.impl.VirtualFileSystemStateStore;
 import org.gradle.internal.watch.vfs.impl.WatchingVirtualFileSystem;
 import org.jspecify.annotations.Nullable;
 
 import java.util.Optional;
 import java.util.function.Predicate;
 
+import static org.gradle.internal.operations.trace.ExecutionJfrEvents.recordFingerprinting;
+import static org.gradle.internal.operations.trace.ExecutionJfrEvents.recordLookups;
 import static org.gradle.internal.snapshot.CaseSensitivity.CASE_INSENSITIVE;
 import static org.gradle.internal.snapshot.CaseSensitivity.CASE_SENSITIVE;
 
@@ -116,6 +122,18 @@ public class VirtualFileSystemServices extends AbstractGradleModuleServices {
      */
     public static final InternalOption<Boolean> VFS_DROP_PROPERTY = InternalOptions.ofBoolean("org.gradle.internal.vfs.drop", false);
     public static final InternalOption<Integer> MAX_HIERARCHIES_TO_WATCH_PROPERTY = InternalOptions.ofInt("org.gradle.internal.vfs.watch.hierarchies.max", 50);
+    /**
+     * When set, the state of the virtual file system is persisted at the end of each build and restored by the next daemon that starts watching the file system.
+     *
+     * The virtual file system outlives build trees, so this is read from the daemon's system properties.
+     */
+    public static final String PERSIST_VFS_STATE_PROPERTY = "org.gradle.internal.vfs.persist";
+    /**
+     * When set, directory hierarchies are snapshotted by walking their sub-directories in parallel.
+     *
+     * File system access outlives build trees, so this is read from the daemon's system properties.
+     */
+    public static final String PARALLEL_SNAPSHOTTING_PROPERTY = "org.gradle.internal.vfs.parallel-snapshotting";
     private static final int FILE_HASHER_MEMORY_CACHE_SIZE = 300000;
 
     public static boolean isDropVfs(InternalOptions options) {
@@ -151,6 +169,11 @@ FileHasherStatistics.Collector createCachingFileHasherStatisticsCollector() {
         DirectorySnapshotterStatistics.Collector createDirectorySnapshotterStatisticsCollector() {
             return new DirectorySnapshotterStatistics.Collector();
         }
+
+        @Provides
+        DirectorySnapshottingPool createDirectorySnapshottingPool() {
+            return new DirectorySnapshottingPool(Boolean.getBoolean(PARALLEL_SNAPSHOTTING_PROPERTY), Runtime.getRuntime().availableProcessors());
+        }
     }
 
     @VisibleForTesting
@@ -209,10 +232,23 @@ BuildLifecycleAwareVirtualFileSystem createVirtualFileSystem(
             FileChangeListeners fileChangeListeners,
             NativeServices.FileEventFunctionsProvider fileEvents,
             FileSystem fileSystem,
-            WatchableFileSystemDetector watchableFileSystemDetector
+            WatchableFileSystemDetector watchableFileSystemDetector,
+            GlobalScopedCacheBuilderFactory cacheBuilderFactory,
+            FileMetadataAccessor fileMetadataAccessor,
+            StreamHasher streamHasher,
+            ExecutorFactory executorFactory
         ) {
             CaseSensitivity caseSensitivity = fileSystem.isCaseSensitive() ? CASE_SENSITIVE : CASE_INSENSITIVE;
             SnapshotHierarchy root = DefaultSnapshotHierarchy.empty(caseSensitivity);
+            @Nullable VirtualFileSystemStateStore stateStore = Boolean.getBoolean(PERSIST_VFS_STATE_PROPERTY)
+                ? new VirtualFileSystemStateStore(
+                    cacheBuilderFactory.baseDirForCache("vfs"),
+                    caseSensitivity,
+                    // Signatures are hashed with the default hash function, so this identifies both the hasher and its hash function
+                    Hashing.signature(streamHasher.getClass()),
+                    fileMetadataAccessor,
+                    executorFactory.create("VFS state writer", 1))
+                : null;
 
             BuildLifecycleAwareVirtualFileSystem virtualFileSystem = determineWatcherRegistryFactory(
                 OperatingSystem.current(),
@@ -225,7 +261,8 @@ BuildLifecycleAwareVirtualFileSystem createVirtualFileSystem(
                     sectionId -> documentationRegistry.getDocumentationRecommendationFor("details", "file_system_watching", sectionId),
                     fileWatchingFilter,
                     watchableFileSystemDetector,
-                    fileChangeListeners
+                    fileChangeListeners,
+                    stateStore
                 ))
                 .orElse(new WatchingNotSupportedVirtualFileSystem(root));
             listenerManager.addListener((BuildAddedListener) buildState -> {
@@ -245,15 +282,17 @@ FileSystemAccess createFileSystemAccess(
             StringInterner stringInterner,
             FileSystemAccess.WriteListener writeListener,
             DirectorySnapshotterStatistics.Collector statisticsCollector,
+            DirectorySnapshottingPool snapshottingPool,
             ListenerManager listenerManager
         ) {
             DefaultFileSystemAccess defaultFileSystemAccess = new DefaultFileSystemAccess(
                 hasher,
                 stringInterner,
                 stat,
-                virtualFileSystem,
+                recordLookups(virtualFileSystem),
                 writeListener,
                 statisticsCollector,
+                snapshottingPool.getPool(),
                 DirectoryScanner.getDefaultExcludes()
             );
             listenerManager.addListener(defaultFileSystemAccess);
@@ -352,7 +391,8 @@ FileSystemAccess createFileSystemAccess(
             FileSystemAccess.WriteListener writeListener,
             DirectorySnapshotterStatistics.Collector statisticsCollector,
             ProjectCacheDir projectCacheDir,
-            FileWatchingFilter fileWatchingFilter
+            FileWatchingFilter fileWatchingFilter,
+            DirectorySnapshottingPool snapshottingPool
         ) {
             fileWatchingFilter.addCurrentSessionImmutableLocation(projectCacheDir.getDir());
             listenerManager.addListener(new BuildSessionLifecycleListener() {
@@ -366,9 +406,10 @@ public void beforeComplete() {
                 hasher,
                 stringInterner,
                 stat,
-                root,
+                recordLookups(root),
                 writeListener,
                 statisticsCollector,
+                snapshottingPool.getPool(),
                 DirectoryScanner.getDefaultExcludes()
             );
 
@@ -404,7 +445,7 @@ FileCollectionFingerprinterRegistrations createFileCollectionFingerprinterRegist
 
         @Provides
         FileCollectionFingerprinterRegistry createFileCollectionFingerprinterRegistry(FileCollectionFingerprinterRegistrations fileCollectionFingerprinterRegistrations) {
-            return new DefaultFileCollectionFingerprinterRegistry(fileCollectionFingerprinterRegistrations.getRegistrants());
+            return recordFingerprinting(new DefaultFileCollectionFingerprinterRegistry(fileCollectionFingerprinterRegistrations.getRegistrants()));
         }
 
         @Provides
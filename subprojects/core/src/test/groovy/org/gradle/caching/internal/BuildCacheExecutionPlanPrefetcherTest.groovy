@@ -0,0 +1,165 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.caching.internal
+
+import com.google.common.collect.ImmutableSortedMap
+import org.gradle.api.internal.TaskInternal
+import org.gradle.caching.internal.controller.BuildCacheController
+import org.gradle.execution.plan.LocalTaskNode
+import org.gradle.execution.plan.Node
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import org.gradle.internal.execution.history.ExecutionHistoryStore
+import org.gradle.internal.execution.history.PreviousExecutionState
+import org.gradle.internal.file.FileType
+import org.gradle.internal.hash.TestHashCodes
+import org.gradle.internal.snapshot.FileSystemLocationSnapshot
+import org.gradle.internal.snapshot.FileSystemSnapshot
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+import java.util.stream.Stream
+
+class BuildCacheExecutionPlanPrefetcherTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider(getClass())
+
+    boolean buildCacheEnabled = true
+    def buildCacheController = Mock(BuildCacheController) {
+        isEnabled() >> { buildCacheEnabled }
+    }
+    def executionHistoryStore = Mock(ExecutionHistoryStore)
+    def executorFactory = new DefaultExecutorFactory()
+
+    def cleanup() {
+        executorFactory.stop()
+    }
+
+    def "prefetches previous cache key of tasks whose outputs are missing"() {
+        def prefetcher = prefetcher(10)
+        def missingOutput = tmpDir.file("missing")
+        def existingOutput = tmpDir.file("existing").createFile()
+        executionHistoryStore.load(":missing") >> Optional.of(previousExecution(1, missingOutput))
+        executionHistoryStore.load(":existing") >> Optional.of(previousExecution(2, existingOutput))
+        executionHistoryStore.load(":new") >> Optional.empty()
+
+        when:
+        prefetcher.planFinalized([taskNode(":missing"), taskNode(":existing"), taskNode(":new"), Stub(Node)])
+        prefetcher.close()
+
+        then:
+        1 * buildCacheController.prefetch([key(1)])
+    }
+
+    def "does not prefetch outputs of failed executions"() {
+        def prefetcher = prefetcher(10)
+        executionHistoryStore.load(":failed") >> Optional.of(previousExecution(1, tmpDir.file("missing"), false))
+
+        when:
+        prefetcher.planFinalized([taskNode(":failed")])
+        prefetcher.close()
+
+        then:
+        0 * buildCacheController.prefetch(_)
+    }
+
+    def "prefetches at most the configured number of entries"() {
+        def prefetcher = prefetcher(2)
+        executionHistoryStore.load(_ as String) >> { String path -> Optional.of(previousExecution(path.substring(1) as int, tmpDir.file("missing"))) }
+
+        when:
+        prefetcher.planFinalized([taskNode(":1"), taskNode(":2"), taskNode(":3")])
+        prefetcher.close()
+
+        then:
+        1 * buildCacheController.prefetch([key(1), key(2)])
+    }
+
+    def "discards prefetched entries when the plan completes"() {
+        def prefetcher = prefetcher(10)
+        executionHistoryStore.load(":missing") >> Optional.of(previousExecution(1, tmpDir.file("missing")))
+
+        when:
+        prefetcher.planFinalized([taskNode(":missing")])
+        prefetcher.planCompleted()
+        prefetcher.close()
+
+        then:
+        1 * buildCacheController.prefetch([key(1)])
+
+        then:
+        1 * buildCacheController.discardPrefetched([key(1)])
+    }
+
+    def "does not discard anything when nothing was prefetched"() {
+        def prefetcher = prefetcher(10)
+        executionHistoryStore.load(":new") >> Optional.empty()
+
+        when:
+        prefetcher.planFinalized([taskNode(":new")])
+        prefetcher.planCompleted()
+        prefetcher.close()
+
+        then:
+        0 * buildCacheController.discardPrefetched(_)
+    }
+
+    def "does nothing when the build cache is disabled"() {
+        def prefetcher = prefetcher(10)
+        buildCacheEnabled = false
+
+        when:
+        prefetcher.planFinalized([taskNode(":task")])
+        prefetcher.close()
+
+        then:
+        0 * executionHistoryStore._
+        0 * buildCacheController.prefetch(_)
+    }
+
+    private BuildCacheExecutionPlanPrefetcher prefetcher(int maxEntries) {
+        new BuildCacheExecutionPlanPrefetcher(buildCacheController, executionHistoryStore, executorFactory.create("prefetch", 1), maxEntries)
+    }
+
+    private LocalTaskNode taskNode(String path) {
+        def task = Stub(TaskInternal) {
+            getPath() >> path
+        }
+        Stub(LocalTaskNode) {
+            getTask() >> task
+        }
+    }
+
+    private PreviousExecutionState previousExecution(int cacheKey, File output, boolean successful = true) {
+        def outputRoot = Stub(FileSystemLocationSnapshot) {
+            getType() >> FileType.RegularFile
+            getAbsolutePath() >> output.absolutePath
+        }
+        def outputSnapshot = Stub(FileSystemSnapshot) {
+            roots() >> { Stream.of(outputRoot) }
+        }
+        Stub(PreviousExecutionState) {
+            isSuccessful() >> successful
+            getCacheKey() >> TestHashCodes.hashCodeFrom(cacheKey)
+            getOutputFilesProducedByWork() >> ImmutableSortedMap.of("output", outputSnapshot)
+        }
+    }
+
+    private static SimpleBuildCacheKey key(int cacheKey) {
+        new SimpleBuildCacheKey(TestHashCodes.hashCodeFrom(cacheKey))
+    }
+}
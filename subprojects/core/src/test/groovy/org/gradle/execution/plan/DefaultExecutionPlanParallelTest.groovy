@@ -1831,6 +1831,38 @@ class DefaultExecutionPlanParallelTest extends AbstractExecutionPlanSpec {
         assertAllWorkComplete()
     }
 
+    def "starts the longest chain of work first when execution times are known"() {
+        given:
+        def expectedTimes = [a: 10L, b: 10L, c: 100L]
+        def executionTimes = Stub(NodeExecutionTimes) {
+            getExpectedExecutionTime(_) >> { Node node -> node instanceof LocalTaskNode ? expectedTimes[node.task.name] : 0L }
+        }
+        def dependencyResolver = new TaskDependencyResolver([new TaskNodeDependencyResolver(taskNodeFactory)])
+        executionPlan = new DefaultExecutionPlan(Path.ROOT.toString(), taskNodeFactory, new OrdinalGroupFactory(), dependencyResolver, accessHierarchies.outputHierarchy, accessHierarchies.destroyableHierarchy, coordinator, ExecutionPlanPrefetcher.NONE, executionTimes)
+        Task a = task("a", type: Async)
+        Task b = task("b", type: Async)
+        Task c = task("c", type: Async, dependsOn: [b])
+
+        when:
+        addToGraphAndPopulate(a, c)
+        def first = selectNextTaskNode()
+        def second = selectNextTaskNode()
+
+        then:
+        first.task == b
+        first.criticalPathTime == 110
+        second.task == a
+        assertNoWorkReadyToStart()
+
+        when:
+        finishedExecuting(first)
+        finishedExecuting(second)
+
+        then:
+        assertTaskReadyAndNoMoreToStart(c)
+        assertAllWorkComplete()
+    }
+
     @Issue("https://github.com/gradle/gradle/issues/20508")
     def "stops executing nodes after failure when priority node has already executed"() {
         def node = priorityNode()
@@ -217,4 +217,143 @@ class DefaultPlanExecutorTest extends Specification {
         0 * workSource._
     }
 
+    def "selects the next item while holding the state lock taken to mark the previous item finished"() {
+        def nodes = [Mock(LocalTaskNode), Mock(LocalTaskNode), Mock(LocalTaskNode)]
+        def remaining = new ArrayDeque<LocalTaskNode>()
+        def executed = []
+        workerLeaseService.currentWorkerLease >> workerLease
+        workerLease.tryLock() >> true
+        workSource.executionState() >> { remaining.empty ? WorkSource.State.NoMoreWorkToStart : WorkSource.State.MaybeWorkReadyToStart }
+        workSource.selectNext() >> { WorkSource.Selection.of(remaining.poll()) }
+        workSource.allExecutionComplete() >> true
+        worker.execute(_) >> { arguments -> executed << arguments[0] }
+
+        when:
+        remaining.addAll(nodes)
+        def acquisitionsWithSelectOnFinish = stateLockAcquisitionsToProcess(true)
+
+        then:
+        executed == nodes
+
+        when:
+        executed.clear()
+        remaining.addAll(nodes)
+        def acquisitionsWithoutSelectOnFinish = stateLockAcquisitionsToProcess(false)
+
+        then:
+        executed == nodes
+        acquisitionsWithSelectOnFinish == acquisitionsWithoutSelectOnFinish - nodes.size()
+    }
+
+    def "releases the worker lease without waiting for work when no item can be selected on finish"() {
+        def first = Mock(LocalTaskNode)
+        def second = Mock(LocalTaskNode)
+        def executor = selectOnFinishExecutor()
+
+        when:
+        def result = executor.process(workSource, worker)
+
+        then:
+        result.failures.empty
+        1 * workerLeaseService.currentWorkerLease >> workerLease
+
+        then:
+        1 * cancellationHandler.isCancellationRequested() >> false
+        1 * workerLease.tryLock() >> true
+        1 * workSource.executionState() >> WorkSource.State.MaybeWorkReadyToStart
+        1 * workSource.selectNext() >> WorkSource.Selection.of(first)
+        1 * worker.execute(first)
+        1 * workSource.finishedExecuting(first, null)
+
+        then:
+        // Nothing is ready when the first item finishes
+        1 * cancellationHandler.isCancellationRequested() >> false
+        1 * workerLease.tryLock() >> true
+        // Once to select, and once more for the health check
+        2 * workSource.executionState() >> WorkSource.State.NoWorkReadyToStart
+        1 * workerLease.unlock() >> {
+            // The worker has not started waiting for work, so the health check passes without retrying
+            executor.assertHealthy()
+        }
+
+        then:
+        // The worker selects again without waiting for a state change
+        1 * cancellationHandler.isCancellationRequested() >> false
+        1 * workerLease.tryLock() >> true
+        1 * workSource.executionState() >> WorkSource.State.MaybeWorkReadyToStart
+        1 * workSource.selectNext() >> WorkSource.Selection.of(second)
+        1 * worker.execute(second)
+        1 * workSource.finishedExecuting(second, null)
+
+        then:
+        1 * cancellationHandler.isCancellationRequested() >> false
+        1 * workSource.executionState() >> WorkSource.State.NoMoreWorkToStart
+
+        then:
+        1 * workerLease.tryLock() >> true
+        3 * workSource.allExecutionComplete() >> true
+        1 * workSource.collectFailures([])
+        0 * workSource._
+    }
+
+    def "marks the item finished once and releases the worker lease when the next item cannot be selected on finish"() {
+        def first = Mock(LocalTaskNode)
+        def second = Mock(LocalTaskNode)
+        def executor = selectOnFinishExecutor()
+
+        when:
+        def result = executor.process(workSource, worker)
+
+        then:
+        result.failures.empty
+        1 * workerLeaseService.currentWorkerLease >> workerLease
+
+        then:
+        1 * cancellationHandler.isCancellationRequested() >> false
+        1 * workerLease.tryLock() >> true
+        1 * workSource.executionState() >> WorkSource.State.MaybeWorkReadyToStart
+        1 * workSource.selectNext() >> WorkSource.Selection.of(first)
+        1 * worker.execute(first)
+        1 * workSource.finishedExecuting(first, null)
+
+        then:
+        // Work may be ready, but the plan cannot select any of it
+        1 * cancellationHandler.isCancellationRequested() >> false
+        1 * workerLease.tryLock() >> true
+        1 * workSource.executionState() >> WorkSource.State.MaybeWorkReadyToStart
+        1 * workSource.selectNext() >> WorkSource.Selection.noWorkReadyToStart()
+        1 * workerLease.unlock()
+
+        then:
+        1 * cancellationHandler.isCancellationRequested() >> false
+        1 * workerLease.tryLock() >> true
+        1 * workSource.executionState() >> WorkSource.State.MaybeWorkReadyToStart
+        1 * workSource.selectNext() >> WorkSource.Selection.of(second)
+        1 * worker.execute(second)
+        1 * workSource.finishedExecuting(second, null)
+
+        then:
+        1 * cancellationHandler.isCancellationRequested() >> false
+        1 * workSource.executionState() >> WorkSource.State.NoMoreWorkToStart
+
+        then:
+        1 * workerLease.tryLock() >> true
+        3 * workSource.allExecutionComplete() >> true
+        1 * workSource.collectFailures([])
+        0 * workSource._
+    }
+
+    private DefaultPlanExecutor selectOnFinishExecutor() {
+        def internalOptions = new DefaultInternalOptions([(DefaultPlanExecutor.SELECT_ON_FINISH.propertyName): "true"])
+        return new DefaultPlanExecutor(new DefaultWorkerLimits(1), executorFactory, workerLeaseService, cancellationHandler, coordinationService, internalOptions)
+    }
+
+    private long stateLockAcquisitionsToProcess(boolean selectOnFinish) {
+        def coordinationService = new DefaultResourceLockCoordinationService()
+        def internalOptions = new DefaultInternalOptions([(DefaultPlanExecutor.SELECT_ON_FINISH.propertyName): selectOnFinish.toString()])
+        def executor = new DefaultPlanExecutor(new DefaultWorkerLimits(1), executorFactory, workerLeaseService, cancellationHandler, coordinationService, internalOptions)
+        def result = executor.process(workSource, worker)
+        assert result.failures.empty
+        return coordinationService.stateLockStatistics.acquisitions
+    }
 }
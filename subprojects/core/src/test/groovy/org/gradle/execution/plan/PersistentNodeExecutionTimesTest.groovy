@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.execution.plan
+
+import org.gradle.api.internal.TaskInternal
+import org.gradle.api.internal.tasks.TaskStateInternal
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.util.Path
+import org.junit.Rule
+import spock.lang.Specification
+
+class PersistentNodeExecutionTimesTest extends Specification {
+    @Rule
+    final TestNameTestDirectoryProvider temporaryFolder = TestNameTestDirectoryProvider.newInstance(getClass())
+
+    def file = temporaryFolder.file("executionTimes/execution-times.bin")
+
+    def "remembers execution times of tasks that did work between builds"() {
+        def compile = taskNode(":compile", true)
+        def upToDate = taskNode(":upToDate", false)
+        def times = new PersistentNodeExecutionTimes(file)
+
+        expect:
+        times.getExpectedExecutionTime(compile) == 0
+
+        when:
+        times.recordExecutionTime(compile, 1200)
+        times.recordExecutionTime(upToDate, 3)
+        times.close()
+        def reloaded = new PersistentNodeExecutionTimes(file)
+
+        then:
+        reloaded.getExpectedExecutionTime(compile) == 1200
+        reloaded.getExpectedExecutionTime(upToDate) == 0
+    }
+
+    def "does not track nodes other than tasks"() {
+        def node = Stub(Node)
+        def times = new PersistentNodeExecutionTimes(file)
+
+        when:
+        times.recordExecutionTime(node, 100)
+        times.close()
+
+        then:
+        times.getExpectedExecutionTime(node) == 0
+        !file.exists()
+    }
+
+    def "ignores a corrupt file"() {
+        file.parentFile.mkdirs()
+        file.text = "corrupt"
+
+        when:
+        def times = new PersistentNodeExecutionTimes(file)
+
+        then:
+        times.getExpectedExecutionTime(taskNode(":compile", true)) == 0
+    }
+
+    private LocalTaskNode taskNode(String path, boolean didWork) {
+        def state = Stub(TaskStateInternal) {
+            getDidWork() >> didWork
+        }
+        def task = Stub(TaskInternal) {
+            getIdentityPath() >> Path.path(path)
+            getState() >> state
+        }
+        return Stub(LocalTaskNode) {
+            getTask() >> task
+        }
+    }
+}
@@ -72,6 +72,7 @@ class HttpBuildCacheServer extends ExternalResource implements HttpServerFixture
         File file = new File(cacheDir, request.pathInfo)
         switch (request.method) {
             case 'GET':
+            case 'HEAD':
                 if (file.isFile()) {
                     response.setContentType("application/octet-stream")
                     response.sendFile(file)